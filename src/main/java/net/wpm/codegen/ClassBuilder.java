@@ -77,6 +77,7 @@ public class ClassBuilder<T> {
 	}
 
 	public static class AsmClassKey<T> {
+		private final String className;
 		private final Set<Class<?>> parentClasses;
 		private final Map<String, Class<?>> fields;
 		private final Map<String, Class<?>> staticFields;
@@ -85,6 +86,12 @@ public class ClassBuilder<T> {
 
 		public AsmClassKey(Set<Class<?>> parentClasses, Map<String, Class<?>> fields, Map<String, Class<?>> staticFields,
 		                   Map<Method, Expression> expressionMap, Map<Method, Expression> expressionStaticMap) {
+			this(null, parentClasses, fields, staticFields, expressionMap, expressionStaticMap);
+		}
+
+		public AsmClassKey(String className, Set<Class<?>> parentClasses, Map<String, Class<?>> fields, Map<String, Class<?>> staticFields,
+		                   Map<Method, Expression> expressionMap, Map<Method, Expression> expressionStaticMap) {
+			this.className = className;
 			this.parentClasses = parentClasses;
 			this.fields = fields;
 			this.staticFields = staticFields;
@@ -99,7 +106,8 @@ public class ClassBuilder<T> {
 		@Override
 		public String toString() {
 			return "AsmClassKey{" +
-					"parentClasses=" + parentClasses +
+					"className=" + className +
+					", parentClasses=" + parentClasses +
 					", fields=" + fields +
 					", staticFields=" + staticFields +					
 					", expressionMap=" + expressionMap +
@@ -112,7 +120,8 @@ public class ClassBuilder<T> {
 			if (this == o) return true;
 			if (o == null || getClass() != o.getClass()) return false;
 			AsmClassKey<?> that = (AsmClassKey<?>) o;
-			return  Objects.equals(parentClasses, that.parentClasses) &&
+			return  Objects.equals(className, that.className) &&
+					Objects.equals(parentClasses, that.parentClasses) &&
 					Objects.equals(fields, that.fields) &&
 					Objects.equals(staticFields, that.staticFields) &&					
 					Objects.equals(expressionMap, that.expressionMap) &&
@@ -121,7 +130,7 @@ public class ClassBuilder<T> {
 
 		@Override
 		public int hashCode() {
-			return Objects.hash(parentClasses, fields, expressionMap, expressionStaticMap);
+			return Objects.hash(className, parentClasses, fields, expressionMap, expressionStaticMap);
 		}
 	}
 
@@ -295,7 +304,7 @@ public class ClassBuilder<T> {
 
 	public Class<T> build(String className) {
 		synchronized (classLoader) {
-			AsmClassKey<T> key = new AsmClassKey<T>(scope.getParentClasses(), fields, staticFields, methods, staticMethods);
+			AsmClassKey<T> key = new AsmClassKey<T>(className, scope.getParentClasses(), fields, staticFields, methods, staticMethods);
 			Class<?> cachedClass = classLoader.getClassByKey(key);
 
 			if (cachedClass != null) {
@@ -307,6 +316,18 @@ public class ClassBuilder<T> {
 		}
 	}
 
+	/**
+	 * Returns the bytecode of the class without defining it
+	 *
+	 * @param className name of the class
+	 * @return content of a class file
+	 */
+	public byte[] buildBytecode(String className) {
+		synchronized (classLoader) {
+			return generateBytecode(className);
+		}
+	}
+
 	/**
 	 * Returns a new class which is created in a dynamic way
 	 *
@@ -314,8 +335,6 @@ public class ClassBuilder<T> {
 	 * @return completed class
 	 */
 	private Class<T> defineNewClass(AsmClassKey<T> key, String newClassName) {
-		DefiningClassWriter cw = new DefiningClassWriter(classLoader);
-
 		String className;
 		if (newClassName == null) {
 			className = DEFAULT_CLASS_NAME + COUNTER.incrementAndGet();
@@ -323,6 +342,38 @@ public class ClassBuilder<T> {
 			className = newClassName;
 		}
 
+		byte[] bytecode = generateBytecode(className);
+		if (bytecodeSaveDir != null) {
+			FileOutputStream fos = null;
+			try {
+				fos = new FileOutputStream(bytecodeSaveDir.resolve(className + ".class").toFile());
+				fos.write(bytecode);
+				fos.close();
+			} catch (IOException e) {
+				try {
+					if(fos != null)
+						fos.close();
+				} catch (IOException ioe) {
+					throw new RuntimeException(ioe);
+				}			
+				throw new RuntimeException(e);
+			}
+		}
+
+		Class<?> definedClass = classLoader.defineClass(className, key, bytecode);
+		logger.trace("Defined new {} for key {}", definedClass, key);
+		return (Class<T>) definedClass;
+	}
+
+	/**
+	 * Writes all fields and methods into a new class file
+	 *
+	 * @param className name of the class
+	 * @return content of a class file
+	 */
+	private byte[] generateBytecode(String className) {
+		DefiningClassWriter cw = new DefiningClassWriter(classLoader);
+
 		Type classType = getType('L' + className.replace('.', '/') + ';');
 
 		// contains all classes (abstract and interfaces)
@@ -411,28 +462,8 @@ public class ClassBuilder<T> {
 				throw new RuntimeException("Unable to implement "+m.getName()+m.getDescriptor(),e);
 			}
 		}
-		if (bytecodeSaveDir != null) {
-			FileOutputStream fos = null;
-			try {
-				fos = new FileOutputStream(bytecodeSaveDir.resolve(className + ".class").toFile());
-				fos.write(cw.toByteArray());
-				fos.close();
-			} catch (IOException e) {
-				try {
-					if(fos != null)
-						fos.close();
-				} catch (IOException ioe) {
-					throw new RuntimeException(ioe);
-				}			
-				throw new RuntimeException(e);
-			}
-		}
-
 		cw.visitEnd();
-
-		Class<?> definedClass = classLoader.defineClass(className, key, cw.toByteArray());
-		logger.trace("Defined new {} for key {}", definedClass, key);
-		return (Class<T>) definedClass;
+		return cw.toByteArray();
 	}
 
 	/**
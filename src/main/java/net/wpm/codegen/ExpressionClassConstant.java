@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2015 SoftIndex LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wpm.codegen;
+
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.GeneratorAdapter;
+
+import static org.objectweb.asm.Type.getType;
+
+/**
+ * Loads the class literal of a type, like Type.class in java source code
+ */
+public final class ExpressionClassConstant implements Expression {
+	private final Type value;
+
+	ExpressionClassConstant(Type value) {
+		this.value = value;
+	}
+
+	@Override
+	public Type type(Context ctx) {
+		return getType(Class.class);
+	}
+
+	@Override
+	public Type load(Context ctx) {
+		GeneratorAdapter g = ctx.getGeneratorAdapter();
+		g.push(value);
+		return getType(Class.class);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		ExpressionClassConstant that = (ExpressionClassConstant) o;
+
+		return value.equals(that.value);
+	}
+
+	@Override
+	public int hashCode() {
+		return value.hashCode();
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2015 SoftIndex LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wpm.codegen;
+
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.GeneratorAdapter;
+
+import static org.objectweb.asm.commons.Method.getMethod;
+
+/**
+ * Creates a new instance of the class which is currently built, 
+ * with its constructor without any arguments
+ */
+public final class ExpressionConstructorSelf implements Expression {
+
+	ExpressionConstructorSelf() {
+	}
+
+	@Override
+	public Type type(Context ctx) {
+		return ctx.getThisType();
+	}
+
+	@Override
+	public Type load(Context ctx) {
+		GeneratorAdapter g = ctx.getGeneratorAdapter();
+		Type type = ctx.getThisType();
+		g.newInstance(type);
+		g.dup();
+		g.invokeConstructor(type, getMethod("void <init> ()"));
+		return type;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return this == o || (o != null && getClass() == o.getClass());
+	}
+
+	@Override
+	public int hashCode() {
+		return ExpressionConstructorSelf.class.hashCode();
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2015 SoftIndex LLC.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.wpm.codegen;
+
+import org.objectweb.asm.Label;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.GeneratorAdapter;
+
+import net.wpm.codegen.Context;
+import net.wpm.codegen.Expression;
+import net.wpm.codegen.ExpressionInstanceOf;
+import net.wpm.codegen.PredicateDef;
+
+public class ExpressionInstanceOf implements PredicateDef {
+	private final Expression field;
+	private final Type type;
+
+	ExpressionInstanceOf(Expression field, Type type) {
+		this.field = field;
+		this.type = type;
+	}
+
+	@Override
+	public Type type(Context ctx) {
+		return Type.BOOLEAN_TYPE;
+	}
+
+	@Override
+	public Type load(Context ctx) {
+		GeneratorAdapter g = ctx.getGeneratorAdapter();
+
+		Label labelFalse = new Label();
+		Label labelExit = new Label();
+
+		field.load(ctx);
+		g.instanceOf(type);
+		g.ifZCmp(GeneratorAdapter.EQ, labelFalse);
+		g.push(true);
+		g.goTo(labelExit);
+
+		g.mark(labelFalse);
+		g.push(false);
+
+		g.mark(labelExit);
+
+		return Type.BOOLEAN_TYPE;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+
+		ExpressionInstanceOf that = (ExpressionInstanceOf) o;
+
+		if (field != null ? !field.equals(that.field) : that.field != null) return false;
+		return !(type != null ? !type.equals(that.type) : that.type != null);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = field != null ? field.hashCode() : 0;
+		result = 31 * result + (type != null ? type.hashCode() : 0);
+		return result;
+	}
+}
@@ -36,6 +36,7 @@ import net.wpm.codegen.ExpressionConstructor;
 import net.wpm.codegen.ExpressionFor;
 import net.wpm.codegen.ExpressionHash;
 import net.wpm.codegen.ExpressionIf;
+import net.wpm.codegen.ExpressionInstanceOf;
 import net.wpm.codegen.ExpressionIteratorForEach;
 import net.wpm.codegen.ExpressionLength;
 import net.wpm.codegen.ExpressionLet;
@@ -490,6 +491,25 @@ public final class Expressions {
 		return new ExpressionConstructor(type, fields);
 	}
 
+	/**
+	 * Returns the class literal of the type
+	 *
+	 * @param type class of the literal
+	 * @return new instance of the ExpressionClassConstant
+	 */
+	public static Expression classConstant(Class<?> type) {
+		return new ExpressionClassConstant(Type.getType(type));
+	}
+
+	/**
+	 * Returns new instance of the class which is built
+	 *
+	 * @return new instance of the ExpressionConstructorSelf
+	 */
+	public static Expression constructorSelf() {
+		return new ExpressionConstructorSelf();
+	}
+
 	/**
 	 * Calls method which defines static in the class
 	 *
@@ -538,6 +558,10 @@ public final class Expressions {
 		return new ExpressionCmpNotNull(field);
 	}
 
+	public static PredicateDef instanceOf(Expression field, Class<?> type) {
+		return new ExpressionInstanceOf(field, getType(type));
+	}
+
 	public static Expression nullRef(Class<?> type) {
 		return new ExpressionNull(type);
 	}
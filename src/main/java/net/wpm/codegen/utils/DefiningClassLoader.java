@@ -44,6 +44,17 @@ public class DefiningClassLoader extends ClassLoader implements DefiningClassLoa
 		return definedClass;
 	}
 
+	/**
+	 * Defines a class from previously generated bytecode, which is not reused by any class builder.
+	 *
+	 * @param name name of the class
+	 * @param b bytecode
+	 * @return defined class
+	 */
+	public Class<?> defineClass(String name, byte[] b) {
+		return defineClass(name, b, 0, b.length);
+	}
+
 	public Class<?> getClassByKey(AsmClassKey<?> key) {
 		return definedClasses.get(key);
 	}
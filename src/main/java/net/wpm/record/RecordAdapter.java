@@ -1,17 +1,27 @@
 package net.wpm.record;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import net.wpm.record.annotation.Align;
 import net.wpm.record.blueprint.BlueprintClass;
 import net.wpm.record.blueprint.BlueprintInspector;
+import net.wpm.record.blueprint.BlueprintVariable;
 import net.wpm.record.bytecode.RecordClassGenerator;
+import net.wpm.record.bytes.HandleTable;
+import net.wpm.record.bytes.MappedMemoryAdapter;
+import net.wpm.record.bytes.MemoryAccess;
+import net.wpm.record.bytes.MemoryArena;
+import net.wpm.record.bytes.NativeMemoryAccess;
 import net.wpm.record.bytes.UnsafeMemoryAdapter;
+import net.wpm.record.collection.RecordColumn;
 import net.wpm.record.collection.RecordSequence;
-import net.wpm.reflectasm.ClassAccess;
-import net.wpm.reflectasm.ConstructorAccess;
-import net.wpm.reflectasm.FieldAccess;
-import net.wpm.reflectasm.MethodAccess;
+import net.wpm.record.exception.InvalidBlueprintException;
+import net.wpm.record.exception.RecordClassException;
 
 /**
  * The RecordAdapter has access to all methods of the RecordView.
@@ -26,6 +36,9 @@ import net.wpm.reflectasm.MethodAccess;
 public final class RecordAdapter<B> {
 	
 	private static Logger log = LoggerFactory.getLogger(RecordAdapter.class);
+	
+	// makes the names of the record view classes unique
+	private static final AtomicInteger uniqueClassCounter = new AtomicInteger();
 
 	// id of the blueprint 
 	protected int blueprintId = 0;
@@ -33,17 +46,32 @@ public final class RecordAdapter<B> {
 	// blueprint defining the record structure
 	protected final Class<B> blueprint;	
 	
-	// record view class to access the data of a record
-	protected final Class<? extends RecordView> recordViewClass;	
-	protected final FieldAccess recordViewClassFieldAccess;
-	protected final MethodAccess recordViewClassMethodAccess;	
-	protected final ConstructorAccess<? extends RecordView> recordViewClassConstructorAccess;
+	// record view class to access the data of a record, bound to this adapter
+	protected Class<? extends RecordView> recordViewClass;	
+	
+	// instance of the record view class, its factory method creates all other views
+	protected RecordView prototype;
 	
 	// size in bytes for the data of a record
 	protected final int recordSize;
 	
+	// records start at a multiple of this address 
+	protected final int recordAlignment;
+	
 	// access to memory
-	protected final UnsafeMemoryAdapter memoryAccess; 
+	protected final MemoryAccess memoryAccess; 
+	
+	// bytes reserved by this adapter and not yet released
+	protected final LongAdder reservedBytes = new LongAdder();
+	
+	// java objects referenced by the records of this adapter
+	protected final HandleTable handleTable = new HandleTable();
+	
+	// offsets of the handles inside a record
+	protected final int[] handleOffsets;
+	
+	// names of the variables with column kernels, in the order of the kernels
+	protected final String[] columnNames;
 	
 	/**
 	 * Analyze the blueprint and constructs a record view class.
@@ -52,7 +80,33 @@ public final class RecordAdapter<B> {
 	 * @param blueprint
 	 */
 	public RecordAdapter(final Class<B> blueprint) {
-		this(blueprint, generateClass(blueprint));
+		this(blueprint, UnsafeMemoryAdapter.getInstance());
+	}
+	
+	/**
+	 * Analyze the blueprint and constructs a record view class.
+	 * The memory of the records is reserved with the given memory access.
+	 * 
+	 * costs ?C ?B ?A ?P 0M ?N
+	 * @param blueprint
+	 * @param memoryAccess
+	 */
+	public RecordAdapter(final Class<B> blueprint, final MemoryAccess memoryAccess) {
+		this(blueprint, memoryAccess, 0);
+	}
+	
+	/**
+	 * Analyze the blueprint and constructs a record view class for a blueprint id 
+	 * which is known in advance. The id becomes a constant of the record view class,
+	 * registering the adapter with the same id does not construct another class.
+	 * 
+	 * costs ?C ?B ?A ?P 0M ?N
+	 * @param blueprint
+	 * @param memoryAccess
+	 * @param blueprintId
+	 */
+	public RecordAdapter(final Class<B> blueprint, final MemoryAccess memoryAccess, final int blueprintId) {
+		this(blueprint, generateClass(blueprint, memoryAccess, blueprintId), memoryAccess, blueprintId);
 	}
 	
 	/**
@@ -63,38 +117,155 @@ public final class RecordAdapter<B> {
 	 * @param recordViewClass
 	 */
 	public RecordAdapter(final Class<B> blueprint, final Class<? extends RecordView> recordViewClass) {
+		this(blueprint, recordViewClass, UnsafeMemoryAdapter.getInstance());
+	}
+	
+	/**
+	 * The record view class needs implements all methods of the blueprint.
+	 * The memory of the records is reserved with the given memory access.
+	 * 
+	 * costs ?C ?B ?A ?P 0M ?N
+	 * @param blueprint
+	 * @param recordViewClass
+	 * @param memoryAccess
+	 */
+	public RecordAdapter(final Class<B> blueprint, final Class<? extends RecordView> recordViewClass, final MemoryAccess memoryAccess) {
+		this(blueprint, recordViewClass, memoryAccess, 0);
+	}
+	
+	/**
+	 * The record view class must not be initialized yet, it gets bound to this adapter.
+	 * 
+	 * costs ?C ?B ?A ?P 0M ?N
+	 * @param blueprint
+	 * @param recordViewClass
+	 * @param memoryAccess
+	 * @param blueprintId
+	 */
+	protected RecordAdapter(final Class<B> blueprint, final Class<? extends RecordView> recordViewClass, final MemoryAccess memoryAccess, final int blueprintId) {
 		this.blueprint = blueprint;
-		this.recordViewClass = recordViewClass;		
-
-		// get access to the fields, methods and constructor of the recordViewClass
-		ClassAccess classAccess = ClassAccess.get(recordViewClass);
-		recordViewClassFieldAccess = FieldAccess.get(classAccess);
-		recordViewClassMethodAccess = MethodAccess.get(classAccess);
-		recordViewClassConstructorAccess = ConstructorAccess.get(classAccess);
+		this.blueprintId = blueprintId;
+		
+		// the underlying memory
+		this.memoryAccess = memoryAccess;
+		final BlueprintClass blueprintClass = new BlueprintInspector(blueprint).getBlueprintClass();
+		checkPersistent(blueprintClass);
+		
+		// inform the recordView about the adapter and its buffer 
+		bind(recordViewClass);
 				
 		// size in bytes of a record
-		recordSize = (Integer) recordViewClassFieldAccess.get(null, "recordSize");
-			
-		// create the underlying byte buffer
-		memoryAccess = UnsafeMemoryAdapter.getInstance();
+		recordSize = prototype.getRecordSize();
 		
-		// inform the recordView about the adapter and its buffer 
-		recordViewClassFieldAccess.set(null, "recordAdapter", this);
-		recordViewClassFieldAccess.set(null, "memoryAccess", memoryAccess);
+		// aligned records have a size which is a multiple of their alignment
+		final Align align = blueprint.getAnnotation(Align.class);
+		recordAlignment = (align == null) ? 1 : Math.max(align.value(), Math.min(8, Integer.lowestOneBit(recordSize)));
+		
+		// handles of java objects need to be copied and released with the record
+		handleOffsets = blueprintClass.getHandleOffsets();
+		
+		// number variables which can be aggregated over a sequence
+		final List<BlueprintVariable> columns = RecordClassGenerator.columnVariables(blueprintClass);
+		columnNames = new String[columns.size()];
+		for (int i = 0; i < columnNames.length; i++)
+			columnNames[i] = columns.get(i).getName();
 	}	
 	
+	/**
+	 * Record ids of a memory mapped file are addresses of the current session and 
+	 * handles point into the handle table of the current session. Records stored 
+	 * in the file would contain garbage after reopening it.
+	 * 
+	 * @param blueprintClass
+	 * @throws IllegalArgumentException if a record of a mapped file contains references or java objects
+	 */
+	protected final void checkPersistent(final BlueprintClass blueprintClass) {
+		if((memoryAccess instanceof MappedMemoryAdapter) == false)
+			return;
+		
+		for (BlueprintVariable variable : blueprintClass.getVariables())
+			if(variable.isReference() || variable.isHandle())
+				throw new IllegalArgumentException("Records of "+blueprint.getName()+" can not be stored in a memory mapped file, the variable "+
+						variable.getName()+" holds a "+(variable.isReference() ? "reference" : "java object")+" which is only valid during the session.");
+	}
+	
+	/**
+	 * Initializes the record view class with this adapter and its memory access.
+	 * Both are static final fields of the class afterwards.
+	 * 
+	 * @param recordViewClass
+	 */
+	protected final void bind(final Class<? extends RecordView> recordViewClass) {
+		RecordClassGenerator.initialize(recordViewClass, this, memoryAccess);
+		this.recordViewClass = recordViewClass;		
+		this.prototype = newPrototype(recordViewClass);
+	}
+	
+	/**
+	 * The only instance of the record view class created with reflection,
+	 * all further record views come from its factory method.
+	 * 
+	 * @param recordViewClass
+	 * @return record view pointing no-where
+	 */
+	protected static final RecordView newPrototype(final Class<? extends RecordView> recordViewClass) {
+		try {
+			return recordViewClass.getConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new RecordClassException("Could not instantiate "+recordViewClass.getName(), e);
+		}
+	}
+	
 	/**
 	 * Constructs a new record view class implementing the blueprint methods 
-	 * and providing access to the data of a record.
+	 * and providing access to the data of a record stored in the given memory.
+	 * 
+	 * Every adapter gets its own record view class, whose blueprint id, adapter 
+	 * and memory access are static final fields. Record ids in native memory are 
+	 * absolute addresses and are accessed directly with Unsafe. Any other memory 
+	 * access (e.g. the HeapMemoryAdapter) is called by the view for every value.
+	 * 
+	 * A record view class generated at build time by the RecordClassPrecompiler 
+	 * is used instead of a new class, if its blueprint layout has not changed. 
+	 * Otherwise the class is defined from the RecordClassCache or added to it.
 	 * 
 	 * @param blueprint
+	 * @param memoryAccess
+	 * @param blueprintId
 	 * @return
 	 */
-	protected static final <B> Class<? extends RecordView> generateClass(final Class<B> blueprint) {	
+	protected static final <B> Class<? extends RecordView> generateClass(final Class<B> blueprint, final MemoryAccess memoryAccess, final int blueprintId) {
 		final BlueprintInspector inspector = new BlueprintInspector(blueprint);
 		final BlueprintClass blueprintClass = inspector.getBlueprintClass();
-		final RecordClassGenerator generator = new RecordClassGenerator(blueprintClass);
-		final Class<RecordView> recordViewClass = generator.construct();
+		
+		final boolean directAccess = memoryAccess instanceof NativeMemoryAccess;
+		if(directAccess == false) {
+			
+			// nested records are accessed with the adapter of their own blueprint
+			for (BlueprintVariable variable : blueprintClass.getVariables()) 
+				if(Records.blueprintId(variable.getInternalType()) > 0)
+					throw new InvalidBlueprintException("Nested record "+variable.getName()+" of "+blueprint.getName()+" is only supported in native memory.");
+		}
+		
+		// generated ahead of time and not yet bound to another adapter
+		if(RecordClassGenerator.isPrecompilable(blueprintClass)) {
+			final Class<RecordView> precompiledClass = RecordClassGenerator.findPrecompiled(blueprintClass, directAccess);
+			if(precompiledClass != null) {
+				log.trace("Found precompiled " + precompiledClass);
+				return precompiledClass;
+			}
+		}
+		
+		// the first class with this layout and these constants might be in the on-disk cache
+		final RecordClassGenerator generator = new RecordClassGenerator(blueprintClass, directAccess);
+		final Class<RecordView> cachedClass = generator.constructCached(blueprintId);
+		if(cachedClass != null) {
+			log.trace("Generated or loaded cached " + cachedClass);
+			return cachedClass;
+		}
+		
+		final String className = blueprint.getName() + memoryAccess.getClass().getSimpleName() + "RecordView" + uniqueClassCounter.incrementAndGet();
+		final Class<RecordView> recordViewClass = generator.construct(className, blueprintId);
 		log.trace("Generated " + recordViewClass);
 		return recordViewClass;
 	}
@@ -106,18 +277,126 @@ public final class RecordAdapter<B> {
 	 * @return
 	 */
 	protected final long nextId() {			
-		return memoryAccess.reserve(recordSize);
+		reservedBytes.add(recordSize);
+		return memoryAccess.reserve(recordSize, recordAlignment);
 	}	
 
 	/**
-	 * Create a new array
+	 * Release the memory of the record the view has created. The memory will 
+	 * be reused by the next record created with this adapter. The view points 
+	 * no-where afterwards, every other view of the record becomes invalid.
+	 * 
+	 * Only the view returned by create or copy can release its record. Views of 
+	 * records inside a sequence or an arena, other views of a record and views 
+	 * which already released their record are ignored.
+	 * 
+	 * costs 1C ?B ?A ?P 1M ?N
+	 * @param record
+	 * @return true if the record got released
+	 */
+	public final boolean release(final B record) {
+		final RecordView recordView = (RecordView) record;
+		final long recordId = recordView.getRecordId();
+		if(recordView.isOwner() == false || recordId == 0)
+			return false;
+		
+		recordView.setRecordId(0);
+		release(recordId);
+		return true;
+	}
+	
+	/**
+	 * Release the memory of a record. The memory will be reused 
+	 * by the next record created with this adapter. 
+	 * Every record view pointing to the record becomes invalid.
+	 * 
+	 * The record id must belong to a single record created by this adapter,
+	 * which has not been released yet. Use release(record) to let the view 
+	 * of the record check this.
+	 * 
+	 * costs 0C ?B ?A ?P 1M ?N
+	 * @param recordId
+	 * @throws IllegalArgumentException for the record id 0
+	 */
+	public final void release(final long recordId) {
+		if(recordId == 0)
+			throw new IllegalArgumentException("Record id 0 points no-where and can not be released");
+		
+		releaseHandles(recordId);
+		reservedBytes.add(-recordSize);
+		memoryAccess.release(recordId, recordSize);
+	}
+	
+	/**
+	 * Release the handles of the java objects stored in the record
+	 * 
+	 * costs 0C ?B 0A ?P 0M 0N
+	 * @param recordId
+	 */
+	protected final void releaseHandles(final long recordId) {
+		for (int offset : handleOffsets)
+			handleTable.release(memoryAccess.getLong(recordId + offset));
+	}
+	
+	/**
+	 * Replace the handles copied into the record with new handles 
+	 * of this adapter for the same java objects. 
+	 * 
+	 * costs 0C ?B 0A ?P 0M 0N
+	 * @param source handle table of the copied record
+	 * @param recordId of the copy
+	 */
+	protected final void copyHandles(final HandleTable source, final long recordId) {
+		for (int offset : handleOffsets) {
+			final long address = recordId + offset;
+			final long handle = memoryAccess.getLong(address);
+			memoryAccess.setLong(address, (source == handleTable) ? handleTable.duplicate(handle) : handleTable.store(source.get(handle)));
+		}
+	}
+
+	/**
+	 * Create a new array. The sequence can release the array again.
 	 * 
 	 * costs 0C ?B ?A ?P 1M 6N
 	 * @param count
 	 * @return RecordSequence containing the new array
 	 */
 	public final RecordSequence<B> array(int count) {
-		final long fromAddress =  memoryAccess.reserve(recordSize * count);				
+		reservedBytes.add(recordSize * count);
+		final long fromAddress =  memoryAccess.reserve(recordSize * count, recordAlignment);				
+		return new RecordSequence<B>(this, fromAddress, count, true);
+	}
+	
+	/**
+	 * Release the memory and the java objects of an array created by array(int).
+	 * Use RecordSequence.release() to let the sequence check this.
+	 * 
+	 * costs 0C ?B ?A ?P 1M ?N
+	 * @param fromAddress of the first record
+	 * @param count of records
+	 */
+	public final void releaseArray(final long fromAddress, final int count) {
+		if(handleOffsets.length > 0)
+			for (int i = 0; i < count; i++) 
+				releaseHandles(fromAddress + (long) i * recordSize);
+		reservedBytes.add(-recordSize * count);
+		memoryAccess.release(fromAddress, recordSize * count);
+	}
+	
+	/**
+	 * Create a new array inside the arena. The java objects 
+	 * of the records are released when the arena is closed.
+	 * 
+	 * costs 0C 1B 0A ?P 0M 1N
+	 * @param count
+	 * @param arena
+	 * @return RecordSequence containing the new array
+	 */
+	public final RecordSequence<B> array(final int count, final MemoryArena arena) {
+		checkArena(arena);
+		final long fromAddress = arena.reserve(recordSize * count, recordAlignment);
+		if(handleOffsets.length > 0)
+			arena.trackHandles(handleTable, handleOffsets, fromAddress, recordSize, count);
 		return new RecordSequence<B>(this, fromAddress, count);
 	}
 	
@@ -128,7 +407,7 @@ public final class RecordAdapter<B> {
 	 * @return RecordView
 	 */
 	public final RecordView newInstance() {
-		return recordViewClassConstructorAccess.newInstance();
+		return prototype.newRecordView();
 	}
 	
 	/**
@@ -140,10 +419,42 @@ public final class RecordAdapter<B> {
 	@SuppressWarnings("unchecked")
 	public final B create() {
 		final RecordView recordView = newInstance();
-		recordView.setRecordId(nextId());
+		recordView.setOwnRecordId(nextId());
 		return (B) recordView;
 	}
 	
+	/**
+	 * Create a new record view pointing to an empty record inside the arena.
+	 * The java objects of the record are released when the arena is closed.
+	 * 
+	 * costs 2C 1B 0A ?P 0M 1N
+	 * @param arena
+	 * @return Record extends RecordView
+	 */
+	@SuppressWarnings("unchecked")
+	public final B create(final MemoryArena arena) {
+		checkArena(arena);
+		final long recordId = arena.reserve(recordSize, recordAlignment);
+		if(handleOffsets.length > 0)
+			arena.trackHandles(handleTable, handleOffsets, recordId, recordSize, 1);
+		final RecordView recordView = newInstance();
+		recordView.setRecordId(recordId);
+		return (B) recordView;
+	}
+	
+	/**
+	 * Arenas hand out absolute addresses of native memory. Record views of 
+	 * any other memory access would read the wrong memory with them.
+	 * 
+	 * @param arena
+	 * @throws IllegalArgumentException if the memory access of the adapter is not native
+	 */
+	protected final void checkArena(final MemoryArena arena) {
+		if((memoryAccess instanceof NativeMemoryAccess) == false)
+			throw new IllegalArgumentException("Records of "+blueprint.getName()+" live in "+memoryAccess.getClass().getSimpleName()+
+					" and can not be created in an arena of native memory.");
+	}
+	
 	/**
 	 * Reuse a record view but point to an empty record.
 	 * 
@@ -151,7 +462,7 @@ public final class RecordAdapter<B> {
 	 * @return RecordView
 	 */
 	public final RecordView create(final RecordView reuse) {
-		reuse.setRecordId(nextId());
+		reuse.setOwnRecordId(nextId());
 		return reuse;
 	}
 
@@ -191,25 +502,67 @@ public final class RecordAdapter<B> {
 	public B copy(final B record) {
 		final long recordId = nextId();
 		final RecordView copy = newInstance();
-		copy.setRecordId(recordId);
+		copy.setOwnRecordId(recordId);
 		
 		final long fromId = ((RecordView)record).getRecordId();
 		memoryAccess.copy(fromId, recordId, recordSize);
+		copyHandles(handleTable, recordId);
 		
 		return (B)copy;
 	}
 	
 	/**
-	 * Copy the data of one record to another one
+	 * Copy the data of one record to another one, 
+	 * the adapter of the target record takes care of the copy.
 	 * 
-	 * costs 2C 0B 0A 0P 0M 0N
+	 * costs 3C 0B 0A 0P 0M 0N
 	 * @param from
 	 * @param to
 	 */
 	public void copy(final B from, final B to) {
-		final long fromId = ((RecordView)from).getRecordId();
-		final long toId = ((RecordView)to).getRecordId();
+		final RecordView toView = (RecordView)to;
+		toView.getRecordAdapter().copyFrom((RecordView)from, toView.getRecordId());
+	}
+	
+	/**
+	 * Copy the data of a record into the record with the given id, which belongs 
+	 * to this adapter. The java objects of the target get new handles, the old 
+	 * handles of the target are released.
+	 * 
+	 * costs 1C ?B 0A ?P 0M 0N
+	 * @param from
+	 * @param toId
+	 */
+	public void copyFrom(final RecordView from, final long toId) {
+		final long fromId = from.getRecordId();
+		if(handleOffsets.length == 0) {
+			memoryAccess.copy(fromId, toId, recordSize);
+			return;
+		}
+		
+		final RecordAdapter<?> source = from.getRecordAdapter();
+		if(source == this && fromId == toId)
+			return;
+		
+		releaseHandles(toId);
 		memoryAccess.copy(fromId, toId, recordSize);
+		copyHandles(source.handleTable, toId);
+	}
+	
+	/**
+	 * Column of a number variable, aggregates the variable over all records of a sequence.
+	 * The name is the suffix of the blueprint methods, e.g. "Price" for getPrice().
+	 * 
+	 * costs 2C 0B 0A 0P 0M 1N
+	 * @param variableName
+	 * @return RecordColumn
+	 * @throws IllegalArgumentException if the blueprint has no column with this name
+	 */
+	public RecordColumn<B> column(final String variableName) {
+		for (int i = 0; i < columnNames.length; i++)
+			if(columnNames[i].equals(variableName))
+				return new RecordColumn<B>(this, i, variableName);
+		throw new IllegalArgumentException(blueprint.getName()+" has no column "+variableName+", only single primitive numbers have one.");
 	}
 	
 	// -----------------------------------------------------------------------------------------
@@ -227,14 +580,16 @@ public final class RecordAdapter<B> {
 	}
 
 	/**
-	 * set the blueprint id used by the adapter 
+	 * Set the blueprint id used by the adapter. The blueprint id is a constant 
+	 * of the record view class, a new class gets constructed. Record views
+	 * created before still use the old blueprint id.
 	 * 
-	 * costs 0C ?B ?A 0P 0M 0N
+	 * costs ?C ?B ?A ?P 0M ?N
 	 * @param blueprintId
 	 */
 	public final void setBlueprintId(final int blueprintId) {
 		this.blueprintId = blueprintId;
-		recordViewClassFieldAccess.set(null, "blueprintId", blueprintId);
+		bind(generateClass(blueprint, memoryAccess, blueprintId));
 	}
 
 	public final Class<B> getBlueprint() {
@@ -242,17 +597,57 @@ public final class RecordAdapter<B> {
 	}
 
 	/**
+	 * Releases the entire memory of the adapter. If the memory is 
+	 * shared with other adapters their records get released as well.
+	 * 
 	 * costs 0C ?B ?A ?P 0M 1N
 	 */
 	public final void releaseAll() {
 		memoryAccess.releaseAll();
+		forgetRecords();
 	}
 
 	public final int getRecordSize() {
 		return recordSize;
 	}
 
+	public final int getRecordAlignment() {
+		return recordAlignment;
+	}
+
+	/**
+	 * Bytes reserved for records of this adapter and not yet released.
+	 * Records inside an arena are not included.
+	 * 
+	 * @return size in bytes
+	 */
+	public final long getReservedBytes() {
+		return reservedBytes.sum();
+	}
+	
+	/**
+	 * Forget all records and the amount of reserved bytes, 
+	 * after the memory of the adapter got released by somebody else.
+	 */
+	protected final void forgetRecords() {
+		reservedBytes.reset();
+		handleTable.clear();
+	}
+
 	public Class<? extends RecordView> getRecordClass() {
 		return recordViewClass;
 	}
+
+	public final MemoryAccess getMemoryAccess() {
+		return memoryAccess;
+	}
+	
+	/**
+	 * Java objects of the Object variables of the records
+	 * 
+	 * @return handle table
+	 */
+	public final HandleTable getHandleTable() {
+		return handleTable;
+	}
 }
\ No newline at end of file
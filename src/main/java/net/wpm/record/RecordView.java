@@ -1,10 +1,17 @@
 package net.wpm.record;
 
+import java.util.Objects;
+
 import net.wpm.record.bytes.MemoryAccess;
 
 /**
  * TODO if the the content of RecordView gets generated with bytecode Records could extend abstract classes, but performance might degenerate
- * TODO HashCode should be calculated with a fast hashing strategies
+ * 
+ * Record views implement equals() and hashCode() over the content of the record.
+ * Small records are compared and hashed with unrolled word reads in the generated 
+ * class, bigger ones with the content methods of this class.
+ * 
+ * Hashing strategies
  *  http://vanillajava.blogspot.de/2015/08/comparing-hashing-strategies.html
  *  http://vanillajava.blogspot.de/2015/09/an-introduction-to-optimising-hashing.html
  *  
@@ -12,6 +19,9 @@ import net.wpm.record.bytes.MemoryAccess;
  */
 public abstract class RecordView {
 	
+	// offsets of views without a record adapter
+	protected static final int[] NoHandles = new int[0];
+	
 	/**
 	 * Id of the blueprint
 	 * 
@@ -39,12 +49,99 @@ public abstract class RecordView {
 	 * @return record size in bytes
 	 */
 	public abstract int getRecordSize();	
+	
+	/**
+	 * Factory of the generated record view class, 
+	 * creates a new view of the same class pointing no-where.
+	 * 
+	 * @return new record view
+	 */
+	public abstract RecordView newRecordView();
+	
+	/**
+	 * Sum of a column over consecutive records. Column kernels read 
+	 * a variable of every record directly from the memory, the column 
+	 * is the index of the variable in RecordClassGenerator.columnVariables().
+	 * 
+	 * costs 0C 0B ?A 0P 0M 0N
+	 * @param column
+	 * @param fromAddress record id of the first record
+	 * @param count amount of records
+	 * @return sum
+	 */
+	public abstract double sumColumn(int column, long fromAddress, int count);
+	
+	/**
+	 * Sum of a column over consecutive records as long. Integral columns keep 
+	 * all digits, floating point columns are summed as double and truncated.
+	 * 
+	 * costs 0C 0B ?A 0P 0M 0N
+	 * @param column
+	 * @param fromAddress record id of the first record
+	 * @param count amount of records
+	 * @return sum
+	 */
+	public abstract long longSumColumn(int column, long fromAddress, int count);
+	
+	/**
+	 * Smallest value of a column over consecutive records
+	 * 
+	 * costs 0C 0B ?A 0P 0M 0N
+	 * @param column
+	 * @param fromAddress record id of the first record
+	 * @param count amount of records
+	 * @return minimum
+	 */
+	public abstract double minColumn(int column, long fromAddress, int count);
+	
+	/**
+	 * Biggest value of a column over consecutive records
+	 * 
+	 * costs 0C 0B ?A 0P 0M 0N
+	 * @param column
+	 * @param fromAddress record id of the first record
+	 * @param count amount of records
+	 * @return maximum
+	 */
+	public abstract double maxColumn(int column, long fromAddress, int count);
+	
+	/**
+	 * Amount of consecutive records with a column value between lower and upper (both inclusive)
+	 * 
+	 * costs 0C 0B ?A 0P 0M 0N
+	 * @param column
+	 * @param fromAddress record id of the first record
+	 * @param count amount of records
+	 * @param lower
+	 * @param upper
+	 * @return amount of records
+	 */
+	public abstract int countColumn(int column, long fromAddress, int count, double lower, double upper);
+	
+	/**
+	 * Adds the column values of consecutive records between lower (inclusive) and 
+	 * upper (exclusive) to the equally sized bins.
+	 * 
+	 * costs 0C 0B ?A 0P 0M 0N
+	 * @param column
+	 * @param fromAddress record id of the first record
+	 * @param count amount of records
+	 * @param lower
+	 * @param upper
+	 * @param bins
+	 */
+	public abstract void histogramColumn(int column, long fromAddress, int count, double lower, double upper, long[] bins);
 
 	/**
 	 * Native memory address of the record
 	 */
 	protected long address;
 	
+	/**
+	 * The view created the record and is the only one allowed to delete it
+	 */
+	protected boolean owner;
+	
 	/**
 	 * Get the record id pointing to a record
 	 * 
@@ -56,11 +153,33 @@ public abstract class RecordView {
 
 	/**
 	 * Set the record id pointing to some underlying data.
+	 * The view can not delete the record afterwards.
 	 * 
 	 * @param recordId
 	 */
 	public final void setRecordId(final long recordId) {
 		address = recordId;
+		owner = false;
+	}
+	
+	/**
+	 * Point to a new record created by the record adapter. 
+	 * Only this view can delete the record.
+	 * 
+	 * @param recordId
+	 */
+	final void setOwnRecordId(final long recordId) {
+		address = recordId;
+		owner = true;
+	}
+	
+	/**
+	 * Did the view create the record it points to
+	 * 
+	 * @return true if the view can delete the record
+	 */
+	final boolean isOwner() {
+		return owner;
 	}
 	
 	//------------------------------------------------------------------------------
@@ -73,4 +192,148 @@ public abstract class RecordView {
 	protected static RecordAdapter<?> recordAdapter(int blueprintId) {
 		return Records.getRecordAdapter(blueprintId);
 	}
+	
+	/**
+	 * Get the record adapter for the blueprint, registers the blueprint if necessary
+	 * 
+	 * @param blueprint
+	 * @return
+	 */
+	protected static RecordAdapter<?> recordAdapter(Class<?> blueprint) {
+		return Records.getRecordAdapter(Records.register(blueprint));
+	}
+	
+	/**
+	 * Compares the content of two records word by word. 
+	 * Java objects of the records are compared with their equals method.
+	 * 
+	 * costs 0C ?B ?A 0P 0M 0N
+	 * @param a
+	 * @param b
+	 * @return true if both records have the same size and content
+	 */
+	public static boolean contentEquals(final RecordView a, final RecordView b) {
+		final int size = a.getRecordSize();
+		if(size != b.getRecordSize())
+			return false;
+		
+		final MemoryAccess memoryA = a.getMemoryAccess();
+		final MemoryAccess memoryB = b.getMemoryAccess();
+		final long addressA = a.getRecordId();
+		final long addressB = b.getRecordId();
+		
+		int from = 0;
+		for (int offset : handleOffsets(a)) {
+			if(regionEquals(memoryA, addressA, memoryB, addressB, from, offset) == false)
+				return false;
+			if(Objects.equals(handleObject(a, offset), handleObject(b, offset)) == false)
+				return false;
+			from = offset + 8;
+		}
+		return regionEquals(memoryA, addressA, memoryB, addressB, from, size);
+	}
+	
+	/**
+	 * Compares the bytes between two offsets of two records word by word.
+	 * 
+	 * costs 0C ?B ?A 0P 0M 0N
+	 * @return true if the content is the same
+	 */
+	protected static boolean regionEquals(final MemoryAccess memoryA, final long addressA, final MemoryAccess memoryB, final long addressB, final int from, final int to) {
+		int i = from;
+		for (; i + 8 <= to; i += 8)
+			if(memoryA.getLong(addressA + i) != memoryB.getLong(addressB + i))
+				return false;
+		for (; i < to; i++)
+			if(memoryA.getByte(addressA + i) != memoryB.getByte(addressB + i))
+				return false;
+		return true;
+	}
+	
+	/**
+	 * Hash code over the content of a record, computed word by word.
+	 * Java objects of the record contribute their own hash code.
+	 * 
+	 * costs 0C ?B ?A 0P 0M 0N
+	 * @param view
+	 * @return hash code
+	 */
+	public static int contentHashCode(final RecordView view) {
+		final int size = view.getRecordSize();
+		final MemoryAccess memory = view.getMemoryAccess();
+		final long address = view.getRecordId();
+		
+		int hash = 0;
+		int from = 0;
+		for (int offset : handleOffsets(view)) {
+			hash = regionHashCode(hash, memory, address, from, offset);
+			hash = 31 * hash + Objects.hashCode(handleObject(view, offset));
+			from = offset + 8;
+		}
+		return regionHashCode(hash, memory, address, from, size);
+	}
+	
+	/**
+	 * Continues the hash code over the bytes between two offsets of a record.
+	 * 
+	 * costs 0C ?B ?A 0P 0M 0N
+	 * @return hash code
+	 */
+	protected static int regionHashCode(int hash, final MemoryAccess memory, final long address, final int from, final int to) {
+		int i = from;
+		for (; i + 8 <= to; i += 8) {
+			final long word = memory.getLong(address + i);
+			hash = 31 * hash + (int)(word ^ (word >>> 32));
+		}
+		for (; i < to; i++)
+			hash = 31 * hash + memory.getByte(address + i);
+		return hash;
+	}
+	
+	/**
+	 * Offsets of the handles inside the record of the view.
+	 * Views without a record adapter have none.
+	 * 
+	 * @param view
+	 * @return offsets in bytes
+	 */
+	protected static int[] handleOffsets(final RecordView view) {
+		final RecordAdapter<?> adapter = view.getRecordAdapter();
+		return (adapter == null) ? NoHandles : adapter.handleOffsets;
+	}
+	
+	/**
+	 * Java object of the handle at the offset inside the record of the view.
+	 * 
+	 * @param view
+	 * @param offset in bytes
+	 * @return java object or null
+	 */
+	protected static Object handleObject(final RecordView view, final int offset) {
+		final long handle = view.getMemoryAccess().getLong(view.getRecordId() + offset);
+		return view.getRecordAdapter().getHandleTable().get(handle);
+	}
+	
+	/**
+	 * Compares the content of two records byte by byte as unsigned values.
+	 * 
+	 * costs 0C ?B ?A 0P 0M 0N
+	 * @param a
+	 * @param b
+	 * @return a negative number, zero or a positive number if a is less, equal or greater than b
+	 */
+	public static int contentCompare(final RecordView a, final RecordView b) {
+		final MemoryAccess memoryA = a.getMemoryAccess();
+		final MemoryAccess memoryB = b.getMemoryAccess();
+		final long addressA = a.getRecordId();
+		final long addressB = b.getRecordId();
+		
+		final int size = Math.min(a.getRecordSize(), b.getRecordSize());
+		for (int i = 0; i < size; i++) {
+			final int cmp = Integer.compare(memoryA.getByte(addressA + i) & 0xFF, memoryB.getByte(addressB + i) & 0xFF);
+			if(cmp != 0)
+				return cmp;
+		}
+		return Integer.compare(a.getRecordSize(), b.getRecordSize());
+	}
 }
@@ -6,6 +6,8 @@ import java.util.List;
 import com.koloboke.collect.map.hash.HashIntIntMap;
 import com.koloboke.collect.map.hash.HashIntIntMaps;
 
+import net.wpm.record.bytes.MemoryAccess;
+import net.wpm.record.bytes.MemoryArena;
 import net.wpm.record.bytes.UnsafeMemoryAdapter;
 import net.wpm.record.collection.RecordSequence;
 
@@ -127,14 +129,30 @@ public class Records {
 		
 		// try to register the blueprint
 		if(adapter.getBlueprintId() == 0) {
-			final int newBlueprintId = recordAdapters.size();
-			adapter.setBlueprintId(newBlueprintId);
-			blueprintHashcodeToId.put(adapter.getBlueprint().hashCode(), newBlueprintId);
-			recordAdapters.add(adapter);
+			add(adapter);
 		}
 		return adapter.getBlueprintId();
 	}
 	
+	/**
+	 * Add an adapter whose blueprint id should be the next free id.
+	 * If nested blueprints got registered in the meantime the adapter
+	 * gets a new id.
+	 * 
+	 * costs 0C ?B ?A 0P 1M 0N
+	 * @param adapter
+	 * @return blueprintId
+	 */
+	protected static final <B> int add(final RecordAdapter<B> adapter) {
+		if(adapter.getBlueprintId() != recordAdapters.size())
+			adapter.setBlueprintId(recordAdapters.size());
+		
+		final int blueprintId = adapter.getBlueprintId();
+		blueprintHashcodeToId.put(adapter.getBlueprint().hashCode(), blueprintId);
+		recordAdapters.add(adapter);
+		return blueprintId;
+	}
+	
 	/**
 	 * Register a blueprint. Returns its blueprint id.
 	 * 
@@ -147,7 +165,28 @@ public class Records {
 		
 		// register if not registered yet
 		if(blueprintId == 0)
-			blueprintId = register(new RecordAdapter<B>(blueprint));
+			blueprintId = register(blueprint, UnsafeMemoryAdapter.getInstance());
+		
+		return blueprintId;
+	}
+
+	/**
+	 * Register a blueprint whose records are stored in the given memory, 
+	 * e.g. its own memory pool created with new UnsafeMemoryAdapter().
+	 * If the blueprint has already been registered the memory is not changed.
+	 * 
+	 * costs ?C ?B ?A ?P 2M ?N
+	 * @param blueprint
+	 * @param memoryAccess
+	 * @return blueprintId
+	 */
+	public static final <B> int register(final Class<B> blueprint, final MemoryAccess memoryAccess) {
+		int blueprintId = blueprintId(blueprint);
+		
+		// register if not registered yet
+		// the id is known before the record view class gets constructed
+		if(blueprintId == 0)
+			blueprintId = add(new RecordAdapter<B>(blueprint, memoryAccess, recordAdapters.size()));
 		
 		return blueprintId;
 	}
@@ -216,6 +255,35 @@ public class Records {
 		return create(adapter);
 	}
 
+	/**
+	 * Create a record for a registered blueprint inside an arena.
+	 * The record gets released when the arena is closed.
+	 * 
+	 * costs 2C ?B ?A ?P 1M 1N
+	 * @param blueprint
+	 * @param arena
+	 * @return Record extends RecordView
+	 * @throws NullPointerException if blueprint is not registered or null
+	 */
+	public static final <B> B create(final Class<B> blueprint, final MemoryArena arena) {
+		return create(blueprintId(blueprint), arena);
+	}
+	
+	/**
+	 * Create a record for a registered blueprint id inside an arena.
+	 * The record gets released when the arena is closed.
+	 * 
+	 * costs 2C ?B ?A ?P 0M 1N
+	 * @param blueprintId
+	 * @param arena
+	 * @return Record extends RecordView
+	 * @throws NullPointerException if blueprint is not registered
+	 */
+	public static final <B> B create(final int blueprintId, final MemoryArena arena) {
+		RecordAdapter<B> adapter = getRecordAdapter(blueprintId);
+		return adapter.create(arena);
+	}
+
 	/**
 	 * Reuse a record view but point to an empty new record. 
 	 * Faster then creating a new record view and does not waste additional memory. 
@@ -394,34 +462,80 @@ public class Records {
 		return ((RecordView) record).getBlueprintId();
 	}
 	
-//	/**
-//	 * Removes all records of a blueprint
-//	 * 
-//	 * costs 0C ?B ?A ?P 0M 1N
-//	 * @param blueprintId
-//	 */
-//	public static final void deleteAll(final int blueprintId) {
-//		getRecordAdapter(blueprintId).releaseAll();
-//	}
-//	
-//	/**
-//	 * Removes all records of a blueprint
-//	 * 
-//	 * costs 0C ?B ?A ?P 1M 1N
-//	 * @param blueprint
-//	 */
-//	public static final <B> void deleteAll(final Class<B> blueprint) {
-//		deleteAll(blueprintId(blueprint));
-//	}
+	/**
+	 * Deletes a single record and releases its memory for reuse. 
+	 * The record view points no-where afterwards. All other record 
+	 * views pointing to the same record become invalid.
+	 * 
+	 * Only the view returned by create or copy can delete its record. Deleting 
+	 * a record twice, through another view of the record or with a view pointing 
+	 * no-where does nothing. Records inside a sequence or an arena can not be 
+	 * deleted individually, their views are not changed.
+	 * 
+	 * costs 3C ?B ?A ?P 1M ?N
+	 * @param record
+	 * @return true if the record got deleted
+	 */
+	@SuppressWarnings("unchecked")
+	public static final <B> boolean delete(final B record) {
+		return ((RecordAdapter<B>) ((RecordView) record).getRecordAdapter()).release(record);
+	}
+	
+	/**
+	 * Removes all records of a blueprint. 
+	 * 
+	 * Blueprints registered with their own memory pool only release 
+	 * their own pool, records of other blueprints stay valid. Blueprints 
+	 * using the shared pool release it entirely, which makes the records 
+	 * of all other blueprints in the shared pool useless as well.
+	 * 
+	 * costs 0C ?B ?A ?P 0M 1N
+	 * @param blueprintId
+	 */
+	public static final void deleteAll(final int blueprintId) {
+		final RecordAdapter adapter = getRecordAdapter(blueprintId);
+		if(adapter.getMemoryAccess() == UnsafeMemoryAdapter.getInstance())
+			deleteAll();
+		else
+			adapter.releaseAll();
+	}
 	
 	/**
-	 * Deletes all records ever created by Records. 
-	 * Makes every existing record view or record id useless.
+	 * Removes all records of a blueprint. Does nothing 
+	 * if the blueprint has not been registered.
 	 * 
+	 * costs 0C ?B ?A ?P 1M 1N
+	 * @see #deleteAll(int)
 	 * @param blueprint
 	 */
 	public static final <B> void deleteAll(final Class<B> blueprint) {
-		UnsafeMemoryAdapter.getInstance().releaseAll();
+		final int blueprintId = blueprintId(blueprint);
+		if(blueprintId != 0)
+			deleteAll(blueprintId);
+	}
+	
+	/**
+	 * Deletes all records in the shared memory pool. 
+	 * Makes every record view or record id of those records useless.
+	 * Blueprints with their own memory pool are not affected.
+	 */
+	public static final void deleteAll() {
+		final UnsafeMemoryAdapter memory = UnsafeMemoryAdapter.getInstance();
+		memory.releaseAll();
+		for (RecordAdapter adapter : recordAdapters) 
+			if(adapter != null && adapter.getMemoryAccess() == memory) {
+				adapter.forgetRecords();
+			}
+	}
+
+	/**
+	 * Creates a new arena. Records created inside the arena are released 
+	 * all at once when the arena is closed. 
+	 * 
+	 * @return MemoryArena
+	 */
+	public static final MemoryArena arena() {
+		return new MemoryArena();
 	}
 
 	/**
@@ -448,4 +562,35 @@ public class Records {
 		RecordAdapter<B> adapter = getRecordAdapter(blueprintId);
 		return array(adapter, count);
 	}
+	
+	/**
+	 * Creates multiple records inside an arena and makes them accessible via a RecordSequence.
+	 * The records get released when the arena is closed.
+	 * 
+	 * costs 1C ?B ?A ?P 1M 1N
+	 * @param blueprint
+	 * @param count
+	 * @param arena
+	 * @return RecordSequence containing the array
+	 * @throws NullPointerException if blueprint is not registered or null
+	 */
+	public static final <B> RecordSequence<B> array(final Class<B> blueprint, final int count, final MemoryArena arena) {
+		return array(blueprintId(blueprint), count, arena);
+	}
+
+	/**
+	 * Creates multiple records inside an arena and makes them accessible via a RecordSequence.
+	 * The records get released when the arena is closed.
+	 * 
+	 * costs 0C ?B ?A ?P 0M 1N
+	 * @param blueprintId
+	 * @param count
+	 * @param arena
+	 * @return RecordSequence containing the array
+	 * @throws NullPointerException if blueprint is not registered
+	 */
+	public static final <B> RecordSequence<B> array(final int blueprintId, final int count, final MemoryArena arena) {
+		RecordAdapter<B> adapter = getRecordAdapter(blueprintId);
+		return adapter.array(count, arena);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package net.wpm.record;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import net.wpm.record.bytes.LatencyHistogram;
+import net.wpm.record.bytes.UnsafeMemoryAdapter;
+
+/**
+ * Numbers about the memory of all registered blueprints and the shared 
+ * UnsafeMemoryAdapter. Register it at the platform MBean server with
+ * RecordsStatistics.register() to watch them with any JMX console.
+ * 
+ * Latencies are in nanoseconds and only measured if latency tracking is enabled.
+ * 
+ * @author Nico Hezel
+ */
+@SuppressWarnings("rawtypes")
+public class RecordsStatistics implements RecordsStatisticsMBean {
+
+	public static final String MBeanName = "net.wpm.record:type=Records";
+	
+	protected static final double[] Percentiles = { 50, 90, 99, 99.9, 100 };
+	protected static final String[] PercentileNames = { "p50", "p90", "p99", "p99.9", "max" };
+	
+	protected static final RecordsStatistics instance = new RecordsStatistics();
+	public static RecordsStatistics getInstance() {
+		return instance;
+	}
+	
+	/**
+	 * Register the statistics at the platform MBean server, 
+	 * does nothing if they are already registered.
+	 * 
+	 * @return name of the MBean
+	 */
+	public static ObjectName register() {
+		try {
+			final ObjectName name = new ObjectName(MBeanName);
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if(server.isRegistered(name) == false)
+				server.registerMBean(instance, name);
+			return name;
+		} catch (JMException e) {
+			throw new RuntimeException("Could not register the records statistics MBean.", e);
+		}
+	}
+	
+	protected final UnsafeMemoryAdapter memory = UnsafeMemoryAdapter.getInstance();
+	
+	protected RecordsStatistics() {
+	}
+	
+	@Override
+	public long getReservedBytes() {
+		long sum = 0;
+		for (RecordAdapter adapter : Records.recordAdapters) 
+			if(adapter != null)
+				sum += adapter.getReservedBytes();
+		return sum;
+	}
+
+	@Override
+	public Map<String, Long> getReservedBytesByBlueprint() {
+		final Map<String, Long> result = new LinkedHashMap<String, Long>();
+		for (RecordAdapter adapter : Records.recordAdapters) 
+			if(adapter != null)
+				result.put(adapter.getBlueprint().getName(), adapter.getReservedBytes());
+		return result;
+	}
+
+	@Override
+	public long getAllocatedBytes() {
+		return memory.allocatedBytes();
+	}
+
+	@Override
+	public int getBlockCount() {
+		return memory.blockCount();
+	}
+
+	@Override
+	public long getFreeListLength() {
+		return memory.freeCount();
+	}
+
+	@Override
+	public long getWastedBytes() {
+		return memory.wastedBytes();
+	}
+
+	@Override
+	public boolean isLatencyTracking() {
+		return memory.getReserveLatency() != null;
+	}
+
+	@Override
+	public void setLatencyTracking(boolean enable) {
+		if(enable != isLatencyTracking())
+			memory.setLatencyTracking(enable);
+	}
+
+	@Override
+	public Map<String, Long> getReserveLatencyPercentiles() {
+		final Map<String, Long> result = new LinkedHashMap<String, Long>();
+		final LatencyHistogram latency = memory.getReserveLatency();
+		if(latency != null)
+			for (int i = 0; i < Percentiles.length; i++) 
+				result.put(PercentileNames[i], latency.percentile(Percentiles[i]));
+		return result;
+	}
+
+	@Override
+	public void resetReserveLatency() {
+		final LatencyHistogram latency = memory.getReserveLatency();
+		if(latency != null)
+			latency.reset();
+	}
+}
@@ -0,0 +1,32 @@
+package net.wpm.record;
+
+import java.util.Map;
+
+/**
+ * Management interface reporting the native memory held by Records
+ * and the health of the allocator.
+ * 
+ * @author Nico Hezel
+ */
+public interface RecordsStatisticsMBean {
+	
+	long getReservedBytes();
+	
+	Map<String, Long> getReservedBytesByBlueprint();
+	
+	long getAllocatedBytes();
+	
+	int getBlockCount();
+	
+	long getFreeListLength();
+	
+	long getWastedBytes();
+	
+	boolean isLatencyTracking();
+	
+	void setLatencyTracking(boolean enable);
+	
+	Map<String, Long> getReserveLatencyPercentiles();
+	
+	void resetReserveLatency();
+}
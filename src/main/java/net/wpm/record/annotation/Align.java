@@ -0,0 +1,22 @@
+package net.wpm.record.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lay out the variables of a record largest first at naturally aligned offsets 
+ * and pad the record size to the alignment. The records start at addresses which 
+ * are a multiple of the alignment, @Align(64) puts every record of a sequence 
+ * on its own cache line.
+ * 
+ * @author Nico Hezel
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE) //on class level
+public @interface Align {
+	
+	// alignment of the records in bytes, a power of two. 0 uses the biggest alignment of the variables.
+	public int value() default 0;
+}
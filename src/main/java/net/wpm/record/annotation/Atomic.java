@@ -0,0 +1,23 @@
+package net.wpm.record.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Implements the method as an atomic or ordered access of an int or long variable.
+ * The method name decides about the operation: compareAndSetX, getAndAddX, getXVolatile
+ * or setXOrdered. Without the annotation these names are regular record methods,
+ * e.g. getXVolatile reads a variable named XVolatile.
+ *
+ * The blueprint needs an aligned layout (@Align), the hardware only guarantees
+ * atomicity for variables at naturally aligned addresses.
+ *
+ * @author Nico Hezel
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Atomic {
+
+}
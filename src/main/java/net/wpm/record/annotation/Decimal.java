@@ -6,9 +6,12 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * A real number.
+ * A real number. Float and double variables can be stored with a different 
+ * precision than their data type, the values are converted when read or written.
  * 
- * TODO: support half precision
+ * Half uses 2 bytes (IEEE 754 binary16) with about 3 significant digits.
+ * Fixed stores the value multiplied by 10^scale as a rounded long in 8 bytes, 
+ * which keeps decimal amounts like prices exact up to the scale.
  * 
  * @author Nico Hezel
  */
@@ -17,7 +20,10 @@ import java.lang.annotation.Target;
 public @interface Decimal {
 	
 	// https://en.wikipedia.org/wiki/IEEE_floating_point#IEEE_754-2008
-	public static enum Precision { Single, Double };
+	public static enum Precision { Half, Single, Double, Fixed };
 	
 	public Precision precision() default Precision.Single;	
+	
+	// decimal places of the fixed-point precision
+	public int scale() default 2;
 }
@@ -6,7 +6,8 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * A signed or unsigned integer.
+ * A signed or unsigned integer. Enums store their ordinal 
+ * in the bits and ignore the signedness.
  * 
  * @author Nico
  */
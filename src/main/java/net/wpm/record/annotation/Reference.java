@@ -0,0 +1,21 @@
+package net.wpm.record.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Stores the record id of another record instead of copying its content.
+ * The getter returns a record view pointing to the referenced record or 
+ * null if there is no reference. Referenced records of another blueprint 
+ * belong to the registered record adapter of this blueprint, references
+ * to the own blueprint to the adapter of the referencing record.
+ * 
+ * @author Nico Hezel
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Reference {
+
+}
@@ -1,7 +1,9 @@
 package net.wpm.record.blueprint;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -16,6 +18,9 @@ public class BlueprintClass {
 	// use a custom to string method
 	protected boolean customToString = false;
 	
+	// alignment of the records, -1 packs the variables without any padding
+	protected int alignment = -1;
+	
 	public BlueprintClass(Class<?> blueprint) {
 		this.blueprint = blueprint;
 		this.variables = new HashMap<String, BlueprintVariable>();
@@ -33,6 +38,50 @@ public class BlueprintClass {
 	public boolean isCustomToString() {
 		return customToString;
 	}
+	
+	/**
+	 * Align the variables to their natural boundaries and the record to the given 
+	 * alignment. 0 aligns the record to the biggest alignment of its variables.
+	 * 
+	 * @param alignment in bytes
+	 */
+	public void setAlignment(int alignment) {
+		this.alignment = alignment;
+	}
+	
+	public boolean isAligned() {
+		return alignment >= 0;
+	}
+	
+	/**
+	 * Alignment of the records in bytes. 
+	 * Returns 1 if the variables are packed without any padding.
+	 * 
+	 * @return alignment in bytes
+	 */
+	public int getAlignment() {
+		if(isAligned() == false)
+			return 1;
+		
+		int max = alignment;
+		for (BlueprintVariable var : variables.values()) 
+			max = Math.max(max, naturalAlignment(var));
+		return max;
+	}
+	
+	/**
+	 * Natural alignment of a variable, the biggest power of two 
+	 * up to 8 which divides the size of its elements.
+	 * 
+	 * @param variable
+	 * @return alignment in bytes
+	 */
+	protected static int naturalAlignment(BlueprintVariable variable) {
+		final int elementSize = variable.getElementSizeInBytes();
+		if(elementSize <= 0)
+			return 1;
+		return Math.min(8, Integer.lowestOneBit(elementSize));
+	}
 
 	
 	
@@ -54,6 +103,12 @@ public class BlueprintClass {
 		return variable;
 	}
 	
+	public BlueprintVariable createReference(String variableName, Class<?> type) {
+		BlueprintVariable variable = BlueprintVariable.reference(blueprint, variableName, type);
+		variables.put(variableName, variable);
+		return variable;
+	}
+	
 	public BlueprintMethod getMethod(String methodSignature) {
 		return methods.get(methodSignature);
 	}
@@ -69,36 +124,217 @@ public class BlueprintClass {
 
 	public int getSizeInBytes() {
 		int sum = 0;
-		for (BlueprintVariable var : variables.values()) 		
-			sum += var.getSizeInBytes();
+		for (List<BlueprintVariable> unit : layoutUnits()) 		
+			sum += unit.get(0).getSizeInBytes();
+		
+		// padding after the last variable
+		if(isAligned()) {
+			final int alignment = getAlignment();
+			sum = (sum + alignment - 1) & -alignment;
+		}
 		return sum;
 	}
 	
+	/**
+	 * Offsets of all handles inside a record, one for every element of an object array.
+	 * Sorted in ascending order.
+	 * 
+	 * @return offsets in bytes
+	 */
+	public int[] getHandleOffsets() {
+		int count = 0;
+		for (BlueprintVariable variable : getVariables())
+			if(variable.isHandle())
+				count += variable.getElementCount();
+		
+		final int[] offsets = new int[count];
+		int i = 0;
+		for (BlueprintVariable variable : getVariables())
+			if(variable.isHandle())
+				for (int e = 0; e < variable.getElementCount(); e++)
+					offsets[i++] = variable.getOffset() + e * variable.getElementSizeInBytes();
+		Arrays.sort(offsets);
+		return offsets;
+	}
+	
+	/**
+	 * Fingerprint of the record layout and the methods of the blueprint. 
+	 * Offsets and sizes of all variables as well as the storage options 
+	 * are part of it. The hash does not change between two runs as long 
+	 * as the blueprint stays the same.
+	 * 
+	 * @return 64bit FNV-1a hash
+	 */
+	public long layoutHash() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(blueprint.getName()).append(';');
+		sb.append(getSizeInBytes()).append(';').append(getAlignment()).append(';');
+		sb.append(customToString).append(';').append(Comparable.class.isAssignableFrom(blueprint)).append(';');
+		
+		final List<BlueprintVariable> sortedVariables = new ArrayList<BlueprintVariable>(variables.values());
+		sortedVariables.sort(new Comparator<BlueprintVariable>() {
+			@Override
+			public int compare(BlueprintVariable o1, BlueprintVariable o2) {
+				return o1.getName().compareTo(o2.getName());
+			}
+		});
+		for (BlueprintVariable var : sortedVariables) {
+			sb.append(var.getName()).append(':');
+			sb.append(var.getExternalType().getName()).append(':').append(var.getInternalType().getName()).append(':');
+			sb.append(var.getOffset()).append(':').append(var.getSizeInBytes()).append(':');
+			sb.append(var.isArray()).append(':').append(var.getElementCount()).append(':');
+			sb.append(var.getBitCount()).append(':').append(var.getBitOffset()).append(':').append(var.isSigned()).append(':');
+			sb.append(var.isUTF8()).append(':').append(var.getPrecision()).append(':').append(var.getScale()).append(';');
+		}
+		
+		final List<String> signatures = new ArrayList<String>();
+		for (BlueprintMethod method : methods.values())
+			signatures.add(method.getSignature() + ":" + method.getActionType());
+		Collections.sort(signatures);
+		for (String signature : signatures)
+			sb.append(signature).append(';');
+		
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < sb.length(); i++) {
+			hash ^= sb.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+	
 	/**
 	 * Adjust the offset of the variables.
 	 */
 	public void adjustVariableOffset() {
+		if(isAligned())
+			adjustAlignedVariableOffset();
+		else
+			adjustPackedVariableOffset();
+	}
+	
+	/**
+	 * Put the variables with the biggest alignment first. Every following 
+	 * variable has a smaller or equal alignment and starts at a naturally 
+	 * aligned offset without any padding in between.
+	 */
+	protected void adjustAlignedVariableOffset() {
+		
+		// compare variables by their alignment and size, biggest first
+		Comparator<List<BlueprintVariable>> cmp = new Comparator<List<BlueprintVariable>>() {			
+			@Override
+			public int compare(List<BlueprintVariable> u1, List<BlueprintVariable> u2) {
+				final BlueprintVariable o1 = u1.get(0), o2 = u2.get(0);
+				int cmp = Integer.compare(naturalAlignment(o2), naturalAlignment(o1));
+				if(cmp == 0)
+					cmp = Integer.compare(o2.getSizeInBytes(), o1.getSizeInBytes());
+				if(cmp == 0)
+					cmp = o1.getName().compareTo(o2.getName());
+				return cmp;
+			}
+		};
+		
+		List<List<BlueprintVariable>> units = layoutUnits();
+		units.sort(cmp);
+		
+		int offset = 0;
+		for (List<BlueprintVariable> unit : units) {
+			final int alignment = naturalAlignment(unit.get(0));
+			offset = (offset + alignment - 1) & -alignment;
+			for (BlueprintVariable var : unit)
+				var.setOffset(offset);
+			offset += unit.get(0).getSizeInBytes();
+		}
+	}
+	
+	/**
+	 * Pack the variables ordered by their size without any padding.
+	 */
+	protected void adjustPackedVariableOffset() {
 		
 		// compare variables by their size of bytes
-		Comparator<BlueprintVariable> cmp = new Comparator<BlueprintVariable>() {			
+		Comparator<List<BlueprintVariable>> cmp = new Comparator<List<BlueprintVariable>>() {			
 			@Override
-			public int compare(BlueprintVariable o1, BlueprintVariable o2) {
+			public int compare(List<BlueprintVariable> u1, List<BlueprintVariable> u2) {
+				final BlueprintVariable o1 = u1.get(0), o2 = u2.get(0);
 				int cmp = Integer.compare(o1.getSizeInBytes(), o2.getSizeInBytes());
 				if(cmp == 0)
-					cmp = Integer.compare(o1.hashCode(), o2.hashCode());
+					cmp = o1.getName().compareTo(o2.getName());
 				return cmp;
 			}
 		};
 		
 		// sort the variables by their size of bytes
-		List<BlueprintVariable> vars = new ArrayList<BlueprintVariable>(variables.values());
-		vars.sort(cmp);
+		List<List<BlueprintVariable>> units = layoutUnits();
+		units.sort(cmp);
 		
 		// change the offset of the variables
 		int offset = 0;
-		for (BlueprintVariable var : vars) {			
-			var.setOffset(offset);
-			offset += var.getSizeInBytes();
+		for (List<BlueprintVariable> unit : units) {			
+			for (BlueprintVariable var : unit)
+				var.setOffset(offset);
+			offset += unit.get(0).getSizeInBytes();
+		}
+	}
+	
+	/**
+	 * Every regular variable occupies its own region of the record, 
+	 * bit fields share a word with other bit fields. 
+	 * 
+	 * @return variables sharing the same region of memory
+	 */
+	protected List<List<BlueprintVariable>> layoutUnits() {
+		final List<List<BlueprintVariable>> units = new ArrayList<List<BlueprintVariable>>();
+		final List<BlueprintVariable> bitFields = new ArrayList<BlueprintVariable>();
+		for (BlueprintVariable var : variables.values()) {
+			if(var.isBitField())
+				bitFields.add(var);
+			else
+				units.add(Collections.singletonList(var));
+		}
+		units.addAll(packBitFields(bitFields));
+		return units;
+	}
+	
+	/**
+	 * Distribute the bit fields first-fit over as few 64 bit words as possible, 
+	 * widest fields first. Every word is shrunk to the smallest primitive 
+	 * size which holds all of its bits.
+	 * 
+	 * @param bitFields
+	 * @return bit fields grouped by their word
+	 */
+	protected static List<List<BlueprintVariable>> packBitFields(List<BlueprintVariable> bitFields) {
+		bitFields.sort(new Comparator<BlueprintVariable>() {
+			@Override
+			public int compare(BlueprintVariable o1, BlueprintVariable o2) {
+				int cmp = Integer.compare(o2.getBitCount(), o1.getBitCount());
+				if(cmp == 0)
+					cmp = o1.getName().compareTo(o2.getName());
+				return cmp;
+			}
+		});
+		
+		final List<List<BlueprintVariable>> words = new ArrayList<List<BlueprintVariable>>();
+		final int[] usedBits = new int[bitFields.size()];
+		for (BlueprintVariable var : bitFields) {
+			int word = 0;
+			while(word < words.size() && usedBits[word] + var.getBitCount() > Long.SIZE)
+				word++;
+			if(word == words.size())
+				words.add(new ArrayList<BlueprintVariable>());
+			words.get(word).add(var);
+			usedBits[word] += var.getBitCount();
+		}
+		
+		for (int i = 0; i < words.size(); i++) {
+			final int usedBytes = (usedBits[i] + 7) / 8;
+			final int wordSize = Integer.highestOneBit(usedBytes * 2 - 1);		// next power of two
+			int bitOffset = 0;
+			for (BlueprintVariable var : words.get(i)) {
+				var.setWord(wordSize, bitOffset);
+				bitOffset += var.getBitCount();
+			}
 		}
+		return words;
 	}
-}
\ No newline at end of file
+}
@@ -1,19 +1,28 @@
 package net.wpm.record.blueprint;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import net.wpm.record.RecordView;
+import net.wpm.record.annotation.Align;
 import net.wpm.record.annotation.Array;
+import net.wpm.record.annotation.Atomic;
+import net.wpm.record.annotation.Decimal;
+import net.wpm.record.annotation.Integer.Signedness;
+import net.wpm.record.annotation.Reference;
+import net.wpm.record.annotation.Text;
+import net.wpm.record.collection.EnumSequence;
+import net.wpm.record.collection.PrimitiveSequence;
 import net.wpm.record.collection.RecordSequence;
+import net.wpm.record.collection.TextSequence;
 import net.wpm.record.exception.InvalidBlueprintException;
-import net.wpm.reflectasm.ClassAccess;
-import net.wpm.reflectasm.ConstructorAccess;
-import net.wpm.reflectasm.FieldAccess;
-import net.wpm.reflectasm.MethodAccess;
 import sun.reflect.generics.reflectiveObjects.ParameterizedTypeImpl;
 
 /**
@@ -34,8 +43,9 @@ public class BlueprintInspector {
 	protected static final Set<String> occupiedMethods = new HashSet<String>();
 
 	static {		
-		for(String methodName : ClassAccess.get(RecordView.class).getMethodNames()) {
-			occupiedMethods.add(methodName);
+		for(Method method : RecordView.class.getDeclaredMethods()) {
+			if(Modifier.isPrivate(method.getModifiers()) == false)
+				occupiedMethods.add(method.getName());
 		}
 	}
 	
@@ -43,21 +53,19 @@ public class BlueprintInspector {
 	
 	protected final BlueprintClass blueprintClass;
 	
-	// access to different class informations of the blueprint
-	protected final ClassAccess classAccess;
-	protected final FieldAccess fieldAccess;
-	protected final MethodAccess methodAccess;	
-	protected final ConstructorAccess<?> constructorAccess;	
+	// all non private methods of the blueprint and its super interfaces
+	protected final Method[] methods;	
+	
+	// names of the variables annotated as references
+	protected final Set<String> referenceVariables;
 	
 	public BlueprintInspector(final Class<?> blueprint) {
 		
         if(!blueprint.isInterface())
         	throw new InvalidBlueprintException(blueprint.getName()+" must be an interface in order to be used as a record.");
 		
-		this.classAccess = ClassAccess.get(blueprint);
-		this.fieldAccess = FieldAccess.get(classAccess);
-		this.methodAccess = MethodAccess.get(classAccess);
-		this.constructorAccess = ConstructorAccess.get(classAccess);
+		this.methods = collectMethods(blueprint);
+		this.referenceVariables = collectReferences(methods);
 		
 		// all blueprint specific informations
 		this.blueprintClass = analyseBlueprint(blueprint);
@@ -67,6 +75,51 @@ public class BlueprintInspector {
 		return blueprintClass;
 	}
 	
+	/**
+	 * All non private methods of the interface and its super interfaces
+	 * 
+	 * @param blueprint
+	 * @return methods
+	 */
+	protected static Method[] collectMethods(final Class<?> blueprint) {
+		final List<Method> methods = new ArrayList<Method>();
+		collectMethods(blueprint, methods);
+		return methods.toArray(new Method[methods.size()]);
+	}
+	
+	protected static void collectMethods(final Class<?> interfaceType, final List<Method> methods) {
+		for (Method method : interfaceType.getDeclaredMethods())
+			if(Modifier.isPrivate(method.getModifiers()) == false)
+				methods.add(method);
+		for (Class<?> nextInterface : interfaceType.getInterfaces())
+			collectMethods(nextInterface, methods);
+	}
+	
+	/**
+	 * Names of the variables whose get or set methods have a reference annotation.
+	 * They are known before any variable gets created, a reference to a blueprint 
+	 * must not register it like a nested record.
+	 * 
+	 * @param methods
+	 * @return variable names
+	 */
+	protected static Set<String> collectReferences(final Method[] methods) {
+		final Set<String> names = new HashSet<String>();
+		for (Method method : methods) {
+			if(method.getAnnotation(Reference.class) == null)
+				continue;
+			
+			final String methodName = method.getName();
+			if(methodName.startsWith("get") == false && methodName.startsWith("set") == false)
+				throw new InvalidBlueprintException("Reference annotation of method "+methodName+" requires a get or set method.");
+			String variableName = methodName.substring(3);
+			if(variableName.endsWith("At"))
+				variableName = variableName.substring(0, variableName.length() - 2);
+			names.add(variableName);
+		}
+		return names;
+	}
+	
 	/**
 	 * Analyse the entire blueprint
 	 * 
@@ -79,8 +132,15 @@ public class BlueprintInspector {
 		analyseBlueprintClass(blueprintClass);
 		analyseBlueprintVariables(blueprintClass);
 		analyseBlueprintMethods(blueprintClass);
+		analyseBitFields(blueprintClass);
+		analyseTextFields(blueprintClass);
+		analyseDecimalFields(blueprintClass);
+		analyseSequenceMethods(blueprintClass);
+		analyseReferenceFields(blueprintClass);
+		analyseObjectFields(blueprintClass);
 		
 		blueprintClass.adjustVariableOffset();
+		analyseAtomicAlignment(blueprintClass);
 		return blueprintClass;
 	}
 
@@ -92,8 +152,17 @@ public class BlueprintInspector {
 		// TODO check annotations of class
 		
 		// only protected and public classes are allowed
-		if(Modifier.isPrivate(classAccess.getModifiers()))
+		if(Modifier.isPrivate(blueprintClass.getBlueprint().getModifiers()))
 			throw new InvalidBlueprintException("Cannot implement private "+blueprintClass.getBlueprint()+".");
+		
+		// aligned record layout
+		final Align align = blueprintClass.getBlueprint().getAnnotation(Align.class);
+		if(align != null) {
+			final int alignment = align.value();
+			if(alignment < 0 || Integer.bitCount(alignment) > 1)
+				throw new InvalidBlueprintException("Alignment of "+blueprintClass.getBlueprint()+" must be a power of two but was "+alignment+".");
+			blueprintClass.setAlignment(alignment);
+		}
 
 	}
 	
@@ -103,8 +172,8 @@ public class BlueprintInspector {
 	 */
 	protected void analyseBlueprintVariables(final BlueprintClass blueprintClass) {
 		// only static fields are allowed	
-		for (int i = 0; i < fieldAccess.getFieldCount(); i++) 
-			if(Modifier.isStatic(fieldAccess.getFieldModifiers()[i]) == false)
+		for (Field field : blueprintClass.getBlueprint().getDeclaredFields()) 
+			if(Modifier.isStatic(field.getModifiers()) == false)
 				throw new InvalidBlueprintException("Only static fields are allowed in blueprint "+blueprintClass.getBlueprint());
 
 		
@@ -118,10 +187,14 @@ public class BlueprintInspector {
 	protected void analyseBlueprintMethods(final BlueprintClass blueprintClass) {
 		
 		// find all declared methods in the blueprint
-		for (int methodIndex = 0; methodIndex < methodAccess.size(); methodIndex++) {
+		for (int methodIndex = 0; methodIndex < methods.length; methodIndex++) {
 			String methodName = getMethodName(methodIndex);
 			
-			if(methodName.startsWith("get") && methodName.endsWith("At"))
+			// atomic and ordered access needs to be requested explicitly
+			if(methods[methodIndex].getAnnotation(Atomic.class) != null)
+				analyseAtomicMethod(methodIndex, blueprintClass);
+			
+			else if(methodName.startsWith("get") && methodName.endsWith("At"))
 				analyseGetAtMethod(methodIndex, blueprintClass);
 			else if(methodName.startsWith("get") && methodName.endsWith("Size"))
 				analyseGetSizeMethod(methodIndex, blueprintClass);
@@ -159,6 +232,160 @@ public class BlueprintInspector {
 		}		
 	}
 	
+	/**
+	 * The name of a method with an atomic annotation decides about the operation.
+	 * 
+	 * @param methodIndex
+	 * @param blueprintClass
+	 */
+	protected void analyseAtomicMethod(int methodIndex, BlueprintClass blueprintClass) {
+		String methodName = getMethodName(methodIndex);
+		
+		if(methodName.startsWith("compareAndSet"))
+			analyseCompareAndSetMethod(methodIndex, blueprintClass);
+		else if(methodName.startsWith("getAndAdd"))
+			analyseGetAndAddMethod(methodIndex, blueprintClass);
+		else if(methodName.startsWith("get") && methodName.endsWith("Volatile"))
+			analyseGetVolatileMethod(methodIndex, blueprintClass);
+		else if(methodName.startsWith("set") && methodName.endsWith("Ordered"))
+			analyseSetOrderedMethod(methodIndex, blueprintClass);
+		else
+			throw new InvalidBlueprintException("Atomic annotation of method "+methodName+" requires a compareAndSet, getAndAdd, get..Volatile or set..Ordered method.");
+	}
+	
+	/**
+	 * Atomic and ordered methods need naturally aligned variables in records 
+	 * starting at aligned addresses. Packed layouts might split a variable 
+	 * over two cache lines.
+	 * 
+	 * @param blueprintClass
+	 */
+	protected void analyseAtomicAlignment(final BlueprintClass blueprintClass) {
+		for (BlueprintMethod method : blueprintClass.getMethods()) {
+			final BlueprintMethod.ActionType type = method.getActionType();
+			if(type != BlueprintMethod.ActionType.CompareAndSet && type != BlueprintMethod.ActionType.GetAndAdd && 
+			   type != BlueprintMethod.ActionType.GetValueVolatile && type != BlueprintMethod.ActionType.SetValueOrdered)
+				continue;
+			
+			if(blueprintClass.isAligned() == false)
+				throw new InvalidBlueprintException("Atomic method "+method.getName()+" requires an aligned layout, annotate "+blueprintClass.getBlueprint()+" with @Align.");
+			
+			final BlueprintVariable variable = method.getVariable();
+			if(variable.getOffset() % variable.getSizeInBytes() != 0)
+				throw new InvalidBlueprintException("Atomic method "+method.getName()+" requires a naturally aligned variable, but "+variable.getName()+" starts at offset "+variable.getOffset()+".");
+		}
+	}
+	
+	/**
+	 * Check if this is a valid compare-and-set method. 
+	 * Only int and long variables can be changed atomically.
+	 * 
+	 * @param methodIndex
+	 * @param blueprintClass
+	 */
+	protected void analyseCompareAndSetMethod(int methodIndex, BlueprintClass blueprintClass) {
+		String methodName = getMethodName(methodIndex);
+		
+		try {
+			notOccupied(methodName);
+			ensureAbstract(methodIndex, methodName);
+			hasParameters(methodIndex, methodName, Object.class, Object.class);
+			atomicType(methodIndex, methodName, getMethodParameterTypes(methodIndex)[0]);
+			hasParameters(methodIndex, methodName, getMethodParameterTypes(methodIndex)[0], getMethodParameterTypes(methodIndex)[0]);
+			returns(methodIndex, methodName, boolean.class);
+		} catch (Exception e) {
+			throw new InvalidBlueprintException("Unable to declare "+methodName+" as a compare-and-set method.", e);
+		}
+		
+		// add unknown variables to the variable map
+		String variableName = methodName.substring(13);
+		BlueprintVariable variable = underlyingVariable(blueprintClass, methodIndex, variableName, getMethodParameterTypes(methodIndex)[0]);
+
+		// defines a valid compare-and-set method contained in the blueprint
+		blueprintClass.addMethod(new BlueprintMethod(blueprintClass.getBlueprint(), methodName, BlueprintMethod.ActionType.CompareAndSet, variable));
+	}
+	
+	/**
+	 * Check if this is a valid get-and-add method. 
+	 * Only int and long variables can be changed atomically.
+	 * 
+	 * @param methodIndex
+	 * @param blueprintClass
+	 */
+	protected void analyseGetAndAddMethod(int methodIndex, BlueprintClass blueprintClass) {
+		String methodName = getMethodName(methodIndex);
+		
+		try {
+			notOccupied(methodName);
+			ensureAbstract(methodIndex, methodName);
+			hasParameters(methodIndex, methodName, Object.class);
+			atomicType(methodIndex, methodName, getMethodParameterTypes(methodIndex)[0]);
+			returns(methodIndex, methodName, getMethodParameterTypes(methodIndex)[0]);
+		} catch (Exception e) {
+			throw new InvalidBlueprintException("Unable to declare "+methodName+" as a get-and-add method.", e);
+		}
+		
+		// add unknown variables to the variable map
+		String variableName = methodName.substring(9);
+		BlueprintVariable variable = underlyingVariable(blueprintClass, methodIndex, variableName, getMethodParameterTypes(methodIndex)[0]);
+
+		// defines a valid get-and-add method contained in the blueprint
+		blueprintClass.addMethod(new BlueprintMethod(blueprintClass.getBlueprint(), methodName, BlueprintMethod.ActionType.GetAndAdd, variable));
+	}
+	
+	/**
+	 * Check if this is a valid volatile getter method. 
+	 * 
+	 * @param methodIndex
+	 * @param blueprintClass
+	 */
+	protected void analyseGetVolatileMethod(int methodIndex, BlueprintClass blueprintClass) {
+		String methodName = getMethodName(methodIndex);
+		
+		try {
+			notOccupied(methodName);
+			ensureAbstract(methodIndex, methodName);
+			hasNoParameter(methodIndex, methodName);
+			atomicType(methodIndex, methodName, getMethodReturnType(methodIndex));
+		} catch (Exception e) {
+			throw new InvalidBlueprintException("Unable to declare "+methodName+" as a volatile getter method.", e);
+		}
+		
+		// add unknown variables to the variable map
+		String variableName = methodName.substring(3, methodName.length() - 8);
+		BlueprintVariable variable = underlyingVariable(blueprintClass, methodIndex, variableName, getMethodReturnType(methodIndex));
+
+		// defines a valid volatile get-method contained in the blueprint
+		blueprintClass.addMethod(new BlueprintMethod(blueprintClass.getBlueprint(), methodName, BlueprintMethod.ActionType.GetValueVolatile, variable));
+	}
+	
+	/**
+	 * Check if this is a valid ordered setter method. 
+	 * 
+	 * @param methodIndex
+	 * @param blueprintClass
+	 */
+	protected void analyseSetOrderedMethod(int methodIndex, BlueprintClass blueprintClass) {
+		String methodName = getMethodName(methodIndex);
+		
+		try {
+			notOccupied(methodName);
+			ensureAbstract(methodIndex, methodName);
+			hasParameters(methodIndex, methodName, Object.class);
+			atomicType(methodIndex, methodName, getMethodParameterTypes(methodIndex)[0]);
+			returns(methodIndex, methodName, Void.TYPE);
+		} catch (Exception e) {
+			throw new InvalidBlueprintException("Unable to declare "+methodName+" as a ordered setter method.", e);
+		}
+		
+		// add unknown variables to the variable map
+		String variableName = methodName.substring(3, methodName.length() - 7);
+		BlueprintVariable variable = underlyingVariable(blueprintClass, methodIndex, variableName, getMethodParameterTypes(methodIndex)[0]);
+
+		// defines a valid ordered set-method contained in the blueprint
+		blueprintClass.addMethod(new BlueprintMethod(blueprintClass.getBlueprint(), methodName, BlueprintMethod.ActionType.SetValueOrdered, variable));
+	}
+	
 	/**
 	 * Check if this is a valid view-at method
 	 * 
@@ -542,17 +769,24 @@ public class BlueprintInspector {
 		
 		// in case of iterable classes get the generic type
 		Class<?> returnType = getMethodReturnType(methodIndex);
-		if(returnType == java.lang.Iterable.class || returnType == RecordSequence.class) {
+		if(returnType == java.lang.Iterable.class || returnType == RecordSequence.class || returnType == EnumSequence.class) {
 			Class<?> genericType = (Class<?>)((ParameterizedTypeImpl)getMethodGenericReturnType(methodIndex)).getActualTypeArguments()[0];
 			
-			// TODO currently not supported
-			if(genericType.isPrimitive() || genericType.isEnum() || Enum.class.isAssignableFrom(genericType))
-				throw new InvalidBlueprintException("Unable to declare "+methodName+" as a get-sequence method. Enum and primitive iterable return types are not supported yet.");
+			if(returnType == EnumSequence.class && genericType.isEnum() == false)
+				throw new InvalidBlueprintException("Unable to declare "+methodName+" as a get-sequence method. EnumSequence requires an enum type.");
+			if(returnType == RecordSequence.class && genericType.isEnum())
+				throw new InvalidBlueprintException("Unable to declare "+methodName+" as a get-sequence method. Enums require an EnumSequence or Iterable return type.");
 	
 			action = BlueprintMethod.ActionType.GetSequence;
 			returnType = genericType;
 		}
 		
+		// sequence of primitive values
+		else if(PrimitiveSequence.elementType(returnType) != null) {
+			action = BlueprintMethod.ActionType.GetSequence;
+			returnType = PrimitiveSequence.elementType(returnType);
+		}
+		
 		// get the underlying variable for this get method
 		String variableName = methodName.substring(3);
 		BlueprintVariable variable = underlyingVariable(blueprintClass, methodIndex, variableName, returnType);
@@ -606,7 +840,10 @@ public class BlueprintInspector {
 		
 		// try to get a variable already used somewhere
 		BlueprintVariable variable = blueprintClass.getVariable(variableName);
-		if(variable == null)
+		if(variable == null && referenceVariables.contains(variableName))
+			// create a new reference
+			variable = blueprintClass.createReference(variableName, type);
+		else if(variable == null)
 			// create a new one
 			variable = blueprintClass.createVariable(variableName, type);
 		else {
@@ -632,11 +869,256 @@ public class BlueprintInspector {
 			variable.setElementCount(arrayAnnotation.size());
 		}
 		
+		// add bit count information
+		net.wpm.record.annotation.Integer integerAnnotation = getMethodAnnotation(methodIndex, net.wpm.record.annotation.Integer.class);
+		if(integerAnnotation != null) {
+			final int bitCount = integerAnnotation.bit();
+			final boolean signed = integerAnnotation.signedness() == Signedness.Signed;
+			if(bitCount < 1 || bitCount > 64)
+				throw new InvalidBlueprintException("Bit count of integer annotation is "+bitCount+" for method "+getMethodName(methodIndex)+" but must be between 1 and 64.");
+			if(variable.isBitField() && (variable.getBitCount() != bitCount || variable.isSigned() != signed))
+				throw new InvalidBlueprintException("Integer annotation of method "+getMethodName(methodIndex)+" is defined different elsewhere.");
+			variable.setBits(bitCount, signed);
+		}
+		
+		// add text information
+		Text textAnnotation = getMethodAnnotation(methodIndex, Text.class);
+		if(textAnnotation != null) {
+			final int maxSize = textAnnotation.maxSize();
+			final boolean utf8 = textAnnotation.encoding() == Text.Encoding.UTF8;
+			if(type != Object.class && type != CharSequence.class && type != String.class)
+				throw new InvalidBlueprintException("Text annotation of method "+getMethodName(methodIndex)+" requires a CharSequence or String but was "+type+".");
+			if(maxSize < 1 || TextSequence.sizeInBytes(maxSize, utf8) - TextSequence.LengthBytes > 0xFFFF)
+				throw new InvalidBlueprintException("Max size of text annotation is "+maxSize+" for method "+getMethodName(methodIndex)+" but must be between 1 and "+(0xFFFF / (utf8 ? 3 : 1))+".");
+			variable.setText(maxSize, utf8);
+		}
+		
+		// add decimal precision information
+		Decimal decimalAnnotation = getMethodAnnotation(methodIndex, Decimal.class);
+		if(decimalAnnotation != null) {
+			if(decimalAnnotation.scale() < 0 || decimalAnnotation.scale() > 18)
+				throw new InvalidBlueprintException("Scale of decimal annotation is "+decimalAnnotation.scale()+" for method "+getMethodName(methodIndex)+" but must be between 0 and 18.");
+			variable.setPrecision(decimalAnnotation.precision(), decimalAnnotation.scale());
+		}
+		
 		// TODO read and process other annotations
 		
 		return variable;
 	}
 	
+	/**
+	 * Sequences of enums and primitive values are views over an array, 
+	 * whose elements are stored in their plain data type.
+	 * 
+	 * @param blueprintClass
+	 */
+	protected void analyseSequenceMethods(final BlueprintClass blueprintClass) {
+		for (BlueprintMethod method : blueprintClass.getMethods()) {
+			final BlueprintVariable variable = method.getVariable();
+			if(method.getActionType() != BlueprintMethod.ActionType.GetSequence)
+				continue;
+			if(variable.getExternalType().isPrimitive() == false && variable.getExternalType().isEnum() == false)
+				continue;
+			
+			if(variable.isArray() == false)
+				throw new InvalidBlueprintException("Sequence method "+method.getName()+" requires an array annotation for variable '"+variable.getName()+"'.");
+			if(variable.isConvertedDecimal())
+				throw new InvalidBlueprintException("Sequence method "+method.getName()+" does not support the decimal annotation of variable '"+variable.getName()+"'.");
+		}
+	}
+	
+	/**
+	 * Decimal annotations are only possible for float and double variables. 
+	 * Annotations with the precision of the data type need no conversion.
+	 * 
+	 * @param blueprintClass
+	 */
+	protected void analyseDecimalFields(final BlueprintClass blueprintClass) {
+		for (BlueprintVariable variable : blueprintClass.getVariables()) {
+			if(variable.isConvertedDecimal() == false)
+				continue;
+			
+			final Class<?> type = variable.getInternalType();
+			if(type != float.class && type != double.class)
+				throw new InvalidBlueprintException("Decimal annotation of variable '"+variable.getName()+"' is only supported for floats and doubles, not "+variable.getExternalType()+".");
+			
+			// the size might have been reset by a later known type
+			if(variable.getStorageType() == type)
+				variable.setPrecision(null, 0);
+			else
+				variable.setPrecision(variable.getPrecision(), variable.getScale());
+		}
+	}
+	
+	/**
+	 * Texts are read and written as a whole, they can not be arrays. 
+	 * Unannotated String variables keep their legacy char storage.
+	 * 
+	 * @param blueprintClass
+	 */
+	protected void analyseTextFields(final BlueprintClass blueprintClass) {
+		for (BlueprintVariable variable : blueprintClass.getVariables()) {
+			if(variable.isText() == false)
+				continue;
+			
+			if(variable.isArray())
+				throw new InvalidBlueprintException("Array variable '"+variable.getName()+"' can not be a text.");
+			
+			for (BlueprintMethod method : blueprintClass.getMethods()) {
+				if(method.getVariable() != variable)
+					continue;
+				if(method.getActionType() != BlueprintMethod.ActionType.GetValue && method.getActionType() != BlueprintMethod.ActionType.SetValue)
+					throw new InvalidBlueprintException("Method "+method.getName()+" is not supported for the text '"+variable.getName()+"'.");
+			}
+		}
+	}
+	
+	/**
+	 * References point to records of another blueprint and are read and written 
+	 * as a whole, their content is not part of this record.
+	 * 
+	 * @param blueprintClass
+	 */
+	protected void analyseReferenceFields(final BlueprintClass blueprintClass) {
+		for (BlueprintVariable variable : blueprintClass.getVariables()) {
+			if(variable.isReference() == false)
+				continue;
+			
+			final Class<?> type = variable.getExternalType();
+			if(type.isInterface() == false || type == CharSequence.class || Iterable.class.isAssignableFrom(type))
+				throw new InvalidBlueprintException("Reference annotation of variable '"+variable.getName()+"' requires a blueprint, not "+type+".");
+			if(variable.isBitField() || variable.isConvertedDecimal())
+				throw new InvalidBlueprintException("Reference variable '"+variable.getName()+"' can not be a bit field or decimal.");
+			
+			for (BlueprintMethod method : blueprintClass.getMethods()) {
+				if(method.getVariable() != variable)
+					continue;
+				switch (method.getActionType()) {
+					case GetValue:
+					case GetValueAt:
+					case GetValueWith:
+					case GetValueWithAt:
+					case SetValue:
+					case SetValueAt:
+					case GetArraySize:
+						break;
+					default:
+						throw new InvalidBlueprintException("Method "+method.getName()+" is not supported for the reference '"+variable.getName()+"'.");
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Variables declared as Object by their get or set methods store java objects 
+	 * in the handle table of the record adapter. Variables of other methods whose 
+	 * type stays unknown keep their long storage.
+	 * 
+	 * @param blueprintClass
+	 */
+	protected void analyseObjectFields(final BlueprintClass blueprintClass) {
+		for (BlueprintVariable variable : blueprintClass.getVariables()) {
+			if(variable.getExternalType() != Object.class || variable.isReference())
+				continue;
+			
+			boolean accessed = false;
+			for (BlueprintMethod method : blueprintClass.getMethods()) {
+				if(method.getVariable() != variable)
+					continue;
+				switch (method.getActionType()) {
+					case GetValue:
+					case GetValueAt:
+					case SetValue:
+					case SetValueAt:
+						accessed = true;
+						break;
+					default:
+						break;
+				}
+			}
+			if(accessed == false)
+				continue;
+			
+			for (BlueprintMethod method : blueprintClass.getMethods()) {
+				if(method.getVariable() != variable)
+					continue;
+				switch (method.getActionType()) {
+					case GetValue:
+					case GetValueAt:
+					case SetValue:
+					case SetValueAt:
+					case GetArraySize:
+						break;
+					default:
+						throw new InvalidBlueprintException("Method "+method.getName()+" is not supported for the object '"+variable.getName()+"'.");
+				}
+			}
+			if(variable.isBitField() || variable.isText() || variable.isConvertedDecimal())
+				throw new InvalidBlueprintException("Object variable '"+variable.getName()+"' can not be a bit field, text or decimal.");
+			variable.setHandle(true);
+		}
+	}
+	
+	/**
+	 * Bit fields are only possible for single integers, enums and booleans which 
+	 * are read and written as a whole. Integer annotations using all bits of the 
+	 * data type are stored like any other variable.
+	 * 
+	 * @param blueprintClass
+	 */
+	protected void analyseBitFields(final BlueprintClass blueprintClass) {
+		for (BlueprintVariable variable : blueprintClass.getVariables()) {
+			if(variable.isBitField() == false)
+				continue;
+			
+			// ordinals of enums are unsigned and must fit into the bits
+			if(variable.getExternalType().isEnum()) {
+				final int constants = variable.getExternalType().getEnumConstants().length;
+				final int requiredBits = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(constants - 1));
+				if(variable.getBitCount() < requiredBits)
+					throw new InvalidBlueprintException("Enum variable '"+variable.getName()+"' with "+constants+" constants requires at least "+requiredBits+" bits.");
+				variable.setBits(variable.getBitCount(), false);
+			}
+			
+			final Class<?> type = variable.getInternalType();
+			final int maxBits;
+			if(type == byte.class) maxBits = Byte.SIZE;
+			else if(type == short.class) maxBits = Short.SIZE;
+			else if(type == int.class) maxBits = Integer.SIZE;
+			else if(type == long.class) maxBits = Long.SIZE;
+			else if(type == boolean.class) maxBits = 1;
+			else
+				throw new InvalidBlueprintException("Integer annotation of variable '"+variable.getName()+"' is only supported for integers, enums and booleans, not "+variable.getExternalType()+".");
+			
+			if(variable.getBitCount() > maxBits)
+				throw new InvalidBlueprintException("Variable '"+variable.getName()+"' of type "+variable.getExternalType()+" can not have "+variable.getBitCount()+" bits.");
+			if(variable.isArray())
+				throw new InvalidBlueprintException("Array variable '"+variable.getName()+"' can not be a bit field.");
+			
+			// uses the full data type
+			if(variable.getBitCount() == maxBits && type != boolean.class) {
+				variable.setBits(0, true);
+				continue;
+			}
+			
+			for (BlueprintMethod method : blueprintClass.getMethods()) {
+				if(method.getVariable() != variable)
+					continue;
+				switch (method.getActionType()) {
+					case GetValue:
+					case SetValue:
+					case IncreaseValue:
+					case IncreaseValueBy:
+					case DecreaseValue:
+					case DecreaseValueBy:
+						break;
+					default:
+						throw new InvalidBlueprintException("Method "+method.getName()+" is not supported for the bit field '"+variable.getName()+"'.");
+				}
+			}
+		}
+	}
+	
 	
 	
 	// -----------------------------------------------------------------------------------------------------------
@@ -663,6 +1145,11 @@ public class BlueprintInspector {
 			throw new InvalidBlueprintException(methodName + " has to many parameters");
     }
     
+    private void atomicType(int methodIndex, String methodName, Class<?> type) {
+		if (type != int.class && type != long.class)
+			throw new InvalidBlueprintException(methodName + " works only with int or long values");
+    }
+    
     private void hasNoParameter(int methodIndex, String methodName) {
 		if (getMethodParameterTypes(methodIndex).length > 0)
 			throw new InvalidBlueprintException(methodName + " is not allowed to have parameters");
@@ -702,20 +1189,20 @@ public class BlueprintInspector {
 	}
     
 	// -----------------------------------------------------------------------------------------------------------
-	// ----------------------------------------- MethodAcces helper methods --------------------------------------
+	// ------------------------------------------- Method helper methods ----------------------------------------
 	// -----------------------------------------------------------------------------------------------------------
 
 	protected String getMethodName(int index) {
-		return methodAccess.getMethodNames()[index];
+		return methods[index].getName();
 	}
 	
 	protected Annotation[] getMethodAnnotations(int index) {
-		return methodAccess.getMethodAnnotations()[index];
+		return methods[index].getAnnotations();
 	}
 	
 	@SuppressWarnings("unchecked")
 	protected <A> A getMethodAnnotation(int index, Class<A> annotationType) {
-		for (Annotation annotation : methodAccess.getMethodAnnotations()[index]) {
+		for (Annotation annotation : methods[index].getAnnotations()) {
 			if(annotation.annotationType() == annotationType)
 				return (A)annotation;
 		}
@@ -723,18 +1210,18 @@ public class BlueprintInspector {
 	}
 	
 	protected int getMethodModifiers(int index) {
-		return methodAccess.getMethodModifiers()[index];
+		return methods[index].getModifiers();
 	}
 	
 	protected Class<?>[] getMethodParameterTypes(int index) {
-		return methodAccess.getParameterTypes()[index];
+		return methods[index].getParameterTypes();
 	}
 
 	protected Class<?> getMethodReturnType(int index) {
-		return methodAccess.getReturnTypes()[index];
+		return methods[index].getReturnType();
 	}
 	
 	protected Type getMethodGenericReturnType(int index) {
-		return methodAccess.getGenericReturnTypes()[index];
+		return methods[index].getGenericReturnType();
 	}
 }
\ No newline at end of file
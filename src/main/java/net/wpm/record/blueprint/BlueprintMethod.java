@@ -14,7 +14,8 @@ public class BlueprintMethod {
 			SetValue, SetValueAt, GetArraySize,
 			IncreaseValue, IncreaseValueBy, DecreaseValue, DecreaseValueBy,
 			GetRecordId, SetRecordId, GetRecordSize, GetBlueprintId, 
-			Copy, CopyFrom, View, ViewAt
+			Copy, CopyFrom, View, ViewAt,
+			CompareAndSet, GetAndAdd, GetValueVolatile, SetValueOrdered
 		};
 
 	/**
@@ -68,8 +69,12 @@ public class BlueprintMethod {
 	public String getSignature() {
 		switch (actionType) {
 			case SetValue:
+			case SetValueOrdered:
+			case GetAndAdd:
 			case GetValueWith:
 				return getName() + "(" + variable.getExternalType().getName() + ")";
+			case CompareAndSet:
+				return getName() + "(" + variable.getExternalType().getName() + ", " + variable.getExternalType().getName() + ")";
 			case SetValueAt:
 			case GetValueWithAt:
 				return getName() + "(int, " + variable.getExternalType().getName() + ")";
@@ -105,12 +110,15 @@ public class BlueprintMethod {
 			case IncreaseValueBy:
 			case DecreaseValue:
 			case DecreaseValueBy:
+			case GetAndAdd:
+			case GetValueVolatile:
 				sb.append(variable.getExternalType().getName());
 				sb.append(" " + getSignature());
 				sb.append(" {" + actionType.toString() + "}");
 				break;
 			case SetValue:
 			case SetValueAt:
+			case SetValueOrdered:
 			case SetRecordId:
 			case ViewAt:
 			case CopyFrom:
@@ -123,6 +131,10 @@ public class BlueprintMethod {
 				sb.append("int " + getSignature());
 				sb.append(" {" + actionType.toString() + "}");
 				break;
+			case CompareAndSet:
+				sb.append("boolean " + getSignature());
+				sb.append(" {" + actionType.toString() + "}");
+				break;
 			case GetRecordId:
 				sb.append("long " + getSignature());
 				sb.append(" {" + actionType.toString() + "}");
@@ -4,12 +4,27 @@ import java.util.HashMap;
 import java.util.Map;
 
 import net.wpm.record.Records;
+import net.wpm.record.annotation.Decimal.Precision;
+import net.wpm.record.collection.TextSequence;
 
 /**
  * Underlying variable of a blueprint method. 
  * 
  * If the element count is higher 1, then the variable represents an array.
  * 
+ * A variable with a bit count is stored in a few bits of a word which it shares 
+ * with other bit fields. The element size is then the size of the whole word.
+ * 
+ * Texts are stored inline with a length prefix, their internal type is CharSequence.
+ * 
+ * Decimals with a precision differing from their data type are converted between 
+ * the internal type and the storage type whenever they are read or written.
+ * 
+ * References store the record id of another record in a long, their external 
+ * type is the blueprint of the referenced record.
+ * 
+ * Java objects are stored as a long handle of the handle table of the record adapter.
+ * 
  * @author Nico
  */
 public class BlueprintVariable {
@@ -56,6 +71,46 @@ public class BlueprintVariable {
 	 */
 	protected int elementCount;
 	
+	/**
+	 * Amount of bits used in the word, 0 if this is not a bit field
+	 */
+	protected int bitCount;
+	
+	/**
+	 * Position of the lowest bit inside the word
+	 */
+	protected int bitOffset;
+	
+	/**
+	 * Sign-extend the bits when reading the bit field
+	 */
+	protected boolean signed;
+	
+	/**
+	 * Texts are encoded as UTF8 instead of ASCII
+	 */
+	protected boolean utf8;
+	
+	/**
+	 * Storage precision of a decimal, null if stored as the internal type
+	 */
+	protected Precision precision;
+	
+	/**
+	 * Decimal places of a fixed-point decimal
+	 */
+	protected int scale;
+	
+	/**
+	 * Stores the record id of another record
+	 */
+	protected boolean reference;
+	
+	/**
+	 * Stores the handle of a java object
+	 */
+	protected boolean handle;
+	
 	private BlueprintVariable(Class<?> blueprint, String name, int elementSizeInBytes, Class<?> internalType, Class<?> externalType) {
 		this.blueprint = blueprint;
 		this.name = name;
@@ -64,12 +119,24 @@ public class BlueprintVariable {
 		this.internalType = internalType;
 		this.elementCount = 1;
 		this.isArray = false;
+		this.bitCount = 0;
+		this.bitOffset = 0;
+		this.signed = true;
+		this.utf8 = false;
+		this.precision = null;
+		this.scale = 0;
+		this.reference = false;
+		this.handle = false;
     }	
 	
 	public int getOffset() {
 		return this.offset;
 	}
 	
+	public Class<?> getBlueprint() {
+		return blueprint;
+	}
+	
 	public String getName() {
 		return name;
 	}
@@ -117,6 +184,11 @@ public class BlueprintVariable {
 	
 
 	public void setType(Class<?> type) {
+		if(reference) {
+			this.externalType = type;
+			return;
+		}
+		
 		BlueprintVariable defaultType = of(blueprint, name, type);
 		this.elementSizeInBytes = defaultType.elementSizeInBytes; 
 		this.internalType = defaultType.internalType; 
@@ -140,9 +212,188 @@ public class BlueprintVariable {
 	}	
 	
 	
+	/**
+	 * Is this variable stored in a few bits of a word
+	 * 
+	 * @return true for bit fields
+	 */
+	public boolean isBitField() {
+		return bitCount > 0;
+	}
+	
+	public int getBitCount() {
+		return bitCount;
+	}
+	
+	public int getBitOffset() {
+		return bitOffset;
+	}
+	
+	public boolean isSigned() {
+		return signed;
+	}
+	
+	/**
+	 * Store the variable in the given amount of bits. 
+	 * A bit count of 0 stores the variable in its default size.
+	 * 
+	 * @param bitCount
+	 * @param signed
+	 */
+	public void setBits(int bitCount, boolean signed) {
+		this.bitCount = bitCount;
+		this.signed = signed;
+	}
+	
+	/**
+	 * Place the bit field inside a word of the given size
+	 * 
+	 * @param wordSizeInBytes size of the word in bytes
+	 * @param bitOffset position of the lowest bit inside the word
+	 */
+	public void setWord(int wordSizeInBytes, int bitOffset) {
+		this.elementSizeInBytes = wordSizeInBytes;
+		this.bitOffset = bitOffset;
+	}
+	
+	/**
+	 * Primitive type of the word containing the bit field
+	 * 
+	 * @return Class
+	 */
+	public Class<?> getWordType() {
+		switch (elementSizeInBytes) {
+			case 1: return Byte.TYPE;
+			case 2: return Short.TYPE;
+			case 4: return Integer.TYPE;
+			default: return Long.TYPE;
+		}
+	}
+	
+	/**
+	 * Is this variable a reference to another record
+	 * 
+	 * @return true for references
+	 */
+	public boolean isReference() {
+		return reference;
+	}
+	
+	/**
+	 * Is this variable the handle of a java object
+	 * 
+	 * @return true for objects
+	 */
+	public boolean isHandle() {
+		return handle;
+	}
+	
+	/**
+	 * Object variables store a handle of the handle table of the record adapter
+	 * 
+	 * @param handle
+	 */
+	public void setHandle(boolean handle) {
+		this.handle = handle;
+	}
+	
+	/**
+	 * Is this variable a text stored inline
+	 * 
+	 * @return true for texts
+	 */
+	public boolean isText() {
+		return internalType == CharSequence.class;
+	}
+	
+	public boolean isUTF8() {
+		return utf8;
+	}
+	
+	/**
+	 * Bytes for the encoded characters of a text, without the length prefix
+	 * 
+	 * @return capacity in bytes
+	 */
+	public int getTextCapacity() {
+		return elementSizeInBytes - TextSequence.LengthBytes;
+	}
+	
+	/**
+	 * Store the variable as a text with the given maximal amount of characters
+	 * 
+	 * @param maxSize character count
+	 * @param utf8 encoding
+	 */
+	public void setText(int maxSize, boolean utf8) {
+		this.elementSizeInBytes = TextSequence.sizeInBytes(maxSize, utf8);
+		this.internalType = CharSequence.class;
+		this.utf8 = utf8;
+	}
+	
+	/**
+	 * Is this a decimal stored with a different precision than its data type
+	 * 
+	 * @return true if a conversion is necessary
+	 */
+	public boolean isConvertedDecimal() {
+		return precision != null;
+	}
+	
+	public Precision getPrecision() {
+		return precision;
+	}
+	
+	public int getScale() {
+		return scale;
+	}
+	
+	/**
+	 * Store a decimal with the given precision. 
+	 * Null stores the variable as its internal type.
+	 * 
+	 * @param precision 
+	 * @param scale decimal places of a fixed-point decimal
+	 */
+	public void setPrecision(Precision precision, int scale) {
+		this.precision = precision;
+		this.scale = scale;
+		this.elementSizeInBytes = (precision == null) ? of(blueprint, name, externalType).elementSizeInBytes : sizeOf(precision);
+	}
+	
+	/**
+	 * Primitive type storing the content of the variable in memory
+	 * 
+	 * @return Class
+	 */
+	public Class<?> getStorageType() {
+		if(precision == null)
+			return internalType;
+		switch (precision) {
+			case Half: return Short.TYPE;
+			case Single: return Float.TYPE;
+			case Double: return Double.TYPE;
+			default: return Long.TYPE;
+		}
+	}
+	
+	/**
+	 * Size in bytes of a decimal with the precision
+	 * 
+	 * @param precision
+	 * @return size in bytes
+	 */
+	protected static int sizeOf(Precision precision) {
+		switch (precision) {
+			case Half: return 2;
+			case Single: return 4;
+			default: return 8;
+		}
+	}
+	
 	@Override
 	public String toString() {	
-		return externalType.getName() + " " + (elementSizeInBytes * 8) + " " + getName();
+		return externalType.getName() + " " + (isBitField() ? bitCount : elementSizeInBytes * 8) + " " + getName();
 	}
 	
 	/**
@@ -158,7 +409,8 @@ public class BlueprintVariable {
 	}
 	
 	/**
-	 * Expects an primitive or a wrapper class of it.
+	 * Expects an primitive or a wrapper class of it. Enums store their ordinal 
+	 * unsigned in the smallest integer holding all of their constants.
 	 * 
 	 * @param blueprint
 	 * @param name
@@ -169,8 +421,14 @@ public class BlueprintVariable {
 	public static BlueprintVariable of(Class<?> blueprint, String name, Class<?> type) {
 		
 		// check if type is an enum
-		if(type.isEnum()) 
-			return new BlueprintVariable(blueprint, name, 1, Byte.TYPE, type);
+		if(type.isEnum()) {
+			final int constants = type.getEnumConstants().length;
+			if(constants <= 0x100)
+				return new BlueprintVariable(blueprint, name, 1, Byte.TYPE, type);
+			if(constants <= 0x10000)
+				return new BlueprintVariable(blueprint, name, 2, Short.TYPE, type);
+			return new BlueprintVariable(blueprint, name, 4, Integer.TYPE, type);
+		}
 
 		// is this type compatible to a Records primitive
 		BlueprintVariable defaultType = getDefault(type);
@@ -190,6 +448,21 @@ public class BlueprintVariable {
 		return new BlueprintVariable(blueprint, name, defaultType.elementSizeInBytes, defaultType.internalType, type);
 	}
 	
+	/**
+	 * A reference stores the record id of another record in a long.
+	 * The referenced blueprint does not get registered.
+	 * 
+	 * @param blueprint
+	 * @param name
+	 * @param type blueprint of the referenced record
+	 * @return BlueprintVariable
+	 */
+	public static BlueprintVariable reference(Class<?> blueprint, String name, Class<?> type) {
+		final BlueprintVariable variable = new BlueprintVariable(blueprint, name, 8, Long.TYPE, type);
+		variable.reference = true;
+		return variable;
+	}
+	
 	public static BlueprintVariable of(Class<?> blueprint, String name, Class<?> type, int sizeInBytes) {
 		return new BlueprintVariable(blueprint, name, sizeInBytes, type, type);
 	}
@@ -236,6 +509,9 @@ public class BlueprintVariable {
     	
     	nameToDataType.put("java.lang.String", new BlueprintVariable(BlueprintVariable.class, "java.lang.String", 2, Character.TYPE, String.class));
     	
+    	// texts with up to 10 ascii characters, see @Text
+    	nameToDataType.put("java.lang.CharSequence", new BlueprintVariable(BlueprintVariable.class, "java.lang.CharSequence", TextSequence.sizeInBytes(10, false), CharSequence.class, CharSequence.class));
+    	
     	// to store references to other objects
     	nameToDataType.put("java.lang.Object", new BlueprintVariable(BlueprintVariable.class, "java.lang.Object", 8, Long.TYPE, Object.class));
 
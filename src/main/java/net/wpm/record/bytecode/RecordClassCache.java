@@ -0,0 +1,193 @@
+package net.wpm.record.bytecode;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the bytecode of generated record view classes on disk. The next start of
+ * the application defines the classes from the files and skips the generation.
+ *
+ * A file is named after a key containing the blueprint layout, the constants
+ * of the class and the version of this library, see RecordClassGenerator.cacheKey().
+ * Outdated files are never read again and can be deleted at any time.
+ *
+ * The system property "net.wpm.record.cache.dir" changes the directory (default "generated"),
+ * "net.wpm.record.cache.write" decides how new classes are written:
+ * Off, Sync or Async (default) with a background thread.
+ *
+ * @author Nico Hezel
+ */
+public class RecordClassCache {
+
+	private static Logger log = LoggerFactory.getLogger(RecordClassCache.class);
+
+	public static enum WriteMode {
+		Off,		// only read existing files
+		Sync, 		// write before the class is used
+		Async 		// write in a background thread
+	};
+
+	protected static volatile Path directory = Paths.get(System.getProperty("net.wpm.record.cache.dir", "generated"));
+	protected static volatile WriteMode writeMode = WriteMode.valueOf(System.getProperty("net.wpm.record.cache.write", WriteMode.Async.name()));
+
+	// version of the library, changes the key of every cached class
+	protected static final String libraryVersion = libraryVersion();
+
+	// single background thread writing the files
+	protected static final ExecutorService writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			final Thread thread = new Thread(r, "RecordClassCache-Writer");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	protected static final LongAdder hits = new LongAdder();
+	protected static final LongAdder misses = new LongAdder();
+
+	/**
+	 * Implementation version of the jar and the time the generator class was built.
+	 * Snapshot builds and classes compiled by an IDE get a new version after every build.
+	 *
+	 * @return version string
+	 */
+	protected static String libraryVersion() {
+		final String version = RecordClassCache.class.getPackage().getImplementationVersion();
+		long lastModified = 0;
+		try {
+			final URL url = RecordClassGenerator.class.getResource(RecordClassGenerator.class.getSimpleName() + ".class");
+			if(url != null)
+				lastModified = url.openConnection().getLastModified();
+		} catch (IOException e) {
+			log.debug("Unknown modification time of the record class generator", e);
+		}
+		return version + "@" + lastModified;
+	}
+
+	public static String getLibraryVersion() {
+		return libraryVersion;
+	}
+
+	public static Path getDirectory() {
+		return directory;
+	}
+
+	public static void setDirectory(Path directory) {
+		RecordClassCache.directory = directory;
+	}
+
+	public static WriteMode getWriteMode() {
+		return writeMode;
+	}
+
+	public static void setWriteMode(WriteMode writeMode) {
+		RecordClassCache.writeMode = writeMode;
+	}
+
+	/**
+	 * Amount of classes found in the cache
+	 *
+	 * @return count
+	 */
+	public static long hitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Amount of classes not found in the cache
+	 *
+	 * @return count
+	 */
+	public static long missCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Bytecode of a previously cached class
+	 *
+	 * @param key
+	 * @return bytecode or null
+	 */
+	public static byte[] load(final String key) {
+		final Path file = directory.resolve(key + ".class");
+		try {
+			if(Files.exists(file)) {
+				final byte[] bytecode = Files.readAllBytes(file);
+				hits.increment();
+				return bytecode;
+			}
+		} catch (IOException e) {
+			log.warn("Could not read cached record class "+file, e);
+		}
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * Write the bytecode of a class depending on the write mode.
+	 *
+	 * @param key
+	 * @param bytecode
+	 */
+	public static void store(final String key, final byte[] bytecode) {
+		final Path dir = directory;
+		switch (writeMode) {
+			case Sync:
+				write(dir, key, bytecode);
+				break;
+			case Async:
+				writer.execute(new Runnable() {
+					@Override
+					public void run() {
+						write(dir, key, bytecode);
+					}
+				});
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Remove a cached class, e.g. because its content is corrupt
+	 *
+	 * @param key
+	 */
+	public static void remove(final String key) {
+		try {
+			Files.deleteIfExists(directory.resolve(key + ".class"));
+		} catch (IOException e) {
+			log.warn("Could not remove cached record class "+key, e);
+		}
+	}
+
+	/**
+	 * Writes into a temporary file first, other processes never read a partially written class.
+	 *
+	 * @param dir
+	 * @param key
+	 * @param bytecode
+	 */
+	protected static void write(final Path dir, final String key, final byte[] bytecode) {
+		try {
+			Files.createDirectories(dir);
+			final Path tmpFile = Files.createTempFile(dir, key, ".tmp");
+			Files.write(tmpFile, bytecode);
+			Files.move(tmpFile, dir.resolve(key + ".class"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.warn("Could not cache record class "+key, e);
+		}
+	}
+}
@@ -1,24 +1,41 @@
 package net.wpm.record.bytecode;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import static net.wpm.codegen.Expressions.call;
+import static net.wpm.codegen.Expressions.callStatic;
+import static net.wpm.codegen.Expressions.getter;
+import static net.wpm.codegen.Expressions.self;
+import static net.wpm.codegen.Expressions.setter;
+import static net.wpm.codegen.Expressions.value;
+
+import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import net.wpm.codegen.ClassBuilder;
 import net.wpm.codegen.utils.DefiningClassLoader;
+import net.wpm.record.RecordAdapter;
 import net.wpm.record.RecordView;
+import net.wpm.record.Records;
 import net.wpm.record.blueprint.BlueprintClass;
 import net.wpm.record.blueprint.BlueprintMethod;
 import net.wpm.record.blueprint.BlueprintVariable;
-import net.wpm.record.bytecode.template.ASMTemplate;
+import net.wpm.record.bytecode.template.TemplateBase;
+import net.wpm.record.bytecode.template.TemplateColumnKernels;
+import net.wpm.record.bytecode.template.TemplateCompareAndSet;
+import net.wpm.record.bytecode.template.TemplateCompareTo;
 import net.wpm.record.bytecode.template.TemplateCopy;
 import net.wpm.record.bytecode.template.TemplateCopyFrom;
 import net.wpm.record.bytecode.template.TemplateDecreaseValue;
 import net.wpm.record.bytecode.template.TemplateDecreaseValueBy;
+import net.wpm.record.bytecode.template.TemplateEquals;
+import net.wpm.record.bytecode.template.TemplateGetAndAdd;
 import net.wpm.record.bytecode.template.TemplateGetArraySize;
 import net.wpm.record.bytecode.template.TemplateGetBlueprintId;
 import net.wpm.record.bytecode.template.TemplateGetRecordId;
@@ -26,17 +43,23 @@ import net.wpm.record.bytecode.template.TemplateGetRecordSize;
 import net.wpm.record.bytecode.template.TemplateGetSequence;
 import net.wpm.record.bytecode.template.TemplateGetValue;
 import net.wpm.record.bytecode.template.TemplateGetValueAt;
+import net.wpm.record.bytecode.template.TemplateGetValueVolatile;
 import net.wpm.record.bytecode.template.TemplateGetValueWith;
 import net.wpm.record.bytecode.template.TemplateGetValueWithAt;
+import net.wpm.record.bytecode.template.TemplateHashCode;
 import net.wpm.record.bytecode.template.TemplateIncreaseValue;
 import net.wpm.record.bytecode.template.TemplateIncreaseValueBy;
 import net.wpm.record.bytecode.template.TemplateRecord;
 import net.wpm.record.bytecode.template.TemplateSetRecordId;
 import net.wpm.record.bytecode.template.TemplateSetValue;
 import net.wpm.record.bytecode.template.TemplateSetValueAt;
+import net.wpm.record.bytecode.template.TemplateSetValueOrdered;
 import net.wpm.record.bytecode.template.TemplateToString;
 import net.wpm.record.bytecode.template.TemplateView;
 import net.wpm.record.bytecode.template.TemplateViewAt;
+import net.wpm.record.bytes.HandleTable;
+import net.wpm.record.bytes.MemoryAccess;
+import net.wpm.record.collection.TextSequence;
 import net.wpm.record.exception.RecordClassException;
 
 /**
@@ -62,58 +85,406 @@ import net.wpm.record.exception.RecordClassException;
  */
 public class RecordClassGenerator {
 	
-	// where to store the generated byte code
-	protected static final Path byteCodePath = Paths.get("generated");
+	private static Logger log = LoggerFactory.getLogger(RecordClassGenerator.class);
+	
 	protected static DefiningClassLoader classLoader = new DefiningClassLoader();
 	
-	static {
-		try {
-			if(Files.exists(byteCodePath) == false)
-				Files.createDirectories(byteCodePath);
-		} catch (IOException e) {
-			throw new RuntimeException("Could not create 'generated' directory to store generated bytecode.", e);
-		}
-	}
+	// record adapter and memory access of the record view class which gets initialized by the current thread
+	protected static final ThreadLocal<Binding> binding = new ThreadLocal<Binding>();
+	
+	// names of the ahead of time generated and cached classes which have been handed out already
+	protected static final Set<String> claimedClassNames = ConcurrentHashMap.newKeySet();
 	
 	// contains information about the methods of the blueprint
 	protected final BlueprintClass blueprintClass;
+	
+	// generated accessors call Unsafe directly instead of the memory access
+	protected final boolean directAccess;
 
+	/**
+	 * Generator for record views on native memory. The accessors 
+	 * read and write the memory with static final Unsafe calls.
+	 * 
+	 * @param blueprintClass
+	 */
 	public RecordClassGenerator(final BlueprintClass blueprintClass) {		
+		this(blueprintClass, true);
+	}
+	
+	/**
+	 * Generator for record views. Without direct access the accessors go through 
+	 * the memory access of the record view, which is necessary for every memory 
+	 * whose record ids are not absolute addresses in native memory. 
+	 * 
+	 * @param blueprintClass
+	 * @param directAccess
+	 */
+	public RecordClassGenerator(final BlueprintClass blueprintClass, final boolean directAccess) {		
 		this.blueprintClass = blueprintClass;
+		this.directAccess = directAccess;
 	}
 	
+	/**
+	 * Construct a record view class named after the blueprint. 
+	 * A class with the same structure is reused.
+	 * 
+	 * @return record view class
+	 */
 	public Class<RecordView> construct() {
+		return construct(blueprintClass.getBlueprint().getName() + "RecordView");
+	}
+	
+	/**
+	 * Construct a record view class with the given name and without a blueprint id.
+	 * A class with the same structure and name is reused.
+	 * 
+	 * @param className
+	 * @return record view class
+	 */
+	public Class<RecordView> construct(final String className) {
+		return construct(className, -1);
+	}
+	
+	/**
+	 * Construct a record view class with the given name. The blueprint id is a 
+	 * constant of the class, a value below 1 means the blueprint is not registered.
+	 * A class with the same structure and name is reused.
+	 * 
+	 * The record adapter and memory access of the class are static final fields 
+	 * as well and get their values when the class is initialized, see initialize().
+	 * 
+	 * @param className
+	 * @param blueprintId
+	 * @return record view class
+	 */
+	public Class<RecordView> construct(final String className, final int blueprintId) {
+		final TemplateRecord recordTemplate = new TemplateRecord(blueprintClass.getSizeInBytes(), (blueprintId > 0) ? blueprintId : -1, directAccess);
+		return prepare(recordTemplate).build(className);
+	}	
+	
+	/**
+	 * Construct a record view class like construct(className, blueprintId), but define it from 
+	 * the bytecode stored in the RecordClassCache if possible. A newly generated class is 
+	 * added to the cache. The name of the class is derived from the cache key.
+	 * 
+	 * @param blueprintId
+	 * @return record view class or null if a class with this key has already been constructed
+	 */
+	@SuppressWarnings("unchecked")
+	public Class<RecordView> constructCached(final int blueprintId) {
+		final String key = cacheKey(blueprintId);
+		final String className = blueprintClass.getBlueprint().getName() + (directAccess ? "Direct" : "") + "RecordView_" + key;
+		
+		// every class is bound to a single adapter
+		if(claimedClassNames.add(className) == false)
+			return null;
+		
+		synchronized (classLoader) {
+			byte[] bytecode = RecordClassCache.load(key);
+			if(bytecode != null) {
+				try {
+					return (Class<RecordView>) classLoader.defineClass(className, bytecode);
+				} catch (LinkageError e) {
+					log.warn("Remove invalid cached record class "+className, e);
+					RecordClassCache.remove(key);
+				}
+			}
+			
+			final TemplateRecord recordTemplate = new TemplateRecord(blueprintClass.getSizeInBytes(), (blueprintId > 0) ? blueprintId : -1, directAccess);
+			bytecode = prepare(recordTemplate).buildBytecode(className);
+			RecordClassCache.store(key, bytecode);
+			return (Class<RecordView>) classLoader.defineClass(className, bytecode);
+		}
+	}
+	
+	/**
+	 * Key of a record view class in the RecordClassCache. The blueprint layout, the access 
+	 * mode and all blueprint ids used as constants of the class are part of it, 
+	 * as well as the version of this library.
+	 * 
+	 * @param blueprintId
+	 * @return hex string
+	 */
+	public String cacheKey(final int blueprintId) {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(Long.toHexString(blueprintClass.layoutHash())).append(';');
+		sb.append(directAccess).append(';').append((blueprintId > 0) ? blueprintId : -1).append(';');
+		sb.append(RecordClassCache.getLibraryVersion()).append(';');
+		
+		// nested records and sequences
+		final List<BlueprintVariable> variables = new ArrayList<BlueprintVariable>(blueprintClass.getVariables());
+		variables.sort(new Comparator<BlueprintVariable>() {
+			@Override
+			public int compare(BlueprintVariable v1, BlueprintVariable v2) {
+				return v1.getName().compareTo(v2.getName());
+			}
+		});
+		for (BlueprintVariable variable : variables) 
+			sb.append(Records.blueprintId(variable.getInternalType())).append(':').append(Records.blueprintId(variable.getExternalType())).append(';');
+		
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < sb.length(); i++) {
+			hash ^= sb.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return Long.toHexString(hash);
+	}
+	
+	/**
+	 * Bytecode of a record view class which is generated ahead of time, see RecordClassPrecompiler.
+	 * Its blueprint id is not known in advance and comes from the record adapter 
+	 * the class gets initialized with.
+	 * 
+	 * @return content of the class file named precompiledClassName()
+	 */
+	public byte[] precompile() {
+		final TemplateRecord recordTemplate = new TemplateRecord(blueprintClass.getSizeInBytes(), directAccess);
+		return prepare(recordTemplate).buildBytecode(precompiledClassName(blueprintClass, directAccess));
+	}
+	
+	/**
+	 * Class builder with all fields and methods of the record view class.
+	 * 
+	 * @param recordTemplate
+	 * @return builder ready to build
+	 */
+	protected ClassBuilder<RecordView> prepare(final TemplateRecord recordTemplate) {
 		
 		// all blueprints for this record
 		List<Class<?>> blueprints = new ArrayList<Class<?>>();
 		blueprints.add(blueprintClass.getBlueprint());
 
 		// construct a class that implements the blueprints
-		ClassBuilder<RecordView> builder = new ClassBuilder<RecordView>(classLoader, RecordView.class, blueprints).setBytecodeSaveDir(byteCodePath);
+		ClassBuilder<RecordView> builder = new ClassBuilder<RecordView>(classLoader, RecordView.class, blueprints);
 		
 		// all methods and fields necessary to work as a record
-		addRecordViewTrait(builder, blueprintClass.getSizeInBytes());
+		recordTemplate.addBytecode(builder);
+
+		// member fields for the text flyweights
+		addTextFields(builder, blueprintClass.getVariables());
+		
+		// static lookup tables for the constants of the enums
+		addEnumTables(builder, blueprintClass.getVariables());
+		
+		// adapters and flyweights of the nested records
+		addRecordFields(builder, blueprintClass.getVariables());
+		
+		// adapters and flyweights of the referenced records
+		addReferenceFields(builder, blueprintClass.getVariables());
+		
+		// java objects of the records
+		addHandleTable(builder, blueprintClass.getVariables());
 
 		// implement the necessary and methods
-		implementMethods(builder, blueprintClass.getBlueprint(), blueprintClass.getMethods());
+		implementMethods(builder, blueprintClass, directAccess);
 				
 		// to String method
-		addToString(builder, blueprintClass.isCustomToString(), blueprintClass.getVariables());		
+		addToString(builder, blueprintClass.isCustomToString(), blueprintClass.getVariables(), directAccess);		
+		
+		// content based equals, hashCode and compareTo
+		addComparison(builder, blueprintClass, directAccess);
+		
+		// aggregations over a variable of consecutive records
+		addColumnKernels(builder, blueprintClass, directAccess);
 				
-		String className = blueprintClass.getBlueprint().getName() + "RecordView";
-		return builder.build(className);
-	}	
+		return builder;
+	}
+	
+	/**
+	 * Name of the ahead of time generated record view class. It lives in the package 
+	 * of the blueprint and contains the layout hash, a changed blueprint does not 
+	 * find an outdated class.
+	 * 
+	 * @param blueprintClass
+	 * @param directAccess
+	 * @return fully qualified class name
+	 */
+	public static String precompiledClassName(final BlueprintClass blueprintClass, final boolean directAccess) {
+		return blueprintClass.getBlueprint().getName() + (directAccess ? "Direct" : "") + "RecordView_" + Long.toHexString(blueprintClass.layoutHash());
+	}
 	
+	/**
+	 * Only blueprints without nested records can be generated ahead of time. 
+	 * The blueprint ids of nested records are constants of the record view class
+	 * and depend on the order in which the blueprints get registered at runtime.
+	 * 
+	 * @param blueprintClass
+	 * @return true if the record view class can be generated at build time
+	 */
+	public static boolean isPrecompilable(final BlueprintClass blueprintClass) {
+		for (BlueprintVariable variable : blueprintClass.getVariables()) 
+			if(Records.blueprintId(variable.getInternalType()) > 0 || Records.blueprintId(variable.getExternalType()) > 0)
+				return false;
+		return true;
+	}
 	
 	/**
-	 * Implements methods and fields necessary for a record view 
+	 * Find the ahead of time generated record view class of the blueprint. Every class 
+	 * can only be bound to one record adapter, therefore each class is handed out once.
+	 * 
+	 * @param blueprintClass
+	 * @param directAccess
+	 * @return record view class or null if there is none or it is already in use 
+	 */
+	@SuppressWarnings("unchecked")
+	public static Class<RecordView> findPrecompiled(final BlueprintClass blueprintClass, final boolean directAccess) {
+		final Class<?> blueprint = blueprintClass.getBlueprint();
+		final String className = precompiledClassName(blueprintClass, directAccess);
+		if(claimedClassNames.add(className) == false)
+			return null;
+		
+		try {
+			final Class<?> recordViewClass = Class.forName(className, false, blueprint.getClassLoader());
+			if(RecordView.class.isAssignableFrom(recordViewClass) && blueprint.isAssignableFrom(recordViewClass))
+				return (Class<RecordView>) recordViewClass;
+		} catch (ClassNotFoundException e) {
+			// not generated ahead of time
+		} catch (LinkageError e) {
+			// generated ahead of time but not loadable
+		}
+		return null;
+	}
+
+	/**
+	 * Adds a member field for every text variable holding the text flyweight of the record view
 	 * 
 	 * @param builder
-	 * @param sizeInBytes
+	 * @param variables
 	 */
-	private static void addRecordViewTrait(ClassBuilder<?> builder, int sizeInBytes) {
-		ASMTemplate template = new TemplateRecord(sizeInBytes);
-		template.addBytecode(builder);			
+	protected static void addTextFields(ClassBuilder<?> builder, Collection<BlueprintVariable> variables) {
+		for (BlueprintVariable variable : variables)
+			if(variable.isText())
+				builder.field(TemplateBase.textFieldName(variable), TextSequence.class);
+	}
+	
+	/**
+	 * Adds a static constant for every enum variable holding all constants of the enum.
+	 * Reading an enum looks up its ordinal in the table without any allocation.
+	 * 
+	 * @param builder
+	 * @param variables
+	 */
+	protected static void addEnumTables(ClassBuilder<?> builder, Collection<BlueprintVariable> variables) {
+		for (BlueprintVariable variable : variables) {
+			final Class<?> type = variable.getExternalType();
+			if(type.isEnum() == false)
+				continue;
+			
+			final String tableName = TemplateBase.enumTableName(variable);
+			builder.staticConstant(tableName, Array.newInstance(type, 0).getClass());
+			builder.staticInitializationBlock(setter(self(), tableName, callStatic(type, "values")));
+		}
+	}
+	
+	/**
+	 * Adds a static constant for every nested record variable holding the record adapter
+	 * of the nested blueprint and a member field for the flyweight of the nested record.
+	 * 
+	 * @param builder
+	 * @param variables
+	 */
+	protected static void addRecordFields(ClassBuilder<?> builder, Collection<BlueprintVariable> variables) {
+		for (BlueprintVariable variable : variables) {
+			final int blueprintId = Records.blueprintId(variable.getInternalType());
+			if(blueprintId <= 0)
+				continue;
+			
+			final String adapterName = TemplateBase.recordAdapterName(variable);
+			builder.staticConstant(adapterName, RecordAdapter.class);
+			builder.staticInitializationBlock(setter(self(), adapterName, callStatic(RecordView.class, "recordAdapter", value(blueprintId))));
+			builder.field(TemplateBase.childViewName(variable), RecordView.class);
+		}
+	}
+	
+	/**
+	 * Adds a member field for the flyweight of every reference and a static field for the 
+	 * record adapter of the referenced blueprint. The adapter is looked up on the first access, 
+	 * references to the own blueprint use the adapter of the record view class instead. 
+	 * 
+	 * @param builder
+	 * @param variables
+	 */
+	protected static void addReferenceFields(ClassBuilder<?> builder, Collection<BlueprintVariable> variables) {
+		for (BlueprintVariable variable : variables) {
+			if(variable.isReference() == false)
+				continue;
+			
+			if(variable.getExternalType() != variable.getBlueprint())
+				builder.staticField(TemplateBase.recordAdapterName(variable), RecordAdapter.class);
+			builder.field(TemplateBase.childViewName(variable), RecordView.class);
+		}
+	}
+	
+	/**
+	 * Adds a static constant for the handle table of the record adapter, 
+	 * if any variable stores a java object.
+	 * 
+	 * @param builder
+	 * @param variables
+	 */
+	protected static void addHandleTable(ClassBuilder<?> builder, Collection<BlueprintVariable> variables) {
+		if(hasHandles(variables)) {
+			builder.staticConstant("handleTable", HandleTable.class);
+			builder.staticInitializationBlock(setter(self(), "handleTable", call(getter(self(), "recordAdapter"), "getHandleTable")));
+		}
+	}
+	
+	/**
+	 * Does any variable store a java object
+	 * 
+	 * @param variables
+	 * @return true if there is a handle variable
+	 */
+	protected static boolean hasHandles(Collection<BlueprintVariable> variables) {
+		for (BlueprintVariable variable : variables)
+			if(variable.isHandle())
+				return true;
+		return false;
+	}
+
+	/**
+	 * Implements equals and hashCode over the content of the record 
+	 * and compareTo if the blueprint extends Comparable.
+	 * 
+	 * @param builder
+	 * @param blueprintClass
+	 * @param directAccess
+	 */
+	protected static void addComparison(ClassBuilder<?> builder, BlueprintClass blueprintClass, boolean directAccess) {
+		final List<TemplateBase> templates = new ArrayList<TemplateBase>();
+		templates.add(new TemplateEquals(blueprintClass.getBlueprint(), blueprintClass.getSizeInBytes(), blueprintClass.getHandleOffsets()));
+		templates.add(new TemplateHashCode(blueprintClass.getSizeInBytes(), blueprintClass.getHandleOffsets()));
+		if(Comparable.class.isAssignableFrom(blueprintClass.getBlueprint()))
+			templates.add(new TemplateCompareTo(blueprintClass.getVariables()));
+		
+		for (TemplateBase template : templates) {
+			template.setDirectAccess(directAccess);
+			template.addBytecode(builder);
+		}
+	}
+
+	/**
+	 * Implements the column kernels of RecordView for all columnVariables() of the blueprint.
+	 * 
+	 * @param builder
+	 * @param blueprintClass
+	 * @param directAccess
+	 */
+	protected static void addColumnKernels(ClassBuilder<?> builder, BlueprintClass blueprintClass, boolean directAccess) {
+		final TemplateBase template = new TemplateColumnKernels(blueprintClass.getVariables(), blueprintClass.getSizeInBytes());
+		template.setDirectAccess(directAccess);
+		template.addBytecode(builder);
+	}
+	
+	/**
+	 * Variables of the blueprint with column kernels, their position is the column index 
+	 * of the kernel methods in RecordView.
+	 * 
+	 * @param blueprintClass
+	 * @return column variables
+	 */
+	public static List<BlueprintVariable> columnVariables(BlueprintClass blueprintClass) {
+		return TemplateColumnKernels.columnVariables(blueprintClass.getVariables());
 	}
 
 	/**
@@ -122,9 +493,11 @@ public class RecordClassGenerator {
 	 * @param builder
 	 * @param customToStringMethod
 	 * @param variables
+	 * @param directAccess
 	 */
-	protected static void addToString(ClassBuilder<?> builder, boolean customToStringMethod, Collection<BlueprintVariable> variables) {
-		ASMTemplate template = new TemplateToString(variables, customToStringMethod);
+	protected static void addToString(ClassBuilder<?> builder, boolean customToStringMethod, Collection<BlueprintVariable> variables, boolean directAccess) {
+		TemplateToString template = new TemplateToString(variables, customToStringMethod);
+		template.setDirectAccess(directAccess);
 		template.addBytecode(builder);
 	}
 	
@@ -133,14 +506,16 @@ public class RecordClassGenerator {
 	 * Implements all the methods required by the blueprint.
 	 *  
 	 * @param builder
+	 * @param directAccess
 	 */
-	protected static void implementMethods(ClassBuilder<?> builder, Class<?> blueprintClass, Collection<BlueprintMethod> methods) {
+	protected static void implementMethods(ClassBuilder<?> builder, BlueprintClass blueprintClass, boolean directAccess) {
 		
 		// all methods that need to be implemented
-		for (BlueprintMethod method : methods) {
-			ASMTemplate template = getASMTemplate(blueprintClass, method);
+		for (BlueprintMethod method : blueprintClass.getMethods()) {
+			TemplateBase template = getASMTemplate(blueprintClass, method);
 			if(template == null)
 				throw new RecordClassException("Could not find template to implement "+method);
+			template.setDirectAccess(directAccess);
 			
 			// implement the method
 			template.addBytecode(builder);
@@ -153,7 +528,8 @@ public class RecordClassGenerator {
 	 * @param method
 	 * @return
 	 */
-	protected static ASMTemplate getASMTemplate(Class<?> blueprintClass, BlueprintMethod method) {
+	protected static TemplateBase getASMTemplate(BlueprintClass blueprint, BlueprintMethod method) {
+		final Class<?> blueprintClass = blueprint.getBlueprint();
 		switch (method.getActionType()) {
 			case GetValue:
 				return new TemplateGetValue(method);
@@ -176,6 +552,15 @@ public class RecordClassGenerator {
 			case GetSequence:
 				return new TemplateGetSequence(method);
 				
+			case CompareAndSet:
+				return new TemplateCompareAndSet(method);
+			case GetAndAdd:
+				return new TemplateGetAndAdd(method);
+			case GetValueVolatile:
+				return new TemplateGetValueVolatile(method);
+			case SetValueOrdered:
+				return new TemplateSetValueOrdered(method);
+				
 			case GetValueWith:
 				return new TemplateGetValueWith(method);
 			case GetValueWithAt:
@@ -192,7 +577,7 @@ public class RecordClassGenerator {
 			case Copy:
 				return new TemplateCopy(method, blueprintClass);
 			case CopyFrom:
-				return new TemplateCopyFrom(method, blueprintClass);
+				return new TemplateCopyFrom(method, blueprintClass, hasHandles(blueprint.getVariables()));
 			case View:
 				return new TemplateView(method, blueprintClass);
 			case ViewAt:
@@ -203,6 +588,90 @@ public class RecordClassGenerator {
 	}
 	
 
+	/**
+	 * Initializes the record view class. Its static initializer stores the record adapter
+	 * and the memory access in static final fields, which the JIT treats as constants.
+	 * A record view class can only be initialized once.
+	 * 
+	 * @param recordViewClass
+	 * @param adapter
+	 * @param memoryAccess
+	 * @throws RecordClassException if the class has already been initialized
+	 */
+	public static void initialize(final Class<? extends RecordView> recordViewClass, final RecordAdapter<?> adapter, final MemoryAccess memoryAccess) {
+		final Binding bind = new Binding(adapter, memoryAccess);
+		binding.set(bind);
+		try {
+			Class.forName(recordViewClass.getName(), true, recordViewClass.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			throw new RecordClassException("Could not initialize "+recordViewClass.getName(), e);
+		} finally {
+			binding.remove();
+		}
+		
+		if(bind.used == false)
+			throw new RecordClassException(recordViewClass.getName()+" has already been initialized with another record adapter.");
+	}
+	
+	/**
+	 * Record adapter of the record view class which gets initialized.
+	 * Called by the static initializer of a record view class.
+	 * 
+	 * @return record adapter or null
+	 */
+	public static RecordAdapter<?> boundAdapter() {
+		final Binding bind = binding.get();
+		if(bind == null)
+			return null;
+		bind.used = true;
+		return bind.adapter;
+	}
+	
+	/**
+	 * Blueprint id of the record adapter the record view class gets initialized with.
+	 * Called by the static initializer of an ahead of time generated record view class.
+	 * 
+	 * @return blueprint id or -1 if the blueprint is not registered
+	 */
+	public static int boundBlueprintId() {
+		final Binding bind = binding.get();
+		if(bind == null)
+			return -1;
+		bind.used = true;
+		final int blueprintId = bind.adapter.getBlueprintId();
+		return (blueprintId > 0) ? blueprintId : -1;
+	}
+	
+	/**
+	 * Memory access of the record view class which gets initialized.
+	 * Called by the static initializer of a record view class.
+	 * 
+	 * @return memory access or null
+	 */
+	public static MemoryAccess boundMemoryAccess() {
+		final Binding bind = binding.get();
+		if(bind == null)
+			return null;
+		bind.used = true;
+		return bind.memoryAccess;
+	}
+	
+	/**
+	 * Values handed to the static initializer of a record view class.
+	 * 
+	 * @author Nico Hezel
+	 */
+	protected static final class Binding {
+		protected final RecordAdapter<?> adapter;
+		protected final MemoryAccess memoryAccess;
+		protected boolean used = false;
+		
+		protected Binding(RecordAdapter<?> adapter, MemoryAccess memoryAccess) {
+			this.adapter = adapter;
+			this.memoryAccess = memoryAccess;
+		}
+	}
+
 	/**
 	 * Converts the first letter to upper case.
 	 * 
@@ -0,0 +1,76 @@
+package net.wpm.record.bytecode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.wpm.record.blueprint.BlueprintClass;
+import net.wpm.record.blueprint.BlueprintInspector;
+
+/**
+ * Generates the record view classes of a fixed set of blueprints at build time,
+ * see the precompileRecordViews task of the gradle build. The class files are
+ * written into a class output directory next to the blueprints. At runtime the
+ * RecordAdapter picks them up instead of generating the classes with ASM.
+ *
+ * Every blueprint gets a class for native memory with direct access and one
+ * for any other memory access. Blueprints with nested records are skipped,
+ * their record view classes are still generated at runtime.
+ *
+ * Usage: RecordClassPrecompiler [output directory] [blueprint class name]...
+ *
+ * @author Nico Hezel
+ */
+public class RecordClassPrecompiler {
+
+	private static Logger log = LoggerFactory.getLogger(RecordClassPrecompiler.class);
+
+	public static void main(String[] args) throws IOException, ClassNotFoundException {
+		if(args.length < 2) {
+			System.err.println("Usage: RecordClassPrecompiler <output directory> <blueprint class name>...");
+			System.exit(1);
+		}
+
+		final Path outputDir = Paths.get(args[0]);
+		for (int i = 1; i < args.length; i++)
+			precompile(Class.forName(args[i]), outputDir);
+	}
+
+	/**
+	 * Write the record view classes of the blueprint into the output directory.
+	 * The package of the blueprint becomes a sub directory.
+	 *
+	 * @param blueprint
+	 * @param outputDir
+	 * @return written class files, empty if the blueprint can not be generated ahead of time
+	 * @throws IOException
+	 */
+	public static List<Path> precompile(final Class<?> blueprint, final Path outputDir) throws IOException {
+		final List<Path> classFiles = new ArrayList<Path>();
+
+		final BlueprintClass blueprintClass = new BlueprintInspector(blueprint).getBlueprintClass();
+		if(RecordClassGenerator.isPrecompilable(blueprintClass) == false) {
+			log.warn("Skip "+blueprint.getName()+", blueprints with nested records are generated at runtime.");
+			return classFiles;
+		}
+
+		for (boolean directAccess : new boolean[] { true, false }) {
+			final String className = RecordClassGenerator.precompiledClassName(blueprintClass, directAccess);
+			final byte[] bytecode = new RecordClassGenerator(blueprintClass, directAccess).precompile();
+
+			final Path classFile = outputDir.resolve(className.replace('.', '/') + ".class");
+			Files.createDirectories(classFile.getParent());
+			Files.write(classFile, bytecode);
+			classFiles.add(classFile);
+			log.info("Precompiled "+className);
+		}
+
+		return classFiles;
+	}
+}
@@ -1,30 +1,67 @@
 package net.wpm.record.bytecode.template;
 
 import static net.wpm.codegen.Expressions.add;
+import static net.wpm.codegen.Expressions.bitOp;
 import static net.wpm.codegen.Expressions.call;
 import static net.wpm.codegen.Expressions.callStatic;
 import static net.wpm.codegen.Expressions.getArrayItem;
 import static net.wpm.codegen.Expressions.cast;
+import static net.wpm.codegen.Expressions.choice;
+import static net.wpm.codegen.Expressions.classConstant;
+import static net.wpm.codegen.Expressions.cmpEq;
+import static net.wpm.codegen.Expressions.cmpNe;
+import static net.wpm.codegen.Expressions.constructor;
+import static net.wpm.codegen.Expressions.div;
 import static net.wpm.codegen.Expressions.getter;
+import static net.wpm.codegen.Expressions.ifTrue;
+import static net.wpm.codegen.Expressions.isNull;
+import static net.wpm.codegen.Expressions.let;
 import static net.wpm.codegen.Expressions.mul;
+import static net.wpm.codegen.Expressions.nullRef;
 import static net.wpm.codegen.Expressions.self;
+import static net.wpm.codegen.Expressions.sequence;
 import static net.wpm.codegen.Expressions.setter;
 import static net.wpm.codegen.Expressions.value;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import net.wpm.codegen.Expression;
+import net.wpm.codegen.ExpressionBitOp.Operation;
 import net.wpm.codegen.Expressions;
 import net.wpm.record.RecordView;
 import net.wpm.record.Records;
 import net.wpm.record.blueprint.BlueprintVariable;
 import net.wpm.record.bytecode.RecordClassGenerator;
+import net.wpm.record.bytes.HalfFloat;
+import net.wpm.record.collection.TextSequence;
 
 /**
  * Base class for accessing record view methods and variables.
  * 
+ * The content of a record is either accessed through the static memory access
+ * of the record view or, in direct access mode, with static final Unsafe calls 
+ * on the absolute address. The latter is only possible for native memory, 
+ * but avoids the interface dispatch and keeps the accessors small enough
+ * to be inlined by the JIT.
+ * 
  * @author Nico Hezel
  */
 public abstract class TemplateBase implements ASMTemplate {
 
+	// read and write native memory with Unsafe instead of the memory access 
+	protected boolean directAccess = false;
+	
+	/**
+	 * Use static final Unsafe calls instead of the memory access of the record view. 
+	 * Requires record ids which are absolute addresses in native memory.
+	 * 
+	 * @param directAccess
+	 */
+	public void setDirectAccess(boolean directAccess) {
+		this.directAccess = directAccess;
+	}
+
 	// -----------------------------------------------------------------------------------------------------
 	// ---------------------- dealing with other records or primitive data types ---------------------------
 	// -----------------------------------------------------------------------------------------------------
@@ -48,6 +85,18 @@ public abstract class TemplateBase implements ASMTemplate {
 	 */
 	protected Expression readValueExpression(BlueprintVariable variable, Expression index) {
 		
+		// is text
+		if(variable.isText())
+			return readTextExpression(variable);
+		
+		// is reference to another record
+		if(variable.isReference())
+			return readReferenceExpression(variable, index);
+		
+		// is java object
+		if(variable.isHandle())
+			return readObjectExpression(variable, index);
+		
 		// is enum
 		if(variable.getExternalType().isEnum())
 			return readEnumExpression(variable, index);
@@ -80,6 +129,18 @@ public abstract class TemplateBase implements ASMTemplate {
 	 * @return Expression
 	 */
 	protected Expression writeValueExpression(BlueprintVariable variable, Expression index, Expression value) {
+		
+		// is text
+		if(variable.isText())
+			return writeTextExpression(variable, value);
+		
+		// is reference to another record
+		if(variable.isReference())
+			return writeReferenceExpression(variable, index, value);
+		
+		// is java object
+		if(variable.isHandle())
+			return writeObjectExpression(variable, index, value);
 				
 		// is enum
 		if(variable.getExternalType().isEnum())
@@ -98,18 +159,46 @@ public abstract class TemplateBase implements ASMTemplate {
 	// ----------------------------------------------------------------------------------------
 
 	/**
-	 * Creates an expression to read the ordinal of an enum and returns the enum
+	 * Name of the static field holding all constants of the enum variable
+	 * 
+	 * @param variable enum
+	 * @return field name
+	 */
+	public static String enumTableName(BlueprintVariable variable) {
+		return variable.getName()+"Values";
+	}
+	
+	/**
+	 * Creates an expression to read the ordinal of an enum and returns the enum.
+	 * The constants are looked up in the static enum table of the class, 
+	 * Enum.values() would copy them on every read.
 	 * 
 	 * @param variable which content is stored in memory
 	 * @param index of the array (1 = no array)
 	 * @return Expression
 	 */
 	protected Expression readEnumExpression(BlueprintVariable variable, Expression index) {		
-		Expression enumValues = callStatic(variable.getExternalType(), "values");
-		Expression ordinal = readPrimitiveExpression(variable, index);
+		Expression enumValues = getter(self(), enumTableName(variable));
+		Expression ordinal = ordinalExpression(variable, readPrimitiveExpression(variable, index));
 		return getArrayItem(enumValues, ordinal);
 	}
 	
+	/**
+	 * Ordinals are stored unsigned, bytes and shorts need to be widened without their sign.
+	 * 
+	 * @param variable enum
+	 * @param stored content of the internal type
+	 * @return Expression
+	 */
+	protected Expression ordinalExpression(BlueprintVariable variable, Expression stored) {
+		if(variable.isBitField())
+			return stored;
+		if(variable.getInternalType() == byte.class)
+			return bitOp(Operation.AND, stored, value(0xFF));
+		if(variable.getInternalType() == short.class)
+			return bitOp(Operation.AND, stored, value(0xFFFF));
+		return stored;
+	}
 
 	/**
 	 * Creates an expression to write the ordinal of the enum
@@ -120,24 +209,99 @@ public abstract class TemplateBase implements ASMTemplate {
 	 * @return Expression
 	 */
 	protected Expression writeEnumExpression(BlueprintVariable variable, Expression index, Expression value) {	
-		Expression ordinal = cast(call(value, "ordinal"), Byte.TYPE);
+		Expression ordinal = cast(call(value, "ordinal"), variable.getInternalType());
 		return writePrimitiveExpression(variable, index, ordinal);
 	}
 	
+	// ----------------------------------------------------------------------------------------
+	// ----------------------------------- dealing with texts ---------------------------------
+	// ----------------------------------------------------------------------------------------
+	
+	/**
+	 * Name of the member field holding the text flyweight of the variable
+	 * 
+	 * @param variable text
+	 * @return field name
+	 */
+	public static String textFieldName(BlueprintVariable variable) {
+		return variable.getName()+"Text";
+	}
+	
+	/**
+	 * Creates an expression returning the text flyweight of this record view pointing 
+	 * to the text of the variable. The flyweight is created on the first access. 
+	 * String variables get a copy of the text.
+	 * 
+	 * @param variable text
+	 * @return Expression
+	 */
+	protected Expression readTextExpression(BlueprintVariable variable) {
+		final String fieldName = textFieldName(variable);
+		final Expression text = getter(self(), fieldName);
+		final Expression newText = constructor(TextSequence.class, memoryAccess(), value(variable.getTextCapacity()), value(variable.isUTF8()));
+		final Expression flyweight = sequence(
+				ifTrue(isNull(text), setter(self(), fieldName, newText)),
+				call(text, "setAddress", addressOf(variable)),
+				text);
+		
+		if(variable.getExternalType() == String.class)
+			return call(flyweight, "toString");
+		return flyweight;
+	}
+	
+	/**
+	 * Creates an expression writing the characters into the text of the variable
+	 * 
+	 * @param variable text
+	 * @param value CharSequence
+	 * @return Expression
+	 */
+	protected Expression writeTextExpression(BlueprintVariable variable, Expression value) {
+		return callStatic(TextSequence.class, "write", memoryAccess(), addressOf(variable), value(variable.getTextCapacity()), value(variable.isUTF8()), cast(value, CharSequence.class));
+	}
+	
 	// ----------------------------------------------------------------------------------------
 	// -------------------------------- dealing with other records ----------------------------
 	// ----------------------------------------------------------------------------------------
 
 	/**
-	 * Creates an expression to read the content of another record
+	 * Name of the static field holding the record adapter of the nested record
+	 * 
+	 * @param variable nested record
+	 * @return field name
+	 */
+	public static String recordAdapterName(BlueprintVariable variable) {
+		return variable.getName()+"RecordAdapter";
+	}
+	
+	/**
+	 * Name of the member field holding the record view of the nested record
+	 * 
+	 * @param variable nested record
+	 * @return field name
+	 */
+	public static String childViewName(BlueprintVariable variable) {
+		return variable.getName()+"View";
+	}
+	
+	/**
+	 * Creates an expression to read the content of another record. Every record view 
+	 * has a flyweight of the nested record, created on the first access by the adapter 
+	 * in the static field. Every call points the flyweight to the nested record of 
+	 * this record view, previously returned flyweights change as well.
 	 * 
 	 * @param variable which content is stored in memory
 	 * @param index of the array (1 = no array)
 	 * @return Expression
 	 */
 	protected Expression readRecordExpression(BlueprintVariable variable, Expression index) {		
-		int blueprintId = Records.blueprintId(variable.getInternalType());
-		return callStatic(Records.class, "view", value(blueprintId), addressOf(variable, index));
+		final String fieldName = childViewName(variable);
+		final Expression child = getter(self(), fieldName);
+		final Expression newChild = call(getter(self(), recordAdapterName(variable)), "newInstance");
+		return sequence(
+				ifTrue(isNull(child), setter(self(), fieldName, newChild)),
+				call(child, "setRecordId", addressOf(variable, index)),
+				cast(child, variable.getExternalType()));
 	}	
 	
 	/**
@@ -149,6 +313,8 @@ public abstract class TemplateBase implements ASMTemplate {
 	 * @return Expression
 	 */
 	protected Expression readRecordWithExpression(BlueprintVariable variable, Expression index, Expression withRecordView) {
+		if(variable.isReference())
+			return readReferenceWithExpression(variable, index, withRecordView);
 		return Expressions.sequence(
 				call(cast(withRecordView, RecordView.class), "setRecordId", addressOf(variable, index)),
 				withRecordView
@@ -167,7 +333,7 @@ public abstract class TemplateBase implements ASMTemplate {
 		Expression fromAddress = call(cast(recordView, RecordView.class), "getRecordId");
 		Expression toAddress = addressOf(variable, index);
 		Expression recordSize = value(variable.getSizeInBytes());	
-		return call(memoryAccess(), "copy", fromAddress, toAddress, recordSize);
+		return copyExpression(fromAddress, toAddress, recordSize);
 	}
 	
 	// ----------------------------------------------------------------------------------------
@@ -183,8 +349,11 @@ public abstract class TemplateBase implements ASMTemplate {
 	 * @return Expression
 	 */
 	protected Expression readPrimitiveExpression(BlueprintVariable variable, Expression index) {		
-		String methodName = "get"+RecordClassGenerator.capitalize(variable.getInternalType().getName());		
-		return call(memoryAccess(), methodName, addressOf(variable, index));
+		if(variable.isBitField())
+			return readBitsExpression(variable, readMemoryExpression(variable.getWordType(), addressOf(variable)));
+		if(variable.isConvertedDecimal())
+			return fromStorageExpression(variable, readMemoryExpression(variable.getStorageType(), addressOf(variable, index)));
+		return readMemoryExpression(variable.getInternalType(), addressOf(variable, index));
 	}
 
 	
@@ -197,10 +366,451 @@ public abstract class TemplateBase implements ASMTemplate {
 	 * @return Expression
 	 */
 	protected Expression writePrimitiveExpression(BlueprintVariable variable, Expression index, Expression value) {
-		String methodName = "set"+RecordClassGenerator.capitalize(variable.getInternalType().getName());
-		return call(memoryAccess(), methodName, addressOf(variable, index), value);
+		if(variable.isBitField())
+			return writeBitsExpression(variable, value);
+		if(variable.isConvertedDecimal())
+			return writeMemoryExpression(variable.getStorageType(), addressOf(variable, index), toStorageExpression(variable, value));
+		return writeMemoryExpression(variable.getInternalType(), addressOf(variable, index), value);
 	}
+	
+	// ----------------------------------------------------------------------------------------
+	// ------------------------------ dealing with record references --------------------------
+	// ----------------------------------------------------------------------------------------
+	
+	/**
+	 * Creates an expression returning the record adapter of the referenced records. 
+	 * References to the own blueprint use the adapter of this record view, others
+	 * look up the adapter of the referenced blueprint on the first access and keep 
+	 * it in a static field. The lookup registers the blueprint if necessary, blueprints 
+	 * referencing each other can therefore be registered in any order.
+	 * 
+	 * @param variable reference
+	 * @return Expression
+	 */
+	protected Expression referenceAdapterExpression(BlueprintVariable variable) {
+		final Class<?> type = variable.getExternalType();
+		if(type == variable.getBlueprint())
+			return getter(self(), "recordAdapter");
 		
+		final String fieldName = recordAdapterName(variable);
+		final Expression adapter = getter(self(), fieldName);
+		return sequence(
+				ifTrue(isNull(adapter), setter(self(), fieldName, callStatic(RecordView.class, "recordAdapter", classConstant(type)))),
+				adapter);
+	}
+	
+	/**
+	 * Creates an expression returning a record view of the referenced record or null 
+	 * if the record id is 0. Like nested records the record view is a flyweight of 
+	 * this record view, pointed to the referenced record on every call.
+	 * 
+	 * @param variable reference
+	 * @param index of the array (1 = no array)
+	 * @return Expression
+	 */
+	protected Expression readReferenceExpression(BlueprintVariable variable, Expression index) {
+		final String fieldName = childViewName(variable);
+		final Expression child = getter(self(), fieldName);
+		final Expression recordId = let(readPrimitiveExpression(variable, index));
+		return choice(cmpEq(recordId, value(0L)), 
+				nullRef(variable.getExternalType()), 
+				sequence(
+					ifTrue(isNull(child), setter(self(), fieldName, call(referenceAdapterExpression(variable), "newInstance"))),
+					call(child, "setRecordId", recordId),
+					cast(child, variable.getExternalType())));
+	}
+	
+	/**
+	 * Creates an expression pointing the given record view to the referenced record. 
+	 * Returns null without changing the record view if the record id is 0.
+	 * 
+	 * @param variable reference
+	 * @param index of the array 
+	 * @param withRecordView
+	 * @return Expression
+	 */
+	protected Expression readReferenceWithExpression(BlueprintVariable variable, Expression index, Expression withRecordView) {
+		final Expression recordId = let(readPrimitiveExpression(variable, index));
+		return choice(cmpEq(recordId, value(0L)), 
+				nullRef(variable.getExternalType()), 
+				sequence(
+					call(cast(withRecordView, RecordView.class), "setRecordId", recordId),
+					withRecordView));
+	}
+	
+	/**
+	 * Creates an expression storing the record id of the record view, 0 for null.
+	 * 
+	 * @param variable reference
+	 * @param index of the array 
+	 * @param recordView referenced record or null
+	 * @return Expression
+	 */
+	protected Expression writeReferenceExpression(BlueprintVariable variable, Expression index, Expression recordView) {
+		final Expression recordId = choice(isNull(recordView), value(0L), call(cast(recordView, RecordView.class), "getRecordId"));
+		return writePrimitiveExpression(variable, index, recordId);
+	}
+	
+	// ----------------------------------------------------------------------------------------
+	// ---------------------------------- dealing with objects --------------------------------
+	// ----------------------------------------------------------------------------------------
+	
+	/**
+	 * Static field holding the handle table of the record adapter
+	 * 
+	 * @return Expression
+	 */
+	protected Expression handleTable() {
+		return getter(self(), "handleTable");
+	}
+	
+	/**
+	 * Creates an expression returning the java object of the handle stored in the variable
+	 * 
+	 * @param variable object
+	 * @param index of the array 
+	 * @return Expression
+	 */
+	protected Expression readObjectExpression(BlueprintVariable variable, Expression index) {
+		return call(handleTable(), "get", readPrimitiveExpression(variable, index));
+	}
+	
+	/**
+	 * Creates an expression returning the java object of the handle at the offset of the record
+	 * 
+	 * @param offset of the handle from the start of the record
+	 * @return Expression
+	 */
+	protected Expression readObjectExpression(int offset) {
+		return call(handleTable(), "get", readMemoryExpression(long.class, add(address(), value(offset))));
+	}
+	
+	/**
+	 * Creates an expression returning the java object of the handle at the offset 
+	 * of another record, with the help of the handle table of the other record view.
+	 * 
+	 * @param recordView another record view
+	 * @param offset of the handle from the start of the record
+	 * @return Expression
+	 */
+	protected Expression readOtherObjectExpression(Expression recordView, int offset) {
+		final Expression otherTable = call(call(cast(recordView, RecordView.class), "getRecordAdapter"), "getHandleTable");
+		return call(otherTable, "get", readOtherExpression(recordView, long.class, offset));
+	}
+	
+	/**
+	 * Creates an expression putting the java object into the handle table. The handle 
+	 * stored in the variable gets reused, null releases it. Every copy of a record has 
+	 * its own handle, see RecordAdapter.copyFrom.
+	 * 
+	 * @param variable object
+	 * @param index of the array 
+	 * @param value java object or null
+	 * @return Expression
+	 */
+	protected Expression writeObjectExpression(BlueprintVariable variable, Expression index, Expression value) {
+		final Expression handle = call(handleTable(), "replace", readPrimitiveExpression(variable, index), cast(value, Object.class));
+		return writePrimitiveExpression(variable, index, handle);
+	}
+	
+	// ----------------------------------------------------------------------------------------
+	// ---------------------------- dealing with converted decimals ---------------------------
+	// ----------------------------------------------------------------------------------------
+	
+	/**
+	 * Creates an expression converting the stored content of a decimal into its internal type 
+	 * 
+	 * @param variable decimal
+	 * @param stored content of the storage type
+	 * @return Expression
+	 */
+	protected Expression fromStorageExpression(BlueprintVariable variable, Expression stored) {
+		final Expression value;
+		switch (variable.getPrecision()) {
+			case Half: 
+				value = callStatic(HalfFloat.class, "toFloat", stored);
+				break;
+			case Fixed: 
+				value = div(cast(stored, double.class), value(Math.pow(10, variable.getScale())));
+				break;
+			default:
+				value = stored;
+				break;
+		}
+		return cast(value, variable.getInternalType());
+	}
+	
+	/**
+	 * Creates an expression converting a decimal into its storage type. Fixed-point 
+	 * decimals are rounded half up to the next value with the given scale.
+	 * 
+	 * @param variable decimal
+	 * @param value of the internal type
+	 * @return Expression
+	 */
+	protected Expression toStorageExpression(BlueprintVariable variable, Expression value) {
+		switch (variable.getPrecision()) {
+			case Half: 
+				return callStatic(HalfFloat.class, "fromFloat", cast(value, float.class));
+			case Fixed: 
+				return callStatic(Math.class, "round", mul(cast(value, double.class), value(Math.pow(10, variable.getScale()))));
+			default:
+				return cast(value, variable.getStorageType());
+		}
+	}
+	
+	// ----------------------------------------------------------------------------------------
+	// ------------------------------- dealing with bit fields --------------------------------
+	// ----------------------------------------------------------------------------------------
+	
+	/**
+	 * Mask covering the bits of a bit field, starting at bit 0
+	 * 
+	 * @param variable bit field
+	 * @return mask
+	 */
+	protected static long bitMask(BlueprintVariable variable) {
+		return -1L >>> (Long.SIZE - variable.getBitCount());
+	}
+	
+	/**
+	 * Creates an expression extracting the bit field from the word containing it. 
+	 * Signed bit fields are sign-extended, unsigned bit fields are zero-extended.
+	 * 
+	 * @param variable bit field
+	 * @param word the word containing the bit field
+	 * @return Expression
+	 */
+	protected Expression readBitsExpression(BlueprintVariable variable, Expression word) {
+		final Expression bits;
+		if(variable.isSigned() && variable.getInternalType() != boolean.class) {
+			final int leftShift = Long.SIZE - variable.getBitOffset() - variable.getBitCount();
+			bits = bitOp(Operation.SHR, bitOp(Operation.SHL, cast(word, long.class), value(leftShift)), value(Long.SIZE - variable.getBitCount()));
+		} else 
+			bits = bitOp(Operation.AND, bitOp(Operation.USHR, cast(word, long.class), value(variable.getBitOffset())), value(bitMask(variable)));
+		
+		if(variable.getInternalType() == boolean.class)
+			return cmpNe(bits, value(0L));
+		return cast(bits, variable.getInternalType());
+	}
+	
+	/**
+	 * Creates an expression to replace the bits of the bit field in its word, 
+	 * the other bits of the word stay the same. Values which do not fit into 
+	 * the bit field are truncated. 
+	 * 
+	 * The read-modify-write of the word is not atomic, concurrent writes of 
+	 * bit fields sharing a word need an external synchronization.
+	 * 
+	 * @param variable bit field
+	 * @param value new content
+	 * @return Expression
+	 */
+	protected Expression writeBitsExpression(BlueprintVariable variable, Expression value) {
+		final Class<?> wordType = variable.getWordType();
+		final Expression address = addressOf(variable);
+		final long mask = bitMask(variable);
+		
+		final Expression bits = (variable.getInternalType() == boolean.class) ? 
+				choice(cmpEq(value, value(true)), value(1L), value(0L)) : 
+				bitOp(Operation.AND, cast(value, long.class), value(mask));
+		final Expression others = bitOp(Operation.AND, cast(readMemoryExpression(wordType, address), long.class), value(~(mask << variable.getBitOffset())));
+		final Expression word = bitOp(Operation.OR, others, bitOp(Operation.SHL, bits, value(variable.getBitOffset())));
+		return writeMemoryExpression(wordType, address, cast(word, wordType));
+	}
+	
+	/**
+	 * Creates an expression to read a primitive value from the memory of this record view
+	 * 
+	 * @param type primitive type
+	 * @param address record id plus offset
+	 * @return Expression
+	 */
+	protected Expression readMemoryExpression(Class<?> type, Expression address) {
+		if(directAccess)
+			return readUnsafeExpression(type, address);
+		
+		String methodName = "get"+RecordClassGenerator.capitalize(type.getName());		
+		return call(memoryAccess(), methodName, address);
+	}
+	
+	/**
+	 * Creates an expression to write a primitive value into the memory of this record view
+	 * 
+	 * @param type primitive type
+	 * @param address record id plus offset
+	 * @param value new content
+	 * @return Expression
+	 */
+	protected Expression writeMemoryExpression(Class<?> type, Expression address, Expression value) {
+		if(directAccess)
+			return writeUnsafeExpression(type, address, value);
+		
+		String methodName = "set"+RecordClassGenerator.capitalize(type.getName());
+		return call(memoryAccess(), methodName, address, value);
+	}
+	
+	/**
+	 * Creates an expression to read a primitive value at an absolute address with Unsafe. 
+	 * Booleans are stored as bytes like in the NativeMemoryAccess.
+	 * 
+	 * @param type primitive type
+	 * @param address absolute address
+	 * @return Expression
+	 */
+	protected Expression readUnsafeExpression(Class<?> type, Expression address) {
+		if(type == boolean.class)
+			return cmpNe(call(unsafe(), "getByte", address), value((byte)0));
+		
+		String methodName = "get"+RecordClassGenerator.capitalize(type.getName());
+		return call(unsafe(), methodName, address);
+	}
+	
+	/**
+	 * Creates an expression to write a primitive value at an absolute address with Unsafe. 
+	 * Booleans are stored as bytes like in the NativeMemoryAccess.
+	 * 
+	 * @param type primitive type
+	 * @param address absolute address
+	 * @param value new content
+	 * @return Expression
+	 */
+	protected Expression writeUnsafeExpression(Class<?> type, Expression address, Expression value) {
+		if(type == boolean.class)
+			return call(unsafe(), "putByte", address, choice(cmpEq(value, value(true)), value((byte)'Y'), value((byte)0)));
+		
+		String methodName = "put"+RecordClassGenerator.capitalize(type.getName());
+		return call(unsafe(), methodName, address, value);
+	}
+	
+	/**
+	 * Creates an expression to copy a region of memory.
+	 * 
+	 * @param fromAddress
+	 * @param toAddress
+	 * @param length in bytes (int)
+	 * @return Expression
+	 */
+	protected Expression copyExpression(Expression fromAddress, Expression toAddress, Expression length) {
+		if(directAccess)
+			return call(unsafe(), "copyMemory", fromAddress, toAddress, cast(length, long.class));
+		return call(memoryAccess(), "copy", fromAddress, toAddress, length);
+	}
+		
+	/**
+	 * Creates an expression for an atomic or ordered operation on the memory of this record view. 
+	 * In direct access mode the Unsafe method is called with a null base object and the 
+	 * absolute address, otherwise the operation of the memory access is used.
+	 * 
+	 * @param memoryMethod name of the MemoryAccess method
+	 * @param unsafeMethod name of the Unsafe method
+	 * @param address record id plus offset
+	 * @param arguments following the address
+	 * @return Expression
+	 */
+	protected Expression atomicExpression(String memoryMethod, String unsafeMethod, Expression address, Expression ... arguments) {
+		final List<Expression> args = new ArrayList<Expression>();
+		if(directAccess)
+			args.add(nullRef(Object.class));
+		args.add(address);
+		for (Expression argument : arguments) 
+			args.add(argument);
+		
+		if(directAccess)
+			return call(unsafe(), unsafeMethod, args.toArray(new Expression[args.size()]));
+		return call(memoryAccess(), memoryMethod, args.toArray(new Expression[args.size()]));
+	}
+		
+	// ----------------------------------------------------------------------------------------
+	// ---------------------------- dealing with the whole record -----------------------------
+	// ----------------------------------------------------------------------------------------
+	
+	/**
+	 * Splits a region of memory into words. Longs as long as possible, 
+	 * followed by an int, a short and a byte for the rest.
+	 * 
+	 * @param length in bytes
+	 * @return types of the words
+	 */
+	protected static List<Class<?>> wordTypes(int length) {
+		final List<Class<?>> types = new ArrayList<Class<?>>();
+		for (; length >= 8; length -= 8)
+			types.add(long.class);
+		if(length >= 4) {
+			types.add(int.class);
+			length -= 4;
+		}
+		if(length >= 2) {
+			types.add(short.class);
+			length -= 2;
+		}
+		if(length >= 1)
+			types.add(byte.class);
+		return types;
+	}
+	
+	/**
+	 * Creates expressions reading a region of the record of this view word by word
+	 * 
+	 * @param offset from the start of the record
+	 * @param length in bytes
+	 * @return Expressions
+	 */
+	protected List<Expression> readWordsExpression(int offset, int length) {
+		final List<Expression> words = new ArrayList<Expression>();
+		for (Class<?> type : wordTypes(length)) {
+			words.add(readMemoryExpression(type, add(address(), value(offset))));
+			offset += sizeOf(type);
+		}
+		return words;
+	}
+	
+	/**
+	 * Creates expressions reading a region of another record word by word, 
+	 * with the help of the memory access of the other record view.
+	 * 
+	 * @param recordView another record view
+	 * @param offset from the start of the record
+	 * @param length in bytes
+	 * @return Expressions
+	 */
+	protected List<Expression> readWordsExpression(Expression recordView, int offset, int length) {
+		final List<Expression> words = new ArrayList<Expression>();
+		for (Class<?> type : wordTypes(length)) {
+			words.add(readOtherExpression(recordView, type, offset));
+			offset += sizeOf(type);
+		}
+		return words;
+	}
+	
+	/**
+	 * Creates an expression to read a primitive value of another record 
+	 * with the help of the memory access of the other record view.
+	 * 
+	 * @param recordView another record view
+	 * @param type primitive type
+	 * @param offset from the start of the record
+	 * @return Expression
+	 */
+	protected Expression readOtherExpression(Expression recordView, Class<?> type, int offset) {
+		final Expression other = cast(recordView, RecordView.class);
+		final Expression address = add(call(other, "getRecordId"), value(offset));
+		return call(call(other, "getMemoryAccess"), "get"+RecordClassGenerator.capitalize(type.getName()), address);
+	}
+	
+	/**
+	 * Size in bytes of a word type
+	 * 
+	 * @param type
+	 * @return size in bytes
+	 */
+	protected static int sizeOf(Class<?> type) {
+		if(type == long.class) return 8;
+		if(type == int.class) return 4;
+		if(type == short.class) return 2;
+		return 1;
+	}
+	
 	// ----------------------------------------------------------------------------------------
 	// ----------------------------------- helper methods -------------------------------------
 	// ----------------------------------------------------------------------------------------
@@ -255,6 +865,15 @@ public abstract class TemplateBase implements ASMTemplate {
 		return getter(self(), "memoryAccess");
 	}
 	
+	/**
+	 * An Expression representing the Unsafe instance, only available in direct access mode
+	 * 
+	 * @return Expression
+	 */
+	protected Expression unsafe() {
+		return getter(self(), "unsafe");
+	}
+	
 	/**
 	 * An Expression representing blueprint id
 	 * 
@@ -0,0 +1,244 @@
+package net.wpm.record.bytecode.template;
+
+import static java.util.Arrays.asList;
+import static net.wpm.codegen.Expressions.add;
+import static net.wpm.codegen.Expressions.and;
+import static net.wpm.codegen.Expressions.arg;
+import static net.wpm.codegen.Expressions.cast;
+import static net.wpm.codegen.Expressions.choice;
+import static net.wpm.codegen.Expressions.cmpGe;
+import static net.wpm.codegen.Expressions.cmpLe;
+import static net.wpm.codegen.Expressions.cmpLt;
+import static net.wpm.codegen.Expressions.div;
+import static net.wpm.codegen.Expressions.expressionFor;
+import static net.wpm.codegen.Expressions.getArrayItem;
+import static net.wpm.codegen.Expressions.ifTrue;
+import static net.wpm.codegen.Expressions.length;
+import static net.wpm.codegen.Expressions.let;
+import static net.wpm.codegen.Expressions.mul;
+import static net.wpm.codegen.Expressions.sequence;
+import static net.wpm.codegen.Expressions.set;
+import static net.wpm.codegen.Expressions.setArrayItem;
+import static net.wpm.codegen.Expressions.sub;
+import static net.wpm.codegen.Expressions.switchForPosition;
+import static net.wpm.codegen.Expressions.value;
+import static net.wpm.codegen.Expressions.voidExp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import net.wpm.codegen.ClassBuilder;
+import net.wpm.codegen.Expression;
+import net.wpm.codegen.ForVar;
+import net.wpm.codegen.Variable;
+import net.wpm.record.blueprint.BlueprintVariable;
+
+/**
+ * Aggregations over a single variable of consecutive records. Every kernel is a
+ * loop reading the variable at fromAddress + i * recordSize + offset directly
+ * from the memory, without a record view or a call per record.
+ *
+ * The column argument is the index of the variable in columnVariables().
+ * Integral columns are summed and compared as long, floating point columns as double.
+ * sumColumn returns the sum as double, longSumColumn keeps all digits of integral sums.
+ *
+ * @author Nico Hezel
+ */
+public class TemplateColumnKernels extends TemplateBase {
+
+	protected final List<BlueprintVariable> columns;
+	protected final int recordSize;
+
+	public TemplateColumnKernels(Collection<BlueprintVariable> variables, int recordSize) {
+		this.columns = columnVariables(variables);
+		this.recordSize = recordSize;
+	}
+
+	/**
+	 * Single primitive number variables in the order of their offset.
+	 * Arrays, bit fields, converted decimals, enums, texts, references,
+	 * Java objects and nested records have no column kernels.
+	 *
+	 * @param variables
+	 * @return column variables
+	 */
+	public static List<BlueprintVariable> columnVariables(Collection<BlueprintVariable> variables) {
+		final List<BlueprintVariable> columns = new ArrayList<BlueprintVariable>();
+		for (BlueprintVariable variable : variables) {
+			final Class<?> type = variable.getInternalType();
+			final boolean isNumber = type == byte.class || type == short.class || type == int.class ||
+									 type == long.class || type == float.class || type == double.class;
+			if(isNumber && variable.getExternalType() == type && variable.isArray() == false && variable.isBitField() == false &&
+			   variable.isConvertedDecimal() == false && variable.isReference() == false && variable.isHandle() == false)
+				columns.add(variable);
+		}
+		columns.sort(new Comparator<BlueprintVariable>() {
+			@Override
+			public int compare(BlueprintVariable o1, BlueprintVariable o2) {
+				return Integer.compare(o1.getOffset(), o2.getOffset());
+			}
+		});
+		return columns;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void addBytecode(ClassBuilder<?> builder) {
+		final List<Expression> sums = new ArrayList<Expression>();
+		final List<Expression> longSums = new ArrayList<Expression>();
+		final List<Expression> mins = new ArrayList<Expression>();
+		final List<Expression> maxs = new ArrayList<Expression>();
+		final List<Expression> counts = new ArrayList<Expression>();
+		final List<Expression> histograms = new ArrayList<Expression>();
+		for (BlueprintVariable column : columns) {
+			sums.add(sumExpression(column, double.class));
+			longSums.add(sumExpression(column, long.class));
+			mins.add(extremumExpression(column, true));
+			maxs.add(extremumExpression(column, false));
+			counts.add(countExpression(column));
+			histograms.add(histogramExpression(column));
+		}
+
+		// sumColumn(int column, long fromAddress, int count)
+		builder.method("sumColumn", double.class, asList(int.class, long.class, int.class), switchExpression(sums, value(0.0)));
+		builder.method("longSumColumn", long.class, asList(int.class, long.class, int.class), switchExpression(longSums, value(0L)));
+		builder.method("minColumn", double.class, asList(int.class, long.class, int.class), switchExpression(mins, value(0.0)));
+		builder.method("maxColumn", double.class, asList(int.class, long.class, int.class), switchExpression(maxs, value(0.0)));
+
+		// countColumn(int column, long fromAddress, int count, double lower, double upper)
+		builder.method("countColumn", int.class, asList(int.class, long.class, int.class, double.class, double.class), switchExpression(counts, value(0)));
+
+		// histogramColumn(int column, long fromAddress, int count, double lower, double upper, long[] bins)
+		builder.method("histogramColumn", void.class, asList(int.class, long.class, int.class, double.class, double.class, long[].class), switchExpression(histograms, voidExp()));
+	}
+
+	/**
+	 * Select the kernel of the column argument. Invalid columns throw an IllegalArgumentException.
+	 *
+	 * @param kernels one kernel per column
+	 * @param empty method body for blueprints without columns
+	 * @return Expression
+	 */
+	protected Expression switchExpression(List<Expression> kernels, Expression empty) {
+		return kernels.isEmpty() ? empty : switchForPosition(arg(0), kernels);
+	}
+
+	/**
+	 * Sum of the column as double or long
+	 *
+	 * @param column
+	 * @param resultType double or long
+	 * @return Expression
+	 */
+	protected Expression sumExpression(final BlueprintVariable column, final Class<?> resultType) {
+		final Class<?> type = accumulatorType(column);
+		final Variable sum = let(type == long.class ? value(0L) : value(0.0));
+		return sequence(
+				sum,
+				expressionFor(arg(2), new ForVar() {
+					@Override
+					public Expression forVar(Expression i) {
+						return set(sum, add(sum, readColumnExpression(column, type, i)));
+					}
+				}),
+				cast(sum, resultType));
+	}
+
+	/**
+	 * Smallest or biggest value of a non empty column as double, NaN values are ignored
+	 *
+	 * @param column
+	 * @param min
+	 * @return Expression
+	 */
+	protected Expression extremumExpression(final BlueprintVariable column, final boolean min) {
+		final Class<?> type = accumulatorType(column);
+		final Expression start;
+		if(type == long.class)
+			start = value(min ? Long.MAX_VALUE : Long.MIN_VALUE);
+		else
+			start = value(min ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+
+		final Variable extremum = let(start);
+		return sequence(
+				extremum,
+				expressionFor(arg(2), new ForVar() {
+					@Override
+					public Expression forVar(Expression i) {
+						final Variable value = let(readColumnExpression(column, type, i));
+						return set(extremum, choice(min ? cmpLt(value, extremum) : cmpLt(extremum, value), value, extremum));
+					}
+				}),
+				cast(extremum, double.class));
+	}
+
+	/**
+	 * Amount of values between lower and upper (both inclusive)
+	 *
+	 * @param column
+	 * @return Expression
+	 */
+	protected Expression countExpression(final BlueprintVariable column) {
+		final Variable count = let(value(0));
+		return sequence(
+				count,
+				expressionFor(arg(2), new ForVar() {
+					@Override
+					public Expression forVar(Expression i) {
+						final Variable value = let(readColumnExpression(column, double.class, i));
+						return set(count, add(count, choice(and(cmpGe(value, arg(3)), cmpLe(value, arg(4))), value(1), value(0))));
+					}
+				}),
+				count);
+	}
+
+	/**
+	 * Adds the values between lower (inclusive) and upper (exclusive) to equally
+	 * sized bins. Values outside the range are ignored.
+	 *
+	 * @param column
+	 * @return Expression
+	 */
+	protected Expression histogramExpression(final BlueprintVariable column) {
+		final Expression bins = arg(5);
+		final Variable scale = let(div(cast(length(bins), double.class), sub(arg(4), arg(3))));
+		return sequence(
+				scale,
+				expressionFor(arg(2), new ForVar() {
+					@Override
+					public Expression forVar(Expression i) {
+						final Variable value = let(readColumnExpression(column, double.class, i));
+						final Variable bin = let(cast(mul(sub(value, arg(3)), scale), int.class));
+						return ifTrue(and(cmpGe(value, arg(3)), cmpLt(value, arg(4))),
+								ifTrue(cmpLt(bin, length(bins)),
+									setArrayItem(bins, bin, add(getArrayItem(bins, bin), value(1L)))));
+					}
+				}));
+	}
+
+	/**
+	 * Value of the column in the i-th record after the from address
+	 *
+	 * @param column
+	 * @param type result type
+	 * @param i record index
+	 * @return Expression
+	 */
+	protected Expression readColumnExpression(BlueprintVariable column, Class<?> type, Expression i) {
+		final Expression address = add(arg(1), add(mul(cast(i, long.class), value((long) recordSize)), value((long) column.getOffset())));
+		return cast(readMemoryExpression(column.getInternalType(), address), type);
+	}
+
+	/**
+	 * Integral columns are aggregated as long, floating point columns as double
+	 *
+	 * @param column
+	 * @return long or double
+	 */
+	protected static Class<?> accumulatorType(BlueprintVariable column) {
+		final Class<?> type = column.getInternalType();
+		return (type == float.class || type == double.class) ? double.class : long.class;
+	}
+}
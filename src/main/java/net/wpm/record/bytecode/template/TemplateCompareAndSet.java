@@ -0,0 +1,31 @@
+package net.wpm.record.bytecode.template;
+
+import static java.util.Arrays.asList;
+import static net.wpm.codegen.Expressions.arg;
+
+import net.wpm.codegen.ClassBuilder;
+import net.wpm.record.blueprint.BlueprintMethod;
+import net.wpm.record.blueprint.BlueprintVariable;
+import net.wpm.record.bytecode.RecordClassGenerator;
+
+/**
+ * Atomically sets the int or long variable if it contains the expected value.
+ * 
+ * @author Nico Hezel
+ */
+public class TemplateCompareAndSet extends TemplateBase {
+
+	protected BlueprintMethod blueprintMethod;
+	
+	public TemplateCompareAndSet(BlueprintMethod blueprintMethod) {
+		this.blueprintMethod = blueprintMethod;
+	}
+
+	@Override
+	public void addBytecode(ClassBuilder<?> builder) {		
+		BlueprintVariable variable = blueprintMethod.getVariable();
+		String type = RecordClassGenerator.capitalize(variable.getInternalType().getName());
+		builder.method(blueprintMethod.getName(), boolean.class, asList(variable.getExternalType(), variable.getExternalType()), 
+				atomicExpression("compareAndSet"+type, "compareAndSwap"+type, addressOf(variable), arg(0), arg(1)));
+	}
+}
@@ -0,0 +1,116 @@
+package net.wpm.record.bytecode.template;
+
+import static java.util.Arrays.asList;
+import static net.wpm.codegen.Expressions.add;
+import static net.wpm.codegen.Expressions.arg;
+import static net.wpm.codegen.Expressions.call;
+import static net.wpm.codegen.Expressions.callStatic;
+import static net.wpm.codegen.Expressions.cast;
+import static net.wpm.codegen.Expressions.comparator;
+import static net.wpm.codegen.Expressions.self;
+import static net.wpm.codegen.Expressions.value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import net.wpm.codegen.ClassBuilder;
+import net.wpm.codegen.Expression;
+import net.wpm.codegen.ExpressionComparator;
+import net.wpm.record.RecordView;
+import net.wpm.record.Records;
+import net.wpm.record.blueprint.BlueprintVariable;
+import net.wpm.record.collection.TextSequence;
+
+/**
+ * Implements Comparable for blueprints extending it. The variables are compared 
+ * in the order of their offset, arrays element by element. Enums are compared by 
+ * their ordinal, bit fields by their value, texts by their code points and nested 
+ * records word by word. Records with too many values 
+ * are compared byte by byte with RecordView.contentCompare().
+ * 
+ * @author Nico Hezel
+ */
+public class TemplateCompareTo extends TemplateBase {
+
+	protected Collection<BlueprintVariable> variables;
+	
+	public TemplateCompareTo(Collection<BlueprintVariable> variables) {
+		this.variables = variables;
+	}
+	
+	@Override
+	public void addBytecode(ClassBuilder<?> builder) {
+		final List<BlueprintVariable> sorted = new ArrayList<BlueprintVariable>(variables);
+		sorted.sort(new Comparator<BlueprintVariable>() {
+			@Override
+			public int compare(BlueprintVariable o1, BlueprintVariable o2) {
+				return Integer.compare(o1.getOffset(), o2.getOffset());
+			}
+		});
+		
+		// too many variables or array elements to compare them one by one
+		int comparisons = 0;
+		for (BlueprintVariable variable : sorted)
+			comparisons += (Records.blueprintId(variable.getInternalType()) > 0) ? wordTypes(variable.getSizeInBytes()).size() : variable.getElementCount();
+		if(comparisons > TemplateEquals.MaxUnrolledWords) {
+			builder.method("compareTo", int.class, asList(Object.class), callStatic(RecordView.class, "contentCompare", cast(self(), RecordView.class), cast(arg(0), RecordView.class)));
+			return;
+		}
+		
+		final ExpressionComparator comparator = comparator();
+		for (BlueprintVariable variable : sorted) {
+			
+			// nested records 
+			if(Records.blueprintId(variable.getInternalType()) > 0) {
+				final List<Expression> words = readWordsExpression(variable.getOffset(), variable.getSizeInBytes());
+				final List<Expression> otherWords = readWordsExpression(arg(0), variable.getOffset(), variable.getSizeInBytes());
+				for (int i = 0; i < words.size(); i++)
+					comparator.add(words.get(i), otherWords.get(i));
+				continue;
+			}
+			
+			// texts in the order of their code points
+			if(variable.isText()) {
+				final Expression other = cast(arg(0), RecordView.class);
+				comparator.add(callStatic(TextSequence.class, "compare", memoryAccess(), addressOf(variable), 
+						call(other, "getMemoryAccess"), add(call(other, "getRecordId"), value(variable.getOffset()))), value(0));
+				continue;
+			}
+			
+			// bit fields sharing a word
+			if(variable.isBitField()) {
+				comparator.add(
+						readPrimitiveExpression(variable, value(0)), 
+						readBitsExpression(variable, readOtherExpression(arg(0), variable.getWordType(), variable.getOffset())));
+				continue;
+			}
+			
+			// decimals by their value
+			if(variable.isConvertedDecimal()) {
+				for (int i = 0; i < variable.getElementCount(); i++) {
+					final int offset = variable.getOffset() + i * variable.getElementSizeInBytes();
+					comparator.add(
+							readPrimitiveExpression(variable, value(i)), 
+							fromStorageExpression(variable, readOtherExpression(arg(0), variable.getStorageType(), offset)));
+				}
+				continue;
+			}
+			
+			// primitives and unsigned ordinals of enums
+			final Class<?> type = variable.getInternalType();
+			final boolean isEnum = variable.getExternalType().isEnum();
+			for (int i = 0; i < variable.getElementCount(); i++) {
+				final int offset = variable.getOffset() + i * variable.getElementSizeInBytes();
+				final Expression value = readMemoryExpression(type, add(address(), value(offset)));
+				final Expression otherValue = readOtherExpression(arg(0), type, offset);
+				comparator.add(
+						isEnum ? ordinalExpression(variable, value) : value, 
+						isEnum ? ordinalExpression(variable, otherValue) : otherValue);
+			}
+		}
+		
+		builder.method("compareTo", int.class, asList(Object.class), comparator);
+	}
+}
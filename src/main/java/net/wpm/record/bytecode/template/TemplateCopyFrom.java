@@ -14,18 +14,28 @@ public class TemplateCopyFrom extends TemplateBase {
 	
 	protected BlueprintMethod blueprintMethod;
 	protected Class<?> blueprintType;
+	protected boolean copyHandles;
 	
-	public TemplateCopyFrom(BlueprintMethod blueprintMethod, Class<?> blueprintType) {
+	/**
+	 * @param blueprintMethod
+	 * @param blueprintType
+	 * @param copyHandles the record stores java objects
+	 */
+	public TemplateCopyFrom(BlueprintMethod blueprintMethod, Class<?> blueprintType, boolean copyHandles) {
 		this.blueprintMethod = blueprintMethod;
 		this.blueprintType = blueprintType;
+		this.copyHandles = copyHandles;
 	}
 	
 	
 	@Override
 	public void addBytecode(ClassBuilder<?> builder) {
-		Expression fromId = call(cast(arg(0), RecordView.class), "getRecordId");
-		Expression toId = address();
-		Expression recordSize = recordSize();		
-		builder.method("copyFrom", Void.TYPE, asList(blueprintType), call(memoryAccess(), "copy", fromId, toId, recordSize));
+		// the adapter copies the handles of java objects as well
+		final Expression copy;
+		if(copyHandles)
+			copy = call(adapter(), "copyFrom", cast(arg(0), RecordView.class), address());
+		else
+			copy = copyExpression(call(cast(arg(0), RecordView.class), "getRecordId"), address(), recordSize());
+		builder.method("copyFrom", Void.TYPE, asList(blueprintType), copy);
 	}	
 }
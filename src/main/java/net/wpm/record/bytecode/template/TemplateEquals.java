@@ -0,0 +1,95 @@
+package net.wpm.record.bytecode.template;
+
+import static java.util.Arrays.asList;
+import static net.wpm.codegen.Expressions.and;
+import static net.wpm.codegen.Expressions.arg;
+import static net.wpm.codegen.Expressions.call;
+import static net.wpm.codegen.Expressions.callStatic;
+import static net.wpm.codegen.Expressions.cast;
+import static net.wpm.codegen.Expressions.cmpEq;
+import static net.wpm.codegen.Expressions.cmpNe;
+import static net.wpm.codegen.Expressions.instanceOf;
+import static net.wpm.codegen.Expressions.or;
+import static net.wpm.codegen.Expressions.self;
+import static net.wpm.codegen.Expressions.value;
+
+import java.util.List;
+import java.util.Objects;
+
+import net.wpm.codegen.ClassBuilder;
+import net.wpm.codegen.Expression;
+import net.wpm.codegen.PredicateDefAnd;
+import net.wpm.record.RecordView;
+
+/**
+ * Two record views are equal if they have the same blueprint and point to records
+ * with the same content. The content is compared word by word, bigger records use 
+ * RecordView.contentEquals(). Java objects stored in the records are compared with
+ * their equals method instead of their handles.
+ * 
+ * @author Nico Hezel
+ */
+public class TemplateEquals extends TemplateBase {
+
+	// records with more words are compared in a loop
+	public static final int MaxUnrolledWords = 64;
+	
+	protected Class<?> blueprintType;
+	protected int sizeInBytes;
+	protected int[] handleOffsets;
+	
+	public TemplateEquals(Class<?> blueprintType, int sizeInBytes, int[] handleOffsets) {
+		this.blueprintType = blueprintType;
+		this.sizeInBytes = sizeInBytes;
+		this.handleOffsets = handleOffsets;
+	}
+	
+	@Override
+	public void addBytecode(ClassBuilder<?> builder) {
+		final Expression other = cast(arg(0), RecordView.class);
+		final Expression otherAddress = call(other, "getRecordId");
+		
+		// both views point to records with the same size
+		final PredicateDefAnd sameContent = and(
+				cmpNe(address(), value(0L)), 
+				cmpNe(otherAddress, value(0L)), 
+				cmpEq(call(other, "getRecordSize"), recordSize()));
+		
+		final List<Class<?>> wordTypes = wordTypes(sizeInBytes);
+		if(wordTypes.size() > MaxUnrolledWords) {
+			sameContent.add(cmpEq(callStatic(RecordView.class, "contentEquals", cast(self(), RecordView.class), other), value(true)));
+		} else {
+			int from = 0;
+			for (int offset : handleOffsets) {
+				addWordComparisons(sameContent, other, from, offset - from);
+				final Expression objectEquals = callStatic(Objects.class, "equals", readObjectExpression(offset), readOtherObjectExpression(other, offset));
+				sameContent.add(cmpEq(objectEquals, value(true)));
+				from = offset + 8;
+			}
+			addWordComparisons(sameContent, other, from, sizeInBytes - from);
+		}
+		
+		// views pointing to the same record or no-where are equal as well
+		final Expression equals = and(
+				instanceOf(arg(0), RecordView.class), 
+				instanceOf(arg(0), blueprintType), 
+				or(cmpEq(address(), otherAddress), sameContent));
+		
+		builder.method("equals", boolean.class, asList(Object.class), equals);
+	}
+	
+	/**
+	 * Compares a region of both records word by word.
+	 * 
+	 * @param sameContent predicate to add the comparisons to
+	 * @param other record view
+	 * @param offset from the start of the record
+	 * @param length in bytes
+	 */
+	protected void addWordComparisons(PredicateDefAnd sameContent, Expression other, int offset, int length) {
+		final List<Expression> words = readWordsExpression(offset, length);
+		final List<Expression> otherWords = readWordsExpression(other, offset, length);
+		for (int i = 0; i < words.size(); i++)
+			sameContent.add(cmpEq(words.get(i), otherWords.get(i)));
+	}
+}
@@ -0,0 +1,31 @@
+package net.wpm.record.bytecode.template;
+
+import static java.util.Arrays.asList;
+import static net.wpm.codegen.Expressions.arg;
+
+import net.wpm.codegen.ClassBuilder;
+import net.wpm.record.blueprint.BlueprintMethod;
+import net.wpm.record.blueprint.BlueprintVariable;
+import net.wpm.record.bytecode.RecordClassGenerator;
+
+/**
+ * Atomically adds a delta to the int or long variable and returns the previous value.
+ * 
+ * @author Nico Hezel
+ */
+public class TemplateGetAndAdd extends TemplateBase {
+
+	protected BlueprintMethod blueprintMethod;
+	
+	public TemplateGetAndAdd(BlueprintMethod blueprintMethod) {
+		this.blueprintMethod = blueprintMethod;
+	}
+
+	@Override
+	public void addBytecode(ClassBuilder<?> builder) {		
+		BlueprintVariable variable = blueprintMethod.getVariable();
+		String type = RecordClassGenerator.capitalize(variable.getInternalType().getName());
+		builder.method(blueprintMethod.getName(), variable.getExternalType(), asList(variable.getExternalType()), 
+				atomicExpression("getAndAdd"+type, "getAndAdd"+type, addressOf(variable), arg(0)));
+	}
+}
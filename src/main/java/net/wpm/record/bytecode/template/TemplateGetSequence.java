@@ -1,7 +1,7 @@
 package net.wpm.record.bytecode.template;
 
 import static net.wpm.codegen.Expressions.call;
-import static net.wpm.codegen.Expressions.callStatic;
+import static net.wpm.codegen.Expressions.cast;
 import static net.wpm.codegen.Expressions.constructor;
 import static net.wpm.codegen.Expressions.getter;
 import static net.wpm.codegen.Expressions.ifTrue;
@@ -15,15 +15,15 @@ import java.util.Collections;
 
 import net.wpm.codegen.ClassBuilder;
 import net.wpm.codegen.Expression;
-import net.wpm.record.RecordAdapter;
-import net.wpm.record.RecordView;
-import net.wpm.record.Records;
 import net.wpm.record.blueprint.BlueprintMethod;
 import net.wpm.record.blueprint.BlueprintVariable;
+import net.wpm.record.collection.EnumSequence;
+import net.wpm.record.collection.PrimitiveSequence;
 import net.wpm.record.collection.RecordSequence;
 
 /**
- * TODO can not deal with enum or primitive type sequences at the moment
+ * Sequences of other records, enums or primitive values stored in an array variable.
+ * The sequence is a member field of the record view and created on the first access.
  * 
  * @author Nico Hezel
  */
@@ -40,17 +40,26 @@ public class TemplateGetSequence extends TemplateBase {
 	public void addBytecode(ClassBuilder<?> builder) {		
 		BlueprintVariable variable = blueprintMethod.getVariable();		
 		
-		// TODO could be much faster if there is a way to access the internal RecordAdapter Array of the Records class
-		int blueprintId = Records.blueprintId(variable.getExternalType());
-		Expression variableAdapter = callStatic(RecordView.class, "recordAdapter", value(blueprintId));
+		// enums and primitive values
+		Class<?> type = variable.getExternalType();
+		if(type.isEnum()) {
+			Expression values = cast(getter(self(), enumTableName(variable)), Enum[].class);
+			Expression constructSequence = constructor(EnumSequence.class, memoryAccess(), value(variable.getElementCount()), values, value(variable.getElementSizeInBytes()));
+			Expression seq = lazySequence(builder, variable, EnumSequence.class, constructSequence);
+			builder.method(blueprintMethod.getName(), Iterable.class, Collections.EMPTY_LIST, seq);
+			builder.method(blueprintMethod.getName(), EnumSequence.class, Collections.EMPTY_LIST, seq);
+			return;
+		}
+		if(type.isPrimitive()) {
+			Class<? extends PrimitiveSequence> sequenceClass = PrimitiveSequence.sequenceClass(type);
+			Expression constructSequence = constructor(sequenceClass, memoryAccess(), value(variable.getElementCount()));
+			Expression seq = lazySequence(builder, variable, sequenceClass, constructSequence);
+			builder.method(blueprintMethod.getName(), sequenceClass, Collections.EMPTY_LIST, seq);
+			return;
+		}
 		
-		// create a static field containing the adapter for the current variable
-		String variableAdapterName = variable.getName()+"RecordAdapter";
-		builder.staticConstant(variableAdapterName, RecordAdapter.class);
-		builder.staticInitializationBlock(setter(self(), variableAdapterName, variableAdapter));
-		
-		// create a new RecordSequence with the adapter of the static field
-		Expression adapter = getter(self(), variableAdapterName);
+		// create a new RecordSequence with the adapter of the static field, see RecordClassGenerator.addRecordFields
+		Expression adapter = getter(self(), recordAdapterName(variable));
 		Expression count = value(variable.getElementCount());
 		Expression constructSequence = constructor(RecordSequence.class, adapter, address(), count);
 
@@ -67,4 +76,24 @@ public class TemplateGetSequence extends TemplateBase {
 		builder.method(blueprintMethod.getName(), Iterable.class, Collections.EMPTY_LIST, seq);
 		builder.method(blueprintMethod.getName(), RecordSequence.class, Collections.EMPTY_LIST, seq);
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * Member field for the sequence, which is created on the first access 
+	 * and points to the array of the current record afterwards
+	 * 
+	 * @param builder
+	 * @param variable
+	 * @param sequenceClass
+	 * @param constructSequence
+	 * @return Expression returning the sequence
+	 */
+	protected Expression lazySequence(ClassBuilder<?> builder, BlueprintVariable variable, Class<?> sequenceClass, Expression constructSequence) {
+		String sequenceName = variable.getName()+"Sequence";
+		builder.field(sequenceName, sequenceClass);
+		Expression getSequence = getter(self(), sequenceName);
+		return sequence(
+				ifTrue(isNull(getSequence), setter(self(), sequenceName, constructSequence)),
+				call(getSequence, "setAddress", addressOf(variable)),
+				getSequence);
+	}
+}
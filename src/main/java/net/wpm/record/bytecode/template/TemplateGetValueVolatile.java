@@ -0,0 +1,31 @@
+package net.wpm.record.bytecode.template;
+
+import java.util.Collections;
+
+import net.wpm.codegen.ClassBuilder;
+import net.wpm.record.blueprint.BlueprintMethod;
+import net.wpm.record.blueprint.BlueprintVariable;
+import net.wpm.record.bytecode.RecordClassGenerator;
+
+/**
+ * Reads the int or long variable with volatile semantics.
+ * 
+ * @author Nico Hezel
+ */
+public class TemplateGetValueVolatile extends TemplateBase {
+
+	protected BlueprintMethod blueprintMethod;
+	
+	public TemplateGetValueVolatile(BlueprintMethod blueprintMethod) {
+		this.blueprintMethod = blueprintMethod;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void addBytecode(ClassBuilder<?> builder) {		
+		BlueprintVariable variable = blueprintMethod.getVariable();
+		String type = RecordClassGenerator.capitalize(variable.getInternalType().getName());
+		builder.method(blueprintMethod.getName(), variable.getExternalType(), Collections.EMPTY_LIST, 
+				atomicExpression("get"+type+"Volatile", "get"+type+"Volatile", addressOf(variable)));
+	}
+}
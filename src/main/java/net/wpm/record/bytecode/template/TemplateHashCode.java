@@ -0,0 +1,57 @@
+package net.wpm.record.bytecode.template;
+
+import static net.wpm.codegen.Expressions.callStatic;
+import static net.wpm.codegen.Expressions.cast;
+import static net.wpm.codegen.Expressions.choice;
+import static net.wpm.codegen.Expressions.cmpEq;
+import static net.wpm.codegen.Expressions.hashCodeOfArgs;
+import static net.wpm.codegen.Expressions.self;
+import static net.wpm.codegen.Expressions.value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import net.wpm.codegen.ClassBuilder;
+import net.wpm.codegen.Expression;
+import net.wpm.record.RecordView;
+
+/**
+ * Hash code over the content of the record, computed word by word.
+ * Bigger records use RecordView.contentHashCode(). Views pointing no-where return 0.
+ * Java objects stored in the record contribute their own hash code instead of their handles.
+ * 
+ * @author Nico Hezel
+ */
+public class TemplateHashCode extends TemplateBase {
+
+	protected int sizeInBytes;
+	protected int[] handleOffsets;
+	
+	public TemplateHashCode(int sizeInBytes, int[] handleOffsets) {
+		this.sizeInBytes = sizeInBytes;
+		this.handleOffsets = handleOffsets;
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public void addBytecode(ClassBuilder<?> builder) {
+		final Expression hashCode;
+		if(wordTypes(sizeInBytes).size() > TemplateEquals.MaxUnrolledWords)
+			hashCode = callStatic(RecordView.class, "contentHashCode", cast(self(), RecordView.class));
+		else {
+			final List<Expression> fields = new ArrayList<Expression>();
+			int from = 0;
+			for (int offset : handleOffsets) {
+				fields.addAll(readWordsExpression(from, offset - from));
+				fields.add(readObjectExpression(offset));
+				from = offset + 8;
+			}
+			fields.addAll(readWordsExpression(from, sizeInBytes - from));
+			hashCode = hashCodeOfArgs(fields);
+		}
+		
+		// views pointing no-where 
+		builder.method("hashCode", int.class, Collections.EMPTY_LIST, choice(cmpEq(address(), value(0L)), value(0), hashCode));
+	}
+}
@@ -1,5 +1,7 @@
 package net.wpm.record.bytecode.template;
 
+import static net.wpm.codegen.Expressions.callStatic;
+import static net.wpm.codegen.Expressions.constructorSelf;
 import static net.wpm.codegen.Expressions.getter;
 import static net.wpm.codegen.Expressions.self;
 import static net.wpm.codegen.Expressions.sequence;
@@ -10,7 +12,11 @@ import java.util.Collections;
 
 import net.wpm.codegen.ClassBuilder;
 import net.wpm.record.RecordAdapter;
+import net.wpm.record.RecordView;
+import net.wpm.record.bytecode.RecordClassGenerator;
 import net.wpm.record.bytes.MemoryAccess;
+import net.wpm.record.bytes.NativeMemoryAccess;
+import sun.misc.Unsafe;
 
 /**
  * 
@@ -19,30 +25,62 @@ import net.wpm.record.bytes.MemoryAccess;
 public class TemplateRecord extends TemplateBase {
 
 	protected int sizeInBytes;
+	protected int blueprintId;
+	
+	// take the blueprint id from the record adapter during the initialization
+	protected boolean boundBlueprintId;
 	
 	public TemplateRecord(int sizeInBytes) {
+		this(sizeInBytes, -1, false);
+	}
+	
+	public TemplateRecord(int sizeInBytes, int blueprintId, boolean directAccess) {
 		this.sizeInBytes = sizeInBytes;
+		this.blueprintId = blueprintId;
+		this.directAccess = directAccess;
+		this.boundBlueprintId = false;
+	}
+	
+	/**
+	 * The blueprint id is unknown until the class gets initialized 
+	 * with a record adapter, used by ahead of time generated classes.
+	 * 
+	 * @param sizeInBytes
+	 * @param directAccess
+	 */
+	public TemplateRecord(int sizeInBytes, boolean directAccess) {
+		this(sizeInBytes, -1, directAccess);
+		this.boundBlueprintId = true;
 	}
 	
 	@SuppressWarnings("unchecked")
 	@Override
 	public void addBytecode(ClassBuilder<?> builder) {
 		
-		// TODO: everything should be final
 		// TODO: name of variables should have a prefix z.b. ASMRecord_recordSize
 		builder.staticConstant("recordSize", int.class);
-		builder.staticField("blueprintId", int.class);
-		builder.staticField("recordAdapter", RecordAdapter.class);
-		builder.staticField("memoryAccess", MemoryAccess.class);
+		builder.staticConstant("blueprintId", int.class);
+		builder.staticConstant("recordAdapter", RecordAdapter.class);
+		builder.staticConstant("memoryAccess", MemoryAccess.class);
 
+		// adapter and memory access are handed over by RecordClassGenerator.initialize()
 		builder.staticInitializationBlock(sequence(
 					setter(self(), "recordSize",  value(sizeInBytes)),
-					setter(self(), "blueprintId",  value(-1)) // TODO könnte gleich mit gesetzt werden
+					setter(self(), "blueprintId",  boundBlueprintId ? callStatic(RecordClassGenerator.class, "boundBlueprintId") : value(blueprintId)),
+					setter(self(), "recordAdapter",  callStatic(RecordClassGenerator.class, "boundAdapter")),
+					setter(self(), "memoryAccess",  callStatic(RecordClassGenerator.class, "boundMemoryAccess"))
 				));
-		
+
+		// direct access to native memory
+		if(directAccess) {
+			builder.staticConstant("unsafe", Unsafe.class);
+			builder.staticInitializationBlock(setter(self(), "unsafe", callStatic(NativeMemoryAccess.class, "unsafe")));
+		}
+
 		builder.method("getBlueprintId", int.class, Collections.EMPTY_LIST, getter(self(), "blueprintId"));
 		builder.method("getRecordSize", int.class, Collections.EMPTY_LIST, getter(self(), "recordSize"));
 		builder.method("getMemoryAccess", MemoryAccess.class, Collections.EMPTY_LIST, getter(self(), "memoryAccess"));
 		builder.method("getRecordAdapter", RecordAdapter.class, Collections.EMPTY_LIST, getter(self(), "recordAdapter"));
+		builder.method("newRecordView", RecordView.class, Collections.EMPTY_LIST, constructorSelf());
 	}
 }
\ No newline at end of file
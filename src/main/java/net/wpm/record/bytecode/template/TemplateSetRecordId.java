@@ -2,6 +2,8 @@ package net.wpm.record.bytecode.template;
 
 import static java.util.Arrays.asList;
 import static net.wpm.codegen.Expressions.arg;
+import static net.wpm.codegen.Expressions.call;
+import static net.wpm.codegen.Expressions.self;
 
 import net.wpm.codegen.ClassBuilder;
 import net.wpm.record.blueprint.BlueprintMethod;
@@ -16,6 +18,6 @@ public class TemplateSetRecordId extends TemplateBase {
 
 	@Override
 	public void addBytecode(ClassBuilder<?> builder) {		
-		builder.method(blueprintMethod.getName(), Void.TYPE, asList(long.class), setAddress(arg(0)));			
+		builder.method(blueprintMethod.getName(), Void.TYPE, asList(long.class), call(self(), "setRecordId", arg(0)));			
 	}	
 }
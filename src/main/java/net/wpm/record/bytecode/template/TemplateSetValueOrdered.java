@@ -0,0 +1,31 @@
+package net.wpm.record.bytecode.template;
+
+import static java.util.Arrays.asList;
+import static net.wpm.codegen.Expressions.arg;
+
+import net.wpm.codegen.ClassBuilder;
+import net.wpm.record.blueprint.BlueprintMethod;
+import net.wpm.record.blueprint.BlueprintVariable;
+import net.wpm.record.bytecode.RecordClassGenerator;
+
+/**
+ * Writes the int or long variable with release semantics.
+ * 
+ * @author Nico Hezel
+ */
+public class TemplateSetValueOrdered extends TemplateBase {
+
+	protected BlueprintMethod blueprintMethod;
+	
+	public TemplateSetValueOrdered(BlueprintMethod blueprintMethod) {
+		this.blueprintMethod = blueprintMethod;
+	}
+
+	@Override
+	public void addBytecode(ClassBuilder<?> builder) {		
+		BlueprintVariable variable = blueprintMethod.getVariable();
+		String type = RecordClassGenerator.capitalize(variable.getInternalType().getName());
+		builder.method(blueprintMethod.getName(), Void.TYPE, asList(variable.getExternalType()), 
+				atomicExpression("set"+type+"Ordered", "putOrdered"+type, addressOf(variable), arg(0)));
+	}
+}
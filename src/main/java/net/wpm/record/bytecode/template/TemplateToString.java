@@ -9,6 +9,7 @@ import java.util.Collection;
 import java.util.Collections;
 
 import net.wpm.codegen.ClassBuilder;
+import net.wpm.codegen.Expression;
 import net.wpm.codegen.ExpressionToString;
 import net.wpm.record.blueprint.BlueprintVariable;
 
@@ -39,13 +40,26 @@ public class TemplateToString extends TemplateBase {
 			if(variable.isArray()) {
 				ExpressionToString arrayEts = asString().quotes("[", "]", ", ");
 				for (int i = 0; i < variable.getElementCount(); i++)	{
-					arrayEts.add(readValueExpression(variable, value(i)));
+					arrayEts.add(toStringExpression(variable, value(i)));
 				}
 				ets.add(variable.getName()+": ", arrayEts);
 			}
 			else 
-				ets.add(variable.getName()+": ", readValueExpression(variable));
+				ets.add(variable.getName()+": ", toStringExpression(variable, value(0)));
 		}
 		builder.method("toString", String.class, Collections.EMPTY_LIST, ets);
 	}
+	
+	/**
+	 * References are printed as record ids, the referenced records might point back to this record.
+	 * 
+	 * @param variable
+	 * @param index of the array
+	 * @return Expression
+	 */
+	protected Expression toStringExpression(BlueprintVariable variable, Expression index) {
+		if(variable.isReference())
+			return readPrimitiveExpression(variable, index);
+		return readValueExpression(variable, index);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package net.wpm.record.bytes;
+
+/**
+ * Policy how regions of native memory are handed out and taken back.
+ * Implementations own the pieces of memory they allocate and free 
+ * them in releaseAll. Reserved regions must be filled with zeros.
+ * 
+ * Implementations are not thread safe, the memory adapter using 
+ * them takes care of the synchronization.
+ * 
+ * @author Nico Hezel
+ */
+public interface AllocationStrategy {
+
+	/**
+	 * Reserve a zeroed region of memory. 
+	 * 
+	 * @param size in bytes
+	 * @return address of the region
+	 */
+	public long reserve(int size);
+	
+	/**
+	 * Reserve a zeroed region of memory starting at an address which 
+	 * is a multiple of the alignment. The region is released with 
+	 * exactly this address and size.
+	 * 
+	 * @param size in bytes
+	 * @param alignment power of two in bytes
+	 * @return address of the region
+	 */
+	public long reserve(int size, int alignment);
+	
+	/**
+	 * Take back a previously reserved region.
+	 * 
+	 * @param address of the region
+	 * @param size of the region in bytes
+	 */
+	public void release(long address, int size);
+	
+	/**
+	 * Frees all pieces of memory allocated by the strategy.
+	 */
+	public void releaseAll();
+	
+	/**
+	 * Size of the pieces of memory allocated by the strategy.
+	 * 
+	 * @return size in bytes
+	 */
+	public int getBlockSize();
+	
+	/**
+	 * Amount of pieces of memory currently allocated
+	 * 
+	 * @return count
+	 */
+	public int blockCount();
+	
+	/**
+	 * Size of all pieces of memory currently allocated
+	 * 
+	 * @return size in bytes
+	 */
+	public long allocatedBytes();
+	
+	/**
+	 * Amount of released or free regions waiting for reuse
+	 * 
+	 * @return count
+	 */
+	public long freeCount();
+	
+	/**
+	 * Bytes which can not be handed out until releaseAll, 
+	 * e.g. rests of pieces too small to be reused.
+	 * 
+	 * @return size in bytes
+	 */
+	public long wastedBytes();
+}
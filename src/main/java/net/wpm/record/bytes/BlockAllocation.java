@@ -0,0 +1,127 @@
+package net.wpm.record.bytes;
+
+import com.koloboke.collect.map.hash.HashLongObjMap;
+import com.koloboke.collect.map.hash.HashLongObjMaps;
+
+import net.openhft.chronicle.core.Memory;
+import net.openhft.chronicle.core.OS;
+
+/**
+ * Base of all allocation strategies which split bigger pieces 
+ * of native memory (UnsafeBytes) into smaller regions.
+ * 
+ * @author Nico Hezel
+ */
+public abstract class BlockAllocation implements AllocationStrategy {
+
+	protected static final Memory memory = OS.memory();
+	
+	// size of the pieces of memory
+	protected final int blockSize;
+	
+	// all pieces of memory allocated
+	protected final HashLongObjMap<UnsafeBytes> addressToBytes = HashLongObjMaps.newMutableMap();
+	
+	// size of all pieces of memory
+	protected long allocatedBytes = 0;
+	
+	// bytes which are lost until releaseAll
+	protected long wastedBytes = 0;
+	
+	/**
+	 * @param blockSize size of the pieces of memory in bytes
+	 */
+	public BlockAllocation(int blockSize) {
+		if(blockSize <= 0)
+			throw new IllegalArgumentException("Block size must be positive but was "+blockSize);
+		this.blockSize = blockSize;
+	}
+	
+	/**
+	 * Allocate a new piece of memory
+	 * 
+	 * costs 0C 0B 1A 1P 1M 4N
+	 * @param size in bytes
+	 * @return piece of memory
+	 */
+	protected UnsafeBytes allocate(final long size) {	
+		final UnsafeBytes bytes = new UnsafeBytes(memory, size);
+		addressToBytes.put(bytes.address, bytes);
+		allocatedBytes += size;
+		return bytes;
+	}
+	
+	/**
+	 * Allocate a new piece of memory for a single region starting at a 
+	 * multiple of the alignment. The piece is found by the aligned address,
+	 * the bytes in front of and behind the region are wasted.
+	 * 
+	 * costs 0C 0B 1A 1P 1M 4N
+	 * @param size in bytes
+	 * @param alignment power of two in bytes
+	 * @return aligned address
+	 */
+	protected long allocateAligned(final int size, final int alignment) {
+		final long capacity = (long) size + alignment - 1;
+		final UnsafeBytes bytes = new UnsafeBytes(memory, capacity);
+		final long address = align(bytes.address, alignment);
+		addressToBytes.put(address, bytes);
+		allocatedBytes += capacity;
+		wastedBytes += capacity - size;
+		return address;
+	}
+	
+	/**
+	 * Next multiple of the alignment
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param address
+	 * @param alignment power of two
+	 * @return aligned address
+	 */
+	public static long align(final long address, final int alignment) {
+		return (address + alignment - 1) & -alignment;
+	}
+	
+	/**
+	 * Zero out a recycled region of memory. 
+	 * 
+	 * costs 0C 0B 0A 0P 0M 1N
+	 * @param address
+	 * @param size
+	 * @return address
+	 */
+	protected static long clear(final long address, final int size) {
+		memory.setMemory(address, size, (byte) 0);
+		return address;
+	}
+	
+	@Override
+	public void releaseAll() {
+		for (UnsafeBytes bytes : addressToBytes.values()) 
+			bytes.release();
+		addressToBytes.clear();
+		allocatedBytes = 0;
+		wastedBytes = 0;
+	}
+	
+	@Override
+	public int getBlockSize() {
+		return blockSize;
+	}
+	
+	@Override
+	public int blockCount() {
+		return addressToBytes.size();
+	}
+	
+	@Override
+	public long allocatedBytes() {
+		return allocatedBytes;
+	}
+	
+	@Override
+	public long wastedBytes() {
+		return wastedBytes;
+	}
+}
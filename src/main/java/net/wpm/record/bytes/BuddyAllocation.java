@@ -0,0 +1,238 @@
+package net.wpm.record.bytes;
+
+import java.util.TreeSet;
+
+import com.koloboke.collect.LongCursor;
+import com.koloboke.collect.set.hash.HashLongSet;
+import com.koloboke.collect.set.hash.HashLongSets;
+
+/**
+ * Binary buddy allocator. Every piece of memory has a size of 2^k bytes
+ * and gets split into halves until the reservation fits. Released regions
+ * are merged with their buddy again as long as the buddy is free as well,
+ * which keeps the fragmentation low if the record sizes vary a lot.
+ *
+ * Reservations are rounded up to the next power of two. Reserve is O(k),
+ * release is O(k + log n) with n pieces of memory. An aligned reserve 
+ * scans the free regions of every visited order for an aligned address 
+ * and is O(k + f) with f free regions of these orders.
+ *
+ * Regions bigger than the block size get their own piece of memory,
+ * which is freed directly when the region gets released.
+ *
+ * @author Nico Hezel
+ */
+public class BuddyAllocation extends BlockAllocation {
+
+	// smallest region handed out
+	protected static final int MinOrder = 3;
+
+	// order of the block size
+	protected final int maxOrder;
+
+	// free regions for every order
+	protected final HashLongSet[] freeRegions;
+
+	// start address of the regular pieces to find the base of a region
+	protected final TreeSet<Long> blocks = new TreeSet<Long>();
+
+	/**
+	 * @param blockSize size of the pieces of memory in bytes, rounded up to a power of two
+	 */
+	public BuddyAllocation(int blockSize) {
+		super(Math.max(1 << MinOrder, Integer.highestOneBit(blockSize - 1) << 1));
+		this.maxOrder = order(this.blockSize);
+		this.freeRegions = new HashLongSet[maxOrder + 1];
+		for (int i = 0; i < freeRegions.length; i++)
+			freeRegions[i] = HashLongSets.newMutableSet();
+	}
+
+	/**
+	 * Order of the smallest region with at least the given size
+	 *
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param size in bytes
+	 * @return order
+	 */
+	protected static int order(final int size) {
+		if(size <= (1 << MinOrder))
+			return MinOrder;
+		return Integer.SIZE - Integer.numberOfLeadingZeros(size - 1);
+	}
+
+	/**
+	 * costs 0C ?B ?A ?P 1M ?N
+	 */
+	@Override
+	public long reserve(final int size) {
+		final int order = order(size);
+
+		// does not fit into a regular piece
+		if(order > maxOrder)
+			return allocate(size).address;
+
+		// smallest free region which is big enough
+		int current = order;
+		while(current <= maxOrder && freeRegions[current].isEmpty())
+			current++;
+
+		long address;
+		if(current > maxOrder) {
+			address = allocateBlock(1);
+			current = maxOrder;
+		} else {
+			final LongCursor cursor = freeRegions[current].cursor();
+			cursor.moveNext();
+			address = cursor.elem();
+			cursor.remove();
+		}
+
+		// rounding up to a power of two
+		wastedBytes += (1L << order) - size;
+		
+		// split the region and keep the upper halves
+		while(current > order) {
+			current--;
+			freeRegions[current].add(address + (1L << current));
+		}
+
+		return clear(address, size);
+	}
+
+	/**
+	 * Splitting a region keeps its lower half, every region of an aligned
+	 * address stays aligned down to the order of the reservation. Finding 
+	 * an aligned free region is a linear scan over the regions of an order.
+	 * 
+	 * costs 0C ?B ?A ?P 1M ?N
+	 */
+	@Override
+	public long reserve(final int size, final int alignment) {
+		if(alignment <= 1)
+			return reserve(size);
+		
+		final int order = order(size);
+
+		// does not fit into a regular piece
+		if(order > maxOrder)
+			return allocateAligned(size, alignment);
+
+		// smallest free region which is big enough and starts at an aligned address
+		final long mask = alignment - 1;
+		long address = 0;
+		int current = order;
+		while(current <= maxOrder && (address = removeAligned(freeRegions[current], mask)) == 0)
+			current++;
+
+		if(current > maxOrder) {
+			address = allocateBlock(alignment);
+			current = maxOrder;
+		}
+
+		// rounding up to a power of two
+		wastedBytes += (1L << order) - size;
+		
+		// split the region and keep the upper halves
+		while(current > order) {
+			current--;
+			freeRegions[current].add(address + (1L << current));
+		}
+
+		return clear(address, size);
+	}
+	
+	/**
+	 * Remove the first region with an address where all bits of the mask are zero.
+	 * Linear in the amount of regions.
+	 *
+	 * costs 0C ?B 0A ?P 0M 0N
+	 * @param regions
+	 * @param mask
+	 * @return address or 0 if there is no such region
+	 */
+	protected static long removeAligned(final HashLongSet regions, final long mask) {
+		final LongCursor cursor = regions.cursor();
+		while(cursor.moveNext()) {
+			final long address = cursor.elem();
+			if((address & mask) == 0) {
+				cursor.remove();
+				return address;
+			}
+		}
+		return 0;
+	}
+	
+	/**
+	 * Allocate a new regular piece of memory starting at a multiple of the alignment.
+	 * Bigger alignments need alignment-1 additional bytes which are wasted.
+	 *
+	 * costs 0C 0B 1A 1P 1M 4N
+	 * @param alignment power of two in bytes
+	 * @return start address of the piece
+	 */
+	protected long allocateBlock(final int alignment) {
+		final int padding = (alignment > 1) ? alignment - 1 : 0;
+		final UnsafeBytes bytes = allocate((long) blockSize + padding);
+		final long base = align(bytes.address, padding + 1);
+		wastedBytes += padding;
+		blocks.add(base);
+		return base;
+	}
+
+	/**
+	 * costs 0C ?B ?A ?P 1M ?N
+	 */
+	@Override
+	public void release(long address, final int size) {
+		int order = order(size);
+
+		// free the own piece of memory of big regions
+		if(order > maxOrder) {
+			final UnsafeBytes bytes = addressToBytes.remove(address);
+			if(bytes != null) {
+				allocatedBytes -= bytes.capacity;
+				wastedBytes -= bytes.capacity - size;
+				bytes.release();
+			}
+			return;
+		}
+
+		wastedBytes -= (1L << order) - size;
+		
+		// merge with the buddy as long as it is free
+		final long base = blocks.floor(address);
+		while(order < maxOrder) {
+			final long buddy = base + ((address - base) ^ (1L << order));
+			if(freeRegions[order].removeLong(buddy) == false)
+				break;
+			address = Math.min(address, buddy);
+			order++;
+		}
+		freeRegions[order].add(address);
+	}
+
+	/**
+	 * Amount of free regions over all orders
+	 *
+	 * @return count
+	 */
+	public long freeRegionCount() {
+		long count = 0;
+		for (HashLongSet regions : freeRegions)
+			count += regions.size();
+		return count;
+	}
+
+	@Override
+	public long freeCount() {
+		return freeRegionCount();
+	}
+	
+	@Override
+	public void releaseAll() {
+		super.releaseAll();
+		blocks.clear();
+		for (HashLongSet regions : freeRegions)
+			regions.clear();
+	}
+}
@@ -0,0 +1,185 @@
+package net.wpm.record.bytes;
+
+import com.koloboke.collect.map.IntObjCursor;
+import com.koloboke.collect.map.hash.HashIntObjMap;
+import com.koloboke.collect.map.hash.HashIntObjMaps;
+
+/**
+ * Addresses of released memory regions, grouped by the size of the regions.
+ * Every size has its own stack of addresses, pushing and popping is O(1).
+ * 
+ * Not thread safe.
+ * 
+ * @author Nico Hezel
+ */
+public class FreeLists {
+
+	// size in bytes to a stack of addresses 
+	protected final HashIntObjMap<FreeList> sizeToList = HashIntObjMaps.newMutableMap();
+	
+	// amount of addresses in all lists
+	protected long count = 0;
+	
+	/**
+	 * Remember a released memory region for later reuse.
+	 * 
+	 * costs 0C ?B ?A ?P 1M ?N
+	 * @param address of the region
+	 * @param size of the region in bytes
+	 */
+	public void push(final long address, final int size) {
+		FreeList list = sizeToList.get(size);
+		if(list == null) {
+			list = new FreeList();
+			sizeToList.put(size, list);
+		}
+		list.push(address);
+		count++;
+	}
+	
+	/**
+	 * Get a released memory region of exactly the given size.
+	 * 
+	 * costs 0C ?B ?A ?P 1M 0N
+	 * @param size of the region in bytes
+	 * @return address or 0 if there is no released region of this size
+	 */
+	public long pop(final int size) {
+		if(count == 0)
+			return 0;
+		
+		final FreeList list = sizeToList.get(size);
+		if(list == null || list.size == 0)
+			return 0;
+		
+		count--;
+		return list.pop();
+	}
+	
+	/**
+	 * Get a released memory region of exactly the given size whose 
+	 * address is a multiple of the alignment. Regions of this size 
+	 * which are not aligned stay in the list.
+	 * 
+	 * costs 0C ?B ?A ?P 1M 0N
+	 * @param size of the region in bytes
+	 * @param alignment power of two in bytes
+	 * @return address or 0 if there is no aligned released region of this size
+	 */
+	public long pop(final int size, final int alignment) {
+		if(alignment <= 1)
+			return pop(size);
+		if(count == 0)
+			return 0;
+		
+		final FreeList list = sizeToList.get(size);
+		if(list == null || list.size == 0)
+			return 0;
+		
+		final long address = list.popAligned(alignment - 1);
+		if(address != 0)
+			count--;
+		return address;
+	}
+	
+	/**
+	 * Move all released regions into the other free lists.
+	 * 
+	 * costs 0C ?B ?A ?P 1M 0N
+	 * @param target free lists receiving the regions
+	 */
+	public void moveTo(final FreeLists target) {
+		if(count == 0)
+			return;
+		
+		final IntObjCursor<FreeList> cursor = sizeToList.cursor();
+		while(cursor.moveNext()) {
+			final FreeList list = cursor.value();
+			for (int i = 0; i < list.size; i++) 
+				target.push(list.addresses[i], cursor.key());
+			list.size = 0;
+		}
+		count = 0;
+	}
+	
+	/**
+	 * Move up to the given amount of released regions of a size into the other free lists.
+	 * 
+	 * costs 0C ?B ?A ?P 1M 0N
+	 * @param target free lists receiving the regions
+	 * @param size of the regions in bytes
+	 * @param maxCount maximal amount of regions to move
+	 * @return amount of moved regions
+	 */
+	public int moveTo(final FreeLists target, final int size, final int maxCount) {
+		if(count == 0)
+			return 0;
+		
+		final FreeList list = sizeToList.get(size);
+		if(list == null)
+			return 0;
+		
+		final int moved = Math.min(list.size, maxCount);
+		for (int i = 0; i < moved; i++) 
+			target.push(list.pop(), size);
+		count -= moved;
+		return moved;
+	}
+	
+	/**
+	 * Amount of released regions over all sizes
+	 * 
+	 * @return count
+	 */
+	public long count() {
+		return count;
+	}
+	
+	/**
+	 * Forget all released regions
+	 */
+	public void clear() {
+		sizeToList.clear();
+		count = 0;
+	}
+	
+	/**
+	 * Growing stack of addresses.
+	 * 
+	 * @author Nico Hezel
+	 */
+	protected static final class FreeList {
+		protected long[] addresses = new long[16];
+		protected int size = 0;
+		
+		protected void push(final long address) {
+			if(size == addresses.length) {
+				final long[] newAddresses = new long[size * 2];
+				System.arraycopy(addresses, 0, newAddresses, 0, size);
+				addresses = newAddresses;
+			}
+			addresses[size++] = address;
+		}
+		
+		protected long pop() {
+			return addresses[--size];
+		}
+		
+		/**
+		 * Remove the top most address without any of the mask bits set
+		 * 
+		 * @param mask alignment - 1
+		 * @return address or 0 if there is none
+		 */
+		protected long popAligned(final long mask) {
+			for (int i = size - 1; i >= 0; i--) {
+				final long address = addresses[i];
+				if((address & mask) == 0) {
+					addresses[i] = addresses[--size];
+					return address;
+				}
+			}
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package net.wpm.record.bytes;
+
+/**
+ * Conversion between float and IEEE 754 half precision (binary16) values.
+ * Half precision numbers have a 5 bit exponent and a 10 bit mantissa, 
+ * the biggest finite value is 65504. Bigger values become infinite, 
+ * the conversion rounds to the nearest even half precision value.
+ * 
+ * @author Nico Hezel
+ */
+public final class HalfFloat {
+
+	private HalfFloat() {
+	}
+	
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param half bits of a half precision value
+	 * @return float
+	 */
+	public static float toFloat(final short half) {
+		final int bits = half & 0xFFFF;
+		final int sign = (bits & 0x8000) << 16;
+		final int exponent = (bits >>> 10) & 0x1F;
+		final int mantissa = bits & 0x3FF;
+		
+		// infinity and NaN
+		if(exponent == 0x1F)
+			return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+		
+		// zero and subnormal numbers
+		if(exponent == 0) {
+			final float value = mantissa * 0x1p-24f;
+			return (sign == 0) ? value : -value;
+		}
+		
+		return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+	}
+	
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param value
+	 * @return bits of the nearest half precision value
+	 */
+	public static short fromFloat(final float value) {
+		final int bits = Float.floatToRawIntBits(value);
+		final int sign = (bits >>> 16) & 0x8000;
+		final int abs = bits & 0x7FFFFFFF;
+		
+		// infinity and NaN, keeps NaN a NaN
+		if(abs >= 0x7F800000)
+			return (short)(sign | 0x7C00 | ((abs > 0x7F800000) ? 0x200 | ((abs >>> 13) & 0x3FF) : 0));
+		
+		// too big for the exponent 
+		if(abs >= 0x47800000)
+			return (short)(sign | 0x7C00);
+		
+		// zero and subnormal numbers, multiples of 2^-24
+		if(abs < 0x38800000)
+			return (short)(sign | (int) Math.rint(Float.intBitsToFloat(abs) * 0x1p24f));
+		
+		// rebias the exponent and round the mantissa to nearest even, 
+		// a carry moves into the exponent and might end at infinity
+		int half = (((abs >>> 23) - 112) << 10) | ((abs >>> 13) & 0x3FF);
+		final int rest = abs & 0x1FFF;
+		if(rest > 0x1000 || (rest == 0x1000 && (half & 1) != 0))
+			half++;
+		return (short)(sign | half);
+	}
+}
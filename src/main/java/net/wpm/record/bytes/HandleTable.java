@@ -0,0 +1,163 @@
+package net.wpm.record.bytes;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Java objects referenced by records. A record stores the handle of an object
+ * instead of the reference itself, the record stays primitive and is invisible
+ * for the garbage collector. The handle is the index of the object in an array,
+ * handle 0 stands for null. Released handles are kept in a free list and are
+ * reused by the next stored object. Every copy of a record gets its own
+ * handle for the same object, see duplicate(long).
+ *
+ * Reading is lock free, storing and releasing is synchronized. The objects
+ * are published with volatile writes, a thread reading a handle sees the
+ * object stored for it.
+ *
+ * @author Nico Hezel
+ */
+public class HandleTable {
+
+	// objects at the position of their handle, the first entry is always null
+	protected volatile AtomicReferenceArray<Object> objects = new AtomicReferenceArray<Object>(16);
+
+	// stack of released handles
+	protected int[] freeHandles = new int[16];
+	protected int freeCount = 0;
+
+	// next handle which was never used before
+	protected int nextHandle = 1;
+	
+	// changes with every clear call and invalidates all handles
+	protected volatile int generation = 0;
+
+	/**
+	 * Object of the handle
+	 *
+	 * costs 0C 0B 1A 0P 0M 0N
+	 * @param handle
+	 * @return object or null for handle 0
+	 */
+	public Object get(final long handle) {
+		return objects.get((int) handle);
+	}
+
+	/**
+	 * Store an object and return its new handle
+	 *
+	 * costs 0C ?B 1A ?P 0M 0N
+	 * @param object
+	 * @return handle or 0 for null
+	 */
+	public synchronized long store(final Object object) {
+		if(object == null)
+			return 0;
+
+		final int handle;
+		if(freeCount > 0)
+			handle = freeHandles[--freeCount];
+		else {
+			if(nextHandle == Integer.MAX_VALUE)
+				throw new IllegalStateException("Handle table is full");
+			handle = nextHandle++;
+			if(handle == objects.length())
+				grow((int) Math.min((long) handle * 2, Integer.MAX_VALUE));
+		}
+
+		objects.set(handle, object);
+		return handle;
+	}
+
+	/**
+	 * Store the object of the handle again and return the new handle.
+	 * Copies of a record do not share their handles, replacing or 
+	 * releasing the object of one copy does not affect the other.
+	 *
+	 * costs 0C ?B 1A ?P 0M 0N
+	 * @param handle
+	 * @return new handle or 0 for handle 0
+	 */
+	public synchronized long duplicate(final long handle) {
+		return store(get(handle));
+	}
+
+	/**
+	 * Copy the objects into a bigger array. Readers see either the old
+	 * or the new array, both contain all objects stored so far.
+	 *
+	 * @param length of the new array
+	 */
+	protected void grow(final int length) {
+		final AtomicReferenceArray<Object> oldObjects = objects;
+		final AtomicReferenceArray<Object> newObjects = new AtomicReferenceArray<Object>(length);
+		for (int i = 0; i < oldObjects.length(); i++)
+			newObjects.set(i, oldObjects.get(i));
+		objects = newObjects;
+	}
+
+	/**
+	 * Replace the object of a handle. Keeps the handle if it is already in use,
+	 * releases it for a null object and stores the object for handle 0.
+	 *
+	 * costs 0C ?B 1A ?P 0M 0N
+	 * @param handle current handle or 0
+	 * @param object new object or null
+	 * @return handle of the object
+	 */
+	public synchronized long replace(final long handle, final Object object) {
+		if(handle == 0)
+			return store(object);
+		if(object == null) {
+			release(handle);
+			return 0;
+		}
+		objects.set((int) handle, object);
+		return handle;
+	}
+
+	/**
+	 * Forget the object of the handle, the handle gets reused afterwards.
+	 *
+	 * costs 0C ?B 1A ?P 0M 0N
+	 * @param handle
+	 */
+	public synchronized void release(final long handle) {
+		if(handle == 0 || objects.get((int) handle) == null)
+			return;
+
+		objects.set((int) handle, null);
+		if(freeCount == freeHandles.length)
+			freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+		freeHandles[freeCount++] = (int) handle;
+	}
+
+	/**
+	 * Forget all objects, every handle becomes invalid
+	 */
+	public synchronized void clear() {
+		objects = new AtomicReferenceArray<Object>(16);
+		freeHandles = new int[16];
+		freeCount = 0;
+		nextHandle = 1;
+		generation++;
+	}
+	
+	/**
+	 * Number of clear calls so far. Handles of an older generation must not be released.
+	 * 
+	 * @return generation
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Amount of objects in the table
+	 *
+	 * @return count
+	 */
+	public synchronized int size() {
+		return nextHandle - 1 - freeCount;
+	}
+}
@@ -0,0 +1,385 @@
+package net.wpm.record.bytes;
+
+import net.openhft.chronicle.core.UnsafeMemory;
+import sun.misc.Unsafe;
+
+/**
+ * Stores records inside big long[] chunks on the java heap. The chunks
+ * are primitive arrays, the garbage collector does not need to scan
+ * their content and frees them once the adapter is not used anymore.
+ * No native memory is involved.
+ *
+ * A record id encodes the index of the chunk in the upper 32 bits and
+ * the byte offset inside the chunk in the lower 32 bits. Records never
+ * span two chunks, bigger records get their own chunk.
+ *
+ * Released records are kept in free lists, one for each record size,
+ * and are reused by later reservations of the same size.
+ *
+ * Reservations are synchronized. The array of chunks is replaced when it 
+ * grows and is read with a volatile load, a thread reading an address sees 
+ * the chunk of the address once the address was handed over safely.
+ *
+ * @author Nico Hezel
+ */
+public class HeapMemoryAdapter implements MemoryAccess {
+
+	protected static final Unsafe unsafe = UnsafeMemory.UNSAFE;
+	protected static final long LongArrayOffset = Unsafe.ARRAY_LONG_BASE_OFFSET;
+
+	protected static final int DefaultChunkSize = 1 << 20;
+
+	// size of a chunk in bytes, a multiple of 8
+	protected final int chunkSize;
+
+	// all chunks, only the first chunkCount entries are used
+	protected volatile long[][] chunks = new long[16][];
+	protected int chunkCount = 0;
+
+	// chunk receiving new records and its next free byte offset
+	protected int current = -1;
+	protected int offset = 0;
+
+	// released records grouped by their size
+	protected final FreeLists freeLists = new FreeLists();
+
+	/**
+	 * Chunks of 1MB
+	 */
+	public HeapMemoryAdapter() {
+		this(DefaultChunkSize);
+	}
+
+	/**
+	 * @param chunkSize in bytes, rounded up to a multiple of 8
+	 */
+	public HeapMemoryAdapter(int chunkSize) {
+		this.chunkSize = (chunkSize + 7) & ~7;
+	}
+
+	/**
+	 * Chunk containing the address
+	 *
+	 * costs 0C 0B 1A 0P 0M 0N
+	 * @param address
+	 * @return chunk
+	 */
+	protected final long[] chunk(final long address) {
+		return chunks[(int)(address >>> 32) - 1];
+	}
+
+	/**
+	 * Position of the address inside its chunk, as used by Unsafe
+	 *
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param address
+	 * @return offset
+	 */
+	protected static final long offset(final long address) {
+		return LongArrayOffset + (address & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Encodes a chunk index and a byte offset into an address, never 0.
+	 *
+	 * @param chunkIndex
+	 * @param offset
+	 * @return address
+	 */
+	protected static final long address(final int chunkIndex, final int offset) {
+		return ((long)(chunkIndex + 1) << 32) | offset;
+	}
+
+	/**
+	 * Add a new chunk
+	 *
+	 * costs 0C 1B 1A 1P 1M 1N
+	 * @param size in bytes
+	 * @return index of the chunk
+	 */
+	protected final int addChunk(final int size) {
+		final long[] chunk = new long[(size + 7) >>> 3];
+		final long[][] oldChunks = chunks;
+		if(chunkCount == oldChunks.length) {
+			
+			// the new chunk is in place before the bigger array gets published
+			final long[][] newChunks = new long[chunkCount * 2][];
+			System.arraycopy(oldChunks, 0, newChunks, 0, chunkCount);
+			newChunks[chunkCount] = chunk;
+			chunks = newChunks;
+		} else
+			oldChunks[chunkCount] = chunk;
+		return chunkCount++;
+	}
+
+	/**
+	 * Reserve a specific amount of memory.
+	 * Returns the starting address of reserved region.
+	 *
+	 * costs 0C ?B ?A ?P 1M ?N
+	 */
+	@Override
+	public long reserve(final int size) {
+		return reserve(size, 1);
+	}
+
+	/**
+	 * Reserve a region whose offset inside its chunk is a multiple of the alignment.
+	 * The gap in front of the region can be reused by records of its size.
+	 *
+	 * costs 0C ?B ?A ?P 1M ?N
+	 */
+	@Override
+	public synchronized long reserve(final int size, final int alignment) {
+
+		// reuse a released region of the same size
+		final long recycled = freeLists.pop(size, alignment);
+		if(recycled != 0) {
+			unsafe.setMemory(chunk(recycled), offset(recycled), size, (byte) 0);
+			return recycled;
+		}
+
+		// does not fit into a regular chunk
+		if(size > chunkSize)
+			return address(addChunk(size), 0);
+
+		// start a new chunk
+		int aligned = (alignment > 1) ? (offset + alignment - 1) & -alignment : offset;
+		if(current < 0 || chunkSize - aligned < size) {
+			current = addChunk(chunkSize);
+			offset = 0;
+			aligned = 0;
+		}
+
+		if(aligned > offset)
+			freeLists.push(address(current, offset), aligned - offset);
+		offset = aligned + size;
+		return address(current, aligned);
+	}
+
+	/**
+	 * Releases a previously reserved region of memory.
+	 * Later reservations of the same size might reuse the region.
+	 *
+	 * costs 0C ?B ?A ?P 1M ?N
+	 */
+	@Override
+	public synchronized void release(final long address, final int size) {
+		freeLists.push(address, size);
+	}
+
+	/**
+	 * Forget all chunks, the garbage collector takes care of them.
+	 */
+	@Override
+	public synchronized void releaseAll() {
+		chunks = new long[16][];
+		chunkCount = 0;
+		current = -1;
+		offset = 0;
+		freeLists.clear();
+	}
+
+	/**
+	 * Free space on the heap
+	 */
+	@Override
+	public int capacity() {
+		final Runtime runtime = Runtime.getRuntime();
+		final long used = runtime.totalMemory() - runtime.freeMemory();
+		return (int) Math.min(Integer.MAX_VALUE, runtime.maxMemory() - used);
+	}
+
+	/**
+	 * Amount of chunks currently allocated
+	 *
+	 * @return count
+	 */
+	public synchronized int chunkCount() {
+		return chunkCount;
+	}
+
+	/**
+	 * costs 0C 1B 0A 0P 0M 0N
+	 */
+	@Override
+	public boolean getBoolean(long address) {
+		return getByte(address) != 0;
+	}
+
+	/**
+	 * costs 0C 1B 0A 0P 0M 0N
+	 */
+	@Override
+	public void setBoolean(long address, boolean value) {
+		setByte(address, value ? (byte)'Y' : 0);
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public byte getByte(long address) {
+		return unsafe.getByte(chunk(address), offset(address));
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public void setByte(long address, byte value) {
+		unsafe.putByte(chunk(address), offset(address), value);
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public short getShort(long address) {
+		return unsafe.getShort(chunk(address), offset(address));
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public void setShort(long address, short value) {
+		unsafe.putShort(chunk(address), offset(address), value);
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public int getInt(long address) {
+		return unsafe.getInt(chunk(address), offset(address));
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public void setInt(long address, int value) {
+		unsafe.putInt(chunk(address), offset(address), value);
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public float getFloat(long address) {
+		return unsafe.getFloat(chunk(address), offset(address));
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public void setFloat(long address, float value) {
+		unsafe.putFloat(chunk(address), offset(address), value);
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public long getLong(long address) {
+		return unsafe.getLong(chunk(address), offset(address));
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public void setLong(long address, long value) {
+		unsafe.putLong(chunk(address), offset(address), value);
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public double getDouble(long address) {
+		return unsafe.getDouble(chunk(address), offset(address));
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public void setDouble(long address, double value) {
+		unsafe.putDouble(chunk(address), offset(address), value);
+	}
+
+	/**
+	 * costs 0C 0B 2A 0P 0M 1N
+	 */
+	@Override
+	public void copy(long fromAddress, long toAddress, int length) {
+		unsafe.copyMemory(chunk(fromAddress), offset(fromAddress), chunk(toAddress), offset(toAddress), length);
+	}
+	
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public boolean compareAndSetInt(long address, int expected, int value) {
+		return unsafe.compareAndSwapInt(chunk(address), offset(address), expected, value);
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public boolean compareAndSetLong(long address, long expected, long value) {
+		return unsafe.compareAndSwapLong(chunk(address), offset(address), expected, value);
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public int getAndAddInt(long address, int delta) {
+		return unsafe.getAndAddInt(chunk(address), offset(address), delta);
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public long getAndAddLong(long address, long delta) {
+		return unsafe.getAndAddLong(chunk(address), offset(address), delta);
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public int getIntVolatile(long address) {
+		return unsafe.getIntVolatile(chunk(address), offset(address));
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public long getLongVolatile(long address) {
+		return unsafe.getLongVolatile(chunk(address), offset(address));
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public void setIntOrdered(long address, int value) {
+		unsafe.putOrderedInt(chunk(address), offset(address), value);
+	}
+
+	/**
+	 * costs 0C 0B 1A 0P 0M 0N
+	 */
+	@Override
+	public void setLongOrdered(long address, long value) {
+		unsafe.putOrderedLong(chunk(address), offset(address), value);
+	}
+}
@@ -0,0 +1,67 @@
+package net.wpm.record.bytes;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts durations in buckets of powers of two nanoseconds. 
+ * Recording is lock free and costs a single atomic increment,
+ * percentiles are precise up to a factor of two.
+ * 
+ * @author Nico Hezel
+ */
+public class LatencyHistogram {
+
+	// bucket i counts durations in [2^(i-1), 2^i) nanoseconds, bucket 0 counts 0ns 
+	protected final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+	
+	/**
+	 * Count a duration
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param nanos
+	 */
+	public void record(final long nanos) {
+		buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(Math.max(0, nanos)));
+	}
+	
+	/**
+	 * Amount of recorded durations
+	 * 
+	 * @return count
+	 */
+	public long count() {
+		long count = 0;
+		for (int i = 0; i < buckets.length(); i++) 
+			count += buckets.get(i);
+		return count;
+	}
+	
+	/**
+	 * Upper bound of the duration below which the given fraction of all recorded durations lie.
+	 * 
+	 * @param percentile between 0 and 100
+	 * @return nanoseconds or 0 if nothing was recorded
+	 */
+	public long percentile(final double percentile) {
+		final long count = count();
+		if(count == 0)
+			return 0;
+		
+		final long rank = (long) Math.ceil(count * percentile / 100.0);
+		long sum = 0;
+		for (int i = 0; i < buckets.length(); i++) {
+			sum += buckets.get(i);
+			if(sum >= rank && sum > 0)
+				return (i == 0) ? 0 : (1L << i) - 1;
+		}
+		return Long.MAX_VALUE;
+	}
+	
+	/**
+	 * Forget all recorded durations
+	 */
+	public void reset() {
+		for (int i = 0; i < buckets.length(); i++) 
+			buckets.set(i, 0);
+	}
+}
@@ -0,0 +1,329 @@
+package net.wpm.record.bytes;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import sun.misc.Cleaner;
+import sun.nio.ch.DirectBuffer;
+
+/**
+ * Reserves memory for records inside a memory mapped file. The data lives
+ * in the page cache of the operating system, can be larger than the heap
+ * or the native memory budget and survives restarts of the JVM.
+ *
+ * The file is mapped in segments (default 1GB) when they are needed.
+ * A record never spans two segments. The first bytes of the file contain
+ * a header with the amount of used bytes, reopening the file continues
+ * where the last session stopped.
+ *
+ * Record ids are addresses and change between sessions, offset(long) and
+ * address(long) convert them to file offsets which stay the same. Blueprints 
+ * with references to other records (@Reference) or java objects can not be 
+ * stored in the file, the record adapter rejects them. Record ids kept in 
+ * primitive variables need to be converted to offsets by the application.
+ *
+ * Released regions are only reused during the same session.
+ *
+ * <pre>
+ * MappedMemoryAdapter memory = new MappedMemoryAdapter(new File("foo.records"));
+ * RecordAdapter&lt;Foo&gt; adapter = new RecordAdapter&lt;&gt;(Foo.class, memory);
+ * </pre>
+ *
+ * @author Nico Hezel
+ */
+public class MappedMemoryAdapter extends NativeMemoryAccess implements Closeable {
+
+	private static Logger log = LoggerFactory.getLogger(MappedMemoryAdapter.class);
+
+	protected static final int DefaultSegmentSize = 1 << 30;
+
+	// header: magic number, segment size, used bytes
+	protected static final long Magic = 0x5245434F52445331L;
+	protected static final int HeaderSize = 24;
+	protected static final int SegmentSizeOffset = 8;
+	protected static final int UsedOffset = 16;
+
+	protected final File file;
+	protected final RandomAccessFile randomAccessFile;
+	protected final FileChannel channel;
+
+	// size of a mapped region
+	protected final int segmentSize;
+
+	// mapped regions of the file and their starting addresses
+	protected final List<MappedByteBuffer> segments = new ArrayList<MappedByteBuffer>();
+	protected long[] segmentAddresses = new long[0];
+
+	// file offset of the next free byte
+	protected long used;
+
+	// released regions of memory for reuse
+	protected final FreeLists freeLists = new FreeLists();
+
+	/**
+	 * Open or create a memory mapped file with 1GB segments.
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public MappedMemoryAdapter(File file) throws IOException {
+		this(file, DefaultSegmentSize);
+	}
+
+	/**
+	 * Open or create a memory mapped file.
+	 * An existing file keeps the segment size it was created with.
+	 *
+	 * @param file
+	 * @param segmentSize in bytes
+	 * @throws IOException
+	 */
+	public MappedMemoryAdapter(File file, int segmentSize) throws IOException {
+		this.file = file;
+		this.randomAccessFile = new RandomAccessFile(file, "rw");
+		this.channel = randomAccessFile.getChannel();
+
+		if(channel.size() >= HeaderSize) {
+
+			// read the header of an existing file
+			final long header = readHeader();
+			if(header != Magic) {
+				close();
+				throw new IOException(file+" is not a record file.");
+			}
+			this.segmentSize = (int) readHeaderValue(SegmentSizeOffset);
+			map(0);
+			this.used = memory.readLong(segmentAddresses[0] + UsedOffset);
+			for (int i = 1; i <= segmentIndex(used - 1); i++)
+				map(i);
+			log.debug("Reopen "+file+" with "+used+" bytes in use.");
+
+		} else {
+
+			// write the header of a new file
+			this.segmentSize = segmentSize;
+			map(0);
+			this.used = HeaderSize;
+			memory.writeLong(segmentAddresses[0], Magic);
+			memory.writeLong(segmentAddresses[0] + SegmentSizeOffset, segmentSize);
+			memory.writeLong(segmentAddresses[0] + UsedOffset, used);
+		}
+	}
+
+	/**
+	 * Read the magic number from the beginning of the file.
+	 *
+	 * @return magic number
+	 * @throws IOException
+	 */
+	protected long readHeader() throws IOException {
+		return readHeaderValue(0);
+	}
+
+	/**
+	 * Read a long value in native byte order from the header of the file without mapping it.
+	 *
+	 * @param offset in the file
+	 * @return value
+	 * @throws IOException
+	 */
+	protected long readHeaderValue(long offset) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
+		channel.read(buffer, offset);
+		return buffer.getLong(0);
+	}
+
+	/**
+	 * Map the segment with the given index. The file grows if necessary.
+	 *
+	 * @param index of the segment
+	 * @throws IOException
+	 */
+	protected void map(int index) throws IOException {
+		log.trace("Map segment "+index+" of "+file);
+
+		final MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, (long)index * segmentSize, segmentSize);
+		segments.add(buffer);
+
+		final long[] addresses = new long[segments.size()];
+		System.arraycopy(segmentAddresses, 0, addresses, 0, segmentAddresses.length);
+		addresses[index] = ((DirectBuffer) buffer).address();
+		segmentAddresses = addresses;
+	}
+
+	/**
+	 * Index of the segment containing the file offset
+	 *
+	 * @param offset
+	 * @return index
+	 */
+	protected int segmentIndex(long offset) {
+		return (int)(offset / segmentSize);
+	}
+
+	/**
+	 * Reserve a specific amount of memory.
+	 * Returns the starting address of reserved region.
+	 *
+	 * costs ?C ?B 0A ?P 0M 0N
+	 */
+	@Override
+	public long reserve(final int size) {
+		return reserve(size, 1);
+	}
+
+	/**
+	 * Reserve a region whose offset inside its segment is a multiple of the alignment.
+	 * Segments are mapped at page boundaries, the address is aligned as well for
+	 * alignments up to the page size. The gap in front of the region can be reused
+	 * by records of its size.
+	 *
+	 * costs ?C ?B 0A ?P 0M 0N
+	 */
+	@Override
+	public synchronized long reserve(final int size, final int alignment) {
+		if(size > segmentSize)
+			throw new IllegalArgumentException("Can not reserve "+size+" bytes in a segment of "+segmentSize+" bytes.");
+
+		// reuse a previously released region
+		final long recycled = freeLists.pop(size, alignment);
+		if(recycled != 0) {
+			memory.setMemory(recycled, size, (byte) 0);
+			return recycled;
+		}
+
+		// records do not span segments
+		long offset = (alignment > 1) ? (used + alignment - 1) & -alignment : used;
+		int index = segmentIndex(used);
+		if(segmentIndex(offset + size - 1) != index)
+			offset = (long)(++index) * segmentSize;
+		else if(offset > used)
+			freeLists.push(address(used), (int)(offset - used));
+
+		if(index >= segments.size()) {
+			try {
+				map(index);
+			} catch (IOException e) {
+				throw new RuntimeException("Could not map segment "+index+" of "+file, e);
+			}
+		}
+
+		used = offset + size;
+		memory.writeLong(segmentAddresses[0] + UsedOffset, used);
+		return segmentAddresses[index] + (offset - (long)index * segmentSize);
+	}
+
+	/**
+	 * Releases a previously reserved region of memory.
+	 * Later reservations of the same size during this session might reuse the region.
+	 */
+	@Override
+	public synchronized void release(long address, int size) {
+		freeLists.push(address, size);
+	}
+
+	/**
+	 * Releases all records stored in the file.
+	 * The file keeps its size, but the content gets zeroed.
+	 */
+	@Override
+	public synchronized void releaseAll() {
+		for (int i = 0; i < segments.size(); i++) {
+			final long start = (i == 0) ? HeaderSize : 0;
+			final long end = Math.min(used - (long)i * segmentSize, segmentSize);
+			if(end > start)
+				memory.setMemory(segmentAddresses[i] + start, end - start, (byte) 0);
+		}
+
+		used = HeaderSize;
+		memory.writeLong(segmentAddresses[0] + UsedOffset, used);
+		freeLists.clear();
+	}
+
+	/**
+	 * Amount of bytes which can still be reserved on the underlying storage.
+	 *
+	 * @return size in bytes
+	 */
+	@Override
+	public int capacity() {
+		return (int) Math.min(Integer.MAX_VALUE, file.getUsableSpace());
+	}
+
+	/**
+	 * Amount of bytes in use, including the header of the file.
+	 *
+	 * @return size in bytes
+	 */
+	public synchronized long used() {
+		return used;
+	}
+
+	/**
+	 * Converts an address of this session into a file offset.
+	 * Offsets stay the same when the file gets reopened.
+	 *
+	 * costs 0C ?B 0A ?P 0M 0N
+	 * @param address
+	 * @return offset in the file
+	 */
+	public long offset(long address) {
+		final long[] addresses = segmentAddresses;
+		for (int i = 0; i < addresses.length; i++) {
+			final long start = addresses[i];
+			if(start <= address && address < start + segmentSize)
+				return (long)i * segmentSize + (address - start);
+		}
+		throw new IllegalArgumentException("Address "+address+" is not part of "+file);
+	}
+
+	/**
+	 * Converts a file offset into an address of this session.
+	 *
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param offset in the file
+	 * @return address
+	 */
+	public long address(long offset) {
+		final int index = segmentIndex(offset);
+		return segmentAddresses[index] + (offset - (long)index * segmentSize);
+	}
+
+	/**
+	 * Writes all changes to the storage device.
+	 */
+	public synchronized void flush() {
+		for (MappedByteBuffer segment : segments)
+			segment.force();
+	}
+
+	/**
+	 * Writes all changes to the storage device and unmaps the file.
+	 * Records of this adapter can not be accessed afterwards.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		flush();
+		for (MappedByteBuffer segment : segments) {
+			final Cleaner cleaner = ((DirectBuffer) segment).cleaner();
+			if(cleaner != null)
+				cleaner.clean();
+		}
+		segments.clear();
+		segmentAddresses = new long[0];
+		channel.close();
+		randomAccessFile.close();
+	}
+}
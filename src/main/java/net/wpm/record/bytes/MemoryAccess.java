@@ -18,6 +18,25 @@ public interface MemoryAccess {
 	 * @return address
 	 */
 	public long reserve(int size);
+	
+	/**
+	 * Reserve a specific amount of memory starting at an
+	 * address which is a multiple of the alignment.
+	 * 
+	 * @param size
+	 * @param alignment power of two in bytes
+	 * @return address
+	 */
+	public long reserve(int size, int alignment);
+	
+	/**
+	 * Releases a previously reserved region of memory. 
+	 * Later reservations of the same size might reuse the region.
+	 * 
+	 * @param address of the region
+	 * @param size of the region in bytes
+	 */
+	public void release(long address, int size);
 		
 	/**
 	 * Releases all memory allocated for Records.
@@ -62,5 +81,52 @@ public interface MemoryAccess {
     public void setDouble(final long address, final double value);
 
 	public void copy(long fromAddress, long toAddress, int length);
-
+	
+	
+	
+	// atomic and ordered operations, the address should be a multiple of the value size
+	
+	/**
+	 * Atomically sets the value if the current value is the expected one.
+	 * 
+	 * @param address
+	 * @param expected
+	 * @param value
+	 * @return true if the value has been set
+	 */
+	public boolean compareAndSetInt(final long address, final int expected, final int value);
+	
+	public boolean compareAndSetLong(final long address, final long expected, final long value);
+	
+	/**
+	 * Atomically adds the delta to the current value.
+	 * 
+	 * @param address
+	 * @param delta
+	 * @return the previous value
+	 */
+	public int getAndAddInt(final long address, final int delta);
+	
+	public long getAndAddLong(final long address, final long delta);
+	
+	/**
+	 * Reads the value with volatile semantics.
+	 * 
+	 * @param address
+	 * @return value
+	 */
+	public int getIntVolatile(final long address);
+	
+	public long getLongVolatile(final long address);
+	
+	/**
+	 * Writes the value with release semantics, the write might not 
+	 * be visible to other threads immediately but never out of order. 
+	 * 
+	 * @param address
+	 * @param value
+	 */
+	public void setIntOrdered(final long address, final int value);
+	
+	public void setLongOrdered(final long address, final long value);
 }
\ No newline at end of file
@@ -0,0 +1,218 @@
+package net.wpm.record.bytes;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A region of memory for records with a limited lifetime. Reserving memory 
+ * is a simple pointer bump inside the current piece of memory. All records
+ * of the arena are released together with a single call to close(), other 
+ * arenas and memory adapters are not affected.
+ * 
+ * <pre>
+ * try(MemoryArena arena = Records.arena()) {
+ *     Foo foo = Records.create(Foo.class, arena);
+ *     ...
+ * }
+ * </pre>
+ * 
+ * Records can not be released individually. Java objects stored in the records
+ * of the arena are released from their handle tables when the arena gets closed.
+ * Not thread safe.
+ * 
+ * @author Nico Hezel
+ */
+public class MemoryArena extends NativeMemoryAccess implements Closeable {
+
+	protected static final int DefaultBlockSize = 64 * 1024;
+	
+	// size of the pieces of memory
+	protected final int blockSize;
+	
+	// all pieces of memory allocated by this arena
+	protected final List<UnsafeBytes> blocks = new ArrayList<UnsafeBytes>();
+	
+	// free region of the current piece of memory
+	protected long address = 0;
+	protected long limit = 0;
+	
+	// records with handles of java objects
+	protected final List<HandleRegion> handleRegions = new ArrayList<HandleRegion>();
+	
+	/**
+	 * Arena allocating pieces of 64KB memory.
+	 */
+	public MemoryArena() {
+		this(DefaultBlockSize);
+	}
+	
+	/**
+	 * Arena allocating pieces of memory with the given size.
+	 * 
+	 * @param blockSize in bytes
+	 */
+	public MemoryArena(int blockSize) {
+		this.blockSize = blockSize;
+	}
+	
+	/**
+	 * Reserve a specific amount of memory. 
+	 * Returns the starting address of reserved region.
+	 * 
+	 * costs 0C 1B 0A ?P 0M 0N
+	 */
+	@Override
+	public final long reserve(final int size) {
+		if(limit - address < size)
+			allocate(size);
+		
+		final long reserved = address;
+		address = reserved + size;
+		return reserved;
+	}
+	
+	/**
+	 * Reserve a region whose address is a multiple of the alignment.
+	 * The unaligned bytes in front of the region are skipped.
+	 * 
+	 * costs 0C 1B 0A ?P 0M 0N
+	 */
+	@Override
+	public final long reserve(final int size, final int alignment) {
+		if(alignment <= 1)
+			return reserve(size);
+		
+		long reserved = BlockAllocation.align(address, alignment);
+		if(limit - reserved < size) {
+			allocate(size + alignment - 1);
+			reserved = BlockAllocation.align(address, alignment);
+		}
+		
+		address = reserved + size;
+		return reserved;
+	}
+	
+	/**
+	 * Allocate a new piece of memory with at least the given size.
+	 * The unused rest of the current piece is lost.
+	 * 
+	 * @param size in bytes
+	 */
+	protected void allocate(final int size) {
+		final UnsafeBytes bytes = new UnsafeBytes(memory, Math.max(blockSize, size));
+		blocks.add(bytes);
+		address = bytes.freeAddress();
+		limit = address + bytes.remaining();
+		bytes.use(bytes.remaining());
+	}
+	
+	/**
+	 * Remember consecutive records with handles of java objects. The handles 
+	 * get released when the arena is closed. Records directly behind the 
+	 * last remembered ones extend them.
+	 * 
+	 * costs 0C 0B 0A ?P 0M 0N
+	 * @param handleTable of the records
+	 * @param handleOffsets inside a record
+	 * @param fromAddress of the first record
+	 * @param recordSize in bytes
+	 * @param count of records
+	 */
+	public void trackHandles(final HandleTable handleTable, final int[] handleOffsets, final long fromAddress, final int recordSize, final int count) {
+		final int generation = handleTable.getGeneration();
+		if(handleRegions.isEmpty() == false) {
+			final HandleRegion last = handleRegions.get(handleRegions.size() - 1);
+			if(last.handleTable == handleTable && last.generation == generation && last.recordSize == recordSize &&
+					last.fromAddress + (long) last.count * recordSize == fromAddress) {
+				last.count += count;
+				return;
+			}
+		}
+		handleRegions.add(new HandleRegion(handleTable, generation, handleOffsets, fromAddress, recordSize, count));
+	}
+	
+	/**
+	 * Records of an arena can not be released individually. 
+	 * Does nothing, the memory is released when the arena gets closed.
+	 */
+	@Override
+	public void release(long address, int size) {
+	}
+
+	/**
+	 * Releases all records of this arena. 
+	 * The arena can be used afterwards again.
+	 */
+	@Override
+	public void releaseAll() {
+		for (HandleRegion region : handleRegions) 
+			region.release(this);
+		handleRegions.clear();
+		
+		for (UnsafeBytes bytes : blocks) 
+			bytes.release();
+		blocks.clear();
+		address = 0;
+		limit = 0;
+	}
+	
+	/**
+	 * Amount of bytes allocated by this arena
+	 * 
+	 * @return size in bytes
+	 */
+	public long allocatedBytes() {
+		long sum = 0;
+		for (UnsafeBytes bytes : blocks) 
+			sum += bytes.capacity;
+		return sum;
+	}
+
+	/**
+	 * Releases all records of this arena.
+	 */
+	@Override
+	public void close() {
+		releaseAll();
+	}
+	
+	/**
+	 * Consecutive records of the same size with handles of java objects.
+	 * 
+	 * @author Nico Hezel
+	 */
+	protected static final class HandleRegion {
+		protected final HandleTable handleTable;
+		protected final int generation;			// of the handle table when the records were created
+		protected final int[] handleOffsets;
+		protected final long fromAddress;
+		protected final int recordSize;
+		protected int count;
+		
+		protected HandleRegion(HandleTable handleTable, int generation, int[] handleOffsets, long fromAddress, int recordSize, int count) {
+			this.handleTable = handleTable;
+			this.generation = generation;
+			this.handleOffsets = handleOffsets;
+			this.fromAddress = fromAddress;
+			this.recordSize = recordSize;
+			this.count = count;
+		}
+		
+		/**
+		 * Release the handles of all records, unless the handle table was cleared in the meantime.
+		 * 
+		 * @param memory of the records
+		 */
+		protected void release(final MemoryAccess memory) {
+			if(handleTable.getGeneration() != generation)
+				return;
+			
+			for (int i = 0; i < count; i++) {
+				final long recordId = fromAddress + (long) i * recordSize;
+				for (int offset : handleOffsets) 
+					handleTable.release(memory.getLong(recordId + offset));
+			}
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package net.wpm.record.bytes;
+
+import net.openhft.chronicle.core.Jvm;
+import net.openhft.chronicle.core.Memory;
+import net.openhft.chronicle.core.OS;
+import net.openhft.chronicle.core.UnsafeMemory;
+import sun.misc.Unsafe;
+
+/**
+ * Access to native memory outside of the java heap. The addresses 
+ * of the records are absolute memory addresses, every subclass 
+ * only decides where the memory of the records comes from.
+ * 
+ * @author Nico Hezel
+ */
+public abstract class NativeMemoryAccess implements MemoryAccess {
+
+	protected static final Memory memory = OS.memory();		// net.openhft.chronicle.core.UnsafeMemory
+
+	/**
+	 * The Unsafe instance behind the native memory. Generated record views
+	 * keep it in a static final field and access the memory directly.
+	 *
+	 * @return Unsafe
+	 */
+	public static Unsafe unsafe() {
+		return UnsafeMemory.UNSAFE;
+	}
+	
+	/**
+	 * Maximum amount of allocatable memory. Including memory allocated by DirectByteBuffers.
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public int capacity() {
+		long max = Jvm.maxDirectMemory();
+		long used = Jvm.usedNativeMemory() + Jvm.usedDirectMemory();
+		return (int)(max - used);
+	}
+
+	/**
+	 * costs 0C 1B 0A 0P 0M 0N
+	 */
+	@Override
+	public boolean getBoolean(long address) {
+		return getByte(address) != 0;
+	}
+
+	/**
+	 * costs 0C 1B 0A 0P 0M 0N
+	 */
+	@Override
+	public void setBoolean(long address, boolean value) {
+		setByte(address, value ? (byte)'Y' : 0);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public byte getByte(long address) {
+		return memory.readByte(address);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public void setByte(long address, byte value) {
+		memory.writeByte(address, value);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public short getShort(long address) {
+		return memory.readShort(address);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public void setShort(long address, short value) {
+		memory.writeShort(address, value);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public final int getInt(long address) {
+		return memory.readInt(address);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public void setInt(long address, int value) {
+		memory.writeInt(address, value);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public float getFloat(long address) {
+		return memory.readFloat(address);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public void setFloat(long address, float value) {
+		memory.writeFloat(address, value);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public long getLong(long address) {
+		return memory.readLong(address);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public void setLong(long address, long value) {
+		memory.writeLong(address, value);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public double getDouble(long address) {
+		return memory.readDouble(address);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public void setDouble(long address, double value) {
+		memory.writeDouble(address, value);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public void copy(long fromAddress, long toAddress, int length) {
+		memory.copyMemory(fromAddress, toAddress, length);
+	}
+	
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public boolean compareAndSetInt(long address, int expected, int value) {
+		return UnsafeMemory.UNSAFE.compareAndSwapInt(null, address, expected, value);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public boolean compareAndSetLong(long address, long expected, long value) {
+		return UnsafeMemory.UNSAFE.compareAndSwapLong(null, address, expected, value);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public int getAndAddInt(long address, int delta) {
+		return UnsafeMemory.UNSAFE.getAndAddInt(null, address, delta);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public long getAndAddLong(long address, long delta) {
+		return UnsafeMemory.UNSAFE.getAndAddLong(null, address, delta);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public int getIntVolatile(long address) {
+		return UnsafeMemory.UNSAFE.getIntVolatile(null, address);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public long getLongVolatile(long address) {
+		return UnsafeMemory.UNSAFE.getLongVolatile(null, address);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public void setIntOrdered(long address, int value) {
+		UnsafeMemory.UNSAFE.putOrderedInt(null, address, value);
+	}
+
+	/**
+	 * costs 0C 0B 0A 0P 0M 0N
+	 */
+	@Override
+	public void setLongOrdered(long address, long value) {
+		UnsafeMemory.UNSAFE.putOrderedLong(null, address, value);
+	}
+}
@@ -0,0 +1,208 @@
+package net.wpm.record.bytes;
+
+/**
+ * Keeps the free space of all pieces of memory in bins, one bin for every
+ * power of two. A free range of length L is stored in bin floor(log2(L)).
+ * A bit mask marks the non-empty bins, finding a range which is big enough
+ * for a reservation takes a single bit scan instead of walking a list of
+ * pieces. The rest of a used range goes back into its bin.
+ *
+ * Released regions are kept in free lists, one for each size, and are reused
+ * by later reservations of the same size.
+ *
+ * Regions of at least the block size get their own piece of memory.
+ * Reserve and release are O(1).
+ *
+ * @author Nico Hezel
+ */
+public class SegregatedFitAllocation extends BlockAllocation {
+
+	// ranges smaller than this are not worth keeping
+	protected static final int MinRange = 8;
+
+	// free ranges binned by the highest bit of their length
+	protected final RangeStack[] bins = new RangeStack[Integer.SIZE];
+
+	// bit i is set if bins[i] is not empty
+	protected int binMask = 0;
+
+	// released regions grouped by their size
+	protected final FreeLists freeLists = new FreeLists();
+
+	/**
+	 * @param blockSize size of the pieces of memory in bytes
+	 */
+	public SegregatedFitAllocation(int blockSize) {
+		super(blockSize);
+		for (int i = 0; i < bins.length; i++)
+			bins[i] = new RangeStack();
+	}
+
+	/**
+	 * costs 0C ?B ?A ?P 1M ?N
+	 */
+	@Override
+	public long reserve(final int size) {
+
+		// reuse a released region of the same size
+		final long recycled = freeLists.pop(size);
+		if(recycled != 0)
+			return clear(recycled, size);
+
+		// does not fit into a regular piece
+		if(size >= blockSize)
+			return allocate(size).address;
+
+		return split(size, 1);
+	}
+
+	/**
+	 * The gap in front of an aligned region goes back into the bins.
+	 *
+	 * costs 0C ?B ?A ?P 1M ?N
+	 */
+	@Override
+	public long reserve(final int size, final int alignment) {
+		if(alignment <= 1)
+			return reserve(size);
+
+		// reuse a released region of the same size at an aligned address
+		final long recycled = freeLists.pop(size, alignment);
+		if(recycled != 0)
+			return clear(recycled, size);
+
+		// does not fit into a regular piece
+		if(size + alignment - 1 >= blockSize)
+			return allocateAligned(size, alignment);
+
+		return split(size, alignment);
+	}
+
+	/**
+	 * Take a free range which has room for an aligned region of the size,
+	 * the gap in front of the region and the rest of the range are kept.
+	 *
+	 * costs 0C ?B ?A ?P 1M ?N
+	 * @param size in bytes, smaller than the block size
+	 * @param alignment power of two in bytes
+	 * @return aligned address
+	 */
+	protected long split(final int size, final int alignment) {
+		final int required = size + alignment - 1;
+
+		// every range in a bin above the highest bit of (required-1) is big enough
+		final int minBin = Integer.SIZE - Integer.numberOfLeadingZeros(required - 1);
+		final int candidates = (minBin < Integer.SIZE) ? binMask & (-1 << minBin) : 0;
+
+		final long address;
+		final int length;
+		if(candidates != 0) {
+			final int bin = Integer.numberOfTrailingZeros(candidates);
+			final RangeStack ranges = bins[bin];
+			address = ranges.peekAddress();
+			length = ranges.peekLength();
+			ranges.pop();
+			if(ranges.size == 0)
+				binMask &= ~(1 << bin);
+		} else {
+			address = allocate(blockSize).address;
+			length = blockSize;
+		}
+
+		// keep the gap and the rest of the range
+		final long aligned = align(address, alignment);
+		final int gap = (int)(aligned - address);
+		if(gap > 0)
+			push(address, gap);
+		push(aligned + size, length - gap - size);
+		return aligned;
+	}
+
+	/**
+	 * costs 0C ?B ?A ?P 1M ?N
+	 */
+	@Override
+	public void release(final long address, final int size) {
+		freeLists.push(address, size);
+	}
+
+	/**
+	 * Put a free range into its bin
+	 *
+	 * costs 0C 1B 0A 0P 0M 0N
+	 * @param address
+	 * @param length
+	 */
+	protected void push(final long address, final int length) {
+		if(length < MinRange) {
+			wastedBytes += length;
+			return;
+		}
+		final int bin = 31 - Integer.numberOfLeadingZeros(length);
+		bins[bin].push(address, length);
+		binMask |= 1 << bin;
+	}
+
+	/**
+	 * Amount of free ranges in all bins
+	 *
+	 * @return count
+	 */
+	public long freeRangeCount() {
+		long count = 0;
+		for (RangeStack bin : bins)
+			count += bin.size;
+		return count;
+	}
+
+	@Override
+	public long freeCount() {
+		return freeLists.count() + freeRangeCount();
+	}
+	
+	@Override
+	public void releaseAll() {
+		super.releaseAll();
+		for (RangeStack bin : bins)
+			bin.size = 0;
+		binMask = 0;
+		freeLists.clear();
+	}
+
+	/**
+	 * Growing stack of free ranges.
+	 *
+	 * @author Nico Hezel
+	 */
+	protected static final class RangeStack {
+		protected long[] addresses = new long[16];
+		protected int[] lengths = new int[16];
+		protected int size = 0;
+
+		protected void push(final long address, final int length) {
+			if(size == addresses.length) {
+				final long[] newAddresses = new long[size * 2];
+				final int[] newLengths = new int[size * 2];
+				System.arraycopy(addresses, 0, newAddresses, 0, size);
+				System.arraycopy(lengths, 0, newLengths, 0, size);
+				addresses = newAddresses;
+				lengths = newLengths;
+			}
+			addresses[size] = address;
+			lengths[size] = length;
+			size++;
+		}
+
+		protected long peekAddress() {
+			return addresses[size - 1];
+		}
+
+		protected int peekLength() {
+			return lengths[size - 1];
+		}
+
+		protected void pop() {
+			size--;
+		}
+	}
+}
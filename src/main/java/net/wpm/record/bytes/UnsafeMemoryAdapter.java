@@ -1,40 +1,68 @@
 package net.wpm.record.bytes;
 
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedList;
-
-import com.koloboke.collect.map.hash.HashLongObjMap;
-import com.koloboke.collect.map.hash.HashLongObjMaps;
-
-import net.openhft.chronicle.core.Jvm;
-import net.openhft.chronicle.core.Memory;
-import net.openhft.chronicle.core.OS;
+import java.util.List;
 
 /**
- * Can not be 
-	 * 
-	 * Reserviert eine bestimmte Menge an Speicher. 
-	 * Alloziert welchen falls keiner vorhanden ist.
+ * Reserves memory for records out of bigger pieces of native memory (UnsafeBytes).
+ * How the pieces are split and how released records are reused is decided 
+ * by an exchangeable AllocationStrategy, the default is a segregated fit 
+ * with 4096 byte pieces.
  * 
- * TODO: not thread safe
+ * Changes to the shared pieces of memory are synchronized. In the thread local 
+ * allocation mode every thread owns a region of memory and reserves records from 
+ * it without any locking. Shared state is only touched when the region of a thread
+ * runs out of space and needs to be refilled. Records released by a thread are
+ * kept in its own free lists, too many of them are handed back in a batch to a 
+ * shared pool, as well as the free lists of terminated threads. A thread takes 
+ * regions out of the pool before it refills its region.
  * 
  * @author Nico Hezel
  *
  */
-public class UnsafeMemoryAdapter implements MemoryAccess {
+public class UnsafeMemoryAdapter extends NativeMemoryAccess {
+	
+	protected static final int BlockSize = 4096;			// default size of the pieces of memory
+	protected static final int DefaultLocalBufferSize = 64 * 1024;	// default size of the thread local regions
+	protected static final int LocalFreeLimit = 256;		// released regions a thread keeps for itself
+	
+	// splits the pieces of memory into records
+	protected AllocationStrategy strategy;
+	
+	// size of the thread local regions
+	protected final int localBufferSize;
+	
+	// memory regions owned by the individual threads
+	protected final ThreadLocal<LocalBuffer> localBuffers = new ThreadLocal<LocalBuffer>() {
+		@Override
+		protected LocalBuffer initialValue() {
+			final LocalBuffer buffer = new LocalBuffer();
+			register(buffer);
+			return buffer;
+		}
+	};
+	
+	// regions of all threads which used the thread local allocation
+	protected final List<LocalBuffer> localBufferList = new ArrayList<LocalBuffer>();
+	
+	// released regions handed back by the threads, they are never given to the allocation strategy
+	protected final FreeLists sharedFreeLists = new FreeLists();
+	
+	// every thread reserves memory from its own region of memory
+	protected volatile boolean threadLocalAllocation = false;
 	
-	protected static final Memory memory = OS.memory();		// net.openhft.chronicle.core.UnsafeMemory
-	protected static final int BlockSize = 4096;			// size of the piece of memory
-	protected static final int OverProvision = 256; 		// sufficient bytes
+	// changes with every releaseAll call and invalidates all thread local regions
+	protected volatile int epoch = 0;
 	
-	// all pieces of memory allocated
-	protected final HashLongObjMap<UnsafeBytes> addressToBytes = HashLongObjMaps.newMutableMap();
+	// unused rests of thread local regions
+	protected long wastedLocalBytes = 0;
 	
-	// list of memory pieces which has some free space
-	protected final LinkedList<UnsafeBytes> freeBytes = new LinkedList<UnsafeBytes>();
+	// durations of the reserve calls, null if not measured
+	protected volatile LatencyHistogram reserveLatency = null;
 	
 	/**
-	 * Only one instance of UnsafeMemoryAdapter
+	 * Memory pool shared by all blueprints without an own pool
 	 */
 	protected static UnsafeMemoryAdapter instance = new UnsafeMemoryAdapter();	
 	public static UnsafeMemoryAdapter getInstance() {
@@ -42,49 +70,40 @@ public class UnsafeMemoryAdapter implements MemoryAccess {
 	}
 	
 	/**
-	 * Start with an initial allocation of 4096 bytes
+	 * Separate pool of memory, e.g. for a single blueprint. 
+	 * Memory gets allocated with the first reservation.
 	 * 
-	 * costs 0C 0B 2A 1P 1M 4N
+	 * costs 0C 0B 0A 0P 0M 0N
 	 */
-	private UnsafeMemoryAdapter() {
-		freeBytes.add(allocate(BlockSize));
+	public UnsafeMemoryAdapter() {
+		this(new SegregatedFitAllocation(BlockSize));
 	}
 	
 	/**
-	 * Allocate a new piece of memory
+	 * Separate pool of memory using the given allocation strategy.
 	 * 
-	 * costs 0C 0B 1A 1P 1M 4N
-	 * @param size
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param strategy
 	 */
-	protected final UnsafeBytes allocate(int size) {	
-		UnsafeBytes bytes = new UnsafeBytes(memory, size);
-		addressToBytes.put(bytes.address, bytes);
-		return bytes;
+	public UnsafeMemoryAdapter(AllocationStrategy strategy) {
+		this(strategy, DefaultLocalBufferSize);
 	}
 	
 	/**
-	 * Returns a piece of memory containing the desired amount of free space.
-	 * The memory is either retrieved from the list of FreeBytes or has been 
-	 * newly allocated.
+	 * Separate pool of memory using the given allocation strategy.
+	 * In the thread local allocation mode every thread reserves
+	 * regions of the given size from the strategy. 
 	 * 
-	 * costs 0C ?B ?A ?P 1M 5N
-	 * @param size in bytes
-	 * @return
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param strategy
+	 * @param localBufferSize size of the thread local regions in bytes
+	 * @throws IllegalArgumentException if the size is not positive
 	 */
-	protected final UnsafeBytes ensureCapacity(final int size) {
-		
-		// find a piece of memory which has enough space
-		Iterator<UnsafeBytes> it = freeBytes.iterator();
-		while(it.hasNext()) {
-			UnsafeBytes bytes = it.next();
-			if(bytes.hasCapacity(size)) {
-				it.remove();
-				return bytes;
-			}
-		}
-				
-		// or allocate a new one
-		return allocate(Math.max(BlockSize, size));
+	public UnsafeMemoryAdapter(AllocationStrategy strategy, int localBufferSize) {
+		if(localBufferSize <= 0)
+			throw new IllegalArgumentException("The thread local regions need a positive size, got "+localBufferSize);
+		this.strategy = strategy;
+		this.localBufferSize = localBufferSize;
 	}
 		
 	/**
@@ -95,169 +114,370 @@ public class UnsafeMemoryAdapter implements MemoryAccess {
 	 */
 	@Override
 	public final long reserve(final int size) {
+		return reserve(size, 1);
+	}
+	
+	/**
+	 * Reserve a region whose address is a multiple of the alignment.
+	 * The allocation strategy or the thread local region skip the 
+	 * unaligned bytes, the region gets released with the same 
+	 * address and size.
+	 * 
+	 * costs 0C ?B ?A ?P 1M 5N
+	 */
+	@Override
+	public final long reserve(final int size, final int alignment) {
+		final LatencyHistogram latency = reserveLatency;
+		if(latency != null)
+			return reserveMeasured(size, alignment, latency);
+		if(threadLocalAllocation)
+			return reserveLocal(size, alignment);
+		return reserveShared(size, alignment);
+	}
+	
+	/**
+	 * Reserve memory and record the duration of the call.
+	 * 
+	 * costs 0C ?B ?A ?P 1M ?N
+	 * @param size in bytes
+	 * @param alignment power of two in bytes
+	 * @param latency histogram of the durations
+	 * @return address
+	 */
+	protected final long reserveMeasured(final int size, final int alignment, final LatencyHistogram latency) {
+		final long start = System.nanoTime();
+		final long address = threadLocalAllocation ? reserveLocal(size, alignment) : reserveShared(size, alignment);
+		latency.record(System.nanoTime() - start);
+		return address;
+	}
+	
+	/**
+	 * Reserve memory with the allocation strategy.
+	 * 
+	 * costs 0C ?B ?A ?P 1M 5N
+	 * @param size in bytes
+	 * @param alignment power of two in bytes
+	 * @return address
+	 */
+	protected final synchronized long reserveShared(final int size, final int alignment) {
+		final long recycled = sharedFreeLists.pop(size, alignment);
+		if(recycled != 0)
+			return clear(recycled, size);
+		return strategy.reserve(size, alignment);
+	}
+	
+	/**
+	 * Reserve memory from the piece of memory owned by the current thread.
+	 * No locking is involved unless the piece needs to be refilled.
+	 * 
+	 * costs 0C ?B 0A ?P 1M 0N
+	 * @param size in bytes
+	 * @param alignment power of two in bytes
+	 * @return address
+	 */
+	protected final long reserveLocal(final int size, final int alignment) {
+		final LocalBuffer buffer = localBuffers.get();
+		
+		// forget everything acquired before the last releaseAll call
+		if(buffer.epoch != epoch)
+			buffer.reset(epoch);
 		
-		// get a piece of memory able to store the desired size 
-		final UnsafeBytes bytes = ensureCapacity(size);
+		// reuse a released region of the same size
+		final long recycled = buffer.freeLists.pop(size, alignment);
+		if(recycled != 0)
+			return clear(recycled, size);
 		
-		// current free address of this piece 
-		final long address = bytes.freeAddress();
+		// big records do not go through the thread local region
+		if(size > localBufferSize - (alignment - 1))
+			return reserveShared(size, alignment);
+		
+		// get a new region of memory if the current one is too small
+		long address = BlockAllocation.align(buffer.address, alignment);
+		if(buffer.limit - address < size) {
+			
+			// regions released by other threads come first
+			final long reclaimed = reclaim(buffer, size, alignment);
+			if(reclaimed != 0)
+				return clear(reclaimed, size);
+			
+			refill(buffer);
+			address = BlockAllocation.align(buffer.address, alignment);
+		}
 		
-		// reserve some parts of it
-		bytes.use(size);
-				
-		// does the piece still have enough space? Add to the list of free bytes.
-		if(OverProvision < bytes.remaining()) 
-			freeBytes.add(bytes);
+		// the gap in front of an aligned region can be reused by records of its size
+		if(address > buffer.address)
+			buffer.freeLists.push(buffer.address, (int)(address - buffer.address));
 		
+		// bump the free address of the region
+		buffer.address = address + size;
 		return address;
 	}
 	
 	/**
-	 * Releases all allocated memory.
-	 * Start over with a single chunk of unused memory.
+	 * Move a batch of released regions of the size from the shared pool 
+	 * into the free lists of the thread and take one of them.
 	 * 
-	 * costs 0C ?B ?A ?P 0M 1N
+	 * costs 0C ?B ?A ?P 1M 0N
+	 * @param buffer of the current thread
+	 * @param size in bytes
+	 * @param alignment power of two in bytes
+	 * @return address or 0 if the shared pool has no region of this size
 	 */
-	@Override
-	public void releaseAll() {
-		for (UnsafeBytes memory : addressToBytes.values()) {
-			memory.release();
+	protected final synchronized long reclaim(final LocalBuffer buffer, final int size, final int alignment) {
+		if(sharedFreeLists.moveTo(buffer.freeLists, size, LocalFreeLimit / 2) == 0) {
+			drainTerminatedThreads();
+			if(sharedFreeLists.moveTo(buffer.freeLists, size, LocalFreeLimit / 2) == 0)
+				return 0;
 		}
-		addressToBytes.clear();
-		freeBytes.clear();
-		
-		freeBytes.add(allocate(BlockSize));
+		return buffer.freeLists.pop(size, alignment);
 	}
-
+	
 	/**
-	 * Maximum amount of allocatable memory. Including memory allocated by DirectByteBuffers.
+	 * Move the released regions of terminated threads to the shared pool and forget their regions.
 	 * 
-	 * costs 0C 0B 0A 0P 0M 0N
+	 * costs 0C ?B ?A ?P 1M 0N
 	 */
-	@Override
-	public int capacity() {
-		long max = Jvm.maxDirectMemory();
-		long used = Jvm.usedNativeMemory() + Jvm.usedDirectMemory();
-		return (int)(max - used);
+	protected final synchronized void drainTerminatedThreads() {
+		final Iterator<LocalBuffer> it = localBufferList.iterator();
+		while(it.hasNext()) {
+			final LocalBuffer buffer = it.next();
+			if(buffer.thread.isAlive() == false) {
+				if(buffer.epoch == epoch)
+					buffer.freeLists.moveTo(sharedFreeLists);
+				it.remove();
+			}
+		}
 	}
-
+	
 	/**
-	 * costs 0C 1B 0A 0P 0M 0N
+	 * Hand all released regions of the thread back to the shared pool.
+	 * 
+	 * costs 0C ?B ?A ?P 1M 0N
+	 * @param buffer of a thread
 	 */
-	@Override
-	public boolean getBoolean(long address) {
-		return getByte(address) != 0;
+	protected final synchronized void spill(final LocalBuffer buffer) {
+		buffer.freeLists.moveTo(sharedFreeLists);
 	}
-
+	
 	/**
-	 * costs 0C 1B 0A 0P 0M 0N
+	 * Remember the region of a thread, to drain its free lists when the allocation mode changes.
+	 * 
+	 * @param buffer of the current thread
 	 */
-	@Override
-	public void setBoolean(long address, boolean value) {
-		setByte(address, value ? (byte)'Y' : 0);
+	protected final synchronized void register(final LocalBuffer buffer) {
+		localBufferList.add(buffer);
 	}
-
+	
 	/**
-	 * costs 0C 0B 0A 0P 0M 0N
+	 * Let the thread own a new region of memory. 
+	 * The unused rest of the old region is lost until releaseAll.
+	 * 
+	 * costs 0C ?B ?A ?P 1M 5N
+	 * @param buffer of the current thread
 	 */
-	@Override
-	public byte getByte(long address) {
-		return memory.readByte(address);
+	protected final synchronized void refill(final LocalBuffer buffer) {
+		wastedLocalBytes += buffer.limit - buffer.address;
+		buffer.address = strategy.reserve(localBufferSize);
+		buffer.limit = buffer.address + localBufferSize;
+		buffer.epoch = epoch;
 	}
-
+	
 	/**
-	 * costs 0C 0B 0A 0P 0M 0N
+	 * Releases a single record. The region is put into a free list
+	 * and will be reused by the next reservation of the same size.
+	 * In the thread local allocation mode the free list of the current 
+	 * thread is used, once it holds more than LocalFreeLimit regions 
+	 * they are handed back to the shared pool. Regions bigger than a 
+	 * thread local region always go back to the allocation strategy.
+	 * 
+	 * costs 0C ?B ?A ?P 1M ?N
 	 */
 	@Override
-	public void setByte(long address, byte value) {
-		memory.writeByte(address, value);
+	public final void release(final long address, final int size) {
+		if(threadLocalAllocation && size <= localBufferSize) {
+			final LocalBuffer buffer = localBuffers.get();
+			if(buffer.epoch != epoch)
+				buffer.reset(epoch);
+			buffer.freeLists.push(address, size);
+			if(buffer.freeLists.count() > LocalFreeLimit)
+				spill(buffer);
+		} else
+			releaseShared(address, size);
 	}
-
+	
 	/**
-	 * costs 0C 0B 0A 0P 0M 0N
+	 * Give the released region back to the allocation strategy.
+	 * 
+	 * @param address
+	 * @param size
 	 */
-	@Override
-	public short getShort(long address) {
-		return memory.readShort(address);
+	protected final synchronized void releaseShared(final long address, final int size) {
+		strategy.release(address, size);
 	}
-
+	
 	/**
-	 * costs 0C 0B 0A 0P 0M 0N
+	 * Zero out a recycled region of memory. 
+	 * 
+	 * costs 0C 0B 0A 0P 0M 1N
+	 * @param address
+	 * @param size
+	 * @return address
 	 */
-	@Override
-	public void setShort(long address, short value) {
-		memory.writeShort(address, value);
+	protected final long clear(final long address, final int size) {
+		memory.setMemory(address, size, (byte) 0);
+		return address;
 	}
-
+	
 	/**
-	 * costs 0C 0B 0A 0P 0M 0N
+	 * Exchange the allocation strategy. All records reserved 
+	 * with the previous strategy get released.
+	 * 
+	 * @param strategy
 	 */
-	@Override
-	public final int getInt(long address) {
-		return memory.readInt(address);
+	public synchronized void setAllocationStrategy(AllocationStrategy strategy) {
+		releaseAll();
+		this.strategy = strategy;
 	}
-
+	
 	/**
-	 * costs 0C 0B 0A 0P 0M 0N
+	 * Size of the thread local regions
+	 * 
+	 * @return size in bytes
 	 */
-	@Override
-	public void setInt(long address, int value) {
-		memory.writeInt(address, value);
+	public int getLocalBufferSize() {
+		return localBufferSize;
 	}
-
+	
 	/**
-	 * costs 0C 0B 0A 0P 0M 0N
+	 * Current allocation strategy
+	 * 
+	 * @return strategy
 	 */
-	@Override
-	public float getFloat(long address) {
-		return memory.readFloat(address);
+	public synchronized AllocationStrategy getAllocationStrategy() {
+		return strategy;
 	}
-
+	
 	/**
-	 * costs 0C 0B 0A 0P 0M 0N
+	 * Measure the duration of every reserve call. 
+	 * Costs two System.nanoTime() calls per reservation.
+	 * 
+	 * @param enable latency measurement
 	 */
-	@Override
-	public void setFloat(long address, float value) {
-		memory.writeFloat(address, value);
+	public void setLatencyTracking(boolean enable) {
+		reserveLatency = enable ? new LatencyHistogram() : null;
 	}
-
+	
 	/**
-	 * costs 0C 0B 0A 0P 0M 0N
+	 * Durations of the reserve calls since the latency tracking was enabled.
+	 * 
+	 * @return histogram or null if the latency is not measured
 	 */
-	@Override
-	public long getLong(long address) {
-		return memory.readLong(address);
+	public LatencyHistogram getReserveLatency() {
+		return reserveLatency;
 	}
-
+	
 	/**
-	 * costs 0C 0B 0A 0P 0M 0N
+	 * Amount of pieces of memory currently allocated
+	 * 
+	 * @return count
 	 */
-	@Override
-	public void setLong(long address, long value) {
-		memory.writeLong(address, value);
+	public synchronized int blockCount() {
+		return strategy.blockCount();
 	}
-
+	
 	/**
-	 * costs 0C 0B 0A 0P 0M 0N
+	 * Size of all pieces of memory currently allocated
+	 * 
+	 * @return size in bytes
 	 */
-	@Override
-	public double getDouble(long address) {
-		return memory.readDouble(address);
+	public synchronized long allocatedBytes() {
+		return strategy.allocatedBytes();
 	}
-
+	
 	/**
-	 * costs 0C 0B 0A 0P 0M 0N
+	 * Amount of released or free regions waiting for reuse in the shared pool.
+	 * 
+	 * @return count
+	 */
+	public synchronized long freeCount() {
+		return strategy.freeCount() + sharedFreeLists.count();
+	}
+	
+	/**
+	 * Bytes which can not be handed out until releaseAll. 
+	 * 
+	 * @return size in bytes
+	 */
+	public synchronized long wastedBytes() {
+		return strategy.wastedBytes() + wastedLocalBytes;
+	}
+	
+	/**
+	 * Should every thread reserve memory from its own piece of memory.
+	 * Change the mode before any records are created, otherwise the
+	 * unused space of the thread local pieces is lost until releaseAll.
+	 * The released regions kept by the threads are moved to the shared 
+	 * pool. Must not be called while other threads are reserving or 
+	 * releasing memory.
+	 * 
+	 * @param enable thread local allocation
+	 */
+	public synchronized void setThreadLocalAllocation(boolean enable) {
+		for (LocalBuffer buffer : localBufferList) 
+			if(buffer.epoch == epoch)
+				buffer.freeLists.moveTo(sharedFreeLists);
+		this.threadLocalAllocation = enable;
+	}
+	
+	/**
+	 * Does every thread reserve memory from its own piece of memory.
+	 * 
+	 * @return true if thread local allocation is enabled
+	 */
+	public boolean isThreadLocalAllocation() {
+		return threadLocalAllocation;
+	}
+	
+	/**
+	 * Releases all allocated memory.
+	 * Must not be called while other threads are reserving memory.
+	 * 
+	 * costs 0C ?B ?A ?P 0M 1N
 	 */
 	@Override
-	public void setDouble(long address, double value) {
-		memory.writeDouble(address, value);
+	public synchronized void releaseAll() {
+		epoch++;
+		strategy.releaseAll();
+		sharedFreeLists.clear();
+		wastedLocalBytes = 0;
 	}
 
 	/**
-	 * costs 0C 0B 0A 0P 0M 0N
+	 * Region of memory owned by a single thread.
+	 * 
+	 * @author Nico Hezel
 	 */
-	@Override
-	public void copy(long fromAddress, long toAddress, int length) {
-		memory.copyMemory(fromAddress, toAddress, length);
+	protected static final class LocalBuffer {
+		protected long address;			// next free address
+		protected long limit;			// end address of the owned region
+		protected int epoch = -1;		// epoch of the memory adapter when the region was acquired
+		
+		// the owner of the region
+		protected final Thread thread = Thread.currentThread();
+		
+		// records released by this thread
+		protected final FreeLists freeLists = new FreeLists();
+		
+		/**
+		 * Forget the region of memory and all released records.
+		 * 
+		 * @param epoch of the memory adapter
+		 */
+		protected void reset(int epoch) {
+			this.address = 0;
+			this.limit = 0;
+			this.epoch = epoch;
+			this.freeLists.clear();
+		}
 	}
-}
+}
\ No newline at end of file
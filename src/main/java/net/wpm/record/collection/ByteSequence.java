@@ -0,0 +1,149 @@
+package net.wpm.record.collection;
+
+import java.util.Arrays;
+
+import com.koloboke.collect.ByteCursor;
+import com.koloboke.function.ByteConsumer;
+
+import net.wpm.record.bytes.MemoryAccess;
+
+/**
+ * Flyweight over an array of byte values stored inside a record.
+ * 
+ * @author Nico Hezel
+ */
+public class ByteSequence extends PrimitiveSequence {
+
+	protected static final int ElementBytes = 1;
+	
+	public ByteSequence(final MemoryAccess memoryAccess, final int count) {
+		super(memoryAccess, count);
+	}
+
+	@Override
+	public int elementSizeInBytes() {
+		return ElementBytes;
+	}
+	
+	/**
+	 * Value at the index
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param index
+	 * @return value
+	 */
+	public byte get(final int index) {
+		return memoryAccess.getByte(addressOf(index));
+	}
+
+	/**
+	 * Replace the value at the index
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param index
+	 * @param value
+	 */
+	public void set(final int index, final byte value) {
+		memoryAccess.setByte(addressOf(index), value);
+	}
+	
+	/**
+	 * Set all elements to the same value
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param value
+	 */
+	public void fill(final byte value) {
+		final long end = address + count * ElementBytes;
+		for (long pos = address; pos < end; pos += ElementBytes)
+			memoryAccess.setByte(pos, value);
+	}
+	
+	/**
+	 * Passes all values in order to the action
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param action
+	 */
+	public void forEach(final ByteConsumer action) {
+		final long end = address + count * ElementBytes;
+		for (long pos = address; pos < end; pos += ElementBytes)
+			action.accept(memoryAccess.getByte(pos));
+	}
+	
+	/**
+	 * Copy all values into a new array
+	 * 
+	 * costs 1C 0B 0A 0P 0M 1N
+	 * @return array
+	 */
+	public byte[] toArray() {
+		final byte[] array = new byte[count];
+		for (int i = 0; i < count; i++)
+			array[i] = memoryAccess.getByte(address + i * ElementBytes);
+		return array;
+	}
+	
+	/**
+	 * Cursor starting before the first element
+	 * 
+	 * costs 1C 0B 0A 0P 0M 1N
+	 * @return cursor
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+	
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+	
+	/**
+	 * Moves over the elements of the sequence.
+	 * 
+	 * @author Nico Hezel
+	 */
+	public final class Cursor implements ByteCursor {
+
+		protected long pos = address - ElementBytes;
+		protected final long end = address + count * ElementBytes;
+		
+		@Override
+		public boolean moveNext() {
+			pos += ElementBytes;
+			return pos < end;
+		}
+
+		@Override
+		public byte elem() {
+			return memoryAccess.getByte(pos);
+		}
+		
+		/**
+		 * Replace the value of the current element
+		 * 
+		 * @param value
+		 */
+		public void set(final byte value) {
+			memoryAccess.setByte(pos, value);
+		}
+
+		/**
+		 * Passes the remaining values to the action
+		 */
+		@Override
+		public void forEachForward(final ByteConsumer action) {
+			for (pos += ElementBytes; pos < end; pos += ElementBytes)
+				action.accept(memoryAccess.getByte(pos));
+		}
+		
+		/**
+		 * The size of the sequence is fixed.
+		 */
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("Elements of a sequence can not be removed.");
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package net.wpm.record.collection;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+import net.wpm.record.bytes.MemoryAccess;
+
+/**
+ * Flyweight over an array of enums stored inside a record.
+ * Every element is the ordinal of the enum constant.
+ *
+ * @author Nico Hezel
+ */
+public class EnumSequence<E extends Enum<E>> extends PrimitiveSequence implements Iterable<E>, RandomAccess {
+
+	protected final E[] values;				// all constants of the enum
+	protected final int elementBytes;		// size of an ordinal
+
+	/**
+	 * @param memoryAccess
+	 * @param count amount of elements
+	 * @param values all constants of the enum
+	 * @param elementBytes size of an ordinal 1, 2 or 4
+	 */
+	public EnumSequence(final MemoryAccess memoryAccess, final int count, final Enum<?>[] values, final int elementBytes) {
+		super(memoryAccess, count);
+
+		@SuppressWarnings("unchecked")
+		final E[] constants = (E[]) values;
+		this.values = constants;
+		this.elementBytes = elementBytes;
+	}
+
+	@Override
+	public int elementSizeInBytes() {
+		return elementBytes;
+	}
+
+	/**
+	 * Enum constant at the index
+	 *
+	 * costs 0C 0B 1A 0P 0M 0N
+	 * @param index
+	 * @return enum
+	 */
+	public E get(final int index) {
+		return values[readOrdinal(addressOf(index))];
+	}
+
+	/**
+	 * Replace the enum constant at the index
+	 *
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param index
+	 * @param value
+	 */
+	public void set(final int index, final E value) {
+		writeOrdinal(addressOf(index), value.ordinal());
+	}
+
+	/**
+	 * costs 0C 0B ?A ?P 0M 0N
+	 */
+	@Override
+	public void forEach(final Consumer<? super E> action) {
+		final long end = address + count * elementBytes;
+		for (long pos = address; pos < end; pos += elementBytes)
+			action.accept(values[readOrdinal(pos)]);
+	}
+
+	/**
+	 * costs 1C 0B 0A 0P 0M 1N
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			protected long pos = address;
+			protected final long end = address + count * elementBytes;
+
+			@Override
+			public boolean hasNext() {
+				return pos < end;
+			}
+
+			@Override
+			public E next() {
+				if(pos >= end)
+					throw new NoSuchElementException();
+				final E value = values[readOrdinal(pos)];
+				pos += elementBytes;
+				return value;
+			}
+		};
+	}
+
+	protected int readOrdinal(final long address) {
+		switch (elementBytes) {
+			case 1:
+				return memoryAccess.getByte(address) & 0xFF;
+			case 2:
+				return memoryAccess.getShort(address) & 0xFFFF;
+			default:
+				return memoryAccess.getInt(address);
+		}
+	}
+
+	protected void writeOrdinal(final long address, final int ordinal) {
+		switch (elementBytes) {
+			case 1:
+				memoryAccess.setByte(address, (byte) ordinal);
+				break;
+			case 2:
+				memoryAccess.setShort(address, (short) ordinal);
+				break;
+			default:
+				memoryAccess.setInt(address, ordinal);
+				break;
+		}
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < count; i++) {
+			if(i > 0)
+				sb.append(", ");
+			sb.append(get(i));
+		}
+		return sb.append(']').toString();
+	}
+}
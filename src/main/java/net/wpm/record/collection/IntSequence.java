@@ -1,140 +1,149 @@
 package net.wpm.record.collection;
 
+import java.util.Arrays;
 import java.util.function.IntConsumer;
 
 import com.koloboke.collect.IntCursor;
 
-import net.openhft.chronicle.core.Memory;
-import net.openhft.chronicle.core.OS;
-import net.wpm.record.bytes.UnsafeBytes;
+import net.wpm.record.bytes.MemoryAccess;
 
 /**
- * Do not use this class. It is not tested throughout.
- * 
- * 
- * TODO maxium size is Integer.MAXVALUE 
+ * Flyweight over an array of int values stored inside a record.
  * 
  * @author Nico Hezel
  */
-public class IntSequence {
-	
-	protected static final Memory memory = OS.memory();
-	protected static final int elementBytes = 4;
-	
-	protected final int capacity;
-	protected final long address;
-	protected final SequenceCursor cursor;
-	protected final UnsafeBytes memoryBytes;
+public class IntSequence extends PrimitiveSequence {
+
+	protected static final int ElementBytes = 4;
 	
-	public IntSequence(int count) {
-		
-		// http://stackoverflow.com/questions/30600621/java-unsafe-storefence-documentation-wrong
-		// NativeBytesStore<Void>.of(...)
-//	    long address = memory.allocate(capacity);
-//	    if (zeroOut || capacity < MEMORY_MAPPED_SIZE) {
-//	    	memory.setMemory(address, capacity, (byte) 0);
-//	        memory.storeFence();
-//	    }
-		
-		this.capacity = getRecordSize(count);
-		this.memoryBytes = new UnsafeBytes(memory, capacity);	    
-		this.address = memoryBytes.freeAddress();
-		this.cursor = new SequenceCursor(count);
+	public IntSequence(final MemoryAccess memoryAccess, final int count) {
+		super(memoryAccess, count);
+	}
+
+	@Override
+	public int elementSizeInBytes() {
+		return ElementBytes;
 	}
 	
-	public int getRecordSize(int count) {
-		return count * elementBytes;
+	/**
+	 * Value at the index
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param index
+	 * @return value
+	 */
+	public int get(final int index) {
+		return memoryAccess.getInt(addressOf(index));
 	}
 
-	public final SequenceCursor cursor() {
-		return cursor;
+	/**
+	 * Replace the value at the index
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param index
+	 * @param value
+	 */
+	public void set(final int index, final int value) {
+		memoryAccess.setInt(addressOf(index), value);
 	}
-
-	public final int get(final int index) {
-		return memory.readInt(address+index*elementBytes);
+	
+	/**
+	 * Set all elements to the same value
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param value
+	 */
+	public void fill(final int value) {
+		final long end = address + count * ElementBytes;
+		for (long pos = address; pos < end; pos += ElementBytes)
+			memoryAccess.setInt(pos, value);
 	}
 	
-
-	public void set(int index, int value) {
-		memory.writeInt(address+index*elementBytes, value);		
+	/**
+	 * Passes all values in order to the action
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param action
+	 */
+	public void forEach(final IntConsumer action) {
+		final long end = address + count * ElementBytes;
+		for (long pos = address; pos < end; pos += ElementBytes)
+			action.accept(memoryAccess.getInt(pos));
 	}
 	
-	public void forEachForward(final IntConsumer action) {
-//		int idx = -1;
-//		while(++idx < limit)
-//			action.accept(memory.readInt(address+(idx<<2)));
-		
-		for(int idx = 0; idx < capacity/elementBytes; idx++)
-			action.accept(memory.readInt(address+(idx<<2)));
-		
-//		for(int idx = 0; idx < capacity/elementBytes; idx++)
-//			action.accept(memory.readInt(address+(idx*elementBytes)));
-		
-//		for(int idx = 0; idx < capacity; idx+=elementBytes)
-//			action.accept(memory.readInt(address+idx));
+	/**
+	 * Copy all values into a new array
+	 * 
+	 * costs 1C 0B 0A 0P 0M 1N
+	 * @return array
+	 */
+	public int[] toArray() {
+		final int[] array = new int[count];
+		for (int i = 0; i < count; i++)
+			array[i] = memoryAccess.getInt(address + i * ElementBytes);
+		return array;
+	}
+	
+	/**
+	 * Cursor starting before the first element
+	 * 
+	 * costs 1C 0B 0A 0P 0M 1N
+	 * @return cursor
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+	
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
 	}
 	
-	public final class SequenceCursor implements IntCursor {
+	/**
+	 * Moves over the elements of the sequence.
+	 * 
+	 * @author Nico Hezel
+	 */
+	public final class Cursor implements IntCursor {
 
-		protected int index;
-		protected final int limit;
-		
-		
-		public SequenceCursor(int capacity) {
-			this.index = -1;
-			this.limit = capacity;
-		}
+		protected long pos = address - ElementBytes;
+		protected final long end = address + count * ElementBytes;
 		
 		@Override
 		public boolean moveNext() {
-			return (++index < limit);
+			pos += ElementBytes;
+			return pos < end;
 		}
 
 		@Override
-		public void remove() {
-			// TODO Auto-generated method stub
+		public int elem() {
+			return memoryAccess.getInt(pos);
+		}
+		
+		/**
+		 * Replace the value of the current element
+		 * 
+		 * @param value
+		 */
+		public void set(final int value) {
+			memoryAccess.setInt(pos, value);
 		}
 
+		/**
+		 * Passes the remaining values to the action
+		 */
 		@Override
 		public void forEachForward(final IntConsumer action) {
-//			int idx = -1;
-//			while(++idx < limit)
-//				action.accept(memory.readInt(address+(idx<<2)));
-			
-//			for(int idx = 0; idx < limit; idx++)
-//				action.accept(memory.readInt(address+(idx<<2)));
-			
-//			for(int idx = 0; idx < limit; idx++)
-//				action.accept(memory.readInt(address+(idx*elementBytes)));
-			
-			for(int idx = 0; idx < limit*elementBytes; idx+=elementBytes)
-				action.accept(memory.readInt(address+idx));
+			for (pos += ElementBytes; pos < end; pos += ElementBytes)
+				action.accept(memoryAccess.getInt(pos));
 		}
 		
 		/**
-		 * Für ByteSequence interessant
+		 * The size of the sequence is fixed.
 		 */
-//		@Override
-//		public void forEachForward(final IntConsumer action) {
-//			for (int idx = 0; idx < capacity; idx++)
-//				action.accept(memory.readByte(address+idx));
-//		}
-
 		@Override
-		public int elem() {
-			return memory.readInt(address+index*elementBytes);
-		}
-		
-		public void set(final int value) {
-			memory.writeInt(address+index*elementBytes, value);
-		}
-		
-		public void reset() {
-			this.index = -1;
+		public void remove() {
+			throw new UnsupportedOperationException("Elements of a sequence can not be removed.");
 		}
 	}
-
-	public void release() {
-		memoryBytes.release();
-	}
 }
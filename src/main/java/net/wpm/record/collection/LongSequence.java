@@ -0,0 +1,149 @@
+package net.wpm.record.collection;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+import com.koloboke.collect.LongCursor;
+
+import net.wpm.record.bytes.MemoryAccess;
+
+/**
+ * Flyweight over an array of long values stored inside a record.
+ * 
+ * @author Nico Hezel
+ */
+public class LongSequence extends PrimitiveSequence {
+
+	protected static final int ElementBytes = 8;
+	
+	public LongSequence(final MemoryAccess memoryAccess, final int count) {
+		super(memoryAccess, count);
+	}
+
+	@Override
+	public int elementSizeInBytes() {
+		return ElementBytes;
+	}
+	
+	/**
+	 * Value at the index
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param index
+	 * @return value
+	 */
+	public long get(final int index) {
+		return memoryAccess.getLong(addressOf(index));
+	}
+
+	/**
+	 * Replace the value at the index
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param index
+	 * @param value
+	 */
+	public void set(final int index, final long value) {
+		memoryAccess.setLong(addressOf(index), value);
+	}
+	
+	/**
+	 * Set all elements to the same value
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param value
+	 */
+	public void fill(final long value) {
+		final long end = address + count * ElementBytes;
+		for (long pos = address; pos < end; pos += ElementBytes)
+			memoryAccess.setLong(pos, value);
+	}
+	
+	/**
+	 * Passes all values in order to the action
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param action
+	 */
+	public void forEach(final LongConsumer action) {
+		final long end = address + count * ElementBytes;
+		for (long pos = address; pos < end; pos += ElementBytes)
+			action.accept(memoryAccess.getLong(pos));
+	}
+	
+	/**
+	 * Copy all values into a new array
+	 * 
+	 * costs 1C 0B 0A 0P 0M 1N
+	 * @return array
+	 */
+	public long[] toArray() {
+		final long[] array = new long[count];
+		for (int i = 0; i < count; i++)
+			array[i] = memoryAccess.getLong(address + i * ElementBytes);
+		return array;
+	}
+	
+	/**
+	 * Cursor starting before the first element
+	 * 
+	 * costs 1C 0B 0A 0P 0M 1N
+	 * @return cursor
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+	
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+	
+	/**
+	 * Moves over the elements of the sequence.
+	 * 
+	 * @author Nico Hezel
+	 */
+	public final class Cursor implements LongCursor {
+
+		protected long pos = address - ElementBytes;
+		protected final long end = address + count * ElementBytes;
+		
+		@Override
+		public boolean moveNext() {
+			pos += ElementBytes;
+			return pos < end;
+		}
+
+		@Override
+		public long elem() {
+			return memoryAccess.getLong(pos);
+		}
+		
+		/**
+		 * Replace the value of the current element
+		 * 
+		 * @param value
+		 */
+		public void set(final long value) {
+			memoryAccess.setLong(pos, value);
+		}
+
+		/**
+		 * Passes the remaining values to the action
+		 */
+		@Override
+		public void forEachForward(final LongConsumer action) {
+			for (pos += ElementBytes; pos < end; pos += ElementBytes)
+				action.accept(memoryAccess.getLong(pos));
+		}
+		
+		/**
+		 * The size of the sequence is fixed.
+		 */
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("Elements of a sequence can not be removed.");
+		}
+	}
+}
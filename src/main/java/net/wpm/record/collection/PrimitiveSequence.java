@@ -0,0 +1,108 @@
+package net.wpm.record.collection;
+
+import net.wpm.record.bytes.MemoryAccess;
+
+/**
+ * Flyweight over an array of primitive values stored inside a record.
+ * All elements are placed consecutive in memory, like a Java array.
+ * 
+ * Like every record view the flyweight is reused, it changes its content
+ * when the record view points to another record.
+ * 
+ * @author Nico Hezel
+ */
+public abstract class PrimitiveSequence {
+
+	protected final MemoryAccess memoryAccess;
+	protected final int count;			// amount of elements
+	
+	protected long address;				// address of the first element
+	
+	public PrimitiveSequence(final MemoryAccess memoryAccess, final int count) {
+		this.memoryAccess = memoryAccess;
+		this.count = count;
+	}
+	
+	/**
+	 * Set a new address to reuse this sequence view
+	 * 
+	 * @param address of the first element
+	 */
+	public void setAddress(final long address) {
+		this.address = address;
+	}
+	
+	public long getAddress() {
+		return address;
+	}
+	
+	/**
+	 * Amount of elements in this sequence
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @return int count
+	 */
+	public int size() {
+		return count;
+	}
+	
+	/**
+	 * Size of a single element
+	 * 
+	 * @return bytes
+	 */
+	public abstract int elementSizeInBytes();
+	
+	/**
+	 * Address of the element at the index
+	 * 
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @param index
+	 * @return address
+	 */
+	protected final long addressOf(final int index) {
+		if(index < 0 || index >= count)
+			throw new IndexOutOfBoundsException("Index "+index+" is out of the sequence size "+count+".");
+		return address + (long)index * elementSizeInBytes();
+	}
+	
+	/**
+	 * Element type of the primitive sequence class 
+	 * 
+	 * @param sequenceClass
+	 * @return primitive type or null if the class is not a primitive sequence
+	 */
+	public static Class<?> elementType(final Class<?> sequenceClass) {
+		if(sequenceClass == ByteSequence.class)
+			return byte.class;
+		if(sequenceClass == IntSequence.class)
+			return int.class;
+		if(sequenceClass == LongSequence.class)
+			return long.class;
+		if(sequenceClass == FloatSequence.class)
+			return float.class;
+		if(sequenceClass == DoubleSequence.class)
+			return double.class;
+		return null;
+	}
+	
+	/**
+	 * Primitive sequence class for the element type 
+	 * 
+	 * @param elementType
+	 * @return sequence class or null if the type is not supported
+	 */
+	public static Class<? extends PrimitiveSequence> sequenceClass(final Class<?> elementType) {
+		if(elementType == byte.class)
+			return ByteSequence.class;
+		if(elementType == int.class)
+			return IntSequence.class;
+		if(elementType == long.class)
+			return LongSequence.class;
+		if(elementType == float.class)
+			return FloatSequence.class;
+		if(elementType == double.class)
+			return DoubleSequence.class;
+		return null;
+	}
+}
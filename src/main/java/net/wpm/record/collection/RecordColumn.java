@@ -0,0 +1,133 @@
+package net.wpm.record.collection;
+
+import java.util.NoSuchElementException;
+
+import net.wpm.record.RecordAdapter;
+import net.wpm.record.RecordView;
+
+/**
+ * A single number variable of consecutive records. The aggregations run the
+ * column kernels of the generated record view class, a loop reading the
+ * variable of every record directly from the memory.
+ *
+ * @author Nico Hezel
+ */
+public class RecordColumn<B> {
+
+	protected final RecordView view;	// record view with the column kernels
+	protected final int column;			// index of the variable in the kernels
+	protected final String name;		// name of the variable
+
+	public RecordColumn(final RecordAdapter<B> adapter, final int column, final String name) {
+		this.view = adapter.newInstance();
+		this.column = column;
+		this.name = name;
+	}
+
+	/**
+	 * Name of the variable
+	 *
+	 * @return name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Sum of the variable over all records of the sequence
+	 *
+	 * costs 1C 0B ?A 0P 0M 0N
+	 * @param sequence
+	 * @return sum
+	 */
+	public double sum(final RecordSequence<B> sequence) {
+		return view.sumColumn(column, sequence.getAddress(), sequence.size());
+	}
+
+	/**
+	 * Sum of the variable over all records of the sequence as long. 
+	 * Sums of integral variables above 2^53 keep all their digits, 
+	 * floating point variables are summed as double and truncated.
+	 *
+	 * costs 1C 0B ?A 0P 0M 0N
+	 * @param sequence
+	 * @return sum
+	 */
+	public long longSum(final RecordSequence<B> sequence) {
+		return view.longSumColumn(column, sequence.getAddress(), sequence.size());
+	}
+
+	/**
+	 * Smallest value of the variable over all records of the sequence
+	 *
+	 * costs 1C 0B ?A 0P 0M 0N
+	 * @param sequence
+	 * @return minimum
+	 * @throws NoSuchElementException if the sequence is empty
+	 */
+	public double min(final RecordSequence<B> sequence) {
+		if(sequence.size() == 0)
+			throw new NoSuchElementException("Empty sequence has no minimum");
+		return view.minColumn(column, sequence.getAddress(), sequence.size());
+	}
+
+	/**
+	 * Biggest value of the variable over all records of the sequence
+	 *
+	 * costs 1C 0B ?A 0P 0M 0N
+	 * @param sequence
+	 * @return maximum
+	 * @throws NoSuchElementException if the sequence is empty
+	 */
+	public double max(final RecordSequence<B> sequence) {
+		if(sequence.size() == 0)
+			throw new NoSuchElementException("Empty sequence has no maximum");
+		return view.maxColumn(column, sequence.getAddress(), sequence.size());
+	}
+
+	/**
+	 * Amount of records with a value between lower and upper (both inclusive)
+	 *
+	 * costs 1C 0B ?A 0P 0M 0N
+	 * @param sequence
+	 * @param lower
+	 * @param upper
+	 * @return amount of records
+	 */
+	public int count(final RecordSequence<B> sequence, final double lower, final double upper) {
+		return view.countColumn(column, sequence.getAddress(), sequence.size(), lower, upper);
+	}
+
+	/**
+	 * Histogram of the values between lower (inclusive) and upper (exclusive)
+	 * with equally sized bins. Values outside the range are not counted.
+	 *
+	 * costs 1C 0B ?A 0P 1M 1N
+	 * @param sequence
+	 * @param lower
+	 * @param upper
+	 * @param binCount
+	 * @return amount of records per bin
+	 */
+	public long[] histogram(final RecordSequence<B> sequence, final double lower, final double upper, final int binCount) {
+		return histogram(sequence, lower, upper, new long[binCount]);
+	}
+
+	/**
+	 * Adds the values between lower (inclusive) and upper (exclusive) to the
+	 * equally sized bins, the existing counts of the bins are kept.
+	 *
+	 * costs 1C 0B ?A 0P 0M 0N
+	 * @param sequence
+	 * @param lower
+	 * @param upper
+	 * @param bins
+	 * @return the bins
+	 */
+	public long[] histogram(final RecordSequence<B> sequence, final double lower, final double upper, final long[] bins) {
+		if((upper > lower) == false)
+			throw new IllegalArgumentException("Upper bound "+upper+" must be bigger than the lower bound "+lower);
+		view.histogramColumn(column, sequence.getAddress(), sequence.size(), lower, upper, bins);
+		return bins;
+	}
+}
@@ -9,6 +9,7 @@ import net.wpm.record.RecordView;
 
 /**
  * Works like a Java array. All elements are placed consecutive in memory. 
+ * The sequence returned by RecordAdapter.array(int) can release the array.
  * 
  * @author Nico Hezel
  */
@@ -19,13 +20,19 @@ public class RecordSequence<B> implements Iterable<B>, RandomAccess {
 	protected long fromAddress;			// starting address of the sequence
 	protected final int recordSize;		// record size in bytes	
 	protected final int count;			// amount of records
+	protected boolean owner;			// the sequence created the array and is the only one allowed to release it
 	
 	public RecordSequence(final RecordAdapter<B> adapter, final long fromAddress, final int count) {
+		this(adapter, fromAddress, count, false);
+	}
+	
+	public RecordSequence(final RecordAdapter<B> adapter, final long fromAddress, final int count, final boolean owner) {
 		this.view = adapter.newInstance();
 		
 		this.fromAddress = fromAddress;
 		this.recordSize = view.getRecordSize();		
 		this.count = count;
+		this.owner = owner;
 	}
 	
 	/**
@@ -35,6 +42,35 @@ public class RecordSequence<B> implements Iterable<B>, RandomAccess {
 	 */
 	public void setAddress(final long fromAddress) {
 		this.fromAddress = fromAddress;
+		this.owner = false;
+	}
+	
+	/**
+	 * Release the memory and the java objects of all records in the array.
+	 * The sequence points no-where afterwards, every view of its records
+	 * becomes invalid. Only the sequence created by RecordAdapter.array(int)
+	 * can release its array, all other sequences are ignored.
+	 * 
+	 * costs 0C ?B ?A ?P 1M ?N
+	 * @return true if the array got released
+	 */
+	public boolean release() {
+		if(owner == false || fromAddress == 0)
+			return false;
+		
+		final long address = fromAddress;
+		setAddress(0);
+		view.getRecordAdapter().releaseArray(address, count);
+		return true;
+	}
+	
+	/**
+	 * Address of the first record in this sequence
+	 * 
+	 * @return record id of the first element
+	 */
+	public long getAddress() {
+		return fromAddress;
 	}
 
 	/**
@@ -64,17 +100,16 @@ public class RecordSequence<B> implements Iterable<B>, RandomAccess {
 	 * Set the content of the element at the given index. 
 	 * Makes a copy of the content and stores is in the sequence.
 	 * 
-	 * costs 1C 0B 0A 2P 0M 0N
+	 * costs 2C ?B 0A 2P 0M 0N
 	 * @param index
 	 * @param value
 	 */
 	public void set(final int index, final B value) {
 		final RecordView fromValue = ((RecordView)value);
 		
-		// use the memory access of the value
-		long copyFromAddress = fromValue.getRecordId();
+		// the adapter of the sequence copies the handles of java objects as well
 		long copyToAddress = fromAddress + index * recordSize;
-		fromValue.getMemoryAccess().copy(copyFromAddress, copyToAddress, recordSize);
+		view.getRecordAdapter().copyFrom(fromValue, copyToAddress);
 	}
 
 	/**
@@ -0,0 +1,415 @@
+package net.wpm.record.collection;
+
+import net.wpm.record.bytes.MemoryAccess;
+
+/**
+ * Flyweight over a text stored inside a record. The text starts with its length
+ * in bytes as an unsigned short, followed by the encoded characters. The region
+ * has a fixed capacity, longer texts are truncated when written.
+ *
+ * ASCII texts use a byte per character, other characters are stored as '?'.
+ * UTF8 texts need up to 3 bytes per character, finding a character
+ * or the length walks through the text from the beginning.
+ *
+ * Reading does not create any objects, except for toString() and subSequence().
+ * Like every record view the flyweight is reused, it changes its content
+ * when the record view points to another record.
+ *
+ * @author Nico Hezel
+ */
+public class TextSequence implements CharSequence, Comparable<CharSequence> {
+
+	// bytes of the length prefix
+	public static final int LengthBytes = 2;
+
+	protected final MemoryAccess memoryAccess;
+	protected final int capacity;		// in bytes without the length prefix
+	protected final boolean utf8;
+
+	protected long address;				// address of the length prefix
+
+	public TextSequence(final MemoryAccess memoryAccess, final int capacity, final boolean utf8) {
+		this.memoryAccess = memoryAccess;
+		this.capacity = capacity;
+		this.utf8 = utf8;
+	}
+
+	/**
+	 * Bytes needed to store a text of the given amount of characters
+	 *
+	 * @param maxSize character count
+	 * @param utf8 encoding
+	 * @return size in bytes including the length prefix
+	 */
+	public static int sizeInBytes(final int maxSize, final boolean utf8) {
+		return LengthBytes + maxSize * (utf8 ? 3 : 1);
+	}
+
+	/**
+	 * Set a new address to reuse this text view
+	 *
+	 * @param address of the length prefix
+	 */
+	public void setAddress(final long address) {
+		this.address = address;
+	}
+
+	public long getAddress() {
+		return address;
+	}
+
+	/**
+	 * Maximal amount of bytes for the encoded characters
+	 *
+	 * @return capacity in bytes
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * Length of the encoded text in bytes
+	 *
+	 * costs 0C 0B 0A 0P 0M 0N
+	 * @return byte count
+	 */
+	public int byteLength() {
+		return memoryAccess.getShort(address) & 0xFFFF;
+	}
+
+	/**
+	 * Amount of chars, UTF8 texts are walked through.
+	 *
+	 * costs 0C ?B 0A 0P 0M 0N
+	 */
+	@Override
+	public int length() {
+		final int byteLength = byteLength();
+		if(utf8 == false)
+			return byteLength;
+
+		int length = 0;
+		for (int pos = 0; pos < byteLength; ) {
+			final int bytes = sequenceLength(readByte(pos));
+			length += (bytes == 4) ? 2 : 1;
+			pos += bytes;
+		}
+		return length;
+	}
+
+	/**
+	 * costs 0C ?B 0A 0P 0M 0N
+	 */
+	@Override
+	public char charAt(final int index) {
+		final int byteLength = byteLength();
+		if(index < 0)
+			throw new IndexOutOfBoundsException("Index "+index+" is negative.");
+
+		if(utf8 == false) {
+			if(index >= byteLength)
+				throw new IndexOutOfBoundsException("Index "+index+" is out of the text length "+byteLength+".");
+			return (char)(readByte(index) & 0xFF);
+		}
+
+		int chars = 0;
+		for (int pos = 0; pos < byteLength; ) {
+			final int bytes = sequenceLength(readByte(pos));
+			final int codePoint = codePoint(pos, bytes);
+			if(bytes == 4) {
+				if(chars == index)
+					return Character.highSurrogate(codePoint);
+				if(chars + 1 == index)
+					return Character.lowSurrogate(codePoint);
+				chars += 2;
+			} else {
+				if(chars == index)
+					return (char) codePoint;
+				chars++;
+			}
+			pos += bytes;
+		}
+		throw new IndexOutOfBoundsException("Index "+index+" is out of the text length "+chars+".");
+	}
+
+	/**
+	 * Creates a String containing the sub sequence
+	 */
+	@Override
+	public CharSequence subSequence(final int start, final int end) {
+		return toString().substring(start, end);
+	}
+
+	/**
+	 * Append all characters to the string builder
+	 *
+	 * @param sb
+	 * @return the string builder
+	 */
+	public StringBuilder appendTo(final StringBuilder sb) {
+		final int byteLength = byteLength();
+		for (int pos = 0; pos < byteLength; ) {
+			if(utf8 == false) {
+				sb.append((char)(readByte(pos++) & 0xFF));
+				continue;
+			}
+
+			final int bytes = sequenceLength(readByte(pos));
+			sb.appendCodePoint(codePoint(pos, bytes));
+			pos += bytes;
+		}
+		return sb;
+	}
+
+	/**
+	 * Compares the characters of the text with the given character sequence
+	 *
+	 * @param other
+	 * @return true if both contain the same characters
+	 */
+	public boolean contentEquals(final CharSequence other) {
+		return other != null && compareTo(other) == 0;
+	}
+
+	/**
+	 * Compares the texts lexicographically like String.compareTo()
+	 */
+	@Override
+	public int compareTo(final CharSequence other) {
+		final int byteLength = byteLength();
+		final int otherLength = other.length();
+
+		int index = 0;
+		for (int pos = 0; pos < byteLength; ) {
+			final char c1, c2;
+			if(utf8 == false) {
+				if(index == otherLength)
+					return 1;
+				c1 = (char)(readByte(pos++) & 0xFF);
+				c2 = other.charAt(index++);
+				if(c1 != c2)
+					return c1 - c2;
+				continue;
+			}
+
+			final int bytes = sequenceLength(readByte(pos));
+			final int codePoint = codePoint(pos, bytes);
+			pos += bytes;
+
+			// surrogate pair
+			if(bytes == 4) {
+				if(index == otherLength)
+					return 1;
+				c1 = Character.highSurrogate(codePoint);
+				c2 = other.charAt(index++);
+				if(c1 != c2)
+					return c1 - c2;
+				if(index == otherLength)
+					return 1;
+				final char low1 = Character.lowSurrogate(codePoint);
+				final char low2 = other.charAt(index++);
+				if(low1 != low2)
+					return low1 - low2;
+				continue;
+			}
+
+			if(index == otherLength)
+				return 1;
+			c1 = (char) codePoint;
+			c2 = other.charAt(index++);
+			if(c1 != c2)
+				return c1 - c2;
+		}
+		return (index == otherLength) ? 0 : -1;
+	}
+
+	/**
+	 * Replace the text, see write()
+	 *
+	 * @param value
+	 */
+	public void set(final CharSequence value) {
+		write(memoryAccess, address, capacity, utf8, value);
+	}
+
+	/**
+	 * Same hash code as a String with the same characters.
+	 * UTF8 texts are decoded in a single pass like in appendTo().
+	 *
+	 * costs 0C ?B 0A 0P 0M 0N
+	 */
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		final int byteLength = byteLength();
+		for (int pos = 0; pos < byteLength; ) {
+			if(utf8 == false) {
+				hash = 31 * hash + (readByte(pos++) & 0xFF);
+				continue;
+			}
+
+			final int bytes = sequenceLength(readByte(pos));
+			final int codePoint = codePoint(pos, bytes);
+			pos += bytes;
+
+			// surrogate pair
+			if(bytes == 4) {
+				hash = 31 * hash + Character.highSurrogate(codePoint);
+				hash = 31 * hash + Character.lowSurrogate(codePoint);
+			} else
+				hash = 31 * hash + codePoint;
+		}
+		return hash;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if(this == obj)
+			return true;
+		if(obj instanceof TextSequence)
+			return contentEquals((TextSequence)obj);
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return appendTo(new StringBuilder(byteLength())).toString();
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// ----------------------------------- static helpers -------------------------------------
+	// ----------------------------------------------------------------------------------------
+
+	/**
+	 * Write a text into the memory. Characters which do not fit into the
+	 * capacity are cut off, the remaining bytes of a previous longer text
+	 * are cleared. A null value is stored as an empty text.
+	 *
+	 * costs 0C ?B 0A 0P 0M 0N
+	 * @param memoryAccess
+	 * @param address of the length prefix
+	 * @param capacity in bytes without the length prefix
+	 * @param utf8 encoding
+	 * @param value new text
+	 */
+	public static void write(final MemoryAccess memoryAccess, final long address, final int capacity, final boolean utf8, final CharSequence value) {
+		final long start = address + LengthBytes;
+		final int previousLength = memoryAccess.getShort(address) & 0xFFFF;
+		final int length = (value == null) ? 0 : value.length();
+
+		int pos = 0;
+		for (int i = 0; i < length; i++) {
+			final char c = value.charAt(i);
+
+			if(utf8 == false) {
+				if(pos == capacity)
+					break;
+				memoryAccess.setByte(start + pos++, (c < 0x80) ? (byte) c : (byte) '?');
+				continue;
+			}
+
+			int codePoint = c;
+			if(Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1)))
+				codePoint = Character.toCodePoint(c, value.charAt(++i));
+			else if(Character.isSurrogate(c))
+				codePoint = '?';
+
+			final int bytes = (codePoint < 0x80) ? 1 : (codePoint < 0x800) ? 2 : (codePoint < 0x10000) ? 3 : 4;
+			if(pos + bytes > capacity)
+				break;
+
+			switch (bytes) {
+				case 1:
+					memoryAccess.setByte(start + pos, (byte) codePoint);
+					break;
+				case 2:
+					memoryAccess.setByte(start + pos, 	  (byte) (0xC0 | (codePoint >>> 6)));
+					memoryAccess.setByte(start + pos + 1, (byte) (0x80 | (codePoint & 0x3F)));
+					break;
+				case 3:
+					memoryAccess.setByte(start + pos, 	  (byte) (0xE0 | (codePoint >>> 12)));
+					memoryAccess.setByte(start + pos + 1, (byte) (0x80 | ((codePoint >>> 6) & 0x3F)));
+					memoryAccess.setByte(start + pos + 2, (byte) (0x80 | (codePoint & 0x3F)));
+					break;
+				default:
+					memoryAccess.setByte(start + pos, 	  (byte) (0xF0 | (codePoint >>> 18)));
+					memoryAccess.setByte(start + pos + 1, (byte) (0x80 | ((codePoint >>> 12) & 0x3F)));
+					memoryAccess.setByte(start + pos + 2, (byte) (0x80 | ((codePoint >>> 6) & 0x3F)));
+					memoryAccess.setByte(start + pos + 3, (byte) (0x80 | (codePoint & 0x3F)));
+					break;
+			}
+			pos += bytes;
+		}
+
+		// keep the content of equal texts the same
+		for (int i = pos; i < previousLength; i++)
+			memoryAccess.setByte(start + i, (byte) 0);
+
+		memoryAccess.setShort(address, (short) pos);
+	}
+
+	/**
+	 * Compares two stored texts byte by byte, which is the order of the code points.
+	 * A text which is the beginning of the other text comes first.
+	 *
+	 * @param memoryAccess1
+	 * @param address1 of the length prefix
+	 * @param memoryAccess2
+	 * @param address2 of the length prefix
+	 * @return negative, zero or positive
+	 */
+	public static int compare(final MemoryAccess memoryAccess1, final long address1, final MemoryAccess memoryAccess2, final long address2) {
+		final int length1 = memoryAccess1.getShort(address1) & 0xFFFF;
+		final int length2 = memoryAccess2.getShort(address2) & 0xFFFF;
+		final int length = Math.min(length1, length2);
+		for (int i = 0; i < length; i++) {
+			final int b1 = memoryAccess1.getByte(address1 + LengthBytes + i) & 0xFF;
+			final int b2 = memoryAccess2.getByte(address2 + LengthBytes + i) & 0xFF;
+			if(b1 != b2)
+				return b1 - b2;
+		}
+		return length1 - length2;
+	}
+
+	// ----------------------------------------------------------------------------------------
+	// ---------------------------------- decoding helpers ------------------------------------
+	// ----------------------------------------------------------------------------------------
+
+	protected byte readByte(final int pos) {
+		return memoryAccess.getByte(address + LengthBytes + pos);
+	}
+
+	/**
+	 * Amount of bytes of an UTF8 sequence starting with the lead byte
+	 *
+	 * @param lead
+	 * @return byte count
+	 */
+	protected static int sequenceLength(final byte lead) {
+		if(lead >= 0) return 1;
+		if((lead & 0xE0) == 0xC0) return 2;
+		if((lead & 0xF0) == 0xE0) return 3;
+		return 4;
+	}
+
+	/**
+	 * Decode the UTF8 sequence at the position
+	 *
+	 * @param pos
+	 * @param bytes length of the sequence
+	 * @return code point
+	 */
+	protected int codePoint(final int pos, final int bytes) {
+		final int lead = readByte(pos);
+		switch (bytes) {
+			case 1:
+				return lead;
+			case 2:
+				return ((lead & 0x1F) << 6) | (readByte(pos + 1) & 0x3F);
+			case 3:
+				return ((lead & 0x0F) << 12) | ((readByte(pos + 1) & 0x3F) << 6) | (readByte(pos + 2) & 0x3F);
+			default:
+				return ((lead & 0x07) << 18) | ((readByte(pos + 1) & 0x3F) << 12) | ((readByte(pos + 2) & 0x3F) << 6) | (readByte(pos + 3) & 0x3F);
+		}
+	}
+}
@@ -8,4 +8,8 @@ public class RecordClassException extends RuntimeException {
 		super(message);
 	}
 
+	public RecordClassException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
 }
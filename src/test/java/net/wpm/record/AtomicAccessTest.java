@@ -0,0 +1,111 @@
+package net.wpm.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.wpm.record.bytes.HeapMemoryAdapter;
+import net.wpm.record.bytes.MemoryAccess;
+import net.wpm.record.bytes.UnsafeMemoryAdapter;
+import net.wpm.record.model.TestBlueprint.AtomicValue;
+
+/**
+ * Function tests for the atomic and ordered blueprint methods.
+ *
+ * @author Nico Hezel
+ */
+public class AtomicAccessTest {
+
+	protected static final int Threads = 4;
+	protected static final int Increments = 100_000;
+
+	@Test
+	public void compareAndSetTest() {
+		checkCompareAndSet(new RecordAdapter<>(AtomicValue.class).create());
+		checkCompareAndSet(new RecordAdapter<>(AtomicValue.class, new HeapMemoryAdapter()).create());
+	}
+
+	@Test
+	public void getAndAddTest() {
+		checkGetAndAdd(new RecordAdapter<>(AtomicValue.class).create());
+		checkGetAndAdd(new RecordAdapter<>(AtomicValue.class, new HeapMemoryAdapter()).create());
+	}
+
+	@Test
+	public void volatileOrderedTest() {
+		AtomicValue record = new RecordAdapter<>(AtomicValue.class).create();
+		record.setStateOrdered(7);
+		assertEquals(7, record.getState());
+		assertEquals(7, record.getStateVolatile());
+	}
+
+	@Test
+	public void concurrentIncrementTest() throws InterruptedException {
+		checkConcurrentIncrement(new RecordAdapter<>(AtomicValue.class).create());
+		checkConcurrentIncrement(new RecordAdapter<>(AtomicValue.class, new HeapMemoryAdapter()).create());
+	}
+
+	@Test
+	public void memoryAccessTest() {
+		checkMemoryAccess(UnsafeMemoryAdapter.getInstance());
+		checkMemoryAccess(new HeapMemoryAdapter());
+	}
+
+	protected void checkCompareAndSet(AtomicValue record) {
+		record.setHits(3);
+		assertFalse(record.compareAndSetHits(4, 10));
+		assertEquals(3, record.getHits());
+		assertTrue(record.compareAndSetHits(3, 10));
+		assertEquals(10, record.getHits());
+
+		assertTrue(record.compareAndSetState(0, -1));
+		assertFalse(record.compareAndSetState(0, 1));
+		assertEquals(-1, record.getState());
+	}
+
+	protected void checkGetAndAdd(AtomicValue record) {
+		assertEquals(0, record.getAndAddHits(Long.MAX_VALUE));
+		assertEquals(Long.MAX_VALUE, record.getAndAddHits(-1));
+		assertEquals(Long.MAX_VALUE - 1, record.getHits());
+
+		assertEquals(0, record.getAndAddState(5));
+		assertEquals(5, record.getAndAddState(5));
+		assertEquals(10, record.getState());
+	}
+
+	protected void checkConcurrentIncrement(final AtomicValue record) throws InterruptedException {
+		Thread[] threads = new Thread[Threads];
+		for (int t = 0; t < Threads; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < Increments; i++) {
+					record.getAndAddHits(1);
+					record.getAndAddState(2);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+
+		assertEquals(Threads * Increments, record.getHits());
+		assertEquals(Threads * Increments * 2, record.getStateVolatile());
+	}
+
+	protected void checkMemoryAccess(MemoryAccess memoryAccess) {
+		long address = memoryAccess.reserve(16, 8);
+
+		memoryAccess.setLongOrdered(address, 5);
+		assertEquals(5, memoryAccess.getLongVolatile(address));
+		assertTrue(memoryAccess.compareAndSetLong(address, 5, 6));
+		assertEquals(6, memoryAccess.getAndAddLong(address, 1));
+		assertEquals(7, memoryAccess.getLong(address));
+
+		memoryAccess.setIntOrdered(address + 8, 1);
+		assertEquals(1, memoryAccess.getIntVolatile(address + 8));
+		assertFalse(memoryAccess.compareAndSetInt(address + 8, 0, 2));
+		assertEquals(1, memoryAccess.getAndAddInt(address + 8, 1));
+		assertEquals(2, memoryAccess.getInt(address + 8));
+	}
+}
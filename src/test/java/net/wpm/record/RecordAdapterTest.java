@@ -2,13 +2,34 @@ package net.wpm.record;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import net.wpm.record.RecordAdapter;
 import net.wpm.record.RecordView;
+import net.wpm.record.bytes.BuddyAllocation;
+import net.wpm.record.bytes.BumpAllocation;
+import net.wpm.record.bytes.HeapMemoryAdapter;
+import net.wpm.record.bytes.MappedMemoryAdapter;
+import net.wpm.record.bytes.MemoryArena;
+import net.wpm.record.bytes.SegregatedFitAllocation;
+import net.wpm.record.bytes.UnsafeMemoryAdapter;
 import net.wpm.record.collection.RecordSequence;
+import net.wpm.record.exception.RecordClassException;
+import net.wpm.record.model.TestBlueprint.CacheLineValue;
+import net.wpm.record.model.TestBlueprint.LinkValue;
+import net.wpm.record.model.TestBlueprint.PayloadValue;
 import net.wpm.record.model.TestBlueprint.SimpleValue;
 
 /**
@@ -84,6 +105,170 @@ public class RecordAdapterTest {
 		assertEquals(0, record1.getValue());
 	}
 		
+	@Test
+	public void releaseTest() {
+		SimpleValue record1 = recordAdapter.create();
+		record1.setValue(7);
+		long id1 = ((RecordView)record1).getRecordId();
+		recordAdapter.release(id1);
+		
+		SimpleValue record2 = recordAdapter.create();
+		assertEquals(id1, ((RecordView)record2).getRecordId());
+		assertEquals(0, record2.getValue());
+	}
+		
+	@Test(expected = IllegalArgumentException.class)
+	public void releaseNoWhereTest() {
+		recordAdapter.release(0);
+	}
+		
+	@Test
+	public void arenaTest() {
+		MemoryArena arena = new MemoryArena();
+		SimpleValue record = recordAdapter.create(arena);
+		record.setValue(7);
+		assertEquals(7, record.getValue());
+		
+		RecordSequence<SimpleValue> seq = recordAdapter.array(2, arena);
+		assertEquals(2, seq.size());
+		arena.close();
+	}
+	
+	@Test
+	public void heapArenaTest() {
+		RecordAdapter<SimpleValue> adapter = new RecordAdapter<>(blueprint, new HeapMemoryAdapter());
+		try(MemoryArena arena = new MemoryArena()) {
+			try {
+				adapter.create(arena);
+				fail("heap records must not be created in a native arena");
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+			try {
+				adapter.array(2, arena);
+				fail("heap records must not be created in a native arena");
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+	
+	@Test
+	public void mappedMemoryTest() throws IOException {
+		File file = File.createTempFile("records", ".map");
+		file.delete();
+		try(MappedMemoryAdapter memory = new MappedMemoryAdapter(file, 4096)) {
+			RecordAdapter<SimpleValue> adapter = new RecordAdapter<>(blueprint, memory);
+			assertEquals(memory, adapter.getMemoryAccess());
+			
+			SimpleValue record = adapter.create();
+			record.setValue(9);
+			assertEquals(9, record.getValue());
+			assertEquals(9, memory.getInt(memory.address(memory.offset(((RecordView)record).getRecordId()))));
+		} finally {
+			file.delete();
+		}
+	}
+	
+	@Test
+	public void mappedMemoryReferenceTest() throws IOException {
+		File file = File.createTempFile("records", ".map");
+		file.delete();
+		try(MappedMemoryAdapter memory = new MappedMemoryAdapter(file, 4096)) {
+			
+			// record ids and handles are not valid in the next session
+			for (Class<?> sessionBlueprint : Arrays.asList(LinkValue.class, PayloadValue.class)) {
+				try {
+					new RecordAdapter<>(sessionBlueprint, memory);
+					fail("Records of "+sessionBlueprint.getSimpleName()+" must not be stored in a mapped file");
+				} catch (IllegalArgumentException e) {
+					// expected
+				}
+			}
+		} finally {
+			file.delete();
+		}
+	}
+	
+	@Test
+	public void alignmentTest() {
+		RecordAdapter<CacheLineValue> adapter = new RecordAdapter<>(CacheLineValue.class);
+		assertEquals(64, adapter.getRecordSize());
+		assertEquals(64, adapter.getRecordAlignment());
+		
+		for (int i = 0; i < 10; i++) {
+			CacheLineValue record = adapter.create();
+			assertEquals(0, ((RecordView)record).getRecordId() % 64);
+		}
+		
+		RecordSequence<CacheLineValue> seq = adapter.array(4);
+		for (int i = 0; i < 4; i++) {
+			seq.get(i).setCounter(i);
+			assertEquals(0, ((RecordView)seq.get(i)).getRecordId() % 64);
+		}
+		assertEquals(3, seq.get(3).getCounter());
+	}
+	
+	@Test
+	public void alignedReuseTest() {
+		checkAlignedReuse(new UnsafeMemoryAdapter(new BumpAllocation(4096)));
+		checkAlignedReuse(new UnsafeMemoryAdapter(new SegregatedFitAllocation(4096)));
+		checkAlignedReuse(new UnsafeMemoryAdapter(new BuddyAllocation(4096)));
+		
+		UnsafeMemoryAdapter local = new UnsafeMemoryAdapter(new BumpAllocation(4096));
+		local.setThreadLocalAllocation(true);
+		checkAlignedReuse(local);
+	}
+	
+	/**
+	 * Deleted aligned records leave their block to the next record of the 
+	 * blueprint, consecutive records are not padded.
+	 * 
+	 * @param memory
+	 */
+	protected void checkAlignedReuse(UnsafeMemoryAdapter memory) {
+		RecordAdapter<CacheLineValue> adapter = new RecordAdapter<>(CacheLineValue.class, memory);
+		long first = ((RecordView)adapter.create()).getRecordId();
+		CacheLineValue record = adapter.create();
+		long second = ((RecordView)record).getRecordId();
+		assertEquals(0, first % 64);
+		assertEquals(first + 64, second);
+		
+		final long allocated = memory.allocatedBytes();
+		for (int i = 0; i < 100; i++) {
+			assertTrue(adapter.release(record));
+			record = adapter.create();
+			assertEquals(second, ((RecordView)record).getRecordId());
+			assertEquals(0, record.getCounter());
+			record.setCounter(i + 1);
+		}
+		assertEquals(allocated, memory.allocatedBytes());
+		memory.releaseAll();
+	}
+	
+	@Test
+	public void heapMemoryTest() {
+		HeapMemoryAdapter memory = new HeapMemoryAdapter();
+		RecordAdapter<SimpleValue> adapter = new RecordAdapter<>(blueprint, memory);
+		assertNotEquals(recordAdapter.getRecordClass(), adapter.getRecordClass());
+		
+		SimpleValue record = adapter.create();
+		record.setValue(9);
+		assertEquals(9, record.getValue());
+		assertEquals(9, memory.getInt(((RecordView)record).getRecordId()));
+		
+		// native records are not affected by the heap adapter
+		SimpleValue nativeRecord = recordAdapter.create();
+		nativeRecord.setValue(3);
+		assertEquals(3, nativeRecord.getValue());
+		assertEquals(9, record.getValue());
+		
+		RecordSequence<SimpleValue> seq = adapter.array(3);
+		for (int i = 0; i < 3; i++) 
+			seq.get(i).setValue(i);
+		assertEquals(2, seq.get(2).getValue());
+	}
+	
 	@Test
 	public void blueprintTest() {
 		Class<?> blu = recordAdapter.getBlueprint();
@@ -118,7 +303,7 @@ public class RecordAdapterTest {
 	@Test
 	public void viewByRecordTest() {
 		SimpleValue record2 = recordAdapter.view(record);
-		assertNotEquals(record, record2);
+		assertNotSame(record, record2);
 		
 		long rid = ((RecordView)record).getRecordId();
 		long rid2 = ((RecordView)record2).getRecordId();
@@ -129,7 +314,7 @@ public class RecordAdapterTest {
 	public void viewByRecordIdTest() {
 		long id = ((RecordView)record).getRecordId();
 		SimpleValue record2 = recordAdapter.view(id);
-		assertNotEquals(record, record2);
+		assertNotSame(record, record2);
 		
 		long rid = ((RecordView)record).getRecordId();
 		long rid2 = ((RecordView)record2).getRecordId();
@@ -139,13 +324,48 @@ public class RecordAdapterTest {
 	@Test
 	public void setBlueprintIdTest() {
 		recordAdapter.setBlueprintId(5);
-		long bid = ((RecordView)record).getBlueprintId();
+		long bid = ((RecordView)recordAdapter.view(record)).getBlueprintId();
 		assertEquals(5, bid);
 		
+		// the blueprint id is a constant of the old record view class
+		assertEquals(-1, ((RecordView)record).getBlueprintId());
+		assertNotEquals(record.getClass(), recordAdapter.getRecordClass());
+		
 		recordAdapter.setBlueprintId(-1);
 	}
 	
 	
+	@Test
+	public void staticFinalTest() throws Exception {
+		RecordAdapter<SimpleValue> adapter = new RecordAdapter<>(blueprint, UnsafeMemoryAdapter.getInstance(), 7);
+		Class<?> rClass = adapter.getRecordClass();
+		assertNotEquals(recordAdapter.getRecordClass(), rClass);
+		
+		for (String name : new String[] {"recordSize", "blueprintId", "recordAdapter", "memoryAccess"}) {
+			Field field = rClass.getField(name);
+			assertTrue(Modifier.isStatic(field.getModifiers()) && Modifier.isFinal(field.getModifiers()));
+		}
+		assertEquals(7, rClass.getField("blueprintId").getInt(null));
+		assertSame(adapter, rClass.getField("recordAdapter").get(null));
+		assertSame(UnsafeMemoryAdapter.getInstance(), rClass.getField("memoryAccess").get(null));
+	}
+	
+	@Test
+	public void factoryTest() {
+		RecordView view1 = recordAdapter.newInstance();
+		RecordView view2 = recordAdapter.newInstance();
+		assertNotSame(view1, view2);
+		assertEquals(recordAdapter.getRecordClass(), view1.getClass());
+		assertEquals(recordAdapter.getRecordClass(), view1.newRecordView().getClass());
+		assertEquals(0, view1.getRecordId());
+	}
+	
+	@Test(expected = RecordClassException.class)
+	public void bindOnceTest() {
+		new RecordAdapter<SimpleValue>(blueprint, recordAdapter.getRecordClass());
+	}
+	
+	
 	// ----------------------------------------------------------------------------------
 	// ------------------------------- component tests ----------------------------------
 	// ----------------------------------------------------------------------------------
@@ -0,0 +1,83 @@
+package net.wpm.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.wpm.record.bytes.HeapMemoryAdapter;
+import net.wpm.record.model.TestBlueprint.PackedValue;
+
+/**
+ * Function tests for variables packed into a few bits.
+ *
+ * @author Nico Hezel
+ */
+public class RecordBitFieldTest {
+
+	@Test
+	public void readWriteTest() {
+		checkReadWrite(new RecordAdapter<>(PackedValue.class).create());
+		checkReadWrite(new RecordAdapter<>(PackedValue.class, new HeapMemoryAdapter()).create());
+	}
+
+	@Test
+	public void truncateTest() {
+		PackedValue record = new RecordAdapter<>(PackedValue.class).create();
+		record.setVisible(true);
+
+		// unsigned 12 bit
+		record.setLevel(4095);
+		record.increaseLevel();
+		assertEquals(0, record.getLevel());
+		record.setLevel(-1);
+		assertEquals(4095, record.getLevel());
+
+		// signed 4 bit
+		record.setDelta(7);
+		assertEquals(7, record.getDelta());
+		record.setDelta(8);
+		assertEquals(-8, record.getDelta());
+
+		assertTrue(record.getVisible());
+		assertFalse(record.getSelected());
+	}
+
+	@Test
+	public void compareToTest() {
+		RecordAdapter<PackedValue> adapter = new RecordAdapter<>(PackedValue.class);
+		PackedValue record1 = adapter.create();
+		PackedValue record2 = adapter.create();
+		record1.setDelta(-2);
+		record2.setDelta(1);
+
+		assertTrue(record1.compareTo(record2) < 0);
+		assertTrue(record2.compareTo(record1) > 0);
+		record2.setDelta(-2);
+		assertEquals(0, record1.compareTo(record2));
+	}
+
+	protected void checkReadWrite(PackedValue record) {
+		assertEquals(12, ((RecordView) record).getRecordSize());
+
+		record.setTime(Long.MAX_VALUE);
+		record.setLevel(1234);
+		record.setDelta(-3);
+		record.setSelected(true);
+
+		assertEquals(1234, record.getLevel());
+		assertEquals(-3, record.getDelta());
+		assertFalse(record.getVisible());
+		assertTrue(record.getSelected());
+		assertEquals(Long.MAX_VALUE, record.getTime());
+
+		record.setSelected(false);
+		record.setVisible(true);
+		record.increaseLevel();
+		assertEquals(1235, record.getLevel());
+		assertEquals(-3, record.getDelta());
+		assertTrue(record.getVisible());
+		assertFalse(record.getSelected());
+	}
+}
@@ -0,0 +1,67 @@
+package net.wpm.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.wpm.record.bytes.HeapMemoryAdapter;
+import net.wpm.record.model.TestBlueprint.SensorValue;
+
+/**
+ * Function tests for decimals stored with a different precision.
+ *
+ * @author Nico Hezel
+ */
+public class RecordDecimalTest {
+
+	@Test
+	public void readWriteTest() {
+		checkReadWrite(new RecordAdapter<>(SensorValue.class).create());
+		checkReadWrite(new RecordAdapter<>(SensorValue.class, new HeapMemoryAdapter()).create());
+	}
+
+	@Test
+	public void fixedPointTest() {
+		SensorValue record = new RecordAdapter<>(SensorValue.class).create();
+		record.setPrice(0.1 + 0.2);
+		assertEquals(0.3, record.getPrice(), 0);
+		record.setPrice(19.99996);
+		assertEquals(20.0, record.getPrice(), 0);
+		record.setPrice(-1.23456);
+		assertEquals(-1.2346, record.getPrice(), 0);
+		record.increasePrice();
+		assertEquals(-0.2346, record.getPrice(), 0);
+	}
+
+	@Test
+	public void compareToTest() {
+		RecordAdapter<SensorValue> adapter = new RecordAdapter<>(SensorValue.class);
+		SensorValue record1 = adapter.create();
+		SensorValue record2 = adapter.create();
+		record1.setTemperature(-3f);
+		record2.setTemperature(2f);
+
+		assertTrue(record1.compareTo(record2) < 0);
+		assertTrue(record2.compareTo(record1) > 0);
+		record2.setTemperature(-3f);
+		assertEquals(0, record1.compareTo(record2));
+	}
+
+	protected void checkReadWrite(SensorValue record) {
+		assertEquals(2 + 4 * 2 + 8 + 4, ((RecordView) record).getRecordSize());
+
+		record.setTemperature(21.5f);
+		record.setReadingAt(0, 0.1f);
+		record.setReadingAt(3, 100000f);
+		record.setPrice(1234.5678);
+		record.setRatio(Math.PI);
+
+		assertEquals(21.5f, record.getTemperature(), 0);
+		assertEquals(0.1f, record.getReadingAt(0), 0.0001f);
+		assertEquals(0f, record.getReadingAt(1), 0);
+		assertEquals(Float.POSITIVE_INFINITY, record.getReadingAt(3), 0);
+		assertEquals(1234.5678, record.getPrice(), 0);
+		assertEquals((float)Math.PI, record.getRatio(), 0);
+	}
+}
@@ -0,0 +1,87 @@
+package net.wpm.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.junit.Test;
+
+import net.wpm.record.blueprint.BlueprintVariable;
+import net.wpm.record.bytes.HeapMemoryAdapter;
+import net.wpm.record.model.TestBlueprint;
+import net.wpm.record.model.TestBlueprint.CategoryValue;
+import net.wpm.record.model.TestBlueprint.CodeEnum;
+import net.wpm.record.model.TestBlueprint.PlantEnum;
+
+/**
+ * Function tests for enum variables of different ordinal sizes.
+ *
+ * @author Nico Hezel
+ */
+public class RecordEnumTest {
+
+	@Test
+	public void ordinalSizeTest() {
+		assertEquals(1, BlueprintVariable.of(TestBlueprint.class, "plant", PlantEnum.class).getSizeInBytes());
+		assertEquals(2, BlueprintVariable.of(TestBlueprint.class, "code", CodeEnum.class).getSizeInBytes());
+	}
+
+	@Test
+	public void readWriteTest() {
+		checkReadWrite(new RecordAdapter<>(CategoryValue.class).create());
+		checkReadWrite(new RecordAdapter<>(CategoryValue.class, new HeapMemoryAdapter()).create());
+	}
+
+	@Test
+	public void enumTableTest() throws NoSuchFieldException {
+		final CategoryValue record = new RecordAdapter<>(CategoryValue.class).create();
+		final Field table = record.getClass().getDeclaredField("CodeValues");
+		assertTrue(Modifier.isStatic(table.getModifiers()));
+		assertTrue(Modifier.isFinal(table.getModifiers()));
+		assertEquals(CodeEnum[].class, table.getType());
+
+		record.setCode(CodeEnum.C042);
+		assertSame(record.getCode(), record.getCode());
+	}
+
+	@Test
+	public void compareToTest() {
+		final RecordAdapter<CategoryValue> adapter = new RecordAdapter<>(CategoryValue.class);
+		final CategoryValue record1 = adapter.create();
+		final CategoryValue record2 = adapter.create();
+		record1.setCode(CodeEnum.C010);
+		record2.setCode(CodeEnum.C299);
+
+		assertTrue(record1.compareTo(record2) < 0);
+		assertTrue(record2.compareTo(record1) > 0);
+		record2.setCode(CodeEnum.C010);
+		assertEquals(0, record1.compareTo(record2));
+
+		record1.setPackedCode(CodeEnum.C001);
+		record2.setPackedCode(CodeEnum.C257);
+		assertTrue(record1.compareTo(record2) < 0);
+	}
+
+	protected void checkReadWrite(CategoryValue record) {
+		assertEquals(8, ((RecordView) record).getRecordSize());
+
+		record.setPlant(PlantEnum.Meadow);
+		record.setPackedCode(CodeEnum.C299);
+		record.setCode(CodeEnum.C256);
+		record.setHistoryAt(0, CodeEnum.C128);
+		record.setHistoryAt(1, CodeEnum.C255);
+
+		assertEquals(PlantEnum.Meadow, record.getPlant());
+		assertEquals(CodeEnum.C299, record.getPackedCode());
+		assertEquals(CodeEnum.C256, record.getCode());
+		assertEquals(CodeEnum.C128, record.getHistoryAt(0));
+		assertEquals(CodeEnum.C255, record.getHistoryAt(1));
+
+		record.setPlant(PlantEnum.Tree);
+		assertEquals(PlantEnum.Tree, record.getPlant());
+		assertEquals(CodeEnum.C299, record.getPackedCode());
+	}
+}
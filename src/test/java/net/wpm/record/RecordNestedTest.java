@@ -0,0 +1,73 @@
+package net.wpm.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import net.wpm.record.model.TestBlueprint.CustomerValue;
+import net.wpm.record.model.TestBlueprint.OrderValue;
+
+/**
+ * Function tests for records nested in other records.
+ *
+ * @author Nico Hezel
+ */
+public class RecordNestedTest {
+
+	@BeforeClass
+	public static void setup() {
+		Records.register(OrderValue.class);
+	}
+
+	@Test
+	public void readWriteTest() {
+		final OrderValue order = Records.create(OrderValue.class);
+		order.getCustomer().setId(7);
+		order.getCustomer().getAddress().setZip(10115);
+
+		assertEquals(7, order.getCustomer().getId());
+		assertEquals(10115, order.getCustomer().getAddress().getZip());
+		assertEquals(8 + 4, ((RecordView) order.getCustomer()).getRecordSize());
+	}
+
+	@Test
+	public void flyweightTest() {
+		final RecordAdapter<OrderValue> adapter = new RecordAdapter<>(OrderValue.class);
+		final OrderValue order = adapter.create();
+		final OrderValue other = adapter.create();
+
+		// every record view has its own flyweight, pointed to the nested record on every call
+		final CustomerValue customer = order.getCustomer();
+		assertSame(customer, order.getCustomer());
+		assertSame(customer.getAddress(), order.getCustomer().getAddress());
+		assertNotSame(customer, other.getCustomer());
+
+		order.getContactAt(0).setId(1);
+		order.getContactAt(1).setId(2);
+		assertSame(order.getContactAt(0), order.getContactAt(1));
+		assertEquals(1, order.getContactAt(0).getId());
+		assertEquals(2, order.getContactAt(1).getId());
+
+		// a copy of the customer
+		final CustomerValue contact = new RecordAdapter<>(CustomerValue.class).create();
+		contact.setId(3);
+		contact.getAddress().setZip(80331);
+		order.setContactAt(1, contact);
+		assertEquals(80331, order.getContactAt(1).getAddress().getZip());
+	}
+
+	@Test
+	public void recordAdapterTest() throws NoSuchFieldException {
+		final OrderValue order = Records.create(OrderValue.class);
+		final Field adapter = order.getClass().getDeclaredField("CustomerRecordAdapter");
+		assertTrue(Modifier.isStatic(adapter.getModifiers()));
+		assertTrue(Modifier.isFinal(adapter.getModifiers()));
+	}
+}
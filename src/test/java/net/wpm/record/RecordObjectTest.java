@@ -0,0 +1,205 @@
+package net.wpm.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.wpm.record.bytes.HeapMemoryAdapter;
+import net.wpm.record.bytes.MemoryArena;
+import net.wpm.record.collection.RecordSequence;
+import net.wpm.record.model.TestBlueprint.PayloadValue;
+
+/**
+ * Function tests for java objects attached to records.
+ *
+ * @author Nico Hezel
+ */
+public class RecordObjectTest {
+
+	@Test
+	public void readWriteTest() {
+		checkReadWrite(new RecordAdapter<>(PayloadValue.class));
+		checkReadWrite(new RecordAdapter<>(PayloadValue.class, new HeapMemoryAdapter()));
+	}
+
+	@Test
+	public void handleTest() {
+		final RecordAdapter<PayloadValue> adapter = new RecordAdapter<>(PayloadValue.class);
+		final PayloadValue record = adapter.create();
+
+		// the handle of the variable gets reused
+		record.setPayload("first");
+		record.setPayload("second");
+		assertEquals(1, adapter.getHandleTable().size());
+
+		// null releases the handle
+		record.setPayload(null);
+		assertNull(record.getPayload());
+		assertEquals(0, adapter.getHandleTable().size());
+
+		record.setTagAt(1, 42);
+		adapter.releaseAll();
+		assertEquals(0, adapter.getHandleTable().size());
+	}
+
+	@Test
+	public void copyTest() {
+		final RecordAdapter<PayloadValue> adapter = new RecordAdapter<>(PayloadValue.class);
+		final PayloadValue record = adapter.create();
+		record.setPayload("first");
+		record.setTagAt(0, "red");
+		record.setTagAt(1, 3.5);
+
+		// the copy has its own handles for the same objects
+		final PayloadValue copy = record.copy();
+		assertEquals(6, adapter.getHandleTable().size());
+		copy.setPayload(null);
+		copy.setTagAt(0, "blue");
+		assertEquals("first", record.getPayload());
+		assertEquals("red", record.getTagAt(0));
+		assertEquals(3.5, copy.getTagAt(1));
+
+		// the old handles of the target are released
+		final PayloadValue other = adapter.create();
+		other.setPayload("other");
+		record.copyFrom(other);
+		assertEquals(4, adapter.getHandleTable().size());
+		other.setPayload("changed");
+		assertEquals("other", record.getPayload());
+		assertNull(record.getTagAt(0));
+
+		// copying a record onto itself keeps its objects
+		record.copyFrom(record);
+		assertEquals("other", record.getPayload());
+		assertEquals(4, adapter.getHandleTable().size());
+
+		// sequences get their own handles as well
+		final RecordSequence<PayloadValue> seq = adapter.array(2);
+		seq.set(1, other);
+		other.setPayload(null);
+		assertEquals("changed", seq.get(1).getPayload());
+	}
+
+	@Test
+	public void equalsTest() {
+		final RecordAdapter<PayloadValue> adapter = new RecordAdapter<>(PayloadValue.class);
+		final PayloadValue record = adapter.create();
+		record.setId(7);
+		record.setPayload(new String("first"));
+		record.setTagAt(1, 42);
+
+		// copies have other handles for equal objects
+		final PayloadValue copy = adapter.copy(record);
+		assertEquals(record, copy);
+		assertEquals(record.hashCode(), copy.hashCode());
+		assertTrue(RecordView.contentEquals((RecordView) record, (RecordView) copy));
+		assertEquals(RecordView.contentHashCode((RecordView) record), RecordView.contentHashCode((RecordView) copy));
+
+		// records of another adapter with their own handle table
+		final PayloadValue other = new RecordAdapter<>(PayloadValue.class, new HeapMemoryAdapter()).create();
+		other.setId(7);
+		other.setPayload("first");
+		other.setTagAt(1, 42);
+		assertEquals(record, other);
+		assertEquals(record.hashCode(), other.hashCode());
+
+		copy.setTagAt(1, 43);
+		assertNotEquals(record, copy);
+		assertFalse(RecordView.contentEquals((RecordView) record, (RecordView) copy));
+	}
+
+	@Test
+	public void deleteTest() {
+		final RecordAdapter<PayloadValue> adapter = new RecordAdapter<>(PayloadValue.class);
+		final PayloadValue record = adapter.create();
+		record.setPayload("first");
+		record.setTagAt(1, "second");
+		final PayloadValue copy = adapter.copy(record);
+		assertEquals(4, adapter.getHandleTable().size());
+
+		// deleted records release their handles
+		assertTrue(adapter.release(record));
+		assertEquals(2, adapter.getHandleTable().size());
+		assertEquals("first", copy.getPayload());
+		assertTrue(adapter.release(copy));
+		assertEquals(0, adapter.getHandleTable().size());
+	}
+
+	@Test
+	public void sequenceReleaseTest() {
+		final RecordAdapter<PayloadValue> adapter = new RecordAdapter<>(PayloadValue.class);
+		final RecordSequence<PayloadValue> seq = adapter.array(3);
+		seq.get(0).setPayload("first");
+		seq.get(2).setTagAt(1, "second");
+		assertEquals(2, adapter.getHandleTable().size());
+
+		// the array releases the handles of all its records
+		assertTrue(seq.release());
+		assertEquals(0, adapter.getHandleTable().size());
+		assertFalse(seq.release());
+	}
+
+	@Test
+	public void arenaReleaseTest() {
+		final RecordAdapter<PayloadValue> adapter = new RecordAdapter<>(PayloadValue.class);
+		try(MemoryArena arena = new MemoryArena()) {
+			adapter.create(arena).setPayload("first");
+			adapter.create(arena).setTagAt(0, "second");
+			adapter.array(2, arena).get(1).setPayload("third");
+			assertEquals(3, adapter.getHandleTable().size());
+		}
+		assertEquals(0, adapter.getHandleTable().size());
+
+		// handles of a cleared handle table are not released by the arena
+		final MemoryArena arena = new MemoryArena();
+		adapter.create(arena).setPayload("first");
+		adapter.releaseAll();
+		final PayloadValue record = adapter.create();
+		record.setPayload("second");
+		arena.close();
+		assertEquals(1, adapter.getHandleTable().size());
+		assertEquals("second", record.getPayload());
+	}
+
+	@Test
+	public void toStringTest() {
+		final PayloadValue record = new RecordAdapter<>(PayloadValue.class).create();
+		record.setPayload("text");
+
+		// the order of the variables depends on the reflection of the blueprint methods
+		final String text = record.toString();
+		assertTrue(text.contains("Payload: text"));
+		assertTrue(text.contains("Id: 0"));
+		assertTrue(text.contains("Tag: [null, null]"));
+	}
+
+	protected void checkReadWrite(RecordAdapter<PayloadValue> adapter) {
+		final PayloadValue record = adapter.create();
+		assertEquals(4 + 8 + 2 * 8, ((RecordView) record).getRecordSize());
+		assertNull(record.getPayload());
+
+		final List<String> payload = new ArrayList<>();
+		record.setId(7);
+		record.setPayload(payload);
+		record.setTagAt(0, "red");
+		record.setTagAt(1, 3.5);
+
+		assertEquals(7, record.getId());
+		assertSame(payload, record.getPayload());
+		assertEquals("red", record.getTagAt(0));
+		assertEquals(3.5, record.getTagAt(1));
+
+		final PayloadValue other = adapter.create();
+		other.setPayload("other");
+		assertSame(payload, record.getPayload());
+		assertEquals("other", other.getPayload());
+	}
+}
@@ -0,0 +1,90 @@
+package net.wpm.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.wpm.record.bytes.HeapMemoryAdapter;
+import net.wpm.record.model.TestBlueprint.LinkValue;
+import net.wpm.record.model.TestBlueprint.OwnerValue;
+
+/**
+ * Function tests for variables referencing other records.
+ *
+ * @author Nico Hezel
+ */
+public class RecordReferenceTest {
+
+	@Test
+	public void linkedListTest() {
+		checkLinkedList(new RecordAdapter<>(LinkValue.class));
+		checkLinkedList(new RecordAdapter<>(LinkValue.class, new HeapMemoryAdapter()));
+	}
+
+	@Test
+	public void sharedRecordTest() {
+		Records.register(OwnerValue.class);
+		Records.register(LinkValue.class);
+		final OwnerValue owner = Records.create(OwnerValue.class);
+		final LinkValue first = Records.create(LinkValue.class);
+		final LinkValue second = Records.create(LinkValue.class);
+		assertEquals(8 + 8 + 2 * 8, ((RecordView) first).getRecordSize());
+
+		// both links point to the same owner, nothing gets copied
+		owner.setFirst(first);
+		first.setOwnerAt(0, owner);
+		second.setOwnerAt(1, owner);
+		owner.setId(42);
+		assertEquals(42, first.getOwnerAt(0).getId());
+		assertEquals(42, second.getOwnerAt(1).getId());
+		assertNull(first.getOwnerAt(1));
+
+		// blueprints referencing each other
+		first.setKey(7);
+		assertEquals(7, first.getOwnerAt(0).getFirst().getKey());
+		assertEquals(((RecordView) first).getRecordId(), ((RecordView) owner.getFirst()).getRecordId());
+
+		first.setOwnerAt(0, null);
+		assertNull(first.getOwnerAt(0));
+	}
+
+	@Test
+	public void toStringTest() {
+		final RecordAdapter<LinkValue> adapter = new RecordAdapter<>(LinkValue.class);
+		final LinkValue link = adapter.create();
+		link.setNext(link);
+
+		final long recordId = ((RecordView) link).getRecordId();
+		assertTrue(link.toString().contains("Next: " + recordId));
+	}
+
+	protected void checkLinkedList(RecordAdapter<LinkValue> adapter) {
+		final LinkValue head = adapter.create();
+		LinkValue tail = head;
+		for (int i = 1; i <= 3; i++) {
+			final LinkValue link = adapter.create();
+			link.setKey(i);
+			tail.setNext(link);
+			tail = link;
+		}
+		assertNull(tail.getNext());
+
+		// the flyweight of the head points to the next record on every call
+		final LinkValue next = head.getNext();
+		assertSame(next, head.getNext());
+		assertEquals(1, next.getKey());
+
+		long sum = 0;
+		final LinkValue cursor = adapter.create();
+		for (LinkValue link = head.getNext(cursor); link != null; link = link.getNext(cursor))
+			sum += link.getKey();
+		assertEquals(6, sum);
+
+		// changes are visible through the reference
+		tail.setKey(10);
+		assertEquals(10, head.getNext().getNext().getNext().getKey());
+	}
+}
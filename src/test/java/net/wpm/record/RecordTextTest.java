@@ -0,0 +1,113 @@
+package net.wpm.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.wpm.record.bytes.HeapMemoryAdapter;
+import net.wpm.record.collection.TextSequence;
+import net.wpm.record.model.TestBlueprint.TextValue;
+
+/**
+ * Function tests for texts stored inside of records.
+ *
+ * @author Nico Hezel
+ */
+public class RecordTextTest {
+
+	@Test
+	public void readWriteTest() {
+		checkReadWrite(new RecordAdapter<>(TextValue.class).create());
+		checkReadWrite(new RecordAdapter<>(TextValue.class, new HeapMemoryAdapter()).create());
+	}
+
+	@Test
+	public void flyweightTest() {
+		RecordAdapter<TextValue> adapter = new RecordAdapter<>(TextValue.class);
+		TextValue record1 = adapter.create();
+		TextValue record2 = adapter.create();
+		record1.setSymbol("AAPL");
+		record2.setSymbol("MSFT");
+
+		// the same text view follows the record view
+		TextValue view = adapter.view(((RecordView)record1).getRecordId());
+		CharSequence symbol = view.getSymbol();
+		assertTrue(((TextSequence)symbol).contentEquals("AAPL"));
+		((RecordView)view).setRecordId(((RecordView)record2).getRecordId());
+		assertSame(symbol, view.getSymbol());
+		assertTrue(((TextSequence)symbol).contentEquals("MSFT"));
+		assertEquals("MSFT", ((TextSequence)symbol).appendTo(new StringBuilder()).toString());
+	}
+
+	@Test
+	public void truncateTest() {
+		TextValue record = new RecordAdapter<>(TextValue.class).create();
+		record.setSymbol("ABCDEFGHIJ");
+		assertEquals("ABCDEFGH", record.getSymbol().toString());
+		record.setSymbol("XY");
+		assertEquals("XY", record.getSymbol().toString());
+		assertEquals(2, record.getSymbol().length());
+		record.setSymbol(null);
+		assertEquals(0, record.getSymbol().length());
+
+		// non ascii characters
+		record.setSymbol("\u00e4b");
+		assertEquals("?b", record.getSymbol().toString());
+
+		// 4 characters with up to 3 bytes each fit into 12 bytes
+		record.setName("\u00e4\u20ac\u20ac\u20ac\u20ac");
+		assertEquals("\u00e4\u20ac\u20ac\u20ac", record.getName());
+	}
+
+	@Test
+	public void utf8Test() {
+		HeapMemoryAdapter memory = new HeapMemoryAdapter();
+		TextSequence text = new TextSequence(memory, 12, true);
+		text.setAddress(memory.reserve(TextSequence.LengthBytes + 12));
+		text.set("a\u00e4\uD83D\uDE00");
+
+		assertEquals(7, text.byteLength());
+		assertEquals(4, text.length());
+		assertEquals('\u00e4', text.charAt(1));
+		assertEquals('\uD83D', text.charAt(2));
+		assertEquals('\uDE00', text.charAt(3));
+		assertEquals(0, text.compareTo("a\u00e4\uD83D\uDE00"));
+		assertEquals("a\u00e4\uD83D\uDE00".hashCode(), text.hashCode());
+	}
+	
+	@Test
+	public void equalsCompareTest() {
+		RecordAdapter<TextValue> adapter = new RecordAdapter<>(TextValue.class);
+		TextValue record1 = adapter.create();
+		TextValue record2 = adapter.create();
+		record1.setSymbol("ABCDEF");
+		record1.setSymbol("AB");
+		record2.setSymbol("AB");
+		assertEquals(record1, record2);
+		assertEquals(0, record1.compareTo(record2));
+
+		record2.setSymbol("ABC");
+		assertNotEquals(record1, record2);
+		assertTrue(record1.compareTo(record2) < 0);
+		assertTrue(record1.getSymbol().toString().compareTo("ABC") < 0);
+		assertTrue(((TextSequence)record2.getSymbol()).compareTo("AB") > 0);
+		assertFalse(((TextSequence)record2.getSymbol()).contentEquals("ABD"));		assertEquals("ABC".hashCode(), record2.getSymbol().hashCode());
+	}
+
+	protected void checkReadWrite(TextValue record) {
+		assertEquals(0, record.getSymbol().length());
+		record.setSymbol("IBM");
+		record.setName("\u00fcber");
+		record.setVolume(100);
+
+		assertEquals("IBM", record.getSymbol().toString());
+		assertEquals('B', record.getSymbol().charAt(1));
+		assertEquals("\u00fcber", record.getName());
+		assertEquals(100, record.getVolume());
+		assertTrue(record.toString().contains("IBM"));
+	}
+}
@@ -0,0 +1,118 @@
+package net.wpm.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import net.wpm.record.bytes.HeapMemoryAdapter;
+import net.wpm.record.model.TestBlueprint.ComparableValue;
+import net.wpm.record.model.TestBlueprint.LargeValue;
+import net.wpm.record.model.TestBlueprint.PooledValue;
+import net.wpm.record.model.TestBlueprint.SimpleValue;
+
+/**
+ * Function tests for the generated equals, hashCode and compareTo methods.
+ * 
+ * @author Nico Hezel
+ */
+public class RecordViewTest {
+
+	@Test
+	public void equalsTest() {
+		RecordAdapter<SimpleValue> adapter = new RecordAdapter<>(SimpleValue.class);
+		SimpleValue record1 = adapter.create();
+		SimpleValue record2 = adapter.create();
+		record1.setValue(5);
+		record2.setValue(5);
+		
+		assertEquals(record1, record2);
+		assertEquals(record1.hashCode(), record2.hashCode());
+		
+		record2.setValue(6);
+		assertNotEquals(record1, record2);
+		
+		// same content but different blueprint
+		PooledValue other = new RecordAdapter<>(PooledValue.class).create();
+		other.setValue(5);
+		assertNotEquals(record1, other);
+		assertFalse(record1.equals("5"));
+	}
+	
+	@Test
+	public void emptyViewTest() {
+		RecordAdapter<SimpleValue> adapter = new RecordAdapter<>(SimpleValue.class);
+		SimpleValue empty1 = adapter.view(0);
+		SimpleValue empty2 = adapter.view(0);
+		SimpleValue record = adapter.create();
+		
+		assertEquals(empty1, empty2);
+		assertEquals(0, empty1.hashCode());
+		assertNotEquals(empty1, record);
+		assertNotEquals(record, empty1);
+	}
+	
+	@Test
+	public void memoryTest() {
+		SimpleValue nativeRecord = new RecordAdapter<>(SimpleValue.class).create();
+		SimpleValue heapRecord = new RecordAdapter<>(SimpleValue.class, new HeapMemoryAdapter()).create();
+		nativeRecord.setValue(42);
+		heapRecord.setValue(42);
+		
+		assertEquals(nativeRecord, heapRecord);
+		assertEquals(heapRecord, nativeRecord);
+		assertEquals(nativeRecord.hashCode(), heapRecord.hashCode());
+	}
+	
+	@Test
+	public void hashSetTest() {
+		RecordAdapter<SimpleValue> adapter = new RecordAdapter<>(SimpleValue.class);
+		Set<SimpleValue> set = new HashSet<>();
+		for (int i = 0; i < 10; i++) {
+			SimpleValue record = adapter.create();
+			record.setValue(i % 3);
+			set.add(record);
+		}
+		assertEquals(3, set.size());
+	}
+	
+	@Test
+	public void largeRecordTest() {
+		RecordAdapter<LargeValue> adapter = new RecordAdapter<>(LargeValue.class);
+		LargeValue record1 = adapter.create();
+		LargeValue record2 = adapter.create();
+		record1.setSampleAt(99, 7);
+		record2.setSampleAt(99, 7);
+		
+		assertEquals(record1, record2);
+		assertEquals(record1.hashCode(), record2.hashCode());
+		
+		record2.setSampleAt(98, 1);
+		assertNotEquals(record1, record2);
+	}
+	
+	@Test
+	public void compareToTest() {
+		RecordAdapter<ComparableValue> adapter = new RecordAdapter<>(ComparableValue.class);
+		ComparableValue record1 = adapter.create();
+		ComparableValue record2 = adapter.create();
+		record1.setPriority(1);
+		record1.setTime(100);
+		record2.setPriority(1);
+		record2.setTime(100);
+		assertEquals(0, record1.compareTo(record2));
+		
+		record2.setTime(-5);
+		assertTrue(record1.compareTo(record2) > 0);
+		assertTrue(record2.compareTo(record1) < 0);
+		
+		// the order of the variables decides 
+		record2.setPriority(2);
+		assertTrue(record1.compareTo(record2) < 0);
+	}
+}
@@ -0,0 +1,70 @@
+package net.wpm.record;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import net.wpm.record.model.TestBlueprint.SimpleValue;
+
+public class RecordsStatisticsTest {
+
+	private RecordsStatistics statistics;
+	
+	@Before
+	public void setUp() {
+		Records.register(SimpleValue.class);
+		statistics = RecordsStatistics.getInstance();
+	}
+	
+	@Test
+	public void reservedBytesTest() {
+		long before = statistics.getReservedBytesByBlueprint().get(SimpleValue.class.getName());
+		SimpleValue record = Records.create(SimpleValue.class);
+		long after = statistics.getReservedBytesByBlueprint().get(SimpleValue.class.getName());
+		assertEquals(Records.size(SimpleValue.class), after - before);
+		
+		Records.delete(record);
+		assertEquals(before, (long)statistics.getReservedBytesByBlueprint().get(SimpleValue.class.getName()));
+	}
+	
+	@Test
+	public void allocatorTest() {
+		Records.create(SimpleValue.class);
+		assertTrue(statistics.getBlockCount() > 0);
+		assertTrue(statistics.getAllocatedBytes() >= statistics.getBlockCount());
+		assertTrue(statistics.getFreeListLength() >= 0);
+		assertTrue(statistics.getWastedBytes() >= 0);
+	}
+	
+	@Test
+	public void latencyTest() {
+		statistics.setLatencyTracking(true);
+		try {
+			assertTrue(statistics.isLatencyTracking());
+			for (int i = 0; i < 100; i++) 
+				Records.create(SimpleValue.class);
+			
+			Map<String, Long> percentiles = statistics.getReserveLatencyPercentiles();
+			assertEquals(5, percentiles.size());
+			assertTrue(percentiles.get("p50") <= percentiles.get("max"));
+		} finally {
+			statistics.setLatencyTracking(false);
+		}
+		assertTrue(statistics.getReserveLatencyPercentiles().isEmpty());
+	}
+	
+	@Test
+	public void registerTest() throws Exception {
+		ObjectName name = RecordsStatistics.register();
+		assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+		Object blockCount = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "BlockCount");
+		assertTrue(blockCount instanceof Integer);
+	}
+}
@@ -1,7 +1,10 @@
 package net.wpm.record;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -9,7 +12,10 @@ import org.junit.Test;
 import net.wpm.record.RecordAdapter;
 import net.wpm.record.RecordView;
 import net.wpm.record.Records;
+import net.wpm.record.bytes.MemoryArena;
+import net.wpm.record.bytes.UnsafeMemoryAdapter;
 import net.wpm.record.collection.RecordSequence;
+import net.wpm.record.model.TestBlueprint.PooledValue;
 import net.wpm.record.model.TestBlueprint.SimpleValue;
 
 
@@ -156,6 +162,104 @@ public class RecordsTest {
 		}
 	}
 
+	@Test
+	public void deleteTest() {
+		SimpleValue record1 = Records.create(blueprintId);
+		record1.setValue(7);
+		long id1 = Records.id(record1);
+		
+		Records.delete(record1);
+		assertEquals(0, Records.id(record1));
+		
+		// the memory of the deleted record gets reused
+		SimpleValue record2 = Records.create(blueprintId);
+		assertEquals(id1, Records.id(record2));
+		assertEquals(0, record2.getValue());
+	}
+	
+	@Test
+	public void deleteTwiceTest() {
+		SimpleValue record1 = Records.create(blueprintId);
+		SimpleValue copy = Records.view(record1);
+		long id1 = Records.id(record1);
+		
+		assertTrue(Records.delete(record1));
+		assertFalse(Records.delete(record1));
+		assertFalse(Records.delete(copy));
+		assertEquals(id1, Records.id(copy));
+		
+		// the memory is handed out only once
+		SimpleValue record2 = Records.create(blueprintId);
+		SimpleValue record3 = Records.create(blueprintId);
+		assertEquals(id1, Records.id(record2));
+		assertNotEquals(id1, Records.id(record3));
+	}
+	
+	@Test
+	public void deleteSequenceAndArenaTest() {
+		RecordSequence<SimpleValue> seq = Records.array(blueprint, 3);
+		SimpleValue element = seq.get(1);
+		long elementId = Records.id(element);
+		assertFalse(Records.delete(element));
+		assertEquals(elementId, Records.id(element));
+		
+		try(MemoryArena arena = Records.arena()) {
+			SimpleValue arenaRecord = Records.create(blueprint, arena);
+			long arenaId = Records.id(arenaRecord);
+			assertFalse(Records.delete(arenaRecord));
+			assertEquals(arenaId, Records.id(arenaRecord));
+			
+			// a view of a single record which got repointed into the sequence
+			SimpleValue single = Records.create(blueprintId);
+			seq.get(2, single);
+			assertFalse(Records.delete(single));
+			
+			// no new record lives in the sequence or the arena
+			SimpleValue record1 = Records.create(blueprintId);
+			assertNotEquals(elementId, Records.id(record1));
+			assertNotEquals(arenaId, Records.id(record1));
+		}
+	}
+	
+	@Test
+	public void arenaTest() {
+		try(MemoryArena arena = Records.arena()) {
+			SimpleValue record1 = Records.create(blueprint, arena);
+			SimpleValue record2 = Records.create(blueprintId, arena);
+			record1.setValue(3);
+			record2.setValue(4);
+			assertEquals(Records.id(record1) + Records.size(record1), Records.id(record2));
+			assertEquals(7, record1.getValue() + record2.getValue());
+			
+			RecordSequence<SimpleValue> seq = Records.array(blueprint, 3, arena);
+			for (int i = 0; i < 3; i++) 
+				seq.get(i).setValue(i);
+			
+			int sum = 0;
+			for (SimpleValue record : seq)
+				sum += record.getValue();
+			assertEquals(3, sum);
+		}
+	}
+	
+	@Test
+	public void deleteAllOwnPoolTest() {
+		UnsafeMemoryAdapter pool = new UnsafeMemoryAdapter();
+		int pooledId = Records.register(PooledValue.class, pool);
+		assertEquals(pool, Records.getRecordAdapter(pooledId).getMemoryAccess());
+		
+		SimpleValue shared = Records.create(blueprintId);
+		shared.setValue(5);
+		for (int i = 0; i < 10; i++) 
+			Records.create(PooledValue.class).setValue(i);
+		assertEquals(1, pool.blockCount());
+		
+		// only the pool of the blueprint gets released
+		Records.deleteAll(PooledValue.class);
+		assertEquals(0, pool.blockCount());
+		assertEquals(5, shared.getValue());
+	}
+	
 	@Test
 	public void recordIdTest() {
 		SimpleValue record1 = recordAdapter.create();
@@ -198,7 +302,7 @@ public class RecordsTest {
 	@Test
 	public void viewByRecordTest() {
 		SimpleValue record2 = Records.view(record);
-		assertNotEquals(record, record2);
+		assertNotSame(record, record2);
 		
 		long rid = ((RecordView)record).getRecordId();
 		long rid2 = ((RecordView)record2).getRecordId();
@@ -208,7 +312,7 @@ public class RecordsTest {
 	@Test
 	public void viewByBlueprintIdTest() {
 		SimpleValue record2 = Records.view(blueprintId);
-		assertNotEquals(record, record2);
+		assertNotSame(record, record2);
 		
 		long rid = ((RecordView)record).getRecordId();
 		long rid2 = ((RecordView)record2).getRecordId();
@@ -218,7 +322,7 @@ public class RecordsTest {
 	@Test
 	public void viewByBlueprintTest() {
 		SimpleValue record2 = Records.view(blueprint);
-		assertNotEquals(record, record2);
+		assertNotSame(record, record2);
 		
 		long rid = ((RecordView)record).getRecordId();
 		long rid2 = ((RecordView)record2).getRecordId();
@@ -229,7 +333,7 @@ public class RecordsTest {
 	@Test
 	public void viewByBlueprintAndRecordIdTest() {
 		SimpleValue record2 = Records.view(blueprint, Records.id(record));
-		assertNotEquals(record, record2);
+		assertNotSame(record, record2);
 		
 		long rid = ((RecordView)record).getRecordId();
 		long rid2 = ((RecordView)record2).getRecordId();
@@ -239,7 +343,7 @@ public class RecordsTest {
 	@Test
 	public void viewByBlueprintIdAndRecordIdTest() {
 		SimpleValue record2 = Records.view(blueprintId, Records.id(record));
-		assertNotEquals(record, record2);
+		assertNotSame(record, record2);
 		
 		long rid = ((RecordView)record).getRecordId();
 		long rid2 = ((RecordView)record2).getRecordId();
@@ -251,7 +355,7 @@ public class RecordsTest {
 		SimpleValue record2 = recordAdapter.create();
 		SimpleValue record3 = Records.view(record2, Records.id(record));
 		assertEquals(record2, record3);
-		assertNotEquals(record, record3);
+		assertNotSame(record, record3);
 		
 		long rid = ((RecordView)record).getRecordId();
 		long rid2 = ((RecordView)record2).getRecordId();
@@ -297,7 +401,7 @@ public class RecordsTest {
 	@Test
 	public void viewByAdapterAndRecordIdTest() {
 		SimpleValue record2 = Records.view(recordAdapter, Records.id(record));
-		assertNotEquals(record, record2);
+		assertNotSame(record, record2);
 		
 		long rid = ((RecordView)record).getRecordId();
 		long rid2 = ((RecordView)record2).getRecordId();
@@ -17,8 +17,16 @@ import net.wpm.record.blueprint.BlueprintInspector;
 import net.wpm.record.blueprint.BlueprintMethod;
 import net.wpm.record.blueprint.BlueprintVariable;
 import net.wpm.record.blueprint.BlueprintMethod.ActionType;
+import net.wpm.record.exception.InvalidBlueprintException;
 import net.wpm.record.model.TestBlueprint;
+import net.wpm.record.model.TestBlueprint.AlignedValue;
+import net.wpm.record.model.TestBlueprint.AtomicValue;
+import net.wpm.record.model.TestBlueprint.CacheLineValue;
+import net.wpm.record.model.TestBlueprint.NamedVolatileValue;
+import net.wpm.record.model.TestBlueprint.PackedAtomicValue;
+import net.wpm.record.model.TestBlueprint.PackedValue;
 import net.wpm.record.model.TestBlueprint.SimpleValue;
+import net.wpm.record.model.TestBlueprint.TextValue;
 
 /**
  * Component Test.
@@ -45,6 +53,84 @@ public class BlueprintInspectorTest {
 		assertEquals("SimpleValue", var.getName());
 	}
 	
+	@Test
+	public void alignedLayoutTest() {
+		BlueprintClass blueprintClass = inspect(AlignedValue.class);
+		assertEquals(0, blueprintClass.getVariable("Count").getOffset());
+		assertEquals(8, blueprintClass.getVariable("Kind").getOffset());
+		assertEquals(10, blueprintClass.getVariable("Flag").getOffset());
+		assertEquals(8, blueprintClass.getAlignment());
+		assertEquals(16, blueprintClass.getSizeInBytes());
+		
+		BlueprintClass cacheLineClass = inspect(CacheLineValue.class);
+		assertEquals(64, cacheLineClass.getAlignment());
+		assertEquals(64, cacheLineClass.getSizeInBytes());
+	}
+	
+	@Test
+	public void atomicMethodsTest() {
+		BlueprintClass blueprintClass = inspect(AtomicValue.class);
+		assertEquals(2, blueprintClass.getVariables().size());
+		assertEquals(long.class, blueprintClass.getVariable("Hits").getExternalType());
+		assertEquals(int.class, blueprintClass.getVariable("State").getExternalType());
+		
+		assertEquals(ActionType.GetAndAdd, blueprintClass.getMethod("getAndAddHits(long)").getActionType());
+		assertEquals(ActionType.CompareAndSet, blueprintClass.getMethod("compareAndSetHits(long, long)").getActionType());
+		assertEquals(ActionType.GetValueVolatile, blueprintClass.getMethod("getStateVolatile()").getActionType());
+		assertEquals(ActionType.SetValueOrdered, blueprintClass.getMethod("setStateOrdered(int)").getActionType());
+	}
+	
+	@Test
+	public void atomicOptInTest() {
+		BlueprintClass blueprintClass = inspect(NamedVolatileValue.class);
+		assertEquals(2, blueprintClass.getVariables().size());
+		assertEquals(int.class, blueprintClass.getVariable("LevelVolatile").getExternalType());
+		assertEquals(ActionType.GetValue, blueprintClass.getMethod("getLevelVolatile()").getActionType());
+		assertEquals(ActionType.SetValue, blueprintClass.getMethod("setTimeOrdered(long)").getActionType());
+	}
+	
+	@Test(expected = InvalidBlueprintException.class)
+	public void packedAtomicTest() {
+		inspect(PackedAtomicValue.class);
+	}
+	
+	@Test
+	public void bitFieldLayoutTest() {
+		BlueprintClass blueprintClass = inspect(PackedValue.class);
+		
+		// 12 + 4 + 1 + 1 bits fit into a 4 byte word
+		assertEquals(8 + 4, blueprintClass.getSizeInBytes());
+		BlueprintVariable level = blueprintClass.getVariable("Level");
+		BlueprintVariable delta = blueprintClass.getVariable("Delta");
+		BlueprintVariable visible = blueprintClass.getVariable("Visible");
+		assertTrue(level.isBitField());
+		assertEquals(level.getOffset(), delta.getOffset());
+		assertEquals(level.getOffset(), visible.getOffset());
+		assertEquals(0, level.getBitOffset());
+		assertEquals(12, delta.getBitOffset());
+		assertEquals(int.class, level.getWordType());
+		assertEquals(false, blueprintClass.getVariable("Time").isBitField());
+	}
+	
+	@Test
+	public void textLayoutTest() {
+		BlueprintClass blueprintClass = inspect(TextValue.class);
+		BlueprintVariable symbol = blueprintClass.getVariable("Symbol");
+		BlueprintVariable name = blueprintClass.getVariable("Name");
+		assertTrue(symbol.isText());
+		assertEquals(8, symbol.getTextCapacity());
+		assertTrue(name.isUTF8());
+		assertEquals(12, name.getTextCapacity());
+		assertEquals(10 + 14 + 4, blueprintClass.getSizeInBytes());
+	}
+	
+	@Test
+	public void packedLayoutTest() {
+		BlueprintClass blueprintClass = inspect(SimpleValue.class);
+		assertEquals(1, blueprintClass.getAlignment());
+		assertEquals(4, blueprintClass.getSizeInBytes());
+	}
+	
 	@Test
 	public void variablesTest() {
 		BlueprintClass blueprintClass = inspect(TestBlueprint.class);
@@ -0,0 +1,133 @@
+package net.wpm.record.bytecode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.wpm.codegen.utils.DefiningClassLoader;
+import net.wpm.record.RecordAdapter;
+import net.wpm.record.RecordView;
+import net.wpm.record.blueprint.BlueprintClass;
+import net.wpm.record.blueprint.BlueprintInspector;
+import net.wpm.record.bytecode.RecordClassCache.WriteMode;
+import net.wpm.record.model.TestBlueprint.CacheLineValue;
+import net.wpm.record.model.TestBlueprint.LargeValue;
+
+/**
+ * Component Test.
+ * Record view classes stored on disk.
+ *
+ * @author Nico Hezel
+ */
+public class RecordClassCacheTest {
+
+	protected Path directory;
+	protected Path previousDirectory;
+	protected WriteMode previousWriteMode;
+	protected DefiningClassLoader previousClassLoader;
+	protected Set<String> previousClaimedClassNames;
+
+	@Before
+	public void setup() throws IOException {
+		previousDirectory = RecordClassCache.getDirectory();
+		previousWriteMode = RecordClassCache.getWriteMode();
+		previousClassLoader = RecordClassGenerator.classLoader;
+		previousClaimedClassNames = new HashSet<>(RecordClassGenerator.claimedClassNames);
+
+		// classes generated by other tests must not influence the cache
+		RecordClassGenerator.classLoader = new DefiningClassLoader();
+		RecordClassGenerator.claimedClassNames.clear();
+
+		directory = Files.createTempDirectory("cache");
+		RecordClassCache.setDirectory(directory);
+		RecordClassCache.setWriteMode(WriteMode.Sync);
+	}
+
+	@After
+	public void tearDown() {
+		RecordClassCache.setDirectory(previousDirectory);
+		RecordClassCache.setWriteMode(previousWriteMode);
+		RecordClassGenerator.classLoader = previousClassLoader;
+		RecordClassGenerator.claimedClassNames.clear();
+		RecordClassGenerator.claimedClassNames.addAll(previousClaimedClassNames);
+	}
+
+	@Test
+	public void cacheKeyTest() {
+		final BlueprintClass blueprintClass = new BlueprintInspector(CacheLineValue.class).getBlueprintClass();
+		final RecordClassGenerator direct = new RecordClassGenerator(blueprintClass, true);
+		final RecordClassGenerator indirect = new RecordClassGenerator(blueprintClass, false);
+
+		assertEquals(direct.cacheKey(5), direct.cacheKey(5));
+		assertEquals(direct.cacheKey(0), direct.cacheKey(-1));
+		assertNotEquals(direct.cacheKey(5), direct.cacheKey(6));
+		assertNotEquals(direct.cacheKey(5), indirect.cacheKey(5));
+	}
+
+	@Test
+	public void restartTest() {
+		final BlueprintClass blueprintClass = new BlueprintInspector(CacheLineValue.class).getBlueprintClass();
+		final RecordClassGenerator generator = new RecordClassGenerator(blueprintClass, true);
+		final String key = generator.cacheKey(-1);
+
+		final long misses = RecordClassCache.missCount();
+		final Class<RecordView> first = generator.constructCached(-1);
+		assertEquals(misses + 1, RecordClassCache.missCount());
+		assertTrue(Files.exists(directory.resolve(key + ".class")));
+
+		// the class is bound to a single adapter
+		assertNull(generator.constructCached(-1));
+
+		// a new class loader acts like a restart of the application
+		restart(first);
+		final long hits = RecordClassCache.hitCount();
+		final Class<RecordView> second = generator.constructCached(-1);
+		assertEquals(hits + 1, RecordClassCache.hitCount());
+		assertEquals(first.getName(), second.getName());
+		assertNotSame(first, second);
+
+		final CacheLineValue record = new RecordAdapter<>(CacheLineValue.class, second).create();
+		record.setCounter(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, record.getCounter());
+		assertEquals(64, ((RecordView) record).getRecordSize());
+	}
+
+	@Test
+	public void corruptFileTest() throws IOException {
+		final BlueprintClass blueprintClass = new BlueprintInspector(LargeValue.class).getBlueprintClass();
+		final RecordClassGenerator generator = new RecordClassGenerator(blueprintClass, false);
+		final Path file = directory.resolve(generator.cacheKey(-1) + ".class");
+		Files.write(file, new byte[] { 1, 2, 3 });
+
+		final Class<RecordView> recordViewClass = generator.constructCached(-1);
+		new RecordAdapter<>(LargeValue.class, recordViewClass).create();
+		assertTrue(Files.size(file) > 3);
+	}
+
+	@Test
+	public void writeModeTest() {
+		RecordClassCache.setWriteMode(WriteMode.Off);
+		final BlueprintClass blueprintClass = new BlueprintInspector(CacheLineValue.class).getBlueprintClass();
+		final RecordClassGenerator generator = new RecordClassGenerator(blueprintClass, false);
+
+		generator.constructCached(-1);
+		assertTrue(Files.notExists(directory.resolve(generator.cacheKey(-1) + ".class")));
+	}
+
+	protected void restart(Class<RecordView> recordViewClass) {
+		RecordClassGenerator.classLoader = new DefiningClassLoader();
+		RecordClassGenerator.claimedClassNames.remove(recordViewClass.getName());
+	}
+}
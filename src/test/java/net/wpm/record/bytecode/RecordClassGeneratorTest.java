@@ -1,9 +1,14 @@
 package net.wpm.record.bytecode;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 
 import org.junit.After;
 import org.junit.Before;
@@ -22,8 +27,6 @@ import net.wpm.record.bytes.UnsafeMemoryAdapter;
 import net.wpm.record.model.TestBlueprint;
 import net.wpm.record.model.TestBlueprint.PlantEnum;
 import net.wpm.record.model.TestBlueprint.SimpleValue;
-import net.wpm.reflectasm.ClassAccess;
-import net.wpm.reflectasm.FieldAccess;
 
 /**
  * Component Test.
@@ -54,6 +57,21 @@ public class RecordClassGeneratorTest {
 	 */
 	@SuppressWarnings("unchecked")
 	protected <B> B[] createRecordView(int capacity, Class<B> clazz, BlueprintMethod ... methods) throws InstantiationException, IllegalAccessException {
+		return createRecordView(capacity, clazz, true, methods);
+	}
+	
+	/**
+	 * Create many record views out of the given methods
+	 * 
+	 * @param capacity
+	 * @param directAccess use Unsafe instead of the memory access
+	 * @param methods
+	 * @return
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	@SuppressWarnings("unchecked")
+	protected <B> B[] createRecordView(int capacity, Class<B> clazz, boolean directAccess, BlueprintMethod ... methods) throws InstantiationException, IllegalAccessException {
 		
 		// define the blueprint class
 		BlueprintClass blueprintClass = new BlueprintClass(clazz);
@@ -64,15 +82,12 @@ public class RecordClassGeneratorTest {
 		}
 	
 		// create the record view class
-		RecordClassGenerator classGenerator = new RecordClassGenerator(blueprintClass);
-		Class<RecordView> recordViewClass = classGenerator.construct();
+		RecordClassGenerator classGenerator = new RecordClassGenerator(blueprintClass, directAccess);
+		Class<RecordView> recordViewClass = classGenerator.construct(clazz.getName() + (directAccess ? "" : "Indirect") + "RecordView");
+		
+		// inform the recordView about its buffer 
+		RecordClassGenerator.initialize(recordViewClass, null, memoryAccess);
 		
-		// analyze the generated class
-		ClassAccess classAccess = ClassAccess.get(recordViewClass);
-		FieldAccess fieldAccess = FieldAccess.get(classAccess);
-				
-		// inform the recordView about the adapter and its buffer 
-		fieldAccess.set(null, "memoryAccess", memoryAccess);
 		// instantiate a record object
 		int size = blueprintClass.getSizeInBytes();
 		B[] recordViews =  (B[])Array.newInstance(clazz, capacity);
@@ -153,7 +168,7 @@ public class RecordClassGeneratorTest {
 		TestBlueprint otherRecord = records[1];		
 		record.viewAt(otherRecord);
 		
-		assertNotEquals(record, otherRecord);
+		assertNotSame(record, otherRecord);
 		assertEquals(((RecordView)record).getRecordId(), ((RecordView)otherRecord).getRecordId());
 	}
 	
@@ -170,7 +185,7 @@ public class RecordClassGeneratorTest {
 		otherRecord.setNumber(5);		
 		record.copyFrom(otherRecord);
 		
-		assertNotEquals(record, otherRecord);
+		assertNotSame(record, otherRecord);
 		assertNotEquals(((RecordView)record).getRecordId(), ((RecordView)otherRecord).getRecordId());
 		assertEquals(5, record.getNumber());
 	}
@@ -388,4 +403,37 @@ public class RecordClassGeneratorTest {
 		record.getSimpleValueAt(3, simpleValueRecord);
 		assertEquals(0, simpleValueRecord.getValue());
 	}
+	
+	@Test
+	public void directAccessTest() throws Exception {
+		BlueprintVariable numberVar = BlueprintVariable.of(blueprint, "number", int.class);
+		BlueprintVariable booleanVar = BlueprintVariable.of(blueprint, "boolean", boolean.class);
+		BlueprintMethod[] methods = new BlueprintMethod[] {
+				new BlueprintMethod(TestBlueprint.class, "getNumber", ActionType.GetValue, numberVar),
+				new BlueprintMethod(TestBlueprint.class, "setNumber", ActionType.SetValue, numberVar),
+				new BlueprintMethod(TestBlueprint.class, "getBoolean", ActionType.GetValue, booleanVar)
+		};
+		
+		// the native memory is accessed with a static final Unsafe
+		TestBlueprint direct = createRecordView(1, blueprint, true, methods)[0];
+		Field unsafe = direct.getClass().getDeclaredField("unsafe");
+		assertTrue(Modifier.isStatic(unsafe.getModifiers()) && Modifier.isFinal(unsafe.getModifiers()));
+		
+		// both modes share the same memory layout
+		TestBlueprint indirect = createRecordView(1, blueprint, false, methods)[0];
+		assertNotEquals(direct.getClass(), indirect.getClass());
+		((RecordView)indirect).setRecordId(((RecordView)direct).getRecordId());
+		
+		direct.setNumber(42);
+		assertEquals(42, indirect.getNumber());
+		indirect.setNumber(-7);
+		assertEquals(-7, direct.getNumber());
+		
+		long address = ((RecordView)direct).getRecordId() + booleanVar.getOffset();
+		memoryAccess.setBoolean(address, false);
+		assertFalse(direct.getBoolean());
+		memoryAccess.setBoolean(address, true);
+		assertTrue(direct.getBoolean());
+		assertTrue(indirect.getBoolean());
+	}
 }
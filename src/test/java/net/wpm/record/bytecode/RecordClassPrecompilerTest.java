@@ -0,0 +1,131 @@
+package net.wpm.record.bytecode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.Test;
+
+import net.wpm.record.RecordAdapter;
+import net.wpm.record.RecordView;
+import net.wpm.record.Records;
+import net.wpm.record.blueprint.BlueprintClass;
+import net.wpm.record.blueprint.BlueprintInspector;
+import net.wpm.record.bytes.HeapMemoryAdapter;
+import net.wpm.record.bytes.MemoryAccess;
+import net.wpm.record.bytes.UnsafeMemoryAdapter;
+import net.wpm.record.model.TestBlueprint;
+import net.wpm.record.model.TestBlueprint.PrecompiledValue;
+import net.wpm.record.model.TestBlueprint.SimpleValue;
+
+/**
+ * Component Test.
+ * Record view classes generated ahead of time.
+ *
+ * @author Nico Hezel
+ */
+public class RecordClassPrecompilerTest {
+
+	@Test
+	public void layoutHashTest() {
+		final BlueprintClass first = new BlueprintInspector(PrecompiledValue.class).getBlueprintClass();
+		final BlueprintClass second = new BlueprintInspector(PrecompiledValue.class).getBlueprintClass();
+		final BlueprintClass other = new BlueprintInspector(SimpleValue.class).getBlueprintClass();
+
+		assertEquals(first.layoutHash(), second.layoutHash());
+		assertNotEquals(first.layoutHash(), other.layoutHash());
+		assertEquals(RecordClassGenerator.precompiledClassName(first, true), RecordClassGenerator.precompiledClassName(second, true));
+		assertNotEquals(RecordClassGenerator.precompiledClassName(first, true), RecordClassGenerator.precompiledClassName(first, false));
+	}
+
+	@Test
+	public void nestedRecordTest() throws IOException {
+		final Path outputDir = Files.createTempDirectory("precompiled");
+		assertTrue(RecordClassPrecompiler.precompile(TestBlueprint.class, outputDir).isEmpty());
+	}
+
+	@Test
+	public void precompileTest() throws IOException {
+		final Path outputDir = Files.createTempDirectory("precompiled");
+		final List<Path> classFiles = RecordClassPrecompiler.precompile(PrecompiledValue.class, outputDir);
+		assertEquals(2, classFiles.size());
+
+		checkPrecompiledClass(classFiles.get(0), UnsafeMemoryAdapter.getInstance());
+		checkPrecompiledClass(classFiles.get(1), new HeapMemoryAdapter());
+	}
+
+	/**
+	 * The class files in the class path are used when the blueprint gets registered
+	 *
+	 * @throws IOException
+	 */
+	@Test
+	public void registerTest() throws IOException {
+		final Path outputDir = Paths.get(PrecompiledValue.class.getProtectionDomain().getCodeSource().getLocation().getPath());
+		final List<Path> classFiles = RecordClassPrecompiler.precompile(PrecompiledValue.class, outputDir);
+		try {
+			final int blueprintId = Records.register(PrecompiledValue.class);
+			final PrecompiledValue record = Records.create(PrecompiledValue.class);
+
+			final BlueprintClass blueprintClass = new BlueprintInspector(PrecompiledValue.class).getBlueprintClass();
+			assertEquals(RecordClassGenerator.precompiledClassName(blueprintClass, true), record.getClass().getName());
+			assertEquals(blueprintId, record.blueprintId());
+
+			// the precompiled class is already bound, another adapter generates its own class
+			final RecordAdapter<PrecompiledValue> adapter = new RecordAdapter<>(PrecompiledValue.class);
+			assertNotEquals(record.getClass(), adapter.create().getClass());
+			checkRecords(adapter);
+		} finally {
+			for (Path classFile : classFiles)
+				Files.deleteIfExists(classFile);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	protected void checkPrecompiledClass(Path classFile, MemoryAccess memoryAccess) throws IOException {
+		final Class<? extends RecordView> recordViewClass = (Class<? extends RecordView>) new ClassFileLoader().define(classFile);
+		final RecordAdapter<PrecompiledValue> adapter = new RecordAdapter<>(PrecompiledValue.class, recordViewClass, memoryAccess);
+		assertEquals(-1, adapter.create().blueprintId());
+		checkRecords(adapter);
+	}
+
+	protected void checkRecords(RecordAdapter<PrecompiledValue> adapter) {
+		final PrecompiledValue record = adapter.create();
+		assertEquals(12, ((RecordView) record).getRecordSize());
+		record.setTime(Long.MIN_VALUE);
+		record.setCount(41);
+		record.increaseCount();
+		assertEquals(Long.MIN_VALUE, record.getTime());
+		assertEquals(42, record.getCount());
+
+		final PrecompiledValue other = adapter.create();
+		other.setTime(Long.MIN_VALUE);
+		other.setCount(42);
+		assertEquals(0, record.compareTo(other));
+		other.setCount(43);
+		assertTrue(record.compareTo(other) < 0);
+	}
+
+	/**
+	 * Defines classes from class files
+	 *
+	 * @author Nico Hezel
+	 */
+	protected static class ClassFileLoader extends ClassLoader {
+
+		public ClassFileLoader() {
+			super(RecordClassPrecompilerTest.class.getClassLoader());
+		}
+
+		public Class<?> define(Path classFile) throws IOException {
+			final byte[] bytecode = Files.readAllBytes(classFile);
+			return defineClass(null, bytecode, 0, bytecode.length);
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package net.wpm.record.bytes;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class BuddyAllocationTest {
+
+	private final BuddyAllocation allocation = new BuddyAllocation(256);
+	
+	@After
+	public void tearDown() {
+		allocation.releaseAll();
+	}
+	
+	@Test
+	public void blockSizeTest() {
+		assertEquals(256, allocation.getBlockSize());
+		assertEquals(512, new BuddyAllocation(300).getBlockSize());
+	}
+	
+	@Test
+	public void splitTest() {
+		long address1 = allocation.reserve(30);
+		long address2 = allocation.reserve(30);
+		assertEquals(address1 + 32, address2);
+		
+		// free regions of 64 and 128 bytes are left
+		assertEquals(2, allocation.freeRegionCount());
+		assertEquals(address1 + 128, allocation.reserve(100));
+		assertEquals(1, allocation.blockCount());
+	}
+	
+	@Test
+	public void mergeTest() {
+		long address1 = allocation.reserve(30);
+		long address2 = allocation.reserve(30);
+		allocation.release(address1, 30);
+		allocation.release(address2, 30);
+		
+		// the whole block is free again
+		assertEquals(1, allocation.freeRegionCount());
+		assertEquals(address1, allocation.reserve(256));
+		assertEquals(1, allocation.blockCount());
+	}
+	
+	@Test
+	public void clearTest() {
+		long address = allocation.reserve(8);
+		UnsafeMemoryAdapter.getInstance().setLong(address, 7L);
+		allocation.release(address, 8);
+		
+		assertEquals(address, allocation.reserve(8));
+		assertEquals(0L, UnsafeMemoryAdapter.getInstance().getLong(address));
+	}
+	
+	@Test
+	public void bigRegionTest() {
+		long address = allocation.reserve(1000);
+		assertEquals(1, allocation.blockCount());
+		allocation.release(address, 1000);
+		assertEquals(0, allocation.blockCount());
+	}
+}
@@ -0,0 +1,54 @@
+package net.wpm.record.bytes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class BumpAllocationTest {
+
+	private final BumpAllocation allocation = new BumpAllocation(64);
+	
+	@After
+	public void tearDown() {
+		allocation.releaseAll();
+	}
+	
+	@Test
+	public void reserveTest() {
+		long address1 = allocation.reserve(16);
+		long address2 = allocation.reserve(16);
+		assertEquals(address1 + 16, address2);
+		assertEquals(1, allocation.blockCount());
+		
+		// starts a new block
+		allocation.reserve(40);
+		assertEquals(2, allocation.blockCount());
+	}
+	
+	@Test
+	public void bigRegionTest() {
+		long address = allocation.reserve(100);
+		long next = allocation.reserve(8);
+		assertNotEquals(address + 100, next);
+		assertEquals(2, allocation.blockCount());
+	}
+	
+	@Test
+	public void releaseTest() {
+		long address = allocation.reserve(16);
+		UnsafeMemoryAdapter.getInstance().setLong(address, 7L);
+		allocation.release(address, 16);
+		
+		assertEquals(address, allocation.reserve(16));
+		assertEquals(0L, UnsafeMemoryAdapter.getInstance().getLong(address));
+	}
+	
+	@Test
+	public void releaseAllTest() {
+		allocation.reserve(16);
+		allocation.releaseAll();
+		assertEquals(0, allocation.blockCount());
+	}
+}
@@ -0,0 +1,48 @@
+package net.wpm.record.bytes;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class FreeListsTest {
+
+	@Test
+	public void emptyTest() {
+		FreeLists lists = new FreeLists();
+		assertEquals(0, lists.pop(4));
+		assertEquals(0, lists.count());
+	}
+	
+	@Test
+	public void pushPopTest() {
+		FreeLists lists = new FreeLists();
+		lists.push(100, 4);
+		lists.push(200, 8);
+		lists.push(104, 4);
+		assertEquals(3, lists.count());
+		
+		assertEquals(104, lists.pop(4));
+		assertEquals(100, lists.pop(4));
+		assertEquals(0, lists.pop(4));
+		assertEquals(200, lists.pop(8));
+		assertEquals(0, lists.count());
+	}
+	
+	@Test
+	public void growTest() {
+		FreeLists lists = new FreeLists();
+		for (int i = 1; i <= 100; i++)
+			lists.push(i, 16);
+		for (int i = 100; i >= 1; i--)
+			assertEquals(i, lists.pop(16));
+	}
+	
+	@Test
+	public void clearTest() {
+		FreeLists lists = new FreeLists();
+		lists.push(100, 4);
+		lists.clear();
+		assertEquals(0, lists.count());
+		assertEquals(0, lists.pop(4));
+	}
+}
@@ -0,0 +1,48 @@
+package net.wpm.record.bytes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Component Test.
+ * 
+ * @author Nico Hezel
+ */
+public class HalfFloatTest {
+
+	@Test
+	public void fromFloatTest() {
+		assertEquals((short)0x0000, HalfFloat.fromFloat(0f));
+		assertEquals((short)0x8000, HalfFloat.fromFloat(-0f));
+		assertEquals((short)0x3C00, HalfFloat.fromFloat(1f));
+		assertEquals((short)0xC000, HalfFloat.fromFloat(-2f));
+		assertEquals((short)0x2E66, HalfFloat.fromFloat(0.1f));
+		assertEquals((short)0x3555, HalfFloat.fromFloat(1f/3));
+		assertEquals((short)0x7BFF, HalfFloat.fromFloat(65504f));
+		assertEquals((short)0x0001, HalfFloat.fromFloat(0x1p-24f));
+		assertEquals((short)0x0400, HalfFloat.fromFloat(0x1p-14f));
+		assertEquals((short)0x7C00, HalfFloat.fromFloat(65520f));
+		assertEquals((short)0xFC00, HalfFloat.fromFloat(Float.NEGATIVE_INFINITY));
+	}
+	
+	@Test
+	public void toFloatTest() {
+		assertEquals(1f, HalfFloat.toFloat((short)0x3C00), 0);
+		assertEquals(65504f, HalfFloat.toFloat((short)0x7BFF), 0);
+		assertEquals(0x1p-24f, HalfFloat.toFloat((short)0x0001), 0);
+		assertEquals(-0x1p-14f, HalfFloat.toFloat((short)0x8400), 0);
+		assertEquals(Float.POSITIVE_INFINITY, HalfFloat.toFloat((short)0x7C00), 0);
+		assertTrue(Float.isNaN(HalfFloat.toFloat(HalfFloat.fromFloat(Float.NaN))));
+	}
+	
+	@Test
+	public void roundTripTest() {
+		for (int bits = 0; bits < 0x10000; bits++) {
+			if((bits & 0x7C00) == 0x7C00 && (bits & 0x3FF) != 0)
+				continue; // NaN
+			assertEquals((short)bits, HalfFloat.fromFloat(HalfFloat.toFloat((short)bits)));
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package net.wpm.record.bytes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/**
+ * Unit Test.
+ * Handles of java objects.
+ *
+ * @author Nico Hezel
+ */
+public class HandleTableTest {
+
+	@Test
+	public void storeTest() {
+		final HandleTable table = new HandleTable();
+		assertEquals(0, table.store(null));
+		assertNull(table.get(0));
+
+		final long first = table.store("first");
+		final long second = table.store("second");
+		assertEquals(1, first);
+		assertEquals(2, second);
+		assertEquals("first", table.get(first));
+		assertEquals("second", table.get(second));
+		assertEquals(2, table.size());
+	}
+
+	@Test
+	public void growTest() {
+		final HandleTable table = new HandleTable();
+		final Integer[] values = new Integer[1000];
+		final long[] handles = new long[values.length];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i;
+			handles[i] = table.store(values[i]);
+		}
+		for (int i = 0; i < values.length; i++)
+			assertSame(values[i], table.get(handles[i]));
+	}
+
+	@Test
+	public void releaseTest() {
+		final HandleTable table = new HandleTable();
+		final long first = table.store("first");
+		table.store("second");
+
+		// released handles get reused
+		table.release(first);
+		table.release(first);
+		assertNull(table.get(first));
+		assertEquals(1, table.size());
+		assertEquals(first, table.store("third"));
+		assertEquals(3, table.store("fourth"));
+
+		table.clear();
+		assertEquals(0, table.size());
+		assertEquals(1, table.store("fifth"));
+	}
+
+	@Test
+	public void duplicateTest() {
+		final HandleTable table = new HandleTable();
+		assertEquals(0, table.duplicate(0));
+
+		final long handle = table.store("first");
+		final long copy = table.duplicate(handle);
+		assertNotEquals(handle, copy);
+		assertEquals("first", table.get(copy));
+
+		// the handles are independent
+		table.replace(copy, "second");
+		assertEquals("first", table.get(handle));
+		table.release(handle);
+		assertEquals("second", table.get(copy));
+	}
+
+	@Test
+	public void replaceTest() {
+		final HandleTable table = new HandleTable();
+		final long handle = table.replace(0, "first");
+		assertEquals(handle, table.replace(handle, "second"));
+		assertEquals("second", table.get(handle));
+
+		assertEquals(0, table.replace(handle, null));
+		assertEquals(0, table.size());
+	}
+}
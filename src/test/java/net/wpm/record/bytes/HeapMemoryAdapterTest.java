@@ -0,0 +1,86 @@
+package net.wpm.record.bytes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+public class HeapMemoryAdapterTest {
+
+	@Test
+	public void reserveTest() {
+		HeapMemoryAdapter memory = new HeapMemoryAdapter(64);
+		long address1 = memory.reserve(16);
+		long address2 = memory.reserve(16);
+		assertNotEquals(0, address1);
+		assertEquals(address1 + 16, address2);
+		assertEquals(1, memory.chunkCount());
+		
+		// does not fit into the rest of the chunk
+		memory.reserve(40);
+		assertEquals(2, memory.chunkCount());
+		
+		// bigger than a chunk
+		memory.reserve(100);
+		assertEquals(3, memory.chunkCount());
+		
+		// continues in the regular chunk
+		long address3 = memory.reserve(8);
+		assertEquals(8, memory.chunk(address3).length);
+	}
+	
+	@Test
+	public void primitivesTest() {
+		HeapMemoryAdapter memory = new HeapMemoryAdapter();
+		long address = memory.reserve(32);
+		memory.setBoolean(address, true);
+		memory.setByte(address + 1, (byte) 17);
+		memory.setShort(address + 2, (short) 1007);
+		memory.setInt(address + 4, 100000007);
+		memory.setLong(address + 8, 76132779641317L);
+		memory.setFloat(address + 16, 7.17f);
+		memory.setDouble(address + 24, 0.17);
+		
+		assertEquals(true, memory.getBoolean(address));
+		assertEquals(17, memory.getByte(address + 1));
+		assertEquals(1007, memory.getShort(address + 2));
+		assertEquals(100000007, memory.getInt(address + 4));
+		assertEquals(76132779641317L, memory.getLong(address + 8));
+		assertEquals(7.17f, memory.getFloat(address + 16), 0.001);
+		assertEquals(0.17, memory.getDouble(address + 24), 0.0001);
+	}
+	
+	@Test
+	public void copyTest() {
+		HeapMemoryAdapter memory = new HeapMemoryAdapter(64);
+		long from = memory.reserve(60);
+		long to = memory.reserve(60);
+		memory.setLong(from + 8, 42L);
+		memory.copy(from, to, 60);
+		assertEquals(42L, memory.getLong(to + 8));
+	}
+	
+	@Test
+	public void releaseTest() {
+		HeapMemoryAdapter memory = new HeapMemoryAdapter();
+		long address = memory.reserve(12);
+		memory.setInt(address, 7);
+		memory.release(address, 12);
+		
+		long recycled = memory.reserve(12);
+		assertEquals(address, recycled);
+		assertEquals(0, memory.getInt(recycled));
+	}
+	
+	@Test
+	public void releaseAllTest() {
+		HeapMemoryAdapter memory = new HeapMemoryAdapter();
+		memory.reserve(12);
+		memory.releaseAll();
+		assertEquals(0, memory.chunkCount());
+		
+		long address = memory.reserve(8);
+		memory.setLong(address, 5L);
+		assertEquals(5L, memory.getLong(address));
+	}
+}
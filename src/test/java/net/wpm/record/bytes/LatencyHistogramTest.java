@@ -0,0 +1,39 @@
+package net.wpm.record.bytes;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void emptyTest() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.count());
+		assertEquals(0, histogram.percentile(50));
+	}
+	
+	@Test
+	public void percentileTest() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 90; i++) 
+			histogram.record(10);
+		for (int i = 0; i < 10; i++) 
+			histogram.record(1000);
+		
+		assertEquals(100, histogram.count());
+		assertEquals(15, histogram.percentile(50));
+		assertEquals(15, histogram.percentile(90));
+		assertEquals(1023, histogram.percentile(99));
+		assertEquals(1023, histogram.percentile(100));
+	}
+	
+	@Test
+	public void resetTest() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(0);
+		histogram.record(5);
+		histogram.reset();
+		assertEquals(0, histogram.count());
+	}
+}
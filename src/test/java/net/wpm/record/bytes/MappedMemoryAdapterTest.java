@@ -0,0 +1,120 @@
+package net.wpm.record.bytes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedMemoryAdapterTest {
+
+	protected File file;
+	
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("records", ".map");
+		file.delete();
+	}
+	
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+	
+	@Test
+	public void reserveTest() throws IOException {
+		try(MappedMemoryAdapter memory = new MappedMemoryAdapter(file, 1024)) {
+			long used = memory.used();
+			long address1 = memory.reserve(16);
+			long address2 = memory.reserve(16);
+			assertEquals(address1 + 16, address2);
+			assertEquals(used + 32, memory.used());
+			
+			memory.setLong(address2, 42L);
+			assertEquals(42L, memory.getLong(address2));
+		}
+	}
+	
+	@Test
+	public void segmentTest() throws IOException {
+		try(MappedMemoryAdapter memory = new MappedMemoryAdapter(file, 1024)) {
+			memory.reserve(1000);
+			
+			// does not fit into the first segment anymore
+			long address = memory.reserve(100);
+			assertEquals(1024, memory.offset(address));
+			assertEquals(address, memory.address(1024));
+			assertEquals(1124, memory.used());
+		}
+	}
+	
+	@Test
+	public void reopenTest() throws IOException {
+		long offset;
+		try(MappedMemoryAdapter memory = new MappedMemoryAdapter(file, 1024)) {
+			memory.reserve(1000);
+			long address = memory.reserve(8);
+			memory.setLong(address, 123456789L);
+			offset = memory.offset(address);
+		}
+		
+		// different segment size is ignored, the file keeps its own
+		try(MappedMemoryAdapter memory = new MappedMemoryAdapter(file, 4096)) {
+			assertEquals(123456789L, memory.getLong(memory.address(offset)));
+			assertEquals(offset + 8, memory.used());
+			
+			long address = memory.reserve(8);
+			assertEquals(offset + 8, memory.offset(address));
+		}
+	}
+	
+	@Test
+	public void releaseTest() throws IOException {
+		try(MappedMemoryAdapter memory = new MappedMemoryAdapter(file, 1024)) {
+			long address = memory.reserve(8);
+			memory.setLong(address, 5L);
+			memory.release(address, 8);
+			
+			long reused = memory.reserve(8);
+			assertEquals(address, reused);
+			assertEquals(0L, memory.getLong(reused));
+		}
+	}
+	
+	@Test
+	public void releaseAllTest() throws IOException {
+		try(MappedMemoryAdapter memory = new MappedMemoryAdapter(file, 1024)) {
+			long used = memory.used();
+			long address = memory.reserve(8);
+			memory.setLong(address, 5L);
+			memory.releaseAll();
+			assertEquals(used, memory.used());
+			
+			long reused = memory.reserve(8);
+			assertEquals(address, reused);
+			assertEquals(0L, memory.getLong(reused));
+		}
+	}
+	
+	@Test(expected = IOException.class)
+	public void invalidFileTest() throws IOException {
+		try(FileOutputStream out = new FileOutputStream(file)) {
+			out.write(new byte[32]);
+		}
+		new MappedMemoryAdapter(file).close();
+	}
+	
+	@Test
+	public void offsetTest() throws IOException {
+		try(MappedMemoryAdapter memory = new MappedMemoryAdapter(file, 1024)) {
+			long address = memory.reserve(8);
+			assertNotEquals(0, address);
+			assertEquals(address, memory.address(memory.offset(address)));
+		}
+	}
+}
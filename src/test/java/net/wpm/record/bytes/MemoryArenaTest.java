@@ -0,0 +1,65 @@
+package net.wpm.record.bytes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class MemoryArenaTest {
+
+	@Test
+	public void reserveTest() {
+		MemoryArena arena = new MemoryArena(64);
+		long address1 = arena.reserve(16);
+		long address2 = arena.reserve(16);
+		assertEquals(address1 + 16, address2);
+		assertEquals(64, arena.allocatedBytes());
+		arena.close();
+	}
+	
+	@Test
+	public void newBlockTest() {
+		MemoryArena arena = new MemoryArena(64);
+		arena.reserve(60);
+		arena.reserve(8);
+		assertEquals(128, arena.allocatedBytes());
+		
+		// larger than the block size
+		arena.reserve(100);
+		assertEquals(228, arena.allocatedBytes());
+		arena.close();
+	}
+	
+	@Test
+	public void readWriteTest() {
+		MemoryArena arena = new MemoryArena();
+		long address = arena.reserve(8);
+		arena.setLong(address, 123456789L);
+		assertEquals(123456789L, arena.getLong(address));
+		arena.close();
+	}
+	
+	@Test
+	public void closeTest() {
+		long capacity = UnsafeMemoryAdapter.getInstance().capacity();
+		try(MemoryArena arena = new MemoryArena()) {
+			for (int i = 0; i < 10_000; i++)
+				arena.reserve(16);
+			assertTrue(arena.allocatedBytes() >= 160_000);
+		}
+		assertEquals(capacity, UnsafeMemoryAdapter.getInstance().capacity());
+	}
+	
+	@Test
+	public void reuseAfterCloseTest() {
+		MemoryArena arena = new MemoryArena(64);
+		arena.reserve(16);
+		arena.close();
+		assertEquals(0, arena.allocatedBytes());
+		
+		long address = arena.reserve(16);
+		arena.setInt(address, 5);
+		assertEquals(5, arena.getInt(address));
+		arena.close();
+	}
+}
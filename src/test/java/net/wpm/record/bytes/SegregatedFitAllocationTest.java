@@ -0,0 +1,68 @@
+package net.wpm.record.bytes;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class SegregatedFitAllocationTest {
+
+	private final SegregatedFitAllocation allocation = new SegregatedFitAllocation(256);
+	
+	@After
+	public void tearDown() {
+		allocation.releaseAll();
+	}
+	
+	@Test
+	public void reserveTest() {
+		long address1 = allocation.reserve(16);
+		long address2 = allocation.reserve(16);
+		assertEquals(address1 + 16, address2);
+		assertEquals(1, allocation.blockCount());
+		assertEquals(1, allocation.freeRangeCount());
+	}
+	
+	@Test
+	public void restOfBlockTest() {
+		long address1 = allocation.reserve(200);
+		
+		// does not fit into the rest of 56 bytes
+		long address2 = allocation.reserve(100);
+		assertEquals(2, allocation.blockCount());
+		
+		// fits into the rest of the first block
+		long address3 = allocation.reserve(30);
+		assertEquals(address1 + 200, address3);
+		
+		// fits into the rest of the second block
+		long address4 = allocation.reserve(100);
+		assertEquals(address2 + 100, address4);
+		assertEquals(2, allocation.blockCount());
+	}
+	
+	@Test
+	public void bigRegionTest() {
+		allocation.reserve(1000);
+		assertEquals(1, allocation.blockCount());
+		assertEquals(0, allocation.freeRangeCount());
+	}
+	
+	@Test
+	public void releaseTest() {
+		long address = allocation.reserve(24);
+		UnsafeMemoryAdapter.getInstance().setLong(address, 7L);
+		allocation.release(address, 24);
+		
+		assertEquals(address, allocation.reserve(24));
+		assertEquals(0L, UnsafeMemoryAdapter.getInstance().getLong(address));
+	}
+	
+	@Test
+	public void releaseAllTest() {
+		allocation.reserve(16);
+		allocation.releaseAll();
+		assertEquals(0, allocation.blockCount());
+		assertEquals(0, allocation.freeRangeCount());
+	}
+}
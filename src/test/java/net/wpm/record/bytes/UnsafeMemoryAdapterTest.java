@@ -1,6 +1,10 @@
 package net.wpm.record.bytes;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -96,4 +100,185 @@ public class UnsafeMemoryAdapterTest {
 		double output = memory.getDouble(address);
 		assertEquals(input, output, 0.0001);
 	}
+	
+	@Test
+	public void releaseTest() {
+		long address = memory.reserve(12);
+		memory.setInt(address, 7);
+		memory.release(address, 12);
+		
+		// the next region of the same size reuses the released one
+		long recycled = memory.reserve(12);
+		assertEquals(address, recycled);
+		assertEquals(0, memory.getInt(recycled));
+	}
+	
+	@Test
+	public void allocationStrategyTest() {
+		AllocationStrategy strategy = memory.getAllocationStrategy();
+		try {
+			memory.setAllocationStrategy(new BuddyAllocation(1024));
+			long address1 = memory.reserve(12);
+			long address2 = memory.reserve(12);
+			assertEquals(16, address2 - address1);
+			assertEquals(1024, memory.getAllocationStrategy().getBlockSize());
+		} finally {
+			memory.setAllocationStrategy(strategy);
+		}
+	}
+	
+	@Test
+	public void threadLocalReleaseTest() {
+		memory.setThreadLocalAllocation(true);
+		try {
+			long address = memory.reserve(12);
+			memory.setInt(address, 7);
+			memory.release(address, 12);
+			
+			long recycled = memory.reserve(12);
+			assertEquals(address, recycled);
+			assertEquals(0, memory.getInt(recycled));
+		} finally {
+			memory.setThreadLocalAllocation(false);
+		}
+	}
+	
+	@Test
+	public void threadLocalReserveTest() {
+		memory.setThreadLocalAllocation(true);
+		try {
+			long address1 = memory.reserve(4);
+			long address2 = memory.reserve(4);
+			assertEquals(4, address2-address1);
+			
+			// bigger than a thread local region
+			long address3 = memory.reserve(100_000);
+			long address4 = memory.reserve(4);
+			assertNotEquals(address3, address4);
+		} finally {
+			memory.setThreadLocalAllocation(false);
+		}
+	}
+	
+	@Test
+	public void localBufferSizeTest() {
+		assertEquals(64 * 1024, new UnsafeMemoryAdapter().getLocalBufferSize());
+		
+		UnsafeMemoryAdapter local = new UnsafeMemoryAdapter(new BumpAllocation(4096), 256);
+		local.setThreadLocalAllocation(true);
+		long address1 = local.reserve(200);
+		long address2 = local.reserve(200);
+		assertEquals(256, local.getLocalBufferSize());
+		assertTrue(address2 - address1 >= 200);
+		
+		// the rest of the first region is not big enough for the second record
+		assertEquals(56, local.wastedBytes());
+		local.releaseAll();
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidLocalBufferSizeTest() {
+		new UnsafeMemoryAdapter(new BumpAllocation(4096), 0);
+	}
+	
+	@Test
+	public void threadLocalReleaseAllTest() {
+		memory.setThreadLocalAllocation(true);
+		try {
+			memory.reserve(4);
+			memory.releaseAll();
+			
+			long address = memory.reserve(8);
+			memory.setLong(address, 17L);
+			assertEquals(17L, memory.getLong(address));
+		} finally {
+			memory.setThreadLocalAllocation(false);
+		}
+	}
+	
+	@Test
+	public void threadLocalModeChangeTest() {
+		UnsafeMemoryAdapter local = new UnsafeMemoryAdapter();
+		local.setThreadLocalAllocation(true);
+		long address = local.reserve(24);
+		local.release(address, 24);
+		long freeCount = local.freeCount();
+		
+		// the region released by the thread is moved to the shared pool
+		local.setThreadLocalAllocation(false);
+		assertEquals(freeCount + 1, local.freeCount());
+		assertEquals(address, local.reserve(24));
+		local.releaseAll();
+	}
+	
+	@Test
+	public void threadLocalForeignReleaseTest() throws InterruptedException {
+		final UnsafeMemoryAdapter local = new UnsafeMemoryAdapter();
+		local.setThreadLocalAllocation(true);
+		final long[] addresses = new long[1000];
+		
+		long allocated = 0;
+		for (int round = 0; round < 50; round++) {
+			for (int i = 0; i < addresses.length; i++) 
+				addresses[i] = local.reserve(16);
+			
+			// another thread releases the records of this thread
+			Thread thread = new Thread() {
+				@Override
+				public void run() {
+					for (long address : addresses) 
+						local.release(address, 16);
+				}
+			};
+			thread.start();
+			thread.join();
+			
+			if(round == 0)
+				allocated = local.allocatedBytes();
+		}
+		
+		// the released regions get reused instead of growing the memory
+		assertTrue(local.allocatedBytes() <= allocated * 2);
+		local.releaseAll();
+	}
+	
+	@Test
+	public void threadLocalConcurrentReserveTest() throws InterruptedException {
+		final int threadCount = 4;
+		final int reservations = 10_000;
+		final long[][] addresses = new long[threadCount][reservations];
+		
+		memory.setThreadLocalAllocation(true);
+		try {
+			Thread[] threads = new Thread[threadCount];
+			for (int t = 0; t < threadCount; t++) {
+				final long[] threadAddresses = addresses[t];
+				threads[t] = new Thread() {
+					@Override
+					public void run() {
+						for (int i = 0; i < reservations; i++) {
+							long address = memory.reserve(8);
+							memory.setLong(address, address);
+							threadAddresses[i] = address;
+						}
+					}
+				};
+				threads[t].start();
+			}
+			for (Thread thread : threads) 
+				thread.join();
+		} finally {
+			memory.setThreadLocalAllocation(false);
+		}
+		
+		// every address was reserved only once and still contains its own value 
+		long[] all = new long[threadCount * reservations];
+		for (int t = 0; t < threadCount; t++) 
+			System.arraycopy(addresses[t], 0, all, t * reservations, reservations);
+		Arrays.sort(all);
+		for (int i = 1; i < all.length; i++)
+			assertTrue(all[i] - all[i-1] >= 8);
+		for (long address : all)
+			assertEquals(address, memory.getLong(address));
+	}
 }
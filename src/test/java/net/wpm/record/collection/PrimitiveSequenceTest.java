@@ -0,0 +1,135 @@
+package net.wpm.record.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import net.wpm.record.RecordAdapter;
+import net.wpm.record.bytes.HeapMemoryAdapter;
+import net.wpm.record.exception.InvalidBlueprintException;
+import net.wpm.record.model.TestBlueprint.PlantEnum;
+import net.wpm.record.model.TestBlueprint.SeriesValue;
+
+/**
+ * Component test for sequences over primitive and enum arrays
+ * 
+ * @author Nico Hezel
+ */
+public class PrimitiveSequenceTest {
+
+	@Test
+	public void intSequenceTest() {
+		checkIntSequence(new RecordAdapter<>(SeriesValue.class));
+		checkIntSequence(new RecordAdapter<>(SeriesValue.class, new HeapMemoryAdapter()));
+	}
+	
+	@Test
+	public void cursorTest() {
+		SeriesValue record = new RecordAdapter<>(SeriesValue.class).create();
+		IntSequence.Cursor cursor = record.getSample().cursor();
+		int index = 0;
+		while(cursor.moveNext())
+			cursor.set(index++ * 10);
+		assertEquals(5, index);
+		assertEquals(40, record.getSampleAt(4));
+		
+		// the remaining elements after the first one
+		cursor = record.getSample().cursor();
+		assertTrue(cursor.moveNext());
+		assertEquals(0, cursor.elem());
+		AtomicLong sum = new AtomicLong();
+		cursor.forEachForward(value -> sum.addAndGet(value));
+		assertEquals(10 + 20 + 30 + 40, sum.get());
+		assertFalse(cursor.moveNext());
+	}
+	
+	@Test
+	public void otherTypesTest() {
+		SeriesValue record = new RecordAdapter<>(SeriesValue.class).create();
+		
+		record.getWeight().fill(0.5);
+		record.getWeight().set(2, 1.5);
+		assertArrayEquals(new double[] { 0.5, 0.5, 1.5 }, record.getWeight().toArray(), 0);
+		
+		record.getTime().set(1, Long.MIN_VALUE);
+		assertEquals(Long.MIN_VALUE, record.getTime().get(1));
+		
+		record.getRatio().set(0, 0.25f);
+		assertEquals(0.25f, record.getRatio().get(0), 0);
+		
+		record.getFlag().set(3, (byte) -1);
+		assertArrayEquals(new byte[] { 0, 0, 0, -1 }, record.getFlag().toArray());
+		
+		// neighbouring arrays are not touched
+		assertEquals(0, record.getSample().get(4));
+		assertEquals(0, record.getTime().get(0));
+	}
+	
+	@Test
+	public void enumSequenceTest() {
+		SeriesValue record = new RecordAdapter<>(SeriesValue.class).create();
+		EnumSequence<PlantEnum> plants = record.getPlant();
+		assertEquals(4, plants.size());
+		
+		plants.set(1, PlantEnum.Meadow);
+		plants.set(3, PlantEnum.Flower);
+		assertEquals(PlantEnum.Meadow, record.getPlantAt(1));
+		
+		List<PlantEnum> list = new ArrayList<>();
+		for (PlantEnum plant : plants)
+			list.add(plant);
+		assertEquals(4, list.size());
+		assertEquals(PlantEnum.Tree, list.get(0));
+		assertEquals(PlantEnum.Flower, list.get(3));
+		assertEquals("[Tree, Meadow, Tree, Flower]", plants.toString());
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void outOfBoundsTest() {
+		new RecordAdapter<>(SeriesValue.class).create().getSample().get(5);
+	}
+	
+	@Test(expected = InvalidBlueprintException.class)
+	public void missingArrayTest() {
+		new RecordAdapter<>(NoArrayValue.class);
+	}
+	
+	protected void checkIntSequence(RecordAdapter<SeriesValue> adapter) {
+		SeriesValue record1 = adapter.create();
+		SeriesValue record2 = adapter.create();
+		
+		IntSequence samples = record1.getSample();
+		assertEquals(5, samples.size());
+		for (int i = 0; i < samples.size(); i++) 
+			samples.set(i, i + 1);
+		assertEquals(3, record1.getSampleAt(2));
+		record1.setSampleAt(4, 42);
+		assertEquals(42, samples.get(4));
+		
+		AtomicLong sum = new AtomicLong();
+		samples.forEach(value -> sum.addAndGet(value));
+		assertEquals(1 + 2 + 3 + 4 + 42, sum.get());
+		
+		// the sequence is a flyweight of the record view
+		assertSame(samples, record1.getSample());
+		assertArrayEquals(new int[5], record2.getSample().toArray());
+		assertArrayEquals(new int[] { 1, 2, 3, 4, 42 }, record1.getSample().toArray());
+	}
+	
+	/**
+	 * Sequences are only possible for arrays
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface NoArrayValue {
+		public IntSequence getSample();
+	}
+}
@@ -0,0 +1,121 @@
+package net.wpm.record.collection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import net.wpm.record.RecordAdapter;
+import net.wpm.record.bytes.HeapMemoryAdapter;
+import net.wpm.record.model.TestBlueprint.TradeValue;
+
+/**
+ * Component test of the column kernels
+ *
+ * @author Nico Hezel
+ */
+public class RecordColumnTest {
+
+	@Test
+	public void aggregationTest() {
+		checkAggregations(new RecordAdapter<>(TradeValue.class));
+		checkAggregations(new RecordAdapter<>(TradeValue.class, new HeapMemoryAdapter()));
+	}
+
+	@Test
+	public void histogramTest() {
+		final RecordAdapter<TradeValue> adapter = new RecordAdapter<>(TradeValue.class);
+		final RecordSequence<TradeValue> seq = fill(adapter, 100);
+
+		// quantities are -50 to 49
+		final RecordColumn<TradeValue> quantity = adapter.column("Quantity");
+		assertArrayEquals(new long[] { 25, 25, 25, 25 }, quantity.histogram(seq, -50, 50, 4));
+		assertArrayEquals(new long[] { 10, 10 }, quantity.histogram(seq, 0, 20, 2));
+		assertArrayEquals(new long[] { 20, 20 }, quantity.histogram(seq, 0, 20, new long[] { 10, 10 }));
+
+		// prices are 0.5 to 50
+		assertArrayEquals(new long[] { 1, 1, 1 }, adapter.column("Price").histogram(seq, 1, 2.5, 3));
+		adapter.releaseAll();
+	}
+
+	@Test
+	public void longSumTest() {
+		final RecordAdapter<TradeValue> adapter = new RecordAdapter<>(TradeValue.class);
+		final RecordSequence<TradeValue> seq = adapter.array(3);
+		for (TradeValue trade : seq)
+			trade.setVolume((1L << 58) + 1);
+
+		// a double has no room for the last digits
+		assertEquals(3 * ((1L << 58) + 1), adapter.column("Volume").longSum(seq));
+		assertNotEquals(3 * ((1L << 58) + 1), (long) adapter.column("Volume").sum(seq));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void arrayColumnTest() {
+		new RecordAdapter<>(TradeValue.class).column("Fee");
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void emptyMinTest() {
+		final RecordAdapter<TradeValue> adapter = new RecordAdapter<>(TradeValue.class);
+		adapter.column("Price").min(adapter.array(0));
+	}
+
+	protected void checkAggregations(RecordAdapter<TradeValue> adapter) {
+		final int count = 1000;
+		final RecordSequence<TradeValue> seq = fill(adapter, count);
+
+		final RecordColumn<TradeValue> venue = adapter.column("Venue");
+		assertEquals(-128 * 4 * 250 + (1 + 2 + 3 + 4) * 250, venue.sum(seq), 0);
+		assertEquals(-127, venue.min(seq), 0);
+		assertEquals(-124, venue.max(seq), 0);
+
+		final RecordColumn<TradeValue> lot = adapter.column("Lot");
+		assertEquals(count * 7, lot.sum(seq), 0);
+		assertEquals(7, lot.min(seq), 0);
+
+		final RecordColumn<TradeValue> quantity = adapter.column("Quantity");
+		assertEquals(-50 * count + count * (count - 1) / 2, quantity.sum(seq), 0);
+		assertEquals(-50, quantity.min(seq), 0);
+		assertEquals(count - 51, quantity.max(seq), 0);
+		assertEquals(11, quantity.count(seq, -5, 5));
+
+		// long columns are summed without loosing precision
+		final RecordColumn<TradeValue> volume = adapter.column("Volume");
+		assertEquals((1L << 40) * count + count * (count + 1) / 2, volume.sum(seq), 0);
+		assertEquals((1L << 40) + count, volume.max(seq), 0);
+		assertEquals(-50 * count + count * (count - 1) / 2, quantity.longSum(seq));
+
+		final RecordColumn<TradeValue> weight = adapter.column("Weight");
+		assertEquals(-0.25 * count, weight.sum(seq), 0);
+		assertEquals(-0.25, weight.max(seq), 0);
+		assertEquals(-count / 4, weight.longSum(seq));
+
+		final RecordColumn<TradeValue> price = adapter.column("Price");
+		assertEquals(0.5 * count * (count + 1) / 2, price.sum(seq), 0);
+		assertEquals(0.5, price.min(seq), 0);
+		assertEquals(0.5 * count, price.max(seq), 0);
+		assertEquals(count, price.count(seq, 0, Double.POSITIVE_INFINITY));
+		assertEquals(0, price.count(seq, 1000, 2000));
+
+		adapter.releaseAll();
+	}
+
+	protected RecordSequence<TradeValue> fill(RecordAdapter<TradeValue> adapter, int count) {
+		final RecordSequence<TradeValue> seq = adapter.array(count);
+		for (int i = 0; i < count; i++) {
+			final TradeValue trade = seq.get(i);
+			trade.setVenue((byte) (-128 + i % 4 + 1));
+			trade.setLot((short) 7);
+			trade.setQuantity(i - 50);
+			trade.setVolume((1L << 40) + i + 1);
+			trade.setWeight(-0.25f);
+			trade.setPrice(0.5 * (i + 1));
+			trade.setFeeAt(0, i);
+		}
+		return seq;
+	}
+}
@@ -2,6 +2,7 @@ package net.wpm.record.collection;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
 
 import java.util.Iterator;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -49,7 +50,7 @@ public class RecordSequenceTest {
 	@Test
 	public void getTest() {
 		SimpleValue record5 = seq.get(5);
-		assertNotEquals(record, record5);
+		assertNotSame(record, record5);
 	}
 	
 	@Test
@@ -59,7 +60,7 @@ public class RecordSequenceTest {
 		
 		SimpleValue record3 = seq.get(3);
 		assertEquals(77, record3.getValue());
-		assertNotEquals(record, record3);
+		assertNotSame(record, record3);
 	}
 	
 	@Test
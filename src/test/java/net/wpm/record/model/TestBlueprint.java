@@ -1,6 +1,20 @@
 package net.wpm.record.model;
 
+import net.wpm.record.annotation.Align;
 import net.wpm.record.annotation.Array;
+import net.wpm.record.annotation.Atomic;
+import net.wpm.record.annotation.Decimal;
+import net.wpm.record.annotation.Decimal.Precision;
+import net.wpm.record.annotation.Integer.Signedness;
+import net.wpm.record.annotation.Reference;
+import net.wpm.record.annotation.Text;
+import net.wpm.record.annotation.Text.Encoding;
+import net.wpm.record.collection.ByteSequence;
+import net.wpm.record.collection.DoubleSequence;
+import net.wpm.record.collection.EnumSequence;
+import net.wpm.record.collection.FloatSequence;
+import net.wpm.record.collection.IntSequence;
+import net.wpm.record.collection.LongSequence;
 
 /**
  * Blueprint for components and function tests
@@ -11,6 +25,25 @@ public interface TestBlueprint {
 	
 	public static enum PlantEnum { Tree, Flower, Meadow }
 	
+	// more constants than a byte can address
+	public static enum CodeEnum {
+		C000, C001, C002, C003, C004, C005, C006, C007, C008, C009, C010, C011, C012, C013, C014, C015, C016, C017, C018, C019,
+		C020, C021, C022, C023, C024, C025, C026, C027, C028, C029, C030, C031, C032, C033, C034, C035, C036, C037, C038, C039,
+		C040, C041, C042, C043, C044, C045, C046, C047, C048, C049, C050, C051, C052, C053, C054, C055, C056, C057, C058, C059,
+		C060, C061, C062, C063, C064, C065, C066, C067, C068, C069, C070, C071, C072, C073, C074, C075, C076, C077, C078, C079,
+		C080, C081, C082, C083, C084, C085, C086, C087, C088, C089, C090, C091, C092, C093, C094, C095, C096, C097, C098, C099,
+		C100, C101, C102, C103, C104, C105, C106, C107, C108, C109, C110, C111, C112, C113, C114, C115, C116, C117, C118, C119,
+		C120, C121, C122, C123, C124, C125, C126, C127, C128, C129, C130, C131, C132, C133, C134, C135, C136, C137, C138, C139,
+		C140, C141, C142, C143, C144, C145, C146, C147, C148, C149, C150, C151, C152, C153, C154, C155, C156, C157, C158, C159,
+		C160, C161, C162, C163, C164, C165, C166, C167, C168, C169, C170, C171, C172, C173, C174, C175, C176, C177, C178, C179,
+		C180, C181, C182, C183, C184, C185, C186, C187, C188, C189, C190, C191, C192, C193, C194, C195, C196, C197, C198, C199,
+		C200, C201, C202, C203, C204, C205, C206, C207, C208, C209, C210, C211, C212, C213, C214, C215, C216, C217, C218, C219,
+		C220, C221, C222, C223, C224, C225, C226, C227, C228, C229, C230, C231, C232, C233, C234, C235, C236, C237, C238, C239,
+		C240, C241, C242, C243, C244, C245, C246, C247, C248, C249, C250, C251, C252, C253, C254, C255, C256, C257, C258, C259,
+		C260, C261, C262, C263, C264, C265, C266, C267, C268, C269, C270, C271, C272, C273, C274, C275, C276, C277, C278, C279,
+		C280, C281, C282, C283, C284, C285, C286, C287, C288, C289, C290, C291, C292, C293, C294, C295, C296, C297, C298, C299
+	}
+	
 	@Array(size=3)
 	public int getPlantEnumSize();
 	public PlantEnum getPlantEnum();
@@ -75,5 +108,353 @@ public interface TestBlueprint {
 		public int getValue();
 		public void setValue(int val);
 	}
+	
+	/**
+	 * Blueprint with naturally aligned variables
+	 * 
+	 * @author Nico Hezel
+	 */
+	@Align
+	public static interface AlignedValue {
+		public byte getFlag();
+		public void setFlag(byte flag);
+		public long getCount();
+		public void setCount(long count);
+		public short getKind();
+		public void setKind(short kind);
+	}
+	
+	/**
+	 * Blueprint filling an entire cache line
+	 * 
+	 * @author Nico Hezel
+	 */
+	@Align(64)
+	public static interface CacheLineValue {
+		public long getCounter();
+		public void setCounter(long counter);
+	}
+	
+	/**
+	 * Blueprint stored in its own memory pool
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface PooledValue {
+		public int getValue();
+		public void setValue(int val);
+	}
+	
+	/**
+	 * Blueprint ordered by its priority and time
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface ComparableValue extends Comparable<ComparableValue> {
+		public int getPriority();
+		public void setPriority(int priority);
+		public long getTime();
+		public void setTime(long time);
+	}
+	
+	/**
+	 * Blueprint with more content than the generated equals unrolls
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface LargeValue {
+		@Array(size=100)
+		public int getSampleSize();
+		public long getSampleAt(int index);
+		public void setSampleAt(int index, long sample);
+	}
+	
+	/**
+	 * Blueprint shared between threads, the aligned layout keeps 
+	 * the atomic variables at naturally aligned addresses
+	 * 
+	 * @author Nico Hezel
+	 */
+	@Align(8)
+	public static interface AtomicValue {
+		public long getHits();
+		public void setHits(long hits);
+		@Atomic
+		public long getAndAddHits(long delta);
+		@Atomic
+		public boolean compareAndSetHits(long expected, long hits);
+		
+		public int getState();
+		@Atomic
+		public int getStateVolatile();
+		@Atomic
+		public void setStateOrdered(int state);
+		@Atomic
+		public boolean compareAndSetState(int expected, int state);
+		@Atomic
+		public int getAndAddState(int delta);
+	}
+	
+	/**
+	 * Blueprint with an atomic method in a packed layout
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface PackedAtomicValue {
+		public byte getFlag();
+		public void setFlag(byte flag);
+		@Atomic
+		public boolean compareAndSetHits(long expected, long hits);
+	}
+	
+	/**
+	 * Blueprint with regular variables whose names end like atomic methods
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface NamedVolatileValue {
+		public int getLevelVolatile();
+		public void setLevelVolatile(int level);
+		public void setTimeOrdered(long time);
+		public long getTimeOrdered();
+	}
+	
+	/**
+	 * Blueprint with bit fields sharing a single word
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface PackedValue extends Comparable<PackedValue> {
+		@net.wpm.record.annotation.Integer(bit=12, signedness=Signedness.Unsigned)
+		public int getLevel();
+		public void setLevel(int level);
+		public void increaseLevel();
+		
+		@net.wpm.record.annotation.Integer(bit=4)
+		public int getDelta();
+		public void setDelta(int delta);
+		
+		@net.wpm.record.annotation.Integer(bit=1)
+		public boolean getVisible();
+		public void setVisible(boolean visible);
+		
+		@net.wpm.record.annotation.Integer(bit=1)
+		public boolean getSelected();
+		public void setSelected(boolean selected);
+		
+		public long getTime();
+		public void setTime(long time);
+	}
+	
+	/**
+	 * Blueprint with texts stored inside the record
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface TextValue extends Comparable<TextValue> {
+		@Text(maxSize=8)
+		public CharSequence getSymbol();
+		public void setSymbol(CharSequence symbol);
+		
+		@Text(maxSize=4, encoding=Encoding.UTF8)
+		public String getName();
+		public void setName(String name);
+		
+		public int getVolume();
+		public void setVolume(int volume);
+	}
+	
+	/**
+	 * Blueprint with decimals stored in less or exact precision
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface SensorValue extends Comparable<SensorValue> {
+		@Decimal(precision=Precision.Half)
+		public float getTemperature();
+		public void setTemperature(float temperature);
+		
+		@Array(size=4)
+		@Decimal(precision=Precision.Half)
+		public int getReadingSize();
+		public float getReadingAt(int index);
+		public void setReadingAt(int index, float reading);
+		
+		@Decimal(precision=Precision.Fixed, scale=4)
+		public double getPrice();
+		public void setPrice(double price);
+		public void increasePrice();
+		
+		@Decimal(precision=Precision.Single)
+		public double getRatio();
+		public void setRatio(double ratio);
+	}
+	
+	/**
+	 * Blueprint whose record view classes are generated ahead of time
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface PrecompiledValue extends Comparable<PrecompiledValue> {
+		public long getTime();
+		public void setTime(long time);
+		public int getCount();
+		public void setCount(int count);
+		public void increaseCount();
+		
+		public int blueprintId();
+	}
+	
+	/**
+	 * Blueprint with arrays accessed as sequences
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface SeriesValue {
+		@Array(size=5)
+		public IntSequence getSample();
+		public int getSampleAt(int index);
+		public void setSampleAt(int index, int sample);
+		
+		@Array(size=3)
+		public DoubleSequence getWeight();
+		
+		@Array(size=2)
+		public LongSequence getTime();
+		
+		@Array(size=2)
+		public FloatSequence getRatio();
+		
+		@Array(size=4)
+		public ByteSequence getFlag();
+		
+		@Array(size=4)
+		public EnumSequence<PlantEnum> getPlant();
+		public PlantEnum getPlantAt(int index);
+	}
+	
+	/**
+	 * Blueprint with enums of different ordinal sizes
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface CategoryValue extends Comparable<CategoryValue> {
+		@net.wpm.record.annotation.Integer(bit=2)
+		public PlantEnum getPlant();
+		public void setPlant(PlantEnum plant);
+		
+		@net.wpm.record.annotation.Integer(bit=9)
+		public CodeEnum getPackedCode();
+		public void setPackedCode(CodeEnum code);
+		
+		public CodeEnum getCode();
+		public void setCode(CodeEnum code);
+		
+		@Array(size=2)
+		public CodeEnum getHistoryAt(int index);
+		public void setHistoryAt(int index, CodeEnum code);
+	}
+	
+	/**
+	 * Blueprints nesting other records
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface AddressValue {
+		public int getZip();
+		public void setZip(int zip);
+	}
+	
+	public static interface CustomerValue {
+		public long getId();
+		public void setId(long id);
+		
+		public AddressValue getAddress();
+	}
+	
+	public static interface OrderValue {
+		public CustomerValue getCustomer();
+		
+		@Array(size=2)
+		public CustomerValue getContactAt(int index);
+		public void setContactAt(int index, CustomerValue contact);
+	}
+	
+	/**
+	 * Blueprints referencing records of their own and of each other
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface LinkValue {
+		public long getKey();
+		public void setKey(long key);
+		
+		@Reference
+		public LinkValue getNext();
+		public LinkValue getNext(LinkValue with);
+		public void setNext(LinkValue next);
+		
+		@Reference
+		@Array(size=2)
+		public OwnerValue getOwnerAt(int index);
+		public void setOwnerAt(int index, OwnerValue owner);
+	}
+	
+	public static interface OwnerValue {
+		public int getId();
+		public void setId(int id);
+		
+		@Reference
+		public LinkValue getFirst();
+		public void setFirst(LinkValue first);
+	}
+	
+	/**
+	 * Blueprint with java objects attached to the record
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface PayloadValue {
+		public int getId();
+		public void setId(int id);
+		
+		public Object getPayload();
+		public void setPayload(Object payload);
+		
+		@Array(size=2)
+		public Object getTagAt(int index);
+		public void setTagAt(int index, Object tag);
+		
+		public PayloadValue copy();
+		public void copyFrom(PayloadValue other);
+	}
+	
+	/**
+	 * Blueprint with number columns of every size
+	 * 
+	 * @author Nico Hezel
+	 */
+	public static interface TradeValue {
+		public byte getVenue();
+		public void setVenue(byte venue);
+		
+		public short getLot();
+		public void setLot(short lot);
+		
+		public int getQuantity();
+		public void setQuantity(int quantity);
+		
+		public long getVolume();
+		public void setVolume(long volume);
+		
+		public float getWeight();
+		public void setWeight(float weight);
+		
+		public double getPrice();
+		public void setPrice(double price);
+		
+		@Array(size=2)
+		public int getFeeAt(int index);
+		public void setFeeAt(int index, int fee);
+	}
 }
-
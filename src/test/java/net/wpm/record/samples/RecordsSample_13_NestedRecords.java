@@ -81,7 +81,7 @@ public class RecordsSample_13_NestedRecords {
 		public int getNumber();
 		public void setNumber(int number);
 		
-		// create a new record view pointing to the nested record Bar
+		// the record view of Sample13 keeps a Bar record view and points it to the nested record
 		public Bar getBar();
 		
 		// reuse an existing Bar record view